@@ -21,6 +21,7 @@ import org.gearvrf.GVRContext;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTransform;
+import org.gearvrf.GVRVertexBuffer;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
@@ -38,7 +39,12 @@ import java.util.ArrayList;
  * having an emitRate number of vertices is added to the emitter as a child.
  * These vertices act as the particles of the system. Consequently, all those
  * children objects which have exceeded their age limits are deleted every second.
- *
+ * <p>
+ * In ring buffer mode (see {@link #setRingBufferMode(boolean)}) the emitter
+ * instead keeps a single child with a mesh large enough to hold all the
+ * particles alive at once. New particles overwrite the oldest ones in place
+ * so the whole system is drawn with one draw call and nothing is allocated
+ * when particles are emitted.
  */
 
 class GVREmitter extends GVRSceneObject {
@@ -82,6 +88,16 @@ class GVREmitter extends GVRSceneObject {
 
     private float currTime = 0;
     ArrayList<Integer> idxsToDelete;
+
+    //ring buffer mode: a single particle mesh whose oldest particles are overwritten.
+    //The bounding volume particles are kept after the last ring slot.
+    private boolean mRingBufferMode = false;
+    private Particles mRingParticles = null;
+    private GVRSceneObject mRingObject = null;
+    private GVRVertexBuffer mRingVertices = null;
+    private float[] mRingBoundingVolume = null;
+    private int mRingSize = 0;
+    private int mRingIndex = 0;
     
     public GVREmitter(GVRContext gvrContext)
     {
@@ -162,6 +178,11 @@ class GVREmitter extends GVRSceneObject {
     private void emit(float[] particlePositions, float[] particleVelocities,
                       float[] particleTimeStamps)
     {
+        if (mRingBufferMode)
+        {
+            emitToRing(particlePositions, particleVelocities, particleTimeStamps);
+            return;
+        }
         float[] allParticlePositions = new float[particlePositions.length + particleBoundingVolume.length];
         System.arraycopy(particlePositions, 0, allParticlePositions, 0, particlePositions.length);
         System.arraycopy(particleBoundingVolume, 0, allParticlePositions,
@@ -189,6 +210,119 @@ class GVREmitter extends GVRSceneObject {
     }
 
 
+    /**
+     * Copy the new particles over the oldest ones in the ring buffer mesh.
+     * Only the vertices which change are updated so a burst does not
+     * allocate or upload the whole mesh. The mesh is made the first time
+     * and made again if the emit rate or particle age no longer fit.
+     *
+     * @param particlePositions
+     * @param particleVelocities
+     * @param particleTimeStamps
+     */
+
+    private void emitToRing(float[] particlePositions, float[] particleVelocities,
+                            float[] particleTimeStamps)
+    {
+        int numParticles = particleTimeStamps.length / 2;
+
+        // A burst is emitted a bit more than every second and its particles
+        // are alive for up to one second plus their age after that
+        int ringSize = mEmitRate * ((int) Math.ceil(mMaxAge) + 1);
+
+        if (mRingObject == null || mRingSize != ringSize)
+        {
+            makeRing(ringSize);
+        }
+        else
+        {
+            mRingParticles.setProperties(mMaxAge, mParticleSize, mEnvironmentAcceleration,
+                    mParticleSizeRate, mFadeWithAge, mParticleTexture, mColor, mNoiseFactor);
+        }
+        if (mRingBoundingVolume != particleBoundingVolume)
+        {
+            mRingBoundingVolume = particleBoundingVolume;
+            mRingVertices.setFloatArrayRange("a_position", particleBoundingVolume, 0,
+                    mRingSize, particleBoundingVolume.length / 3);
+        }
+        numParticles = Math.min(numParticles, mRingSize);
+        int first = Math.min(numParticles, mRingSize - mRingIndex);
+        writeToRing(particlePositions, particleVelocities, particleTimeStamps, 0, mRingIndex, first);
+        if (first < numParticles)
+        {
+            writeToRing(particlePositions, particleVelocities, particleTimeStamps, first, 0, numParticles - first);
+        }
+        mRingIndex = (mRingIndex + numParticles) % mRingSize;
+    }
+
+    private void writeToRing(float[] particlePositions, float[] particleVelocities,
+                             float[] particleTimeStamps, int srcIndex, int destIndex, int count)
+    {
+        mRingVertices.setFloatArrayRange("a_position", particlePositions, srcIndex * 3, destIndex, count);
+        mRingVertices.setFloatArrayRange("a_normal", particleVelocities, srcIndex * 3, destIndex, count);
+        mRingVertices.setFloatArrayRange("a_texcoord", particleTimeStamps, srcIndex * 2, destIndex, count);
+    }
+
+    /**
+     * Make the ring buffer mesh with room for the given number of particles
+     * followed by the bounding volume particles. All the particles
+     * start out with very large spawning times so they are discarded
+     * until they are emitted.
+     */
+
+    private void makeRing(int ringSize)
+    {
+        int numVerts = ringSize + particleBoundingVolume.length / 3;
+        float[] positions = new float[numVerts * 3];
+        float[] velocities = new float[numVerts * 3];
+        float[] spawnTimes = new float[numVerts * 2];
+
+        for (int i = 0; i < numVerts * 2; i += 2)
+        {
+            spawnTimes[i] = Float.MAX_VALUE;
+        }
+        System.arraycopy(particleBoundingVolume, 0, positions, ringSize * 3, particleBoundingVolume.length);
+        removeRing();
+        mRingParticles = new Particles(mGVRContext, mMaxAge,
+                mParticleSize, mEnvironmentAcceleration, mParticleSizeRate, mFadeWithAge,
+                mParticleTexture, mColor, mNoiseFactor);
+        mRingObject = mRingParticles.makeParticleMesh(positions, velocities, spawnTimes);
+        mRingObject.getRenderData().getMaterial().setFloat("u_time", currTime);
+        mRingVertices = mRingObject.getRenderData().getMesh().getVertexBuffer();
+        mRingBoundingVolume = particleBoundingVolume;
+        mRingSize = ringSize;
+        mRingIndex = 0;
+        this.addChildObject(mRingObject);
+    }
+
+    private void removeRing()
+    {
+        if (mRingObject != null)
+        {
+            this.removeChildObject(mRingObject);
+        }
+        mRingParticles = null;
+        mRingObject = null;
+        mRingVertices = null;
+        mRingBoundingVolume = null;
+        mRingSize = 0;
+        mRingIndex = 0;
+    }
+
+    /**
+     * Returns the given array if it has the requested size, else a new one.
+     * Used to generate the particles of every burst into the same arrays.
+     */
+
+    protected static float[] reuseArray(float[] array, int size)
+    {
+        if ((array != null) && (array.length == size))
+        {
+            return array;
+        }
+        return new float[size];
+    }
+
     /**
      * Create a bouding volume for the particle system centered at its position with
      * the specified width, height and depth. This is important to do because the parent scene
@@ -245,6 +379,10 @@ class GVREmitter extends GVRSceneObject {
             GVRSceneObject obj = meshInfo.get(i).first;
             obj.getRenderData().getMaterial().setFloat("u_time", time);
         }
+        if (mRingObject != null)
+        {
+            mRingObject.getRenderData().getMaterial().setFloat("u_time", time);
+        }
     }
 
     /**
@@ -344,6 +482,45 @@ class GVREmitter extends GVRSceneObject {
         burstMode = mode;
     }
 
+    /**
+     * Enable or disable the ring buffer mode.
+     * <p>
+     * By default a new particle mesh is made every second and
+     * discarded once all its particles are too old. In ring buffer mode
+     * the emitter keeps one mesh with room for (emit rate * (age + 1))
+     * particles and copies each new set of particles over the oldest ones,
+     * updating only the vertices which changed. The particles of the emitter
+     * are drawn with a single draw call and emitting does not allocate memory.
+     * This is a better choice for emitters which run for a long time.
+     * Particles already emitted in the other mode are kept until they expire.
+     * @param enable true to reuse a single particle mesh, false to make a mesh every second.
+     */
+    public void setRingBufferMode(final boolean enable)
+    {
+        if (null != mGVRContext) {
+            mGVRContext.runOnGlThread(new Runnable() {
+
+                @Override
+                public void run() {
+                    mRingBufferMode = enable;
+                    if (!enable)
+                    {
+                        removeRing();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * @return true if the emitter reuses a single particle mesh.
+     * @see #setRingBufferMode(boolean)
+     */
+    public boolean isRingBufferMode()
+    {
+        return mRingBufferMode;
+    }
+
     /**
      * @param tex Texture of the particle.
      */
@@ -385,6 +562,8 @@ class GVREmitter extends GVRSceneObject {
         {
             this.removeChildObject(this.getChildByIndex(0));
         }
+        mRingObject = null;
+        removeRing();
     }
 
 }
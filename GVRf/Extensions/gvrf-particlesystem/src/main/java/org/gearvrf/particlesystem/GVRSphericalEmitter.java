@@ -55,7 +55,7 @@ public class GVRSphericalEmitter extends GVREmitter{
      */
     private float[] generateParticlePositions()
     {
-        float[] positions = new float[mEmitRate * 3];
+        float[] positions = reuseArray(mParticlePositions, mEmitRate * 3);
 
         for ( int i = 0; i < mEmitRate * 3; i += 3 )
         {
@@ -85,7 +85,7 @@ public class GVRSphericalEmitter extends GVREmitter{
 
     private float[] generateParticleTimeStamps(float totalTime)
     {
-        float timeStamps[] = new float[mEmitRate * 2];
+        float timeStamps[] = reuseArray(mParticleGenTimes, mEmitRate * 2);
 
         if ( burstMode ) {
             for (int i = 0; i < mEmitRate * 2; i += 2) {
@@ -112,7 +112,7 @@ public class GVRSphericalEmitter extends GVREmitter{
      */
     private float[] generateParticleVelocities()
     {
-        float [] particleVelocities = new float[mEmitRate * 3];
+        float [] particleVelocities = reuseArray(mParticleVelocities, mEmitRate * 3);
         Vector3f temp = new Vector3f(0,0,0);
         for ( int i = 0; i < mEmitRate * 3 ; i +=3 )
         {
@@ -89,20 +89,11 @@ class Particles {
 
         particleID = new GVRShaderId(ParticleShader.class);
         material = new GVRMaterial(mGVRContext, particleID);
-
-        material.setVec4("u_color", mColorMultiplier.x, mColorMultiplier.y,
-                mColorMultiplier.z, mColorMultiplier.w);
-        material.setFloat("u_particle_age", mAge);
-        material.setVec3("u_acceleration", mAcceleration.x, mAcceleration.y, mAcceleration.z);
-        material.setFloat("u_particle_size", mSize);
-        material.setFloat("u_size_change_rate", mParticleSizeRate);
-        material.setFloat("u_fade", mFadeWithAge);
-        material.setFloat("u_noise_factor", mNoiseFactor);
+        updateMaterial();
 
         GVRRenderData renderData = new GVRRenderData(mGVRContext);
         renderData.setMaterial(material);
         renderData.setMesh(mParticleMesh);
-        material.setMainTexture(mTexture);
 
         GVRSceneObject meshObject = new GVRSceneObject(mGVRContext);
         meshObject.attachRenderData(renderData);
@@ -121,4 +112,40 @@ class Particles {
 
         return meshObject;
     }
+
+    /**
+     * Changes the particle properties of a mesh which has already been made.
+     * Used by emitters which keep the same particle mesh for their lifetime.
+     * @see #makeParticleMesh(float[], float[], float[])
+     */
+    void setProperties(float age, float particleSize,
+                       Vector3f acceleration, float particleSizeRate, boolean fadeWithAge,
+                       GVRTexture tex, Vector4f color, float noiseFactor)
+    {
+        mAge = age;
+        mSize = particleSize;
+        mAcceleration = acceleration;
+        mParticleSizeRate = particleSizeRate;
+        mColorMultiplier = color;
+        mFadeWithAge = fadeWithAge ? 1.0f : 0.0f;
+        mTexture = tex;
+        mNoiseFactor = noiseFactor;
+        if (material != null)
+        {
+            updateMaterial();
+        }
+    }
+
+    private void updateMaterial()
+    {
+        material.setVec4("u_color", mColorMultiplier.x, mColorMultiplier.y,
+                mColorMultiplier.z, mColorMultiplier.w);
+        material.setFloat("u_particle_age", mAge);
+        material.setVec3("u_acceleration", mAcceleration.x, mAcceleration.y, mAcceleration.z);
+        material.setFloat("u_particle_size", mSize);
+        material.setFloat("u_size_change_rate", mParticleSizeRate);
+        material.setFloat("u_fade", mFadeWithAge);
+        material.setFloat("u_noise_factor", mNoiseFactor);
+        material.setMainTexture(mTexture);
+    }
 }
@@ -21,6 +21,7 @@ import android.util.LongSparseArray;
 import org.gearvrf.GVRComponent;
 import org.gearvrf.GVRComponentGroup;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRDrawFrameListener;
 import org.gearvrf.GVREventReceiver;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRSceneObject.ComponentVisitor;
@@ -31,6 +32,9 @@ import org.gearvrf.ISceneObjectEvents;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Represents a physics world where all {@link GVRSceneObject} with {@link GVRRigidBody} component
  * attached to are simulated.
@@ -57,6 +61,26 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
     private final PhysicsDragger mPhysicsDragger;
     private GVRRigidBody mRigidBodyDragMe = null;
 
+    /*
+     * Collisions are copied by the native world into this buffer
+     * (@see NativePhysics3DWorld.readCollisions) and read in place.
+     */
+    private static final int COLLISION_RECORD_SIZE = 40;
+    private static final int COLLISION_BUFFER_CAPACITY = 256;
+    private final ByteBuffer mCollisionBuffer = ByteBuffer.allocateDirect(COLLISION_RECORD_SIZE * COLLISION_BUFFER_CAPACITY)
+                                                          .order(ByteOrder.nativeOrder());
+    private final Object mCollisionListenersLock = new Object();
+    private volatile ICollisionListener[] mCollisionListeners = new ICollisionListener[0];
+    private volatile boolean mCollisionEventsEnabled = true;
+
+    private volatile float mFixedTimeStep = 0;
+    private boolean mInterpolating = false;
+    private volatile int mMaxFixedSubSteps = 1;
+    private volatile long mInterpolationStart = 0;
+    private volatile float mLastStepTime = 0;
+    private volatile int mLastSubStepCount = 0;
+    private volatile long mDroppedStepCount = 0;
+
     /**
      * Events generated during physics simulation.
      * These are called from the physics thread.
@@ -297,33 +321,122 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         mWorldTask.stop();
     }
 
-    private void generateCollisionEvents() {
-        GVRCollisionInfo collisionInfos[] = NativePhysics3DWorld.listCollisions(getNative());
-
-        String onEnter = "onEnter";
-        String onExit = "onExit";
-
-        for (GVRCollisionInfo info : collisionInfos) {
-            if (info.isHit) {
-                sendCollisionEvent(info, onEnter);
-            } else if (mPhysicsObject.get(info.bodyA) != null
-                    && mPhysicsObject.get(info.bodyB) != null) {
-                // If both bodies are in the scene.
-                sendCollisionEvent(info, onExit);
+    /**
+     * Add a listener which is called from the physics thread
+     * for each pair of rigid bodies that start or stop touching.
+     *
+     * @param listener the {@link ICollisionListener} to add.
+     */
+    public void addCollisionListener(ICollisionListener listener) {
+        synchronized (mCollisionListenersLock) {
+            ICollisionListener[] listeners = mCollisionListeners;
+
+            for (ICollisionListener l : listeners) {
+                if (l == listener) {
+                    return;
+                }
             }
+            ICollisionListener[] newListeners = new ICollisionListener[listeners.length + 1];
+            System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+            newListeners[listeners.length] = listener;
+            mCollisionListeners = newListeners;
         }
+    }
 
+    /**
+     * Remove a collision listener.
+     *
+     * @param listener the {@link ICollisionListener} to remove.
+     */
+    public void removeCollisionListener(ICollisionListener listener) {
+        synchronized (mCollisionListenersLock) {
+            ICollisionListener[] listeners = mCollisionListeners;
+
+            for (int i = 0; i < listeners.length; ++i) {
+                if (listeners[i] == listener) {
+                    ICollisionListener[] newListeners = new ICollisionListener[listeners.length - 1];
+                    System.arraycopy(listeners, 0, newListeners, 0, i);
+                    System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                    mCollisionListeners = newListeners;
+                    return;
+                }
+            }
+        }
     }
 
-    private void sendCollisionEvent(GVRCollisionInfo info, String eventName) {
-        GVRSceneObject bodyA = mPhysicsObject.get(info.bodyA).getOwnerObject();
-        GVRSceneObject bodyB = mPhysicsObject.get(info.bodyB).getOwnerObject();
+    /**
+     * Enable or disable sending {@link ICollisionEvents} to the
+     * scene objects which collide. They are enabled by default.
+     * <p>
+     * These events go through the event manager and allocate
+     * for every contact. Disabling them and using an
+     * {@link ICollisionListener} instead keeps the physics thread
+     * from allocating when there are many contacts.
+     *
+     * @param enabled true to send {@link ICollisionEvents}, false to only
+     *                call the collision listeners.
+     * @see #addCollisionListener(ICollisionListener)
+     */
+    public void setCollisionEventsEnabled(boolean enabled) {
+        mCollisionEventsEnabled = enabled;
+    }
+
+    /**
+     * @return true if {@link ICollisionEvents} are sent to colliding scene objects.
+     */
+    public boolean isCollisionEventsEnabled() {
+        return mCollisionEventsEnabled;
+    }
+
+    private void generateCollisionEvents() {
+        ICollisionListener[] listeners = mCollisionListeners;
+        boolean sendEvents = mCollisionEventsEnabled;
+        int n = NativePhysics3DWorld.readCollisions(getNative(), mCollisionBuffer, COLLISION_BUFFER_CAPACITY, true);
+
+        while (n > 0) {
+            for (int i = 0; i < n; ++i) {
+                int offset = i * COLLISION_RECORD_SIZE;
+                boolean isHit = mCollisionBuffer.getInt(offset + 32) != 0;
+                GVRPhysicsWorldObject objA = mPhysicsObject.get(mCollisionBuffer.getLong(offset));
+                GVRPhysicsWorldObject objB = mPhysicsObject.get(mCollisionBuffer.getLong(offset + 8));
+
+                // Skip bodies which have been removed from the world.
+                if ((objA == null) || (objB == null)) {
+                    continue;
+                }
+                GVRRigidBody bodyA = (GVRRigidBody) objA;
+                GVRRigidBody bodyB = (GVRRigidBody) objB;
+                float nx = mCollisionBuffer.getFloat(offset + 16);
+                float ny = mCollisionBuffer.getFloat(offset + 20);
+                float nz = mCollisionBuffer.getFloat(offset + 24);
+                float distance = mCollisionBuffer.getFloat(offset + 28);
+
+                for (ICollisionListener l : listeners) {
+                    if (isHit) {
+                        l.onCollisionEnter(bodyA, bodyB, nx, ny, nz, distance);
+                    } else {
+                        l.onCollisionExit(bodyA, bodyB, nx, ny, nz, distance);
+                    }
+                }
+                if (sendEvents) {
+                    sendCollisionEvent(bodyA, bodyB, new float[] { nx, ny, nz }, distance,
+                                       isHit ? "onEnter" : "onExit");
+                }
+            }
+            n = NativePhysics3DWorld.readCollisions(getNative(), mCollisionBuffer, COLLISION_BUFFER_CAPACITY, false);
+        }
+    }
+
+    private void sendCollisionEvent(GVRRigidBody rigidBodyA, GVRRigidBody rigidBodyB,
+                                    float[] normal, float distance, String eventName) {
+        GVRSceneObject bodyA = rigidBodyA.getOwnerObject();
+        GVRSceneObject bodyB = rigidBodyB.getOwnerObject();
 
         getGVRContext().getEventManager().sendEvent(bodyA, ICollisionEvents.class, eventName,
-                bodyA, bodyB, info.normal, info.distance);
+                bodyA, bodyB, normal, distance);
 
         getGVRContext().getEventManager().sendEvent(bodyB, ICollisionEvents.class, eventName,
-                bodyB, bodyA, info.normal, info.distance);
+                bodyB, bodyA, normal, distance);
     }
 
     private void doPhysicsAttach(GVRSceneObject rootSceneObject) {
@@ -359,6 +472,7 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         }
 
         doPhysicsAttach(newOwner);
+        updateInterpolator(isEnabled());
     }
 
     @Override
@@ -366,6 +480,7 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         super.onDetach(oldOwner);
 
         doPhysicsDetach(oldOwner);
+        updateInterpolator(false);
     }
 
     @Override
@@ -375,6 +490,7 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         if (getOwnerObject() != null && mInitialized) {
             startSimulation();
         }
+        updateInterpolator(getOwnerObject() != null);
     }
 
     @Override
@@ -382,6 +498,7 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         super.onDisable();
 
         stopSimulation();
+        updateInterpolator(false);
     }
 
     public void setGravity(final float x, final float y, final float z) {
@@ -397,6 +514,95 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         NativePhysics3DWorld.getGravity(getNative(), gravity);
     }
 
+    /**
+     * Simulate with steps of a fixed length.
+     * <p>
+     * By default, each physics update steps the simulation by the time
+     * elapsed since the previous one, so timing jitter changes both
+     * the simulation and its cost. In fixed step mode, elapsed time is
+     * accumulated and the simulation advances by as many whole steps
+     * as fit in it, up to maxSubSteps per update. Time beyond that
+     * is dropped so a slow device does not fall further behind.
+     * <p>
+     * The scene objects of dynamic rigid bodies are then updated on the
+     * render thread every frame by interpolating between the states
+     * before and after the last step, so motion stays smooth even if
+     * physics and rendering run at different rates.
+     * After each update the states of the bodies which moved are
+     * gathered into one array and applied in a single pass;
+     * bodies which are asleep or at rest are not visited.
+     *
+     * @param timeStep   length of a step in seconds, 0 to return to variable steps.
+     * @param maxSubSteps maximum number of steps per physics update.
+     * @see #getDroppedStepCount()
+     */
+    public void setFixedTimeStep(float timeStep, int maxSubSteps) {
+        mMaxFixedSubSteps = Math.max(1, maxSubSteps);
+        mFixedTimeStep = Math.max(0.0f, timeStep);
+        updateInterpolator((getOwnerObject() != null) && isEnabled());
+    }
+
+    /*
+     * The interpolator only runs while the world is attached,
+     * enabled and simulating with fixed steps.
+     */
+    private void updateInterpolator(boolean active) {
+        boolean interpolate = active && (mFixedTimeStep > 0);
+
+        if (interpolate != mInterpolating) {
+            mInterpolating = interpolate;
+            if (interpolate) {
+                getGVRContext().registerDrawFrameListener(mInterpolator);
+            } else {
+                getGVRContext().unregisterDrawFrameListener(mInterpolator);
+            }
+        }
+    }
+
+    /**
+     * @return length of a fixed step in seconds, 0 if steps are variable.
+     * @see #setFixedTimeStep(float, int)
+     */
+    public float getFixedTimeStep() {
+        return mFixedTimeStep;
+    }
+
+    /**
+     * @return time in milliseconds spent simulating in the last physics update.
+     */
+    public float getLastStepTime() {
+        return mLastStepTime;
+    }
+
+    /**
+     * @return number of simulation steps taken in the last physics update.
+     */
+    public int getLastSubStepCount() {
+        return mLastSubStepCount;
+    }
+
+    /**
+     * Get the number of fixed steps skipped because an update
+     * needed more than the maximum number of steps to catch up.
+     * @return number of dropped steps since the world was created.
+     * @see #setFixedTimeStep(float, int)
+     */
+    public long getDroppedStepCount() {
+        return mDroppedStepCount;
+    }
+
+    private final GVRDrawFrameListener mInterpolator = new GVRDrawFrameListener() {
+        @Override
+        public void onDrawFrame(float frameTime) {
+            float fixedStep = mFixedTimeStep;
+
+            if (fixedStep > 0) {
+                float alpha = (System.nanoTime() - mInterpolationStart) * 1e-9f / fixedStep;
+                NativePhysics3DWorld.interpolate(getNative(), Math.min(Math.max(alpha, 0.0f), 1.0f));
+            }
+        }
+    };
+
     private class GVRWorldTask implements Runnable {
         private boolean running = false;
         private final long intervalMillis;
@@ -404,6 +610,8 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         private int maxSubSteps;
         private long simulationTime;
         private long lastSimulTime;
+        private float accumulator;
+        private long lastFixedTime;
 
 
         public GVRWorldTask(long milliseconds) {
@@ -424,13 +632,26 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
                 Log.v("GVRPhysicsWorld", "onStep " + timeStep + "ms" + ", subSteps " + maxSubSteps);
             }*/
 
-            timeStep  = simulationTime - lastSimulTime;
-            maxSubSteps = (int) (timeStep * 60) / 1000 + 1;
+            long startTime = System.nanoTime();
+            float fixedStep = mFixedTimeStep;
+            int subSteps;
 
-            NativePhysics3DWorld.step(getNative(), timeStep, maxSubSteps);
+            if (fixedStep > 0) {
+                subSteps = stepFixed(fixedStep, startTime);
+            } else {
+                timeStep = simulationTime - lastSimulTime;
+                maxSubSteps = (int) (timeStep * 60) / 1000 + 1;
+                subSteps = NativePhysics3DWorld.step(getNative(), timeStep, maxSubSteps);
+                lastFixedTime = startTime;
+                accumulator = 0;
+            }
+            mLastStepTime = (System.nanoTime() - startTime) / 1000000.0f;
+            mLastSubStepCount = subSteps;
 
-            generateCollisionEvents();
-            getGVRContext().getEventManager().sendEvent(GVRWorld.this, IPhysicsEvents.class, "onStepPhysics", GVRWorld.this);
+            if ((fixedStep == 0) || (subSteps > 0)) {
+                generateCollisionEvents();
+                getGVRContext().getEventManager().sendEvent(GVRWorld.this, IPhysicsEvents.class, "onStepPhysics", GVRWorld.this);
+            }
 
             lastSimulTime = simulationTime;
 
@@ -446,6 +667,29 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
 
         }
 
+        /*
+         * Run as many fixed steps as the elapsed time allows,
+         * dropping the ones beyond the maximum.
+         */
+        private int stepFixed(float fixedStep, long now) {
+            accumulator += (now - lastFixedTime) * 1e-9f;
+            lastFixedTime = now;
+
+            int steps = (int) (accumulator / fixedStep);
+            int maxSteps = mMaxFixedSubSteps;
+
+            accumulator -= steps * fixedStep;
+            if (steps > maxSteps) {
+                mDroppedStepCount += steps - maxSteps;
+                steps = maxSteps;
+            }
+            if (steps > 0) {
+                NativePhysics3DWorld.stepFixed(getNative(), fixedStep, steps);
+            }
+            mInterpolationStart = now - (long) (accumulator * 1e9f);
+            return steps;
+        }
+
         public void start() {
             // To avoid concurrency
             mPhysicsContext.runOnPhysicsThread(new Runnable() {
@@ -454,6 +698,8 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
                     if (!running) {
                         running = true;
                         lastSimulTime = SystemClock.uptimeMillis();
+                        lastFixedTime = System.nanoTime();
+                        accumulator = 0;
                         mPhysicsContext.runDelayedOnPhysicsThread(GVRWorldTask.this,
                                 intervalMillis);
                     }
@@ -566,11 +812,15 @@ class NativePhysics3DWorld {
 
     static native void removeRigidBody(long jphysics_world, long jrigid_body);
 
-    static native void step(long jphysics_world, float jtime_step, int maxSubSteps);
+    static native int step(long jphysics_world, float jtime_step, int maxSubSteps);
+
+    static native void stepFixed(long jphysics_world, float jtime_step, int numSteps);
+
+    static native void interpolate(long jphysics_world, float alpha);
 
     static native void getGravity(long jworld, float[] array);
 
     static native void setGravity(long jworld, float x, float y, float z);
 
-    static native GVRCollisionInfo[] listCollisions(long jphysics_world);
+    static native int readCollisions(long jphysics_world, ByteBuffer buffer, int capacity, boolean newStep);
 }
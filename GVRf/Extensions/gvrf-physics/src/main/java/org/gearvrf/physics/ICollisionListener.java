@@ -0,0 +1,58 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.physics;
+
+/**
+ * Receives the collisions of a physics world directly from the
+ * physics thread without going through the event manager.
+ * <p>
+ * Unlike {@link ICollisionEvents}, which are sent to both scene objects
+ * involved, a listener is called once for each pair of bodies.
+ * No objects are allocated to deliver the callbacks.
+ * The callbacks must not keep references to their arguments
+ * beyond the call and should return quickly since they
+ * delay the next physics step.
+ * @see GVRWorld#addCollisionListener(ICollisionListener)
+ * @see GVRWorld#setCollisionEventsEnabled(boolean)
+ */
+public interface ICollisionListener {
+
+    /**
+     * Called when two rigid bodies start touching.
+     *
+     * @param bodyA    first {@link GVRRigidBody} in the collision.
+     * @param bodyB    second {@link GVRRigidBody} in the collision.
+     * @param normalX  X component of the contact normal on bodyB.
+     * @param normalY  Y component of the contact normal on bodyB.
+     * @param normalZ  Z component of the contact normal on bodyB.
+     * @param distance distance between the bodies (usually zero).
+     */
+    void onCollisionEnter(GVRRigidBody bodyA, GVRRigidBody bodyB,
+                          float normalX, float normalY, float normalZ, float distance);
+
+    /**
+     * Called when two rigid bodies stop touching.
+     *
+     * @param bodyA    first {@link GVRRigidBody} in the collision.
+     * @param bodyB    second {@link GVRRigidBody} in the collision.
+     * @param normalX  X component of the last contact normal on bodyB.
+     * @param normalY  Y component of the last contact normal on bodyB.
+     * @param normalZ  Z component of the last contact normal on bodyB.
+     * @param distance last distance between the bodies.
+     */
+    void onCollisionExit(GVRRigidBody bodyA, GVRRigidBody bodyB,
+                         float normalX, float normalY, float normalZ, float distance);
+}
@@ -32,7 +32,12 @@ BulletRigidBody::BulletRigidBody()
           mRigidBody(new btRigidBody(mConstructionInfo)),
           m_centerOfMassOffset(btTransform::getIdentity()),
           mScale(1.0f, 1.0f, 1.0f),
-          mSimType(SimulationType::DYNAMIC)
+          mSimType(SimulationType::DYNAMIC),
+          mInterpolating(false),
+          mTeleport(false),
+          mHasWritten(false),
+          mMoving(false),
+          mSettled(false)
 {
     mRigidBody->setUserPointer(this);
 }
@@ -42,7 +47,12 @@ BulletRigidBody::BulletRigidBody(btRigidBody *rigidBody)
           mRigidBody(rigidBody),
           m_centerOfMassOffset(btTransform::getIdentity()),
           mScale(1.0f, 1.0f, 1.0f),
-          mSimType(SimulationType::DYNAMIC)
+          mSimType(SimulationType::DYNAMIC),
+          mInterpolating(false),
+          mTeleport(false),
+          mHasWritten(false),
+          mMoving(false),
+          mSettled(false)
 {
     mRigidBody->setUserPointer(this);
     mConstructionInfo.m_mass = rigidBody->isStaticObject() ? 0.f : 1.f / rigidBody->getInvMass();
@@ -187,6 +197,11 @@ void BulletRigidBody::getWorldTransform(btTransform &centerOfMassWorldTrans) con
 }
 
 void BulletRigidBody::setWorldTransform(const btTransform &centerOfMassWorldTrans) {
+    if (mInterpolating)
+    {
+        mCurrState = centerOfMassWorldTrans * m_centerOfMassOffset;
+        return;
+    }
     Transform* trans = owner_object()->transform();
     btTransform aux; getWorldTransform(aux);
 
@@ -207,6 +222,133 @@ void BulletRigidBody::setWorldTransform(const btTransform &centerOfMassWorldTran
     //convertBtTransform2Transform(centerOfMassWorldTrans * m_centerOfMassOffset, trans);
 }
 
+void BulletRigidBody::setInterpolating(bool enabled) {
+    if (enabled == mInterpolating)
+    {
+        return;
+    }
+    mInterpolating = enabled;
+    mTeleport = false;
+    mHasWritten = false;
+    mMoving = false;
+    mSettled = false;
+    if (enabled)
+    {
+        mCurrState = mRigidBody->getCenterOfMassTransform() * m_centerOfMassOffset;
+        mPrevState = mCurrState;
+    }
+    else
+    {
+        prevPos = mRigidBody->getCenterOfMassTransform() * m_centerOfMassOffset;
+    }
+}
+
+void BulletRigidBody::beginFixedStep() {
+    if (!mInterpolating)
+    {
+        return;
+    }
+    if (mTeleport)
+    {
+        mRigidBody->setWorldTransform(mTeleportState);
+        mCurrState = mTeleportState * m_centerOfMassOffset;
+        mTeleport = false;
+        mSettled = false;
+    }
+    mPrevState = mCurrState;
+}
+
+static bool sameTransform(const btTransform& a, const btTransform& b) {
+    const float EPSILON = 1e-5f;
+
+    return (a.getOrigin().distance2(b.getOrigin()) <= EPSILON * EPSILON) &&
+           (std::abs(std::abs(a.getRotation().dot(b.getRotation())) - 1.0f) <= EPSILON);
+}
+
+static void appendState(std::vector<float>& states, const btTransform& t) {
+    const btVector3& pos = t.getOrigin();
+    btQuaternion rot = t.getRotation();
+
+    states.push_back(pos.getX());
+    states.push_back(pos.getY());
+    states.push_back(pos.getZ());
+    states.push_back(rot.getX());
+    states.push_back(rot.getY());
+    states.push_back(rot.getZ());
+    states.push_back(rot.getW());
+}
+
+/*
+ * Append the states before and after the last fixed step
+ * (position and rotation, 14 floats) if the scene object
+ * needs to be updated. Bodies which are asleep or did not
+ * move are skipped once interpolate has set their scene
+ * object to their final state. Until then the final state
+ * is appended after every step.
+ */
+bool BulletRigidBody::publishFixedStep(std::vector<float>& states) {
+    if (!mInterpolating)
+    {
+        return false;
+    }
+    bool moved = mRigidBody->isActive() && !sameTransform(mPrevState, mCurrState);
+
+    if (!moved && mSettled)
+    {
+        return false;
+    }
+    appendState(states, moved ? mPrevState : mCurrState);
+    appendState(states, mCurrState);
+    mMoving = moved;
+    mSettled = false;
+    return true;
+}
+
+/*
+ * If the scene object is not where interpolate left it,
+ * the application moved it and the body follows.
+ * Returns true if the body is waiting to be moved.
+ */
+bool BulletRigidBody::checkTeleport() {
+    if (mTeleport)
+    {
+        return true;
+    }
+    if (!mInterpolating || !mHasWritten || (owner_object() == nullptr))
+    {
+        return false;
+    }
+    Transform* trans = owner_object()->transform();
+
+    if (sameTransform(convertTransform2btTransform(trans), mLastWritten))
+    {
+        return false;
+    }
+    getWorldTransform(mTeleportState);
+    mTeleport = true;
+    mHasWritten = false;
+    mSettled = false;
+    return true;
+}
+
+void BulletRigidBody::interpolate(float alpha, const float* states) {
+    if (!mInterpolating || (owner_object() == nullptr) || checkTeleport())
+    {
+        return;
+    }
+    Transform* trans = owner_object()->transform();
+    btVector3 prevPos(states[0], states[1], states[2]);
+    btQuaternion prevRot(states[3], states[4], states[5], states[6]);
+    btVector3 currPos(states[7], states[8], states[9]);
+    btQuaternion currRot(states[10], states[11], states[12], states[13]);
+    btTransform blend(prevRot.slerp(currRot, alpha), prevPos.lerp(currPos, alpha));
+
+    convertBtTransform2Transform(blend, trans);
+    mLastWritten = convertTransform2btTransform(trans);
+    mHasWritten = true;
+    mSettled = !mMoving;
+}
+
 void BulletRigidBody::applyCentralForce(float x, float y, float z) {
     mRigidBody->applyCentralForce(btVector3(x, y, z));
     if (!mRigidBody->isActive()) {
@@ -21,6 +21,7 @@
 
 #include <BulletDynamics/Dynamics/btRigidBody.h>
 #include <LinearMath/btMotionState.h>
+#include <vector>
 
 namespace gvr {
 class SceneObject;
@@ -150,6 +151,28 @@ class BulletRigidBody : public PhysicsRigidBody,
 
     void updateConstructionInfo();
 
+    /*
+     * Fixed step interpolation (@see BulletWorld::stepFixed).
+     * These are called with the state lock of the world held.
+     */
+    void setInterpolating(bool enabled);
+
+    void beginFixedStep();
+
+    bool publishFixedStep(std::vector<float>& states);
+
+    void interpolate(float alpha, const float* states);
+
+    bool checkTeleport();
+
+    /*
+     * True if the scene object has been set to the final state
+     * of the body, which is not published until it moves again.
+     */
+    bool isResting() const {
+        return mInterpolating && mSettled && mHasWritten;
+    }
+
 private:
 
     void finalize();
@@ -164,6 +187,22 @@ private:
     btTransform prevPos;
     btVector3 mScale;
     SimulationType mSimType;
+
+    /*
+     * While interpolating, the physics thread only updates mCurrState
+     * and the render thread owns the scene object transform.
+     * If the scene object is moved by the application, the render
+     * thread asks the physics thread to move the body to mTeleportState.
+     */
+    bool mInterpolating;
+    bool mTeleport;
+    bool mHasWritten;
+    bool mMoving;               // moved in the last published step
+    bool mSettled;              // scene object set to the final state by interpolate
+    btTransform mPrevState;     // scene transform before the current step
+    btTransform mCurrState;     // scene transform after the current step
+    btTransform mLastWritten;   // scene transform set by interpolate
+    btTransform mTeleportState; // center of mass transform requested by the application
 };
 
 }
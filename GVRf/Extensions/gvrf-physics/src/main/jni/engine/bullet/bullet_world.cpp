@@ -54,6 +54,7 @@ void BulletWorld::initialize() {
     mPhysicsWorld->setGravity(btVector3(0, -10, 0));
 
     mDraggingConstraint = nullptr;
+    mInterpolating = false;
 }
 
 void BulletWorld::finalize() {
@@ -120,29 +121,142 @@ void BulletWorld::stopDrag() {
 }
 
 void BulletWorld::addRigidBody(PhysicsRigidBody *body) {
+    std::lock_guard<std::mutex> lock(mStateLock);
     btRigidBody *b = (static_cast<BulletRigidBody *>(body))->getRigidBody();
     body->updateConstructionInfo();
     mPhysicsWorld->addRigidBody(b);
 }
 
 void BulletWorld::addRigidBody(PhysicsRigidBody *body, int collisiontype, int collidesWith) {
+    std::lock_guard<std::mutex> lock(mStateLock);
     body->updateConstructionInfo();
     mPhysicsWorld->addRigidBody((static_cast<BulletRigidBody *>(body))->getRigidBody(),
                                 collidesWith, collisiontype);
 }
 
 void BulletWorld::removeRigidBody(PhysicsRigidBody *body) {
+    std::lock_guard<std::mutex> lock(mStateLock);
+    BulletRigidBody* bulletBody = static_cast<BulletRigidBody *>(body);
+    auto it = std::find(mMovedBodies.begin(), mMovedBodies.end(), bulletBody);
+
+    if (it != mMovedBodies.end())
+    {
+        size_t index = it - mMovedBodies.begin();
+        mMovedBodies.erase(it);
+        mMovedStates.erase(mMovedStates.begin() + 14 * index, mMovedStates.begin() + 14 * (index + 1));
+    }
+    mRestingBodies.erase(std::remove(mRestingBodies.begin(), mRestingBodies.end(), bulletBody),
+                         mRestingBodies.end());
+    bulletBody->setInterpolating(false);
     mPhysicsWorld->removeRigidBody((static_cast<BulletRigidBody *>(body))->getRigidBody());
 }
 
-void BulletWorld::step(float timeStep, int maxSubSteps) {
+static BulletRigidBody* getBulletBody(btCollisionObject* obj) {
+    btRigidBody* rb = btRigidBody::upcast(obj);
+    return (rb != nullptr) ? static_cast<BulletRigidBody*>(rb->getUserPointer()) : nullptr;
+}
+
+void BulletWorld::updateDragPivot() {
     if (mDraggingConstraint != nullptr)
     {
         auto matrixB = mPivotObject->transform()->getModelMatrix(true);
         mDraggingConstraint->setPivotB(btVector3(matrixB[3][0], matrixB[3][1], matrixB[3][2]));
     }
+}
+
+/*
+ * Switch all the bodies between writing their scene objects
+ * directly and keeping states for interpolation.
+ */
+void BulletWorld::setInterpolating(bool enabled) {
+    std::lock_guard<std::mutex> lock(mStateLock);
+
+    for (int i = mPhysicsWorld->getNumCollisionObjects() - 1; i >= 0; i--) {
+        BulletRigidBody* body = getBulletBody(mPhysicsWorld->getCollisionObjectArray()[i]);
+        if (body) {
+            body->setInterpolating(enabled &&
+                                   (body->getSimulationType() == PhysicsRigidBody::DYNAMIC));
+        }
+    }
+    if (!enabled)
+    {
+        mMovedBodies.clear();
+        mMovedStates.clear();
+        mRestingBodies.clear();
+    }
+    mInterpolating = enabled;
+}
+
+int BulletWorld::step(float timeStep, int maxSubSteps) {
+    if (mInterpolating)
+    {
+        setInterpolating(false);
+    }
+    updateDragPivot();
+    return mPhysicsWorld->stepSimulation(timeStep, maxSubSteps);
+}
+
+void BulletWorld::stepFixed(float timeStep, int numSteps) {
+    updateDragPivot();
+    /*
+     * The interpolation mode is set before every step so
+     * bodies added or changed to dynamic since the last
+     * step start keeping states.
+     */
+    setInterpolating(true);
+    for (int s = 0; s < numSteps; ++s)
+    {
+        {
+            std::lock_guard<std::mutex> lock(mStateLock);
+            for (int i = mPhysicsWorld->getNumCollisionObjects() - 1; i >= 0; i--) {
+                BulletRigidBody* body = getBulletBody(mPhysicsWorld->getCollisionObjectArray()[i]);
+                if (body) {
+                    body->beginFixedStep();
+                }
+            }
+        }
+        // maxSubSteps of 0 steps by exactly timeStep
+        mPhysicsWorld->stepSimulation(timeStep, 0);
+    }
+    /*
+     * Gather the bodies whose scene objects need updating into
+     * one array so interpolate only visits those. A body which
+     * stopped stays there until interpolate has set its scene
+     * object to the final state, even if several steps are
+     * made before the next interpolate. Resting bodies are
+     * only checked for being moved by the application.
+     */
+    std::lock_guard<std::mutex> lock(mStateLock);
+    mMovedBodies.clear();
+    mMovedStates.clear();
+    mRestingBodies.clear();
+    for (int i = mPhysicsWorld->getNumCollisionObjects() - 1; i >= 0; i--) {
+        BulletRigidBody* body = getBulletBody(mPhysicsWorld->getCollisionObjectArray()[i]);
+        if (body == nullptr) {
+            continue;
+        }
+        if (body->publishFixedStep(mMovedStates)) {
+            mMovedBodies.push_back(body);
+        } else if (body->isResting()) {
+            mRestingBodies.push_back(body);
+        }
+    }
+}
+
+void BulletWorld::interpolate(float alpha) {
+    std::lock_guard<std::mutex> lock(mStateLock);
 
-    mPhysicsWorld->stepSimulation(timeStep, maxSubSteps);
+    if (!mInterpolating)
+    {
+        return;
+    }
+    const float* states = mMovedStates.data();
+    for (auto it = mMovedBodies.begin(); it != mMovedBodies.end(); ++it, states += 14) {
+        (*it)->interpolate(alpha, states);
+    }
+    for (auto it = mRestingBodies.begin(); it != mRestingBodies.end(); ++it) {
+        (*it)->checkTeleport();
+    }
 }
 
 /**
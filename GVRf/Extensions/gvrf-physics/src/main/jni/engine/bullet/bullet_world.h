@@ -25,6 +25,8 @@
 
 #include <utility>
 #include <map>
+#include <mutex>
+#include <vector>
 #include <BulletDynamics/ConstraintSolver/btPoint2PointConstraint.h>
 
 class btDynamicsWorld;
@@ -37,6 +39,7 @@ namespace gvr {
 
 class PhysicsConstraint;
 class PhysicsRigidBody;
+class BulletRigidBody;
 
 class BulletWorld : public PhysicsWorld {
  public:
@@ -59,7 +62,11 @@ class BulletWorld : public PhysicsWorld {
 
     void removeRigidBody(PhysicsRigidBody *body);
 
-    void step(float timeStep, int maxSubSteps);
+    int step(float timeStep, int maxSubSteps);
+
+    void stepFixed(float timeStep, int numSteps);
+
+    void interpolate(float alpha);
 
     void listCollisions(std::list <ContactPoint> &contactPoints);
 
@@ -74,6 +81,10 @@ class BulletWorld : public PhysicsWorld {
 
     void finalize();
 
+    void updateDragPivot();
+
+    void setInterpolating(bool enabled);
+
  private:
     std::map<std::pair <long,long>, ContactPoint> prevCollisions;
     btDynamicsWorld *mPhysicsWorld;
@@ -85,6 +96,16 @@ class BulletWorld : public PhysicsWorld {
     btPoint2PointConstraint *mDraggingConstraint;
     SceneObject *mPivotObject;
     int mActivationState;
+    bool mInterpolating;
+    std::mutex mStateLock;  // guards the interpolation states of the bodies
+    /*
+     * Bodies whose scene objects need updating after the last
+     * fixed step and their states before and after the step,
+     * 14 floats per body (@see BulletRigidBody::publishFixedStep).
+     */
+    std::vector<BulletRigidBody*> mMovedBodies;
+    std::vector<float> mMovedStates;
+    std::vector<BulletRigidBody*> mRestingBodies;  // only checked for being moved by the application
 
     //void (*gTmpFilter)(); // btNearCallback
     //int gNearCallbackCount = 0;
@@ -61,13 +61,39 @@ public:
 
     virtual void removeRigidBody(PhysicsRigidBody *body) = 0;
 
-    virtual void step(float timeStep, int maxSubSteps) = 0;
+    virtual int step(float timeStep, int maxSubSteps) = 0;
+
+    /*
+     * Advance the simulation by a number of steps of the same length.
+     * The dynamic bodies keep their transforms from before and after
+     * the last step and only update their scene objects in interpolate.
+     */
+    virtual void stepFixed(float timeStep, int numSteps) = 0;
+
+    /*
+     * Update the scene objects of the dynamic bodies stepped
+     * by stepFixed with a blend of their last two states.
+     * @param alpha 0 for the state before the last step,
+     *              1 for the state after it.
+     */
+    virtual void interpolate(float alpha) = 0;
 
     virtual void listCollisions(std::list<ContactPoint>& contactPoints) = 0;
 
     virtual void setGravity(float gx, float gy, float gz) = 0;
 
     virtual PhysicsVec3 getGravity() const = 0;
+
+    /*
+     * Collision events listed by listCollisions which
+     * have not yet been read by the Java world.
+     */
+    std::list<ContactPoint>& getCollisionQueue() {
+        return mCollisionQueue;
+    }
+
+private:
+    std::list<ContactPoint> mCollisionQueue;
 };
 
 }
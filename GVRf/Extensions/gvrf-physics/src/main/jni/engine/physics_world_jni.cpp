@@ -67,13 +67,21 @@ extern "C" {
     Java_org_gearvrf_physics_NativePhysics3DWorld_removeRigidBody(JNIEnv * env, jobject obj,
             jlong jworld, jlong jrigid_body);
 
-    JNIEXPORT void JNICALL
+    JNIEXPORT jint JNICALL
     Java_org_gearvrf_physics_NativePhysics3DWorld_step(JNIEnv * env, jobject obj,
             jlong jworld, jfloat jtime_step, int maxSubSteps);
 
-    JNIEXPORT jobjectArray JNICALL
-    Java_org_gearvrf_physics_NativePhysics3DWorld_listCollisions(JNIEnv * env, jobject obj,
-                                                                    jlong jworld);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_stepFixed(JNIEnv * env, jobject obj,
+            jlong jworld, jfloat jtime_step, jint numSteps);
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_interpolate(JNIEnv * env, jobject obj,
+            jlong jworld, jfloat alpha);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_readCollisions(JNIEnv * env, jobject obj,
+            jlong jworld, jobject jbuffer, jint capacity, jboolean newStep);
 
     JNIEXPORT void JNICALL
     Java_org_gearvrf_physics_NativePhysics3DWorld_setGravity(JNIEnv* env, jobject obj,
@@ -158,47 +166,69 @@ Java_org_gearvrf_physics_NativePhysics3DWorld_removeRigidBody(JNIEnv * env, jobj
     world->removeRigidBody(rigid_body);
 }
 
-JNIEXPORT void JNICALL
+JNIEXPORT jint JNICALL
 Java_org_gearvrf_physics_NativePhysics3DWorld_step(JNIEnv * env, jobject obj,
         jlong jworld, jfloat jtime_step, int maxSubSteps) {
     PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
 
-    world->step((float)jtime_step, maxSubSteps);
+    return world->step((float)jtime_step, maxSubSteps);
 }
 
-JNIEXPORT jobjectArray JNICALL
-Java_org_gearvrf_physics_NativePhysics3DWorld_listCollisions(JNIEnv * env, jobject obj, jlong jworld) {
-
-    jclass collisionInfoClass = env->FindClass("org/gearvrf/physics/GVRCollisionInfo");
-    jmethodID collisionInfoConstructor = env->GetMethodID(collisionInfoClass, "<init>", "(JJ[FFZ)V");
-
-    PhysicsWorld *world = reinterpret_cast <PhysicsWorld*> (jworld);
-    std::list <ContactPoint> contactPoints;
-
-    world->listCollisions(contactPoints);
+JNIEXPORT void JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_stepFixed(JNIEnv * env, jobject obj,
+        jlong jworld, jfloat jtime_step, jint numSteps) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
 
-    int size = contactPoints.size();
-    jobjectArray jNewList = env->NewObjectArray(size, collisionInfoClass, NULL);
+    world->stepFixed((float)jtime_step, numSteps);
+}
 
-    int i = 0;
-    for (auto it = contactPoints.begin(); it != contactPoints.end(); ++it) {
-        const ContactPoint& data = *it;
+JNIEXPORT void JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_interpolate(JNIEnv * env, jobject obj,
+        jlong jworld, jfloat alpha) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
 
-        jfloatArray normal = env->NewFloatArray(3);
-        env->SetFloatArrayRegion(normal, 0, 3, data.normal);
+    world->interpolate(alpha);
+}
 
-        jobject contactObject = env->NewObject(collisionInfoClass, collisionInfoConstructor,
-                                               (jlong)data.body0, (jlong)data.body1,
-                                               (jfloatArray)normal, (jfloat)data.distance,
-                                               (jboolean)data.isHit);
+/*
+ * Copies collision events into a direct buffer owned by GVRWorld.
+ * If newStep is true, the events of the last step are listed first.
+ * Events which do not fit are kept and returned by the next call.
+ * Each event is 40 bytes: the native pointers of both bodies (2 longs),
+ * the contact normal and distance (4 floats) and whether the bodies
+ * started (1) or stopped (0) touching (int), followed by 4 unused bytes.
+ * Returns the number of events copied, 0 once all have been read.
+ */
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_readCollisions(JNIEnv * env, jobject obj,
+        jlong jworld, jobject jbuffer, jint capacity, jboolean newStep) {
+    PhysicsWorld *world = reinterpret_cast <PhysicsWorld*> (jworld);
+    char* buffer = static_cast<char*>(env->GetDirectBufferAddress(jbuffer));
+    std::list <ContactPoint>& contactPoints = world->getCollisionQueue();
 
-        env->SetObjectArrayElement(jNewList, i++, contactObject);
-        env->DeleteLocalRef(contactObject);
-        env->DeleteLocalRef(normal);
+    if (newStep) {
+        contactPoints.clear();
+        world->listCollisions(contactPoints);
     }
-
-    env->DeleteLocalRef(collisionInfoClass);
-    return jNewList;
+    int n = 0;
+    while ((n < capacity) && !contactPoints.empty()) {
+        const ContactPoint& data = contactPoints.front();
+        jlong* bodies = reinterpret_cast<jlong*>(buffer);
+        jfloat* values = reinterpret_cast<jfloat*>(bodies + 2);
+        jint* flags = reinterpret_cast<jint*>(values + 4);
+
+        bodies[0] = (jlong) data.body0;
+        bodies[1] = (jlong) data.body1;
+        values[0] = data.normal[0];
+        values[1] = data.normal[1];
+        values[2] = data.normal[2];
+        values[3] = data.distance;
+        flags[0] = data.isHit ? 1 : 0;
+        contactPoints.pop_front();
+        buffer += 40;
+        ++n;
+    }
+    return n;
 }
 
 JNIEXPORT void JNICALL
@@ -3,8 +3,12 @@ package org.gearvrf.script;
 import java.io.IOException;
 import java.io.InputStream;
 
+import javax.script.ScriptException;
+
 import org.gearvrf.GVRContext;
 import org.gearvrf.script.IScriptManager;
+import org.gearvrf.script.javascript.RhinoScriptEngine;
+import org.mozilla.javascript.Function;
 
 /**
  * Represents a Javascript file. The script text can be loaded in one
@@ -26,7 +30,7 @@ import org.gearvrf.script.IScriptManager;
  * or attach it to a scriptable object using {@link GVRScriptManager#attachScriptFile(IScriptable, GVRScriptFile)}
  * to handle events delivered to it.
  */
-public class GVRJavascriptScriptFile extends GVRScriptFile {
+public class GVRJavascriptScriptFile extends GVRScriptFile implements IScriptFunctionResolver {
     /**
      * Loads a Javascript file from {@code inputStream}.
      *
@@ -72,4 +76,17 @@ public class GVRJavascriptScriptFile extends GVRScriptFile {
         sb.append(");");
         return sb.toString();
     }
+
+    @Override
+    public Object resolveFunction(String funcName) {
+        if (mLocalEngine instanceof RhinoScriptEngine) {
+            return ((RhinoScriptEngine) mLocalEngine).getFunction(funcName);
+        }
+        return null;
+    }
+
+    @Override
+    public void callFunction(Object function, Object[] params) throws ScriptException {
+        ((RhinoScriptEngine) mLocalEngine).callFunction((Function) function, params);
+    }
 }
@@ -268,6 +268,36 @@ public class GVRScriptBehavior extends GVRScriptBehaviorBase implements IPickEve
         }
     }
 
+    /*
+     * onStep is called by the script manager for all the
+     * script behaviors at once instead of from a frame
+     * listener for each behavior.
+     */
+    @Override
+    protected void startListening()
+    {
+        if (mHasFrameCallback && !mIsListening)
+        {
+            getScriptManager().addStepBehavior(this);
+            mIsListening = true;
+        }
+    }
+
+    @Override
+    protected void stopListening()
+    {
+        if (mIsListening)
+        {
+            getScriptManager().removeStepBehavior(this);
+            mIsListening = false;
+        }
+    }
+
+    private GVRScriptManager getScriptManager()
+    {
+        return (GVRScriptManager) getGVRContext().getScriptManager();
+    }
+
     protected void startPicking()
     {
         GVRScene scene = mScene;
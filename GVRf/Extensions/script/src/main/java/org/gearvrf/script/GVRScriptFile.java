@@ -19,6 +19,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -50,11 +51,15 @@ public abstract class GVRScriptFile implements IScriptFile {
     protected final GVRContext mGvrContext;
     protected final String mLanguage;
 
-    // Lock for engine access and mBadFunctions
+    // Lock for engine access, mBadFunctions and mFunctions
     protected final Object mEngineLock = new Object();
     protected final ScriptEngine mLocalEngine;
     private Set<String> mBadFunctions;
 
+    // Function handles from IScriptFunctionResolver, NO_FUNCTION if there is none
+    private final Map<String, Object> mFunctions = new HashMap<String, Object>();
+    private static final Object NO_FUNCTION = new Object();
+
     // Lock for mScriptText and dirty flag
     protected final Object mScriptTextLock = new Object();
     protected String mScriptText;
@@ -181,6 +186,21 @@ public abstract class GVRScriptFile implements IScriptFile {
             return false;
         }
 
+        Object function = getFunctionCached(funcName);
+        if (function != null) {
+            synchronized (mEngineLock) {
+                localBindings = mLocalEngine.getBindings(ScriptContext.ENGINE_SCOPE);
+            }
+            try {
+                ((IScriptFunctionResolver) this).callFunction(function, params);
+            } catch (ScriptException e) {
+                addBadFunction(funcName);
+                mLastError = e.getMessage();
+                return false;
+            }
+            return true;
+        }
+
         String statement = getInvokeStatementCached(funcName, params);
 
         synchronized (mEngineLock) {
@@ -217,12 +237,25 @@ public abstract class GVRScriptFile implements IScriptFile {
     }
 
     private void resetBadFunctions() {
-        if (mBadFunctions == null) {
-            return;
+        synchronized (mEngineLock) {
+            mFunctions.clear();
+            if (mBadFunctions != null) {
+                mBadFunctions.clear();
+            }
         }
+    }
 
+    private Object getFunctionCached(String funcName) {
         synchronized (mEngineLock) {
-            mBadFunctions.clear();
+            if (!(this instanceof IScriptFunctionResolver)) {
+                return null;
+            }
+            Object function = mFunctions.get(funcName);
+            if (function == null) {
+                function = ((IScriptFunctionResolver) this).resolveFunction(funcName);
+                mFunctions.put(funcName, (function != null) ? function : NO_FUNCTION);
+            }
+            return (function != NO_FUNCTION) ? function : null;
         }
     }
 
@@ -17,20 +17,24 @@ package org.gearvrf.script;
 
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRDrawFrameListener;
 import org.gearvrf.GVREventListeners;
 import org.gearvrf.GVRMain;
 import org.gearvrf.GVRResourceVolume;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.IScriptEvents;
+import org.gearvrf.script.javascript.RhinoScriptEngine;
 import org.gearvrf.script.javascript.RhinoScriptEngineFactory;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.script.Bindings;
 import javax.script.ScriptContext;
@@ -52,6 +56,23 @@ public class GVRScriptManager implements IScriptManager {
 
     protected Map<IScriptable, IScriptFile> mScriptMap;
 
+    // Script behaviors whose onStep is called in one batch every frame
+    private final List<GVRScriptBehavior> mStepBehaviors = new CopyOnWriteArrayList<GVRScriptBehavior>();
+
+    private final GVRDrawFrameListener mStepListener = new GVRDrawFrameListener() {
+        @Override
+        public void onDrawFrame(float frameTime) {
+            RhinoScriptEngine.beginBatch();
+            try {
+                for (GVRScriptBehavior behavior : mStepBehaviors) {
+                    behavior.onDrawFrame(frameTime);
+                }
+            } finally {
+                RhinoScriptEngine.endBatch();
+            }
+        }
+    };
+
     // For script bundles. All special targets start with @.
     public static final String TARGET_PREFIX = "@";
     public static final String TARGET_GVRMAIN = "@GVRMain";
@@ -202,6 +223,36 @@ public class GVRScriptManager implements IScriptManager {
         }
     }
 
+    /**
+     * Adds a script behavior to be stepped every frame.
+     * The onStep functions of all these behaviors are called from
+     * one frame listener which enters the script context once for
+     * all of them.
+     *
+     * @param behavior The script behavior.
+     */
+    void addStepBehavior(GVRScriptBehavior behavior) {
+        synchronized (mStepBehaviors) {
+            if (mStepBehaviors.isEmpty()) {
+                mGvrContext.registerDrawFrameListener(mStepListener);
+            }
+            mStepBehaviors.add(behavior);
+        }
+    }
+
+    /**
+     * Stops stepping a script behavior added by {@link #addStepBehavior(GVRScriptBehavior)}.
+     *
+     * @param behavior The script behavior.
+     */
+    void removeStepBehavior(GVRScriptBehavior behavior) {
+        synchronized (mStepBehaviors) {
+            if (mStepBehaviors.remove(behavior) && mStepBehaviors.isEmpty()) {
+                mGvrContext.unregisterDrawFrameListener(mStepListener);
+            }
+        }
+    }
+
     /**
      * Gets a script file from a scriptable target.
      * @param target The scriptable target.
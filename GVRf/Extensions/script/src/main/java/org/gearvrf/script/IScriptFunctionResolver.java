@@ -0,0 +1,49 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.script;
+
+import javax.script.ScriptException;
+
+/**
+ * Implemented by a {@link GVRScriptFile} whose script engine can call
+ * script functions directly instead of evaluating an invoke statement.
+ * The handles are resolved after the script has been run and are
+ * discarded when the script text changes.
+ */
+public interface IScriptFunctionResolver {
+    /**
+     * Resolves a function defined by the script to a handle which
+     * {@link #callFunction(Object, Object[])} can call.
+     *
+     * @param funcName
+     *     The function name.
+     * @return
+     *     The function handle or {@code null} if the function is not
+     * defined or cannot be called directly.
+     */
+    Object resolveFunction(String funcName);
+
+    /**
+     * Calls a function handle returned by {@link #resolveFunction(String)}.
+     *
+     * @param function
+     *     The function handle.
+     * @param params
+     *     The parameter array.
+     * @throws ScriptException if the function throws.
+     */
+    void callFunction(Object function, Object[] params) throws ScriptException;
+}
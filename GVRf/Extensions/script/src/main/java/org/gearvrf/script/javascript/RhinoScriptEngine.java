@@ -72,6 +72,12 @@ public class RhinoScriptEngine extends AbstractScriptEngine
     private ScriptEngineFactory factory;
     private InterfaceImplementor implementor;
 
+    /* scope used by callFunction, created once for the
+     * current ScriptContext instead of for every call.
+     */
+    private Scriptable callScope;
+    private ScriptContext callScopeContext;
+
     /*
     // in Phobos we want to support all javascript features
     static {
@@ -263,6 +269,89 @@ public class RhinoScriptEngine extends AbstractScriptEngine
         }
     }
    
+    /**
+     * Looks up a function defined in the engine scope so it can be
+     * called with {@link #callFunction(Function, Object[])} without
+     * evaluating a statement or looking it up again.
+     * The function stays valid until the script defining it
+     * is evaluated again.
+     *
+     * @param name name of the function
+     * @return the function or null if it is not defined
+     */
+    public Function getFunction(String name) {
+        if (name == null) {
+            throw new NullPointerException("function name is null");
+        }
+        Context cx = enterContext();
+        try {
+            Object obj = ScriptableObject.getProperty(getCallScope(), name);
+            return (obj instanceof Function) ? (Function) obj : null;
+        } finally {
+            cx.exit();
+        }
+    }
+
+    /**
+     * Calls a function returned by {@link #getFunction(String)}.
+     *
+     * @param func function to call
+     * @param args arguments, converted to JavaScript objects
+     * @return the result converted to a Java object
+     * @throws ScriptException if the function throws
+     */
+    public Object callFunction(Function func, Object[] args) throws ScriptException {
+        Context cx = enterContext();
+        try {
+            Scriptable engineScope = getCallScope();
+            Scriptable scope = func.getParentScope();
+            if (scope == null) {
+                scope = engineScope;
+            }
+            Object result = func.call(cx, scope, engineScope, wrapArguments(args));
+            return unwrapReturnValue(result);
+        } catch (JavaScriptException jse) {
+            if (DEBUG) jse.printStackTrace();
+            int line = (line = jse.lineNumber()) == 0 ? -1 : line;
+            Object value = jse.getValue();
+            String str = (value != null && value.getClass().getName().equals("org.mozilla.javascript.NativeError") ?
+                          value.toString() :
+                          jse.toString());
+            throw new ExtendedScriptException(jse, str, jse.sourceName(), line);
+        } catch (RhinoException re) {
+            if (DEBUG) re.printStackTrace();
+            int line = (line = re.lineNumber()) == 0 ? -1 : line;
+            throw new ExtendedScriptException(re, re.toString(), re.sourceName(), line);
+        } finally {
+            cx.exit();
+        }
+    }
+
+    /**
+     * Enters the Rhino context of the calling thread so that
+     * the function calls made until {@link #endBatch()}, in this
+     * or any other engine, share it instead of each entering
+     * and leaving the context.
+     */
+    public static void beginBatch() {
+        enterContext();
+    }
+
+    /**
+     * Leaves the context entered by {@link #beginBatch()}.
+     */
+    public static void endBatch() {
+        Context.exit();
+    }
+
+    private synchronized Scriptable getCallScope() {
+        if ((callScope == null) || (callScopeContext != context)) {
+            callScope = getRuntimeScope(context);
+            callScopeContext = context;
+        }
+        return callScope;
+    }
+
     public <T> T getInterface(Class<T> clasz) {
         try {
             return implementor.getInterface(null, clasz);
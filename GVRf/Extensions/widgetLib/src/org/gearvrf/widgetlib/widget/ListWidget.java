@@ -1,6 +1,7 @@
 package org.gearvrf.widgetlib.widget;
 
 import android.database.DataSetObserver;
+import android.util.SparseArray;
 
 import org.gearvrf.widgetlib.main.WidgetLib;
 import org.gearvrf.widgetlib.widget.animation.SimpleAnimationTracker;
@@ -28,6 +29,7 @@ import org.gearvrf.widgetlib.widget.layout.basic.GridLayout;
 import static org.gearvrf.widgetlib.widget.properties.JSONHelpers.optEnum;
 import static org.gearvrf.widgetlib.widget.properties.JSONHelpers.optFloat;
 import static org.gearvrf.widgetlib.widget.properties.JSONHelpers.optJSONObject;
+import static org.gearvrf.utility.Threads.spawn;
 
 
 import org.gearvrf.GVRContext;
@@ -51,6 +53,7 @@ import java.util.Set;
  * - item selection
  * - item focus listener
  * - scrolling
+ * - virtualization for large data sets, see {@link #enableVirtualization(boolean)}
  */
 public class ListWidget extends GroupWidget implements ScrollableList {
     /**
@@ -449,6 +452,60 @@ public class ListWidget extends GroupWidget implements ScrollableList {
         return mSelectOnTouchEnabled;
     }
 
+    /**
+     * Enable/disable the virtualization mode. It is meant for lists with large data sets
+     * where scrolling has to cost the same no matter how many items there are:
+     * - hosts are recycled together with their views into pools by
+     *   {@linkplain Adapter#getItemViewType(int) item view type}, so the {@link Adapter}
+     *   gets a view of the right type to reuse in
+     *   {@link Adapter#getView(int, Widget, GroupWidget) getView()} instead of making a new one
+     * - the size of each item is remembered by data index until the data set changes,
+     *   so items are not bound just to be measured again
+     * - if the {@linkplain #setPrefetchCount(int) prefetch count} is set, the items next to the
+     *   visible ones are bound ahead of time on a background thread
+     * @param enable
+     */
+    public void enableVirtualization(final boolean enable) {
+        runOnGlThread(new Runnable() {
+            @Override
+            public void run() {
+                if (enable != mVirtualizationEnabled) {
+                    Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "enableVirtualization(%s): %b", getName(), enable);
+                    mVirtualizationEnabled = enable;
+                    clearVirtualizationCache();
+                }
+            }
+        });
+    }
+
+    /**
+     * @return {@code true} if the virtualization mode is enabled
+     *         {@code false} otherwise.
+     */
+    public boolean isVirtualizationEnabled() {
+        return mVirtualizationEnabled;
+    }
+
+    /**
+     * Set the number of items on each side of the visible items which are bound ahead of
+     * time on a background thread in the virtualization mode. Only recycled views are bound
+     * ahead of time, so the {@link Adapter} must be able to update the views it gets from
+     * {@link Adapter#getView(int, Widget, GroupWidget) getView()} on any thread.
+     * By default nothing is bound ahead of time.
+     * @param count number of items, 0 to disable
+     * @see #enableVirtualization(boolean)
+     */
+    public void setPrefetchCount(int count) {
+        mPrefetchCount = Math.max(count, 0);
+    }
+
+    /**
+     * @return number of items bound ahead of time on each side of the visible items
+     */
+    public int getPrefetchCount() {
+        return mPrefetchCount;
+    }
+
 
     /**
      * Clear the selection of all items.
@@ -501,6 +558,9 @@ public class ListWidget extends GroupWidget implements ScrollableList {
         }
 
         updateSelectedItemsList(dataIndex, select);
+        synchronized (mPrefetchedViews) {
+            mItemSizes.remove(dataIndex);
+        }
 
         ListItemHostWidget hostWidget = getHostView(dataIndex, false);
         if (hostWidget != null) {
@@ -823,7 +883,8 @@ public class ListWidget extends GroupWidget implements ScrollableList {
             for (Layout layout: mContent.mLayouts) {
                 // measure all directions. Finally measuredChildren has to contain all
                 // views required for shifting toward the scrolling position.
-                List<Widget> measuredChildren = new ArrayList<>();
+                List<Widget> measuredChildren = mScrollMeasuredChildren;
+                measuredChildren.clear();
                 float xOffset = preMeasure(layout, Axis.X, measuredChildren);
                 float yOffset = preMeasure(layout, Axis.Y, measuredChildren);
                 float zOffset = preMeasure(layout, Axis.Z, measuredChildren);
@@ -930,6 +991,7 @@ public class ListWidget extends GroupWidget implements ScrollableList {
     private void setupHost(ListItemHostWidget host, Widget view, final int dataIndex) {
         boolean selected = setupView(view, dataIndex);
         host.setGuest(view, dataIndex);
+        host.mViewType = getItemViewType(dataIndex);
         host.setSelected(selected);
         host.requestLayout();
 
@@ -1007,13 +1069,23 @@ public class ListWidget extends GroupWidget implements ScrollableList {
             host = getHostView(dataIndex);
             if (host != null) {
                 if (host.isRecycled()) {
-                    Widget view = getViewFromAdapter(dataIndex, host);
+                    Widget view = host.mPrefetchedGuest != null ? host.mPrefetchedGuest :
+                            getViewFromAdapter(dataIndex, host);
+                    host.mPrefetchedGuest = null;
                     if (view != null) {
                         setupHost(host, view, dataIndex);
                     }
                 }
                 boolean added = mContent.addChild(host, true);
                 host.layout();
+                if (mVirtualizationEnabled && !host.isRecycled()) {
+                    synchronized (mPrefetchedViews) {
+                        if (mItemSizes.indexOfKey(dataIndex) < 0) {
+                            mItemSizes.put(dataIndex, new Vector3Axis(host.getLayoutWidth(),
+                                    host.getLayoutHeight(), host.getLayoutDepth()));
+                        }
+                    }
+                }
                 Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "getRecycleableView: item [%s] is added [%b] to the list",
                         host, added);
             }
@@ -1064,12 +1136,14 @@ public class ListWidget extends GroupWidget implements ScrollableList {
                 mGuestWidget = guest;
                 if (mGuestWidget != null) {
                     addChild(mGuestWidget, true);
-                    hostWidth = mGuestWidget.getWidth();
-                    hostHeight = mGuestWidget.getHeight();
-                    hostDepth = mGuestWidget.getDepth();
                     setName("HostWidget <" + mGuestWidget.getName() + ">");
                 }
             }
+            if (mGuestWidget != null) {
+                hostWidth = mGuestWidget.getWidth();
+                hostHeight = mGuestWidget.getHeight();
+                hostDepth = mGuestWidget.getDepth();
+            }
             mDataIndex = dataIndex;
         }
 
@@ -1101,9 +1175,24 @@ public class ListWidget extends GroupWidget implements ScrollableList {
          * Recycle the host. It can be later reused for another guest widget.
          */
         public void recycle() {
-            Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "recycle(%s), dataIndex = %d", getName(), mDataIndex);
+            recycle(false);
+        }
+
+        /**
+         * Recycle the host, optionally keeping the guest widget so the {@link Adapter}
+         * can reuse it for data of the same item view type.
+         */
+        private void recycle(boolean keepGuest) {
+            Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "recycle(%s), dataIndex = %d keepGuest = %b",
+                    getName(), mDataIndex, keepGuest);
             setSelected(false);
-            setGuest(null, -1);
+            if (keepGuest) {
+                mDataIndex = -1;
+            } else {
+                setGuest(null, -1);
+                mViewType = -1;
+            }
+            mPrefetchedGuest = null;
             setViewPortVisibility(ViewPortVisibility.INVISIBLE);
             hostWidth = hostHeight = hostDepth = 0;
         }
@@ -1173,6 +1262,8 @@ public class ListWidget extends GroupWidget implements ScrollableList {
         private float hostWidth, hostHeight, hostDepth;
         private Widget mGuestWidget;
         private int mDataIndex = -1;
+        private int mViewType = -1;         // item view type of the guest
+        private Widget mPrefetchedGuest;    // guest bound ahead of time, not set up yet
     }
     private boolean isScrolling() {
         return mScroller == null ? false : mScroller.doScrolling();
@@ -1250,13 +1341,148 @@ public class ListWidget extends GroupWidget implements ScrollableList {
 
             mContent.invalidateAllLayouts(host);
 
-            host.recycle();
-            if (!mRecycledViews.contains(host)) {
-                mRecycledViews.add(host);
+            if (mVirtualizationEnabled && host.mViewType >= 0) {
+                host.recycle(true);
+                addToPool(host);
+            } else {
+                host.recycle();
+                if (!mRecycledViews.contains(host)) {
+                    mRecycledViews.add(host);
+                }
             }
         }
     }
 
+    private void addToPool(ListItemHostWidget host) {
+        synchronized (mTypedRecycledViews) {
+            List<ListItemHostWidget> pool = mTypedRecycledViews.get(host.mViewType);
+            if (pool == null) {
+                pool = new ArrayList<>();
+                mTypedRecycledViews.put(host.mViewType, pool);
+            }
+            pool.add(host);
+        }
+    }
+
+    private ListItemHostWidget takeFromPool(int viewType) {
+        synchronized (mTypedRecycledViews) {
+            List<ListItemHostWidget> pool = mTypedRecycledViews.get(viewType);
+            return pool == null || pool.isEmpty() ? null : pool.remove(pool.size() - 1);
+        }
+    }
+
+    private int getItemViewType(int dataIndex) {
+        return mAdapter == null ? -1 : mAdapter.getItemViewType(dataIndex);
+    }
+
+    /**
+     * Bind the items next to the visible ones on a background thread so they are ready
+     * when the list is scrolled. Items bound earlier which are no longer next to the
+     * visible ones are recycled.
+     * @param first data index of the first visible item
+     * @param last data index of the last visible item
+     */
+    private void prefetch(final int first, final int last) {
+        final int count = mPrefetchCount;
+        synchronized (mPrefetchedViews) {
+            for (int i = mPrefetchedViews.size() - 1; i >= 0; --i) {
+                int dataIndex = mPrefetchedViews.keyAt(i);
+                if (dataIndex < first - count || dataIndex > last + count) {
+                    ListItemHostWidget host = mPrefetchedViews.valueAt(i);
+                    mPrefetchedViews.removeAt(i);
+                    host.mPrefetchedGuest = null;
+                    addToPool(host);
+                }
+            }
+        }
+        if (count == 0 || mAdapter == null || mPrefetching) {
+            return;
+        }
+        final Adapter adapter = mAdapter;
+        final int dataCount = getDataCount();
+        final int generation = mPrefetchGeneration;
+        mPrefetching = true;
+        spawn(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 1; i <= count; ++i) {
+                        prefetch(adapter, generation, last + i, dataCount);
+                        prefetch(adapter, generation, first - i, dataCount);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, e, "prefetch(%s): exception: %s", getName(), e.getMessage());
+                } finally {
+                    mPrefetching = false;
+                }
+            }
+        });
+    }
+
+    private void prefetch(Adapter adapter, int generation, int dataIndex, int dataCount) {
+        if (dataIndex < 0 || dataIndex >= dataCount) {
+            return;
+        }
+        synchronized (mPrefetchedViews) {
+            if (generation != mPrefetchGeneration || mPrefetchedViews.indexOfKey(dataIndex) >= 0) {
+                return;
+            }
+        }
+        // only recycled views are bound here, new views are still made on the GL thread
+        ListItemHostWidget host = takeFromPool(adapter.getItemViewType(dataIndex));
+        if (host == null) {
+            return;
+        }
+        Widget view = adapter.getView(dataIndex, host.getGuest(), host);
+        synchronized (mPrefetchedViews) {
+            if (view == null || generation != mPrefetchGeneration ||
+                    mPrefetchedViews.indexOfKey(dataIndex) >= 0) {
+                addToPool(host);
+            } else {
+                Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "prefetch(%s): bound item [%d]", getName(), dataIndex);
+                host.mPrefetchedGuest = view;
+                mPrefetchedViews.put(dataIndex, host);
+            }
+        }
+    }
+
+    private ListItemHostWidget takePrefetchedView(int dataIndex) {
+        synchronized (mPrefetchedViews) {
+            ListItemHostWidget host = mPrefetchedViews.get(dataIndex);
+            if (host != null) {
+                mPrefetchedViews.remove(dataIndex);
+            }
+            return host;
+        }
+    }
+
+    /**
+     * Drop the item sizes and the views bound ahead of time. The bound views are
+     * recycled into the pools unless the pools are cleared as well.
+     * @param clearPools true to clear the pools of recycled views
+     */
+    private void clearVirtualizationCache(boolean clearPools) {
+        synchronized (mPrefetchedViews) {
+            mItemSizes.clear();
+            ++mPrefetchGeneration;
+            for (int i = 0; i < mPrefetchedViews.size(); ++i) {
+                ListItemHostWidget host = mPrefetchedViews.valueAt(i);
+                host.mPrefetchedGuest = null;
+                addToPool(host);
+            }
+            mPrefetchedViews.clear();
+        }
+        if (clearPools) {
+            synchronized (mTypedRecycledViews) {
+                mTypedRecycledViews.clear();
+            }
+        }
+    }
+
+    private void clearVirtualizationCache() {
+        clearVirtualizationCache(true);
+    }
+
     /**
      * This method is called if the data set has been changed. Subclasses might want to override
      * this method to add some extra logic.
@@ -1281,6 +1507,7 @@ public class ListWidget extends GroupWidget implements ScrollableList {
 
         // TODO: selectively recycle data based on the changes in the data set
         mPreferableCenterPosition = preferableCenterPosition;
+        clearVirtualizationCache(false);
         recycleChildren();
     }
 
@@ -1295,15 +1522,21 @@ public class ListWidget extends GroupWidget implements ScrollableList {
             Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "[%s] measure layout = %s", this, layout);
             int centerPosition = mPreferableCenterPosition;
             // scrolling is in progress, do not remeasure the layout!
-            Collection<Widget> measuredChildren = new LinkedHashSet<>();
+            Collection<Widget> measuredChildren = mMeasuredChildren;
+            measuredChildren.clear();
             layout.measureUntilFull(centerPosition, measuredChildren);
             centerPosition = layout.getCenterChild();
 
+            int first = Integer.MAX_VALUE;
+            int last = -1;
             for (Widget next: measuredChildren) {
                 Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "measureLayout<next>: [%s] %s", next.getName(), next);
+                int dataIndex = getDataIndex(next);
+                first = Math.min(first, dataIndex);
+                last = Math.max(last, dataIndex);
             }
 
-            List<ListItemHostWidget> views = getAllHosts();
+            List<ListItemHostWidget> views = getAllHosts(mHosts);
             Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "measureLayout: [%d] [%d]", measuredChildren.size(), views.size());
             int count = 0;
             for (ListItemHostWidget host : views) {
@@ -1320,6 +1553,12 @@ public class ListWidget extends GroupWidget implements ScrollableList {
                 listener.onChangedFinished(ListWidget.this, count);
             }
             mTrimRequest = true;
+            measuredChildren.clear();
+            views.clear();
+
+            if (mVirtualizationEnabled && last >= 0) {
+                prefetch(first, last);
+            }
 
             Log.d(Log.SUBSYSTEM.LAYOUT, TAG, "measure layout mPreferableCenterPosition = %d, newPosition = %d",
                     mPreferableCenterPosition, centerPosition);
@@ -1380,6 +1619,23 @@ public class ListWidget extends GroupWidget implements ScrollableList {
             return true;
         }
 
+        @Override
+        public float getKnownChildSize(final int dataIndex, final Axis axis) {
+            if (mVirtualizationEnabled) {
+                Vector3Axis size;
+                synchronized (mPrefetchedViews) {
+                    size = mItemSizes.get(dataIndex);
+                }
+                if (size != null) {
+                    return size.get(axis);
+                }
+            }
+            return Float.NaN;
+        }
+
+        private final Collection<Widget> mMeasuredChildren = new LinkedHashSet<>();
+        private final List<ListItemHostWidget> mHosts = new ArrayList<>();
+
         @Override
         public void onTransformChanged() {
             super.onTransformChanged();
@@ -1390,7 +1646,11 @@ public class ListWidget extends GroupWidget implements ScrollableList {
     }
 
     private List<ListItemHostWidget> getAllHosts() {
-        List<ListItemHostWidget> hosts = new ArrayList<>();
+        return getAllHosts(new ArrayList<ListItemHostWidget>());
+    }
+
+    private List<ListItemHostWidget> getAllHosts(List<ListItemHostWidget> hosts) {
+        hosts.clear();
         for (Widget child: mContent.getChildren()) {
             hosts.add((ListItemHostWidget)child);
         }
@@ -1412,6 +1672,7 @@ public class ListWidget extends GroupWidget implements ScrollableList {
                         clear();
                         notifyOnInvalidated();
                     }
+                    clearVirtualizationCache();
                     mAdapter = adapter;
                     if (mAdapter != null) {
                         mAdapter.registerDataSetObserver(mInternalObserver);
@@ -1440,6 +1701,13 @@ public class ListWidget extends GroupWidget implements ScrollableList {
             }
         }
 
+        if (host == null && enforceNew && mVirtualizationEnabled) {
+            host = takePrefetchedView(dataIndex);
+            if (host == null) {
+                host = takeFromPool(getItemViewType(dataIndex));
+            }
+        }
+
         if (host == null  && enforceNew) {
             if (!mRecycledViews.isEmpty()) {
                 host = mRecycledViews.remove(0);
@@ -1624,6 +1892,18 @@ public class ListWidget extends GroupWidget implements ScrollableList {
     private List<ListItemHostWidget> mRecycledViews = new ArrayList<>();
     private boolean mTrimRequest;
 
+    private boolean mVirtualizationEnabled;
+    private int mPrefetchCount;
+    // virtualization mode: recycled hosts keep their guests and are pooled by item view type
+    private final SparseArray<List<ListItemHostWidget>> mTypedRecycledViews = new SparseArray<>();
+    // virtualization mode: hosts bound ahead of time on a background thread by data index
+    private final SparseArray<ListItemHostWidget> mPrefetchedViews = new SparseArray<>();
+    private int mPrefetchGeneration;
+    private volatile boolean mPrefetching;
+    // virtualization mode: measured item sizes by data index, guarded by mPrefetchedViews
+    private final SparseArray<Vector3Axis> mItemSizes = new SparseArray<>();
+    private final List<Widget> mScrollMeasuredChildren = new ArrayList<>();
+
     private boolean mMultiSelectionSupported;
     private boolean mSelectOnTouchEnabled;
     protected Set<Integer> mSelectedItemsList = new HashSet<>();
@@ -2105,6 +2105,11 @@ public class Widget implements Layout.WidgetContainer {
         return false;
     }
 
+    @Override
+    public float getKnownChildSize(final int dataIndex, final Layout.Axis axis) {
+        return Float.NaN;
+    }
+
     @Override
     public void onLayoutChanged(final Layout layout) {
         invalidateLayout(layout);
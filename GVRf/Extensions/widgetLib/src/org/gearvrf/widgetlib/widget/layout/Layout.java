@@ -159,7 +159,11 @@ abstract public class Layout {
      * @return child size
      */
     public float getChildSize(final int dataIndex, final Axis axis) {
-        float size = 0;
+        float size = mContainer.getKnownChildSize(dataIndex, axis);
+        if (!Float.isNaN(size)) {
+            return size;
+        }
+        size = 0;
         Widget child = mContainer.get(dataIndex);
         if (child != null) {
             switch (axis) {
@@ -534,6 +538,16 @@ abstract public class Layout {
          */
         boolean isDynamic();
 
+        /**
+         * Get the size of the widget at the data index along the axis if the container
+         * already knows it, without getting the widget. Containers which create their
+         * widgets on demand can use this to avoid binding a widget just to measure it.
+         * @param dataIndex data index
+         * @param axis {@link Axis}
+         * @return size or {@link Float#NaN} if it is not known
+         */
+        float getKnownChildSize(final int dataIndex, final Axis axis);
+
         /**
          * Called when the layout changes and the items have to be rearranged in the container
          * @param layout new layout
@@ -9,8 +9,8 @@ import org.gearvrf.widgetlib.log.Log;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PropertyManager {
 
@@ -37,7 +37,7 @@ public class PropertyManager {
 
     private JSONObject buildInstanceProperties(String name, Class<?> clazz) {
         final JSONObject properties = mInstanceJson.optJSONObject(name);
-        final UnmodifiableJSONObject defaultMetadata = getClassProperties(clazz, name);
+        final UnmodifiableJSONObject defaultMetadata = getClassProperties(clazz);
 
         if (defaultMetadata == null) {
             if (properties == null) {
@@ -52,34 +52,33 @@ public class PropertyManager {
         return JSONHelpers.merge(properties, defaultMetadata);
     }
 
-    private String getCanonicalName(Class<?> clazz) {
-        String canonicalName = mCanonicalNames.get(clazz);
-        if (canonicalName == null) {
-            canonicalName = clazz.getCanonicalName();
-            mCanonicalNames.put(clazz, canonicalName);
+    /**
+     * Get the merged properties of a class and all of its superclasses.
+     * <p>
+     * The properties of a class only depend on the class, so they are built
+     * once and cached. Every widget of the same class shares the same
+     * {@link UnmodifiableJSONObject}; instance properties are merged into a
+     * copy of it (see {@link JSONHelpers#merge(JSONObject, UnmodifiableJSONObject)}).
+     */
+    private UnmodifiableJSONObject getClassProperties(Class<?> clazz) {
+        UnmodifiableJSONObject classProperties = mClassProperties.get(clazz);
+        if (classProperties == null) {
+            classProperties = buildClassProperties(clazz);
+            // Another thread may have built the same properties in the meantime,
+            // they are equal so it doesn't matter which one is kept
+            mClassProperties.put(clazz, classProperties);
         }
-        return canonicalName;
-    }
-
-    /* package */
-    @SuppressWarnings("unchecked")
-    private UnmodifiableJSONObject getClassProperties(Class<?> clazz, String name) {
-        final String canonicalName = getCanonicalName(clazz);
-        // TODO: Why does caching class properties in mClassProperties not work?
-        UnmodifiableJSONObject classProperties = buildClassProperties(clazz, name, canonicalName);
-
         return classProperties;
     }
 
-    private UnmodifiableJSONObject buildClassProperties(Class<?> clazz, String name, String canonicalName) {
+    private UnmodifiableJSONObject buildClassProperties(Class<?> clazz) {
         // Recursively check for class properties up the class hierarchy
-        if (name == null || name.isEmpty()) {
-            name = clazz.getSimpleName();
-        }
+        final String name = clazz.getSimpleName();
+        final String canonicalName = clazz.getCanonicalName();
         final UnmodifiableJSONObject superProperties;
         final Class<?> superclass = clazz.getSuperclass();
         if (superclass != null) {
-            superProperties = getClassProperties(superclass, name);
+            superProperties = getClassProperties(superclass);
         } else {
             superProperties = new UnmodifiableJSONObject();
         }
@@ -87,7 +86,8 @@ public class PropertyManager {
                 "buildClassProperties(%s): getting super properties for %s: %s",
                 name, canonicalName, superProperties);
 
-        UnmodifiableJSONObject classProperties = mClassJson.optJSONObject(canonicalName);
+        UnmodifiableJSONObject classProperties = canonicalName == null ? null :
+                mClassJson.optJSONObject(canonicalName);
         Log.d(Log.SUBSYSTEM.JSON, TAG,
                 "buildClassProperties(%s): getting class properties for %s: %s",
                 name, canonicalName, classProperties);
@@ -99,6 +99,8 @@ public class PropertyManager {
             classProperties = new UnmodifiableJSONObject(JSONHelpers.copy(classProperties));
         }
 
+        // Merging into an UnmodifiableJSONObject makes a deep copy of it,
+        // the cached super properties are never changed
         JSONObject mergedProperties = JSONHelpers.merge(classProperties, superProperties, name);
         Log.d(Log.SUBSYSTEM.JSON, TAG,
                 "buildClassProperties(%s): getting merged properties for %s: %s",
@@ -133,9 +135,8 @@ public class PropertyManager {
                 mInstanceJson);
     }
 
-    private final Map<Class<?>, String> mCanonicalNames = new HashMap<>();
     private UnmodifiableJSONObject mClassJson;
-    private Map<Class<?>, JSONObject> mClassProperties = new HashMap<>();
+    private final Map<Class<?>, UnmodifiableJSONObject> mClassProperties = new ConcurrentHashMap<>();
     private JSONObject mInstanceJson;
 
     private static final String TAG = PropertyManager.class.getSimpleName();
@@ -84,64 +84,20 @@ public class Utility
 
     public float[] parseFixedLengthFloatString(String numberString,
                                                 int componentCount, boolean constrained0to1, boolean zeroOrGreater) {
-        StringReader sr = new StringReader(numberString);
-        StreamTokenizer st = new StreamTokenizer(sr);
-        st.parseNumbers();
-        int tokenType;
+        NumberScanner scanner = new NumberScanner(numberString);
         float componentFloat[] = new float[componentCount];
-        try {
-            for (int i = 0; i < componentCount; i++) {
-                if ((tokenType = st.nextToken()) == StreamTokenizer.TT_NUMBER) {
-                    componentFloat[i] = (float) st.nval;
-                } else { // check for an exponent 'e'
-                    if (tokenType == StreamTokenizer.TT_WORD) {
-                        String word = st.sval;
-                        if (word.startsWith("e-")) { // negative exponent
-                            String exponentString = word.substring(2, word.length());
-                            try {
-                                --i; // with this exponent, we are still working with the
-                                // previous number
-                                Integer exponentInt = Integer.parseInt(exponentString);
-                                componentFloat[i] *= (float) Math
-                                        .pow(10, -exponentInt.intValue());
-                            } catch (NumberFormatException e) {
-                                Log.e(TAG,
-                                        "parsing fixed length string, exponent number conversion error: "
-                                                + exponentString);
-                            }
-                        } else if (word.equalsIgnoreCase("e")) { // exponent with plus sign
-                            tokenType = st.nextToken();
-                            if (tokenType == 43) { // "+" plus sign
-                                if ((tokenType = st.nextToken()) == StreamTokenizer.TT_NUMBER) {
-                                    --i; // with this exponent, we are still working with the
-                                    // previous number
-                                    float exponent = (float) st.nval;
-                                    componentFloat[i] *= (float) Math.pow(10, exponent);
-                                } else {
-                                    st.pushBack();
-                                    Log.e(TAG,
-                                            "Error: exponent in X3D parser with fixed length float");
-                                }
-                            } else
-                                st.pushBack();
-                        } else
-                            st.pushBack();
-                    }
-                } // end check for 'e' exponent
-                if (constrained0to1) {
-                    if (componentFloat[i] < 0)
-                        componentFloat[i] = 0;
-                    else if (componentFloat[i] > 1)
-                        componentFloat[i] = 1;
-                } else if (zeroOrGreater) {
-                    if (componentFloat[i] < 0)
-                        componentFloat[i] = 0;
-                }
-            } // end for-loop
-        } // end 'try'
-        catch (IOException e) {
-            Log.d(TAG, "Error parsing fixed length float string: " + e);
-        }
+        for (int i = 0; (i < componentCount) && scanner.next(); i++) {
+            componentFloat[i] = (float) scanner.value();
+            if (constrained0to1) {
+                if (componentFloat[i] < 0)
+                    componentFloat[i] = 0;
+                else if (componentFloat[i] > 1)
+                    componentFloat[i] = 1;
+            } else if (zeroOrGreater) {
+                if (componentFloat[i] < 0)
+                    componentFloat[i] = 0;
+            }
+        } // end for-loop
         return componentFloat;
     } // end parseFixedLengthFloatString
 
@@ -223,145 +179,88 @@ public class Utility
 
     protected void parseNumbersString(String numberString, int componentType,
                                     int componentCount) {
-        //preprocessing to get rid of 'e' or 'E' exponent
-        // otherwise the SAX parser splits 3e-2 (which is .03) into two
-        // number, 3 and -2.
-        if ( (numberString.indexOf('e') != -1) || (numberString.indexOf('E') != -1) ) {
-            int stringPos = 0;
-            String newReplacementString = "";
-            // we do assume the numberString won't be mixing 'e' and 'E'
-            // but we want to handle any either character
-            char eChar = 'e';
-            if ( numberString.indexOf('E') != -1 ) eChar = 'E';
-            while (numberString.indexOf(eChar, stringPos) != -1)  {
-                int ePos = numberString.indexOf(eChar, stringPos);
-                // check for the first space or comma before 'e'.
-                int prevSpaceBefore_e = Math.max( (numberString.lastIndexOf(' ', ePos)), (numberString.lastIndexOf(',', ePos)) );
-                prevSpaceBefore_e++;
-                // Copy from the current position until the comma or space before the 'e'
-                newReplacementString += numberString.substring(stringPos, prevSpaceBefore_e);
-                // check for the next space or comma after 'e'.
-                // Otherwise, we might be at the end of the string.
-                int nextSpaceAfter_e = Math.min( (numberString.indexOf(' ', ePos)), (numberString.indexOf(',', ePos)) );
-                if (nextSpaceAfter_e == -1) {
-                    // at the end of the original string, find the last space, comma or EOL of the string
-                    nextSpaceAfter_e = Math.max( (numberString.indexOf(' ', ePos)), (numberString.indexOf(',', ePos)) );
-                    if (nextSpaceAfter_e == -1) nextSpaceAfter_e = Math.max( nextSpaceAfter_e, numberString.length() );
-                }
-                String exponentString = numberString.substring(ePos+1, nextSpaceAfter_e);
-                try {
-                    double newReplacementNumber =
-                            ( (float) (new Float( numberString.substring(prevSpaceBefore_e, ePos) )) )
-                                    * Math.pow(10, (int) (new Integer(exponentString)) );
-                    // At < 1/1000th, it might be more efficient as 0.
-                    if ( Math.abs(newReplacementNumber) < .001 ) newReplacementNumber = 0;
-                    newReplacementString += " " + newReplacementNumber + " ";
-                }
-                catch (java.lang.NumberFormatException exception) {
-                    Log.e(TAG, "NumberFormatException in " + numberString.substring(prevSpaceBefore_e, nextSpaceAfter_e) + "; " + exception);
-                }
-                catch (Exception exception) {
-                    Log.e(TAG, "Exception in " + numberString.substring(prevSpaceBefore_e, nextSpaceAfter_e) + "; " + exception);
-                }
-                stringPos = nextSpaceAfter_e;
-            }
-            // Add any remainder of a string
-            numberString = newReplacementString + numberString.substring(stringPos, numberString.length());
-        }
-        StringReader sr = new StringReader(numberString);
-        StreamTokenizer st = new StreamTokenizer(sr);
-        st.parseNumbers();
-        int tokenType;
-        short componentShort[] = new short[componentCount];
+        NumberScanner scanner = new NumberScanner(numberString);
         float componentFloat[] = new float[componentCount];
-        try {
-            int index = 0;
-            while ((tokenType = st.nextToken()) != StreamTokenizer.TT_EOF) {
-                if (tokenType == StreamTokenizer.TT_NUMBER) {
-
-                    // first componentType's parse for short values
-                    // (integers) and will have no exponents
-
-                    if (componentType == indexedFaceSetComponent) {
-                        if ((int) st.nval != -1) {
-                            meshCreator.addPositionIndex((int) st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                index = 0;
-                            }
-                        }
-                    } else if (componentType == textureIndexComponent) {
-                        if ((int) st.nval != -1) {
-                            meshCreator.addTexcoordIndex((int) st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                index = 0;
-                            }
-                        }
-                    } else if (componentType == normalIndexComponent) {
-                        if ((int) st.nval != -1) {
-                            meshCreator.addNormalIndex((int) st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                index = 0;
-                            }
-                        }
+        int index = 0;
+        while (scanner.next()) {
+            double nval = scanner.value();
+            // first componentType's parse for short values
+            // (integers) and will have no exponents
+
+            if (componentType == indexedFaceSetComponent) {
+                if ((int) nval != -1) {
+                    meshCreator.addPositionIndex((int) nval);
+                    index++;
+                    if (index == componentCount) {
+                        index = 0;
                     }
-
-                    // The rest of these will be parsing floats that could
-                    // have 'e' exponent value.  3DSMax will export X3D/VRML
-                    // with the 'e' exponent
-                    //TODO: check for 'e' exponent values.
-
-                    else if (componentType == verticesComponent) {
-                        componentFloat[index] = (float) (st.nval);
-                        index++;
-                        if (index == componentCount) {
-                            meshCreator.addInputPosition(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == textureCoordComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            meshCreator.addInputTexcoord(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == normalsComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            meshCreator.addInputNormal(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == interpolatorKeyComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            mX3DObject.AddKeys(componentFloat[0]);
-                            index = 0;
-                        }
-                    } else if (componentType == interpolatorKeyValueComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            mX3DObject.AddKeyValues(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == LODComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        mX3DObject.AddKeys(componentFloat[0]);
-                    } else if (componentType == elevationGridHeight) {
-                        // Elevation Grid not currently supported
-                        mX3DObject.floatArray.add(new Float((float) st.nval));
+                }
+            } else if (componentType == textureIndexComponent) {
+                if ((int) nval != -1) {
+                    meshCreator.addTexcoordIndex((int) nval);
+                    index++;
+                    if (index == componentCount) {
+                        index = 0;
+                    }
+                }
+            } else if (componentType == normalIndexComponent) {
+                if ((int) nval != -1) {
+                    meshCreator.addNormalIndex((int) nval);
+                    index++;
+                    if (index == componentCount) {
+                        index = 0;
                     }
+                }
+            }
 
-                } // end if token = number
-            } // end while loop
-        } // end try statement
-        catch (IOException e) {
-            Log.e(TAG, "Error: parseNumbersString - " + e);
-        }
+            // The rest of these will be parsing floats that could
+            // have 'e' exponent value.  3DSMax will export X3D/VRML
+            // with the 'e' exponent
+
+            else if (componentType == verticesComponent) {
+                componentFloat[index] = (float) (nval);
+                index++;
+                if (index == componentCount) {
+                    meshCreator.addInputPosition(componentFloat);
+                    index = 0;
+                }
+            } else if (componentType == textureCoordComponent) {
+                componentFloat[index] = (float) nval;
+                index++;
+                if (index == componentCount) {
+                    meshCreator.addInputTexcoord(componentFloat);
+                    index = 0;
+                }
+            } else if (componentType == normalsComponent) {
+                componentFloat[index] = (float) nval;
+                index++;
+                if (index == componentCount) {
+                    meshCreator.addInputNormal(componentFloat);
+                    index = 0;
+                }
+            } else if (componentType == interpolatorKeyComponent) {
+                componentFloat[index] = (float) nval;
+                index++;
+                if (index == componentCount) {
+                    mX3DObject.AddKeys(componentFloat[0]);
+                    index = 0;
+                }
+            } else if (componentType == interpolatorKeyValueComponent) {
+                componentFloat[index] = (float) nval;
+                index++;
+                if (index == componentCount) {
+                    mX3DObject.AddKeyValues(componentFloat);
+                    index = 0;
+                }
+            } else if (componentType == LODComponent) {
+                componentFloat[index] = (float) nval;
+                mX3DObject.AddKeys(componentFloat[0]);
+            } else if (componentType == elevationGridHeight) {
+                // Elevation Grid not currently supported
+                mX3DObject.floatArray.add((float) nval);
+            }
+
+        } // end while loop
     } // parseNumbersString
 
     /*
@@ -382,6 +281,186 @@ public class Utility
 
 
 
+    /**
+     * Scans the numbers out of an X3D numeric field one character at a time.
+     * <p>
+     * Values are separated by white space and/or commas. Each number is
+     * converted directly from its characters, including any 'e' or 'E'
+     * exponent, so no intermediate strings are created while parsing
+     * large MFFloat, MFVec3f or MFInt32 fields. Words which do not start
+     * with a digit, sign or decimal point are skipped.
+     */
+    static class NumberScanner
+    {
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+                1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+                1e21, 1e22
+        };
+        private static final int MAX_MANTISSA_DIGITS = 18;
+
+        private final String mString;
+        private final int mLength;
+        private int mPos = 0;
+        private double mValue = 0;
+
+        NumberScanner(String string)
+        {
+            mString = string;
+            mLength = string.length();
+        }
+
+        /**
+         * Advances to the next number in the string.
+         * @return true if a number was found, false at the end of the string
+         */
+        boolean next()
+        {
+            while (mPos < mLength)
+            {
+                char c = mString.charAt(mPos);
+
+                if (isDigit(c) || (c == '-') || (c == '+') || (c == '.'))
+                {
+                    if (scanNumber())
+                    {
+                        return true;
+                    }
+                }
+                else if (Character.isLetter(c))
+                {
+                    // skip the whole word, e.g. a stray 'e' or "NaN"
+                    while ((mPos < mLength) && Character.isLetterOrDigit(mString.charAt(mPos)))
+                    {
+                        ++mPos;
+                    }
+                }
+                else
+                {
+                    ++mPos;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the value of the number found by the last call to {@link #next()}
+         */
+        double value()
+        {
+            return mValue;
+        }
+
+        private static boolean isDigit(char c)
+        {
+            return (c >= '0') && (c <= '9');
+        }
+
+        private boolean scanNumber()
+        {
+            boolean negative = false;
+            boolean hasDigits = false;
+            long mantissa = 0;
+            int numDigits = 0;
+            int exponent = 0;
+            char c = mString.charAt(mPos);
+
+            if ((c == '-') || (c == '+'))
+            {
+                negative = (c == '-');
+                ++mPos;
+            }
+            while ((mPos < mLength) && isDigit(c = mString.charAt(mPos)))
+            {
+                hasDigits = true;
+                if (numDigits < MAX_MANTISSA_DIGITS)
+                {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0)
+                    {
+                        ++numDigits;
+                    }
+                }
+                else
+                {
+                    ++exponent;
+                }
+                ++mPos;
+            }
+            if ((mPos < mLength) && (mString.charAt(mPos) == '.'))
+            {
+                ++mPos;
+                while ((mPos < mLength) && isDigit(c = mString.charAt(mPos)))
+                {
+                    hasDigits = true;
+                    if (numDigits < MAX_MANTISSA_DIGITS)
+                    {
+                        mantissa = mantissa * 10 + (c - '0');
+                        --exponent;
+                        if (mantissa != 0)
+                        {
+                            ++numDigits;
+                        }
+                    }
+                    ++mPos;
+                }
+            }
+            if (!hasDigits)
+            {
+                return false;
+            }
+            if ((mPos < mLength) && ((mString.charAt(mPos) == 'e') || (mString.charAt(mPos) == 'E')))
+            {
+                int p = mPos + 1;
+                boolean negativeExponent = false;
+
+                if ((p < mLength) && ((mString.charAt(p) == '-') || (mString.charAt(p) == '+')))
+                {
+                    negativeExponent = (mString.charAt(p) == '-');
+                    ++p;
+                }
+                if ((p < mLength) && isDigit(mString.charAt(p)))
+                {
+                    int e = 0;
+
+                    while ((p < mLength) && isDigit(c = mString.charAt(p)))
+                    {
+                        if (e < 10000)
+                        {
+                            e = e * 10 + (c - '0');
+                        }
+                        ++p;
+                    }
+                    exponent += negativeExponent ? -e : e;
+                    mPos = p;
+                }
+            }
+            mValue = scale(mantissa, exponent);
+            if (negative)
+            {
+                mValue = -mValue;
+            }
+            return true;
+        }
+
+        private static double scale(long mantissa, int exponent)
+        {
+            if ((mantissa == 0) || (exponent == 0))
+            {
+                return mantissa;
+            }
+            if ((exponent > 0) && (exponent < POWERS_OF_TEN.length))
+            {
+                return mantissa * POWERS_OF_TEN[exponent];
+            }
+            if ((exponent < 0) && (-exponent < POWERS_OF_TEN.length))
+            {
+                return mantissa / POWERS_OF_TEN[-exponent];
+            }
+            return mantissa * Math.pow(10, exponent);
+        }
+    }
+
     /**
      * This class facilitates construction of GearVRF meshes from X3D data.
      * X3D can have different indices for positions, normals and texture coordinates.
@@ -414,6 +493,11 @@ public class Utility
 
             float[] array() { return mData; }
 
+            float[] toArray()
+            {
+                return (mData == null) ? new float[0] : Arrays.copyOf(mData, mCurSize);
+            }
+
             int getSize() { return mCurSize; }
 
             void fill(float v) { Arrays.fill(mData, v); }
@@ -458,15 +542,28 @@ public class Utility
                 v.z = mData[index + 2];
             }
 
+            void add(float v)
+            {
+                if (mData == null)
+                {
+                    mData = new float[mMinSize];
+                }
+                if (mCurSize + 1 > mData.length)
+                {
+                    mData = Arrays.copyOf(mData, Math.max((mCurSize * 3) / 2, mCurSize + 1));
+                }
+                mData[mCurSize++] = v;
+            }
+
             void add(float[] entry)
             {
                 if (mData == null)
                 {
                     mData = new float[mMinSize];
                 }
-                else if (mCurSize + entry.length > mData.length)
+                if (mCurSize + entry.length > mData.length)
                 {
-                    mData = Arrays.copyOf(mData, (mCurSize * 3) / 2);
+                    mData = Arrays.copyOf(mData, Math.max((mCurSize * 3) / 2, mCurSize + entry.length));
                 }
                 for (int i = 0; i < entry.length; ++i)
                 {
@@ -515,9 +612,9 @@ public class Utility
                 {
                     mData = new int[mMinSize];
                 }
-                else if (mCurSize + 1 > mData.length)
+                if (mCurSize + 1 > mData.length)
                 {
-                    mData = Arrays.copyOf(mData, (mCurSize * 3) / 2);
+                    mData = Arrays.copyOf(mData, Math.max((mCurSize * 3) / 2, mCurSize + 1));
                 }
                 mData[mCurSize++] = v;
             }
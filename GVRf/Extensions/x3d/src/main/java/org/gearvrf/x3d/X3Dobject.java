@@ -42,8 +42,11 @@ import java.io.StreamTokenizer;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Vector;
 
@@ -198,6 +201,18 @@ public class X3Dobject {
      */
     public Vector<DefinedItem> mDefinedItems = new Vector<DefinedItem>();
 
+    /**
+     * Indices into mDefinedItems so that USE lookups do not scan the
+     * whole list. Only accessed by the parser thread, so they are not
+     * synchronized. Like the linear search they replace, the first
+     * item DEFined with a given name or object wins.
+     */
+    private HashMap<String, DefinedItem> mDefinedItemsByName = new HashMap<String, DefinedItem>();
+    private IdentityHashMap<GVRRenderData, DefinedItem> mDefinedItemsByRenderData =
+            new IdentityHashMap<GVRRenderData, DefinedItem>();
+    private IdentityHashMap<GVRTexture, DefinedItem> mDefinedItemsByTexture =
+            new IdentityHashMap<GVRTexture, DefinedItem>();
+
 
     // When Translation object has multiple properties (center, scale, rotation
     // plus translation)
@@ -237,8 +252,8 @@ public class X3Dobject {
     private GVRTexture gvrTexture = null;
     private ArrayList<ScriptObject> scriptObjects = new ArrayList<ScriptObject>();
 
-    protected Vector<Key> keys = new Vector<Key>();
-    protected Vector<KeyValue> keyValues = new Vector<KeyValue>();
+    protected Utility.MeshCreatorX.FloatArray keys = new Utility.MeshCreatorX.FloatArray(64);
+    protected Utility.MeshCreatorX.FloatArray keyValues = new Utility.MeshCreatorX.FloatArray(64 * 4);
     protected Vector<Float> floatArray = new Vector<Float>();
 
     private Vector<TimeSensor> timeSensors = new Vector<TimeSensor>();
@@ -285,6 +300,8 @@ public class X3Dobject {
     //    None, ProtoDeclare, ProtoInterface, ProtoBody }
     //private proto_States proto_State = proto_States.None;
     private ArrayList<Proto> protos = new ArrayList<Proto>();
+    // ProtoDeclare by lower case name, the last declaration wins
+    private HashMap<String, Proto> protosByName = new HashMap<String, Proto>();
     private Proto proto = null;
     private Proto protoInstance = null;
 
@@ -327,6 +344,43 @@ public class X3Dobject {
         Text_FontParams.style = GVRTextViewSceneObject.fontStyleTypes.PLAIN;
     }
 
+    /**
+     * Adds an item to the list of DEFined items and indexes it
+     * so later USE references can find it without a linear search.
+     */
+    private void addDefinedItem(DefinedItem definedItem) {
+        mDefinedItems.add(definedItem);
+        if (!mDefinedItemsByName.containsKey(definedItem.getName())) {
+            mDefinedItemsByName.put(definedItem.getName(), definedItem);
+        }
+        indexDefinedItem(definedItem);
+    }
+
+    /**
+     * Indexes a DEFined item by its render data and texture.
+     * Called again if they change after the item has been added.
+     */
+    private void indexDefinedItem(DefinedItem definedItem) {
+        GVRRenderData renderData = definedItem.getGVRRenderData();
+        GVRTexture texture = definedItem.getGVRTexture();
+
+        if ((renderData != null) && !mDefinedItemsByRenderData.containsKey(renderData)) {
+            mDefinedItemsByRenderData.put(renderData, definedItem);
+        }
+        if ((texture != null) && !mDefinedItemsByTexture.containsKey(texture)) {
+            mDefinedItemsByTexture.put(texture, definedItem);
+        }
+    }
+
+    /**
+     * Finds the item DEFined with the given name.
+     * @param name value of the USE attribute
+     * @return the first item DEFined with that name, or null if none
+     */
+    private DefinedItem findDefinedItem(String name) {
+        return mDefinedItemsByName.get(name);
+    }
+
     //Called after parsing </Shape>
     private void ShapePostParsing() {
         if (!gvrRenderingDataUSEd) {
@@ -359,17 +413,14 @@ public class X3Dobject {
                             // <Shape> node created an unused gvrRenderData
                             // Check if we had a DEF in Shape node so that we can point to
                             // the new gvrRenderData
-                            for (DefinedItem definedItem : mDefinedItems) {
-                                if (definedItem.getGVRRenderData() == gvrRenderData) {
-                                    definedGRRenderingData = definedItem;
-                                    break;
-                                }
-                            }
+                            definedGRRenderingData = mDefinedItemsByRenderData.get(gvrRenderData);
                         }
                         gvrRenderData = meshAttachedSceneObject.getRenderData();
                         // reset the DEF item to now point to the shader
-                        if (definedGRRenderingData != null)
+                        if (definedGRRenderingData != null) {
                             definedGRRenderingData.setGVRRenderData(gvrRenderData);
+                            indexDefinedItem(definedGRRenderingData);
+                        }
                         gvrMaterial = gvrRenderData.getMaterial();
                     }
                     // X3D doesn't have an ambient color so need to do color
@@ -394,7 +445,7 @@ public class X3Dobject {
                         DefinedItem definedItem = new DefinedItem(
                                 shaderSettings.getMaterialName());
                         definedItem.setGVRMaterial(gvrMaterial);
-                        mDefinedItems.add(definedItem); // Add gvrMaterial to Array list
+                        addDefinedItem(definedItem); // Add gvrMaterial to Array list
                         // of DEFined items Clones
                         // objects with USE
                     }
@@ -404,7 +455,7 @@ public class X3Dobject {
                             DefinedItem definedItem = new DefinedItem(
                                     shaderSettings.getMultiTextureName() );
                             definedItem.setGVRMaterial(gvrMaterial);
-                            mDefinedItems.add(definedItem); // Add gvrMaterial to Array list
+                            addDefinedItem(definedItem); // Add gvrMaterial to Array list
                         }
                         gvrMaterial.setTexture("diffuseTexture", shaderSettings.getMultiTextureGVRTexture(0) );
                         gvrMaterial.setTexture("diffuseTexture1", shaderSettings.getMultiTextureGVRTexture(1) );
@@ -420,11 +471,9 @@ public class X3Dobject {
                         // if the TextureMap is a DEFined item, then set the
                         // GVRMaterial to it as well to help if we set the
                         // in a SCRIPT node.
-                        for (DefinedItem definedItem: mDefinedItems) {
-                            if ( definedItem.getGVRTexture() == shaderSettings.texture) {
-                                definedItem.setGVRMaterial(gvrMaterial);
-                                break;
-                            }
+                        DefinedItem definedItem = mDefinedItemsByTexture.get(shaderSettings.texture);
+                        if (definedItem != null) {
+                            definedItem.setGVRMaterial(gvrMaterial);
                         }
                     }
 
@@ -455,7 +504,7 @@ public class X3Dobject {
                                 gvrVideoSceneObject.setName(shaderSettings.getMovieTextureName());
                                 DefinedItem item = new DefinedItem(shaderSettings.getMovieTextureName());
                                 item.setGVRVideoSceneObject(gvrVideoSceneObject);
-                                mDefinedItems.add(item);
+                                addDefinedItem(item);
                             }
                         } catch (Exception e) {
                             e.printStackTrace();
@@ -478,7 +527,7 @@ public class X3Dobject {
                             definedItem.setTextureScale(shaderSettings.getTextureScale());
                             definedItem.setTextureRotation(shaderSettings.getTextureRotation().getValue());
                             definedItem.setName(shaderSettings.getTextureTransformName());
-                            mDefinedItems.add(definedItem); // Add gvrMaterial to Array list
+                            addDefinedItem(definedItem); // Add gvrMaterial to Array list
                         }
                         // Texture Transform Matrix equation:
                         // TC' = -C * S * R * C * T * TC
@@ -503,7 +552,7 @@ public class X3Dobject {
                         DefinedItem definedItem = new DefinedItem(
                                 shaderSettings.getAppearanceName());
                         definedItem.setGVRMaterial(gvrMaterial);
-                        mDefinedItems.add(definedItem);
+                        addDefinedItem(definedItem);
                         // Add gvrMaterial to Array list
                         // of DEFined items Clones
                         // objects with USE
@@ -605,16 +654,14 @@ public class X3Dobject {
     protected void AddKeys(float key)
 
     {
-        Key newKey = new Key(key);
-        keys.add(newKey);
+        keys.add(key);
     }
 
 
     protected void AddKeyValues(float[] values)
 
     {
-        KeyValue newKeyValue = new KeyValue(values);
-        keyValues.add(newKeyValue);
+        keyValues.add(values);
     }
 
 
@@ -637,13 +684,7 @@ public class X3Dobject {
             // causes an infinite loop in the renderer.
             // Solution therefore is to duplicate GVRSceneObject(s) including children
             // and share the GVRMesh and GVRMaterials.
-            DefinedItem useItem = null;
-            for (DefinedItem definedItem : mDefinedItems) {
-                if (attributeValue.equals(definedItem.getName())) {
-                    useItem = definedItem;
-                    break;
-                }
-            }
+            DefinedItem useItem = findDefinedItem(attributeValue);
             if (useItem != null) {
                 // Get the GVRSceneObject to replicate from the DEFinedItem list.
                 GVRSceneObject gvrSceneObjectDEFitem = useItem.getGVRSceneObject();
@@ -868,7 +909,7 @@ public class X3Dobject {
                         DefinedItem definedItem = new DefinedItem(name, rotation[3],
                                 rotation[0], rotation[1], rotation[2]);
                         definedItem.setGVRSceneObject(currentSceneObject);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                     } // end if DEF name and thus possible animation / interactivity
 
                     // Check if there is an active Level-of-Detail (LOD)
@@ -907,7 +948,7 @@ public class X3Dobject {
                         currentSceneObject.setName(attributeValue);
                         DefinedItem definedItem = new DefinedItem(attributeValue);
                         definedItem.setGVRSceneObject(currentSceneObject);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                     }
 
                     // Check if there is an active Level-of-Detail (LOD)
@@ -945,13 +986,7 @@ public class X3Dobject {
 
                 attributeValue = attributes.getValue("USE");
                 if (attributeValue != null) { // Shape node to be shared / re-used
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (attributeValue.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(attributeValue);
                     if (useItem != null) {
                         // GVRRenderingData doesn't seem to be shared, but instead has an
                         // owner.  Thus share the GVRMesh and GVRMaterial attached to
@@ -970,7 +1005,7 @@ public class X3Dobject {
                     if (attributeValue != null) {
                         DefinedItem definedItem = new DefinedItem(attributeValue);
                         definedItem.setGVRRenderData(gvrRenderData);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                         // Clones objects with USE
                     }
                     if ( proto != null) {
@@ -993,13 +1028,7 @@ public class X3Dobject {
         /* This gives the X3D-only Shader */
                 attributeValue = attributes.getValue("USE");
                 if (attributeValue != null) { // shared Appearance node, GVRMaterial
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (attributeValue.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(attributeValue);
                     if (useItem != null) {
                         gvrMaterial = useItem.getGVRMaterial();
                         gvrRenderData.setMaterial(gvrMaterial);
@@ -1028,13 +1057,7 @@ public class X3Dobject {
             else if (qName.equalsIgnoreCase("material")) {
                 attributeValue = attributes.getValue("USE");
                 if (attributeValue != null) {
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (attributeValue.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(attributeValue);
                     if (useItem != null) {
                         gvrMaterial = useItem.getGVRMaterial();
                         gvrRenderData.setMaterial(gvrMaterial);
@@ -1115,13 +1138,7 @@ public class X3Dobject {
                 if ( !blockTexturing ) {
                     attributeValue = attributes.getValue("USE");
                     if (attributeValue != null) {
-                        DefinedItem useItem = null;
-                        for (DefinedItem definedItem : mDefinedItems) {
-                            if (attributeValue.equals(definedItem.getName())) {
-                                useItem = definedItem;
-                                break;
-                            }
-                        }
+                        DefinedItem useItem = findDefinedItem(attributeValue);
                         if (useItem != null) {
                             gvrTexture = useItem.getGVRTexture();
                             shaderSettings.setTexture(gvrTexture);
@@ -1164,7 +1181,7 @@ public class X3Dobject {
                             if (defValue != null) {
                                 DefinedItem item = new DefinedItem(defValue);
                                 item.setGVRTexture(gvrTexture);
-                                mDefinedItems.add(item);
+                                addDefinedItem(item);
                             }
 
                             if ( shaderSettings.getMultiTexture() ) {
@@ -1322,13 +1339,7 @@ public class X3Dobject {
             else if (qName.equalsIgnoreCase("Coordinate")) {
                 attributeValue = attributes.getValue("USE");
                 if (attributeValue != null) { // Coordinate node to be shared / re-used
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (attributeValue.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(attributeValue);
                     if (useItem != null) {
 
                         // 'useItem' points to GVRMesh who's useItem.getGVRMesh Coordinates
@@ -1346,7 +1357,7 @@ public class X3Dobject {
                         DefinedItem definedItem = new DefinedItem(attributeValue);
                             utility.meshCreator.defineVertexBuffer(definedItem);
                         // Array list of DEFined items clones objects with USE
-                        mDefinedItems.add(definedItem);
+                        addDefinedItem(definedItem);
                     }
                     String pointAttribute = attributes.getValue("point");
                     if (pointAttribute != null) {
@@ -1380,13 +1391,7 @@ public class X3Dobject {
             else if (qName.equalsIgnoreCase("TextureCoordinate")) {
                 attributeValue = attributes.getValue("USE");
                 if (attributeValue != null) { // Coordinate node to be shared / re-used
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (attributeValue.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(attributeValue);
                     if (useItem != null) {
 
                         // 'useItem' points to GVRVertexBuffer who's useItem.getVertexBuffer
@@ -1406,7 +1411,7 @@ public class X3Dobject {
                         DefinedItem definedItem = new DefinedItem(attributeValue);
                             definedItem.setVertexBuffer(gvrVertexBuffer);
                         // Array list of DEFined items clones objects with USE
-                        mDefinedItems.add(definedItem);
+                        addDefinedItem(definedItem);
                     }
                     // Have to flip the y texture coordinates because the image will be
                     // upside down
@@ -1441,13 +1446,7 @@ public class X3Dobject {
             else if (qName.equalsIgnoreCase("Normal")) {
                 attributeValue = attributes.getValue("USE");
                 if (attributeValue != null) { // Coordinate node to be shared / re-used
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (attributeValue.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(attributeValue);
                     if (useItem != null) {
 
                         // 'useItem' points to GVRVertexBuffer who's useItem.getVertexBuffer Coordinates
@@ -1466,7 +1465,7 @@ public class X3Dobject {
                         DefinedItem definedItem = new DefinedItem(attributeValue);
                             definedItem.setVertexBuffer(gvrVertexBuffer);
                         // Array list of DEFined items clones objects with USE
-                        mDefinedItems.add(definedItem);
+                        addDefinedItem(definedItem);
                     }
                     String vectorAttribute = attributes.getValue("vector");
                     if (vectorAttribute != null) {
@@ -1500,13 +1499,7 @@ public class X3Dobject {
                 if (UNIVERSAL_LIGHTS && !blockLighting) {
                     attributeValue = attributes.getValue("USE");
                     if (attributeValue != null) { // shared PointLight
-                        DefinedItem useItem = null;
-                        for (DefinedItem definedItem : mDefinedItems) {
-                            if (attributeValue.equals(definedItem.getName())) {
-                                useItem = definedItem;
-                                break;
-                            }
-                        }
+                        DefinedItem useItem = findDefinedItem(attributeValue);
                         if (useItem != null) {
                             // GVRf does not allow a light attached at two places
                             // so copy the attributes of the original light into the second
@@ -1573,7 +1566,7 @@ public class X3Dobject {
                             newPtLightSceneObj.setName(attributeValue);
                             DefinedItem definedItem = new DefinedItem(attributeValue);
                             definedItem.setGVRSceneObject(newPtLightSceneObj);
-                            mDefinedItems.add(definedItem); // Array list of DEFined items
+                            addDefinedItem(definedItem); // Array list of DEFined items
                             // Clones objects with USE
                         }
                         attributeValue = attributes.getValue("ambientIntensity");
@@ -1648,13 +1641,7 @@ public class X3Dobject {
                 if (UNIVERSAL_LIGHTS && !blockLighting) {
                     attributeValue = attributes.getValue("USE");
                     if (attributeValue != null) { // shared PointLight
-                        DefinedItem useItem = null;
-                        for (DefinedItem definedItem : mDefinedItems) {
-                            if (attributeValue.equals(definedItem.getName())) {
-                                useItem = definedItem;
-                                break;
-                            }
-                        }
+                        DefinedItem useItem = findDefinedItem(attributeValue);
                         if (useItem != null) {
                             // GVRf does not allow a light attached at two places
                             // so copy the attributes of the original light into the second
@@ -1714,7 +1701,7 @@ public class X3Dobject {
                             newDirectionalLightSceneObj.setName(attributeValue);
                             definedItem = new DefinedItem(attributeValue);
                             definedItem.setGVRSceneObject(newDirectionalLightSceneObj);
-                            mDefinedItems.add(definedItem); // Array list of DEFined items
+                            addDefinedItem(definedItem); // Array list of DEFined items
                             // Clones objects with USE
                         }
                         attributeValue = attributes.getValue("ambientIntensity");
@@ -1777,13 +1764,7 @@ public class X3Dobject {
                 if (UNIVERSAL_LIGHTS && !blockLighting) {
                     attributeValue = attributes.getValue("USE");
                     if (attributeValue != null) { // shared PointLight
-                        DefinedItem useItem = null;
-                        for (DefinedItem definedItem : mDefinedItems) {
-                            if (attributeValue.equals(definedItem.getName())) {
-                                useItem = definedItem;
-                                break;
-                            }
-                        }
+                        DefinedItem useItem = findDefinedItem(attributeValue);
                         if (useItem != null) {
                             // GVRf does not allow a light attached at two places
                             // so copy the attributes of the original light into the second
@@ -1867,7 +1848,7 @@ public class X3Dobject {
                             newSpotLightSceneObj.setName(attributeValue);
                             definedItem = new DefinedItem(attributeValue);
                             definedItem.setGVRSceneObject(newSpotLightSceneObj);
-                            mDefinedItems.add(definedItem); // Array list of DEFined items
+                            addDefinedItem(definedItem); // Array list of DEFined items
                             // Clones objects with USE
                         }
                         attributeValue = attributes.getValue("ambientIntensity");
@@ -2062,11 +2043,7 @@ public class X3Dobject {
                         utility.parseNumbersString(attributeValue, X3Dobject.interpolatorKeyComponent,
                                 1);
 
-                        keysList = new float[keys.size()];
-                        for (int i = 0; i < keysList.length; i++) {
-                            Key keyObject = keys.get(i);
-                            keysList[i] = keyObject.key;
-                        }
+                        keysList = keys.toArray();
                         keys.clear();
                     }
                     attributeValue = attributes.getValue("keyValue");
@@ -2074,13 +2051,7 @@ public class X3Dobject {
                         utility.parseNumbersString(attributeValue,
                                 X3Dobject.interpolatorKeyValueComponent, 3);
 
-                        keyValuesList = new float[keyValues.size() * 3];
-                        for (int i = 0; i < keyValues.size(); i++) {
-                            KeyValue keyValueObject = keyValues.get(i);
-                            for (int j = 0; j < 3; j++) {
-                                keyValuesList[i * 3 + j] = keyValueObject.keyValues[j];
-                            }
-                        }
+                        keyValuesList = keyValues.toArray();
                         keyValues.clear();
                     }
                     Interpolator newInterporlator = new Interpolator(name, keysList,
@@ -2105,11 +2076,7 @@ public class X3Dobject {
                         utility.parseNumbersString(attributeValue, X3Dobject.interpolatorKeyComponent,
                                 1);
 
-                        keysList = new float[keys.size()];
-                        for (int i = 0; i < keysList.length; i++) {
-                            Key keyObject = keys.get(i);
-                            keysList[i] = keyObject.key;
-                        }
+                        keysList = keys.toArray();
                         keys.clear();
                     }
                     attributeValue = attributes.getValue("keyValue");
@@ -2117,13 +2084,7 @@ public class X3Dobject {
                         utility.parseNumbersString(attributeValue,
                                 X3Dobject.interpolatorKeyValueComponent, 4);
 
-                        keyValuesList = new float[keyValues.size() * 4];
-                        for (int i = 0; i < keyValues.size(); i++) {
-                            KeyValue keyValueObject = keyValues.get(i);
-                            for (int j = 0; j < 4; j++) {
-                                keyValuesList[i * 4 + j] = keyValueObject.keyValues[j];
-                            }
-                        }
+                        keyValuesList = keyValues.toArray();
                         keyValues.clear();
                     }
                     Interpolator newInterporlator = new Interpolator(name, keysList,
@@ -2379,7 +2340,7 @@ public class X3Dobject {
                     if ( !name.equals("") ) {
                         DefinedItem definedItem = new DefinedItem(name);
                         definedItem.setViewpoint(viewpoint);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                     }
 
 
@@ -2405,11 +2366,7 @@ public class X3Dobject {
                         // reusing the keys parsing here cause it works
                         utility.parseNumbersString(attributeValue, X3Dobject.interpolatorKeyComponent,
                                 1);
-                        length = new float[keys.size()];
-                        for (int i = 0; i < length.length; i++) {
-                            Key keyObject = keys.get(i);
-                            length[i] = keyObject.key;
-                        }
+                        length = keys.toArray();
                         keys.clear();
                         Log.e(TAG, "Text 'length' attribute currently not implemented.");
                     }
@@ -2639,11 +2596,10 @@ public class X3Dobject {
                     attributeValue = attributes.getValue("range");
                     if (attributeValue != null) {
                         utility.parseNumbersString(attributeValue, X3Dobject.LODComponent, 1);
-                        range = new float[keys.size() + 2];
+                        range = new float[keys.getSize() + 2];
                         range[0] = 0;
-                        for (int i = 0; i < keys.size(); i++) {
-                            Key keyObject = keys.get(i);
-                            range[i + 1] = keyObject.key;
+                        for (int i = 0; i < keys.getSize(); i++) {
+                            range[i + 1] = keys.get(i);
                         }
                         range[range.length - 1] = Float.MAX_VALUE;
                         keys.clear();
@@ -2683,7 +2639,7 @@ public class X3Dobject {
 
                     DefinedItem definedItem = new DefinedItem(currentSceneObject.getName());
                     definedItem.setGVRSceneObject(currentSceneObject);
-                    mDefinedItems.add(definedItem); // Array list of DEFined items in the X3D scene
+                    addDefinedItem(definedItem); // Array list of DEFined items in the X3D scene
                 } // end <Switch> node
 
 
@@ -2967,13 +2923,7 @@ public class X3Dobject {
                 else if (qName.equalsIgnoreCase("MovieTexture")) {
                     attributeValue = attributes.getValue("USE");
                     if (attributeValue != null) {
-                        DefinedItem useItem = null;
-                        for (DefinedItem definedItem : mDefinedItems) {
-                            if (attributeValue.equals(definedItem.getName())) {
-                                useItem = definedItem;
-                                break;
-                            }
-                        }
+                        DefinedItem useItem = findDefinedItem(attributeValue);
                         if (useItem != null) {
                             Log.e(TAG, "MovieTexture USE not implemented");
                             gvrTexture = useItem.getGVRTexture();
@@ -3472,8 +3422,8 @@ public class X3Dobject {
                 else if (qName.equalsIgnoreCase("ProtoInstance")) {
                     attributeValue = attributes.getValue("name");
                     if (attributeValue != null) {
-                        for (Proto _proto : protos) {
-                            if (_proto.getName().equalsIgnoreCase(attributeValue)) {
+                        Proto _proto = protosByName.get(attributeValue.toLowerCase(Locale.ROOT));
+                        if (_proto != null) {
                                 protoInstance = _proto;
                                 Geometry geometryInstance = new Geometry();
                                 Box box = _proto.getGeometry().getBox();
@@ -3612,7 +3562,6 @@ public class X3Dobject {
                                     Log.e(TAG, "Shape missing from ProtoInstance");
                                }
                             }
-                        }
                         if ( protoInstance == null ) {
                             Log.e(TAG, "<ProtoInstance name='" + attributeValue + "'> not matched with a <ProtoDeclare> ");
                         }
@@ -3866,13 +3815,7 @@ public class X3Dobject {
             } else if (qName.equalsIgnoreCase("IndexedFaceSet")) {
                 if (indexedSetUSEName.length() > 0) {
                     //Using previously defined mesh
-                    DefinedItem useItem = null;
-                    for (DefinedItem definedItem : mDefinedItems) {
-                        if (indexedSetUSEName.equals(definedItem.getName())) {
-                            useItem = definedItem;
-                            break;
-                        }
-                    }
+                    DefinedItem useItem = findDefinedItem(indexedSetUSEName);
                     if (useItem != null) {
                         gvrRenderData.setMesh( useItem.getGVRMesh() );
                     }
@@ -3890,7 +3833,7 @@ public class X3Dobject {
                         // Save GVRMesh since it may be reused later.
                         DefinedItem definedItem = new DefinedItem(indexedSetDEFName);
                         definedItem.setGVRMesh(mesh);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                     }
                     gvrRenderData.setMesh(mesh);
                     mesh.setIndexBuffer(gvrIndexBuffer);
@@ -3945,13 +3888,13 @@ public class X3Dobject {
                         // add it to the list of DEFined objects
                         DefinedItem definedItem = new DefinedItem(Text_FontParams.nameTextAttribute);
                         definedItem.setGVRTextViewSceneObject(gvrTextViewSceneObject);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                     }
                     if (!Text_FontParams.nameFontStyle.equals("")) {
                         // add FontStyle to the list of DEFined objects
                         DefinedItem definedItem = new DefinedItem(Text_FontParams.nameFontStyle);
                         definedItem.setGVRTextViewSceneObject(gvrTextViewSceneObject);
-                        mDefinedItems.add(definedItem); // Array list of DEFined items
+                        addDefinedItem(definedItem); // Array list of DEFined items
                     }
 
                     gvrTextViewSceneObject.setTextColor(Color.WHITE); // default
@@ -4039,6 +3982,9 @@ public class X3Dobject {
                 if (proto != null) {
                     proto.setProtoStateNone();
                     protos.add(proto);
+                    if (proto.getName() != null) {
+                        protosByName.put(proto.getName().toLowerCase(Locale.ROOT), proto);
+                    }
                 }
                 else Log.e(TAG, "Error with </ProtoDeclare>");
                 proto = null;
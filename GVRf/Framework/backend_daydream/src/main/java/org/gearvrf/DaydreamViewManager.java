@@ -129,7 +129,7 @@ class DaydreamViewManager extends GVRViewManager {
         if (eye == 0) {
             GVRRenderTarget renderTarget = getRenderTarget();
             GVRCamera leftCamera = cameraRig.getLeftCamera();
-            renderTarget.cullFromCamera(mMainScene,mMainScene.getMainCameraRig().getCenterCamera(),mRenderBundle.getShaderManager());
+            cullFromCamera(renderTarget, mMainScene.getMainCameraRig().getCenterCamera());
             captureCenterEye(renderTarget, false);
             capture3DScreenShot(renderTarget, false);
 
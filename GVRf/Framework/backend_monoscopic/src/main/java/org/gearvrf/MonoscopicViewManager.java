@@ -405,7 +405,7 @@ class MonoscopicViewManager extends GVRViewManager implements MonoscopicRotation
     private void drawEyes() {
         mMainScene.getMainCameraRig().updateRotation();
         GVRRenderTarget renderTarget = getRenderTarget();
-        renderTarget.cullFromCamera(mMainScene, mMainScene.getMainCameraRig().getCenterCamera(), mRenderBundle.getShaderManager());
+        cullFromCamera(renderTarget, mMainScene.getMainCameraRig().getCenterCamera());
         captureCenterEye(renderTarget, false);
         renderTarget.render(mMainScene, mMainScene
                         .getMainCameraRig().getCenterCamera(), mRenderBundle.getShaderManager(), mRenderBundle.getPostEffectRenderTextureA(),
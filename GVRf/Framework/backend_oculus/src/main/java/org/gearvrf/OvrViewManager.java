@@ -185,7 +185,7 @@ class OvrViewManager extends GVRViewManager {
                  GVRRenderTarget renderTarget = mRenderBundle.getRenderTarget(EYE.MULTIVIEW, swapChainIndex);
                  GVRCamera camera = mMainScene.getMainCameraRig().getCenterCamera();
                  GVRCamera left_camera = mMainScene.getMainCameraRig().getLeftCamera();
-                 renderTarget.cullFromCamera(mMainScene, camera,mRenderBundle.getShaderManager());
+                 cullFromCamera(renderTarget, camera);
 
                 captureCenterEye(renderTarget, true);
                 capture3DScreenShot(renderTarget, true);
@@ -234,7 +234,7 @@ class OvrViewManager extends GVRViewManager {
 
                     capture3DScreenShot(renderTarget, false);
 
-                    renderTarget.cullFromCamera(mMainScene, mainCameraRig.getCenterCamera(), mRenderBundle.getShaderManager());
+                    cullFromCamera(renderTarget, mainCameraRig.getCenterCamera());
                     captureCenterEye(renderTarget, false);
                     renderTarget.render(mMainScene, leftCamera, mRenderBundle.getShaderManager(), mRenderBundle.getPostEffectRenderTextureA(), mRenderBundle.getPostEffectRenderTextureB());
 
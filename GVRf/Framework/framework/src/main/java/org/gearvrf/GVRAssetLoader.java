@@ -37,17 +37,19 @@ import org.gearvrf.utility.Threads;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -572,6 +574,7 @@ public final class GVRAssetLoader {
     protected ResourceCacheBase<GVRMesh> mMeshCache = new ResourceCacheBase<>();
     protected static HashMap<String, GVRImage> mEmbeddedCache = new HashMap<String, GVRImage>();
     protected static GVRBitmapImage mDefaultImage = null;
+    protected volatile boolean mReleaseModelFileData = true;
 
     /**
      * When the application is restarted we recreate the texture cache
@@ -600,6 +603,29 @@ public final class GVRAssetLoader {
         mDefaultTextureParameters = new GVRTextureParameters(context);
     }
 
+    /**
+     * Set whether the contents of each file of a model are dropped
+     * as soon as the importer has read them. This is the default,
+     * so large models are not kept in memory for the whole import.
+     * If it is off, the contents are kept until the importer closes
+     * the file, so a file read again is not loaded again.
+     * @param release true to drop file contents after they are read
+     */
+    public void setReleaseModelFileData(boolean release)
+    {
+        mReleaseModelFileData = release;
+    }
+
+    /**
+     * Determine whether the contents of model files are dropped
+     * as soon as the importer has read them.
+     * @see #setReleaseModelFileData(boolean)
+     */
+    public boolean getReleaseModelFileData()
+    {
+        return mReleaseModelFileData;
+    }
+
     /**
      * Get the embedded texture cache.
      * This is an internal routine used during asset loading for processing
@@ -954,52 +980,159 @@ public final class GVRAssetLoader {
     }
 
     // IO Handler for Jassimp
+    /**
+     * Holds the contents of one file opened by Jassimp.
+     * <p>
+     * Files on the Linux file system are memory mapped so their
+     * contents are copied only once, straight from the page cache
+     * into the native buffer Assimp reads from. Other resources
+     * are read into a single array sized to the stream.
+     * If the stream is releasable, its data is dropped as soon
+     * as Assimp has read it.
+     */
     static class ResourceStream implements AiIOStream
     {
         protected final GVRAndroidResource resource;
-        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final boolean releaseAfterRead;
+        private ByteBuffer mappedData = null;
+        private byte[] data = null;
+        private int size = 0;
+        private boolean released = false;
 
-        ResourceStream(GVRResourceVolume v, String path) throws IOException
+        ResourceStream(GVRResourceVolume v, String path, boolean releaseAfterRead) throws IOException
         {
+            this.releaseAfterRead = releaseAfterRead;
             resource = v.openResource(path);
+            if (resource.getResourceType() == GVRAndroidResource.ResourceType.LINUX_FILESYSTEM)
+            {
+                mapFile(resource.getResourcePath());
+                return;
+            }
             InputStream stream = resource.getStream();
             if (stream == null)
             {
                 throw new IOException("Cannot open " + path);
             }
+            try
+            {
+                readStream(stream);
+            }
+            finally
+            {
+                resource.closeStream();
+            }
+        }
+
+        private void mapFile(String filePath) throws IOException
+        {
+            RandomAccessFile file = new RandomAccessFile(filePath, "r");
+            try
+            {
+                FileChannel channel = file.getChannel();
+                long length = channel.size();
+
+                if (length > Integer.MAX_VALUE)
+                {
+                    throw new IOException("File too large " + filePath);
+                }
+                size = (int) length;
+                // the mapping stays valid after the channel is closed
+                mappedData = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+            finally
+            {
+                file.close();
+            }
+        }
+
+        private void readStream(InputStream stream) throws IOException
+        {
             int read;
-            byte[] data = new byte[1024];
-            while((read = stream.read(data, 0, data.length)) != -1)
+
+            data = new byte[Math.max(stream.available(), 1024)];
+            while ((read = stream.read(data, size, data.length - size)) != -1)
             {
-                output.write(data, 0, read);
+                size += read;
+                if (size == data.length)
+                {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
             }
-            output.flush();
-            resource.closeStream();
         }
 
-        public int getFileSize() { return output.size(); }
+        public int getFileSize() { return size; }
 
         public boolean read(ByteBuffer buffer)
         {
-            if (output.size() > 0)
+            if (size <= 0)
+            {
+                return false;
+            }
+            if (mappedData != null)
+            {
+                buffer.put(mappedData.duplicate());
+            }
+            else if (data != null)
+            {
+                buffer.put(data, 0, size);
+            }
+            else
             {
-                buffer.put(output.toByteArray());
-                return true;
+                return false;
             }
-            return false;
+            if (releaseAfterRead)
+            {
+                release();
+            }
+            return true;
         }
+
+        /**
+         * Drops the file contents held by this stream.
+         */
+        void release()
+        {
+            mappedData = null;
+            data = null;
+            released = true;
+        }
+
+        boolean isReleased() { return released; }
     };
 
     // IO Handler for Jassimp
+    /**
+     * Opens the files Assimp requests from a {@link GVRResourceVolume}.
+     * <p>
+     * Open streams are cached by path because Assimp usually checks
+     * that a file exists before opening it. By default a stream drops
+     * its contents once Assimp has read them and is removed from the
+     * cache when Assimp closes it, so large models are not kept in
+     * memory for the whole import. A released stream is reloaded
+     * if Assimp opens the same file again.
+     */
     static class ResourceVolumeIO implements AiIOSystem<ResourceStream>
     {
         protected Throwable lastError = null;
         protected final GVRResourceVolume volume;
         protected final HashMap<String, ResourceStream> cache = new HashMap<>();
+        protected final boolean releaseAfterRead;
 
         ResourceVolumeIO(GVRResourceVolume v)
+        {
+            this(v, true);
+        }
+
+        /**
+         * @param v                 volume to open files from
+         * @param releaseAfterRead  true to drop file contents as soon as
+         *                          Assimp has read them, false to keep them
+         *                          until the stream is closed
+         */
+        ResourceVolumeIO(GVRResourceVolume v, boolean releaseAfterRead)
         {
             volume = v;
+            this.releaseAfterRead = releaseAfterRead;
         }
 
         public char getOsSeparator()
@@ -1010,13 +1143,13 @@ public final class GVRAssetLoader {
         public ResourceStream open(String path, String iomode)
         {
             ResourceStream rs = cache.get(path);
-            if (rs != null)
+            if ((rs != null) && !rs.isReleased())
             {
                 return rs;
             }
             try
             {
-                rs = new ResourceStream(volume, path);
+                rs = new ResourceStream(volume, path, releaseAfterRead);
                 cache.put(path, rs);
                 return rs;
             }
@@ -1029,7 +1162,8 @@ public final class GVRAssetLoader {
 
         public void close(ResourceStream rs)
         {
-            cache.remove(rs);
+            rs.release();
+            cache.values().remove(rs);
         }
 
         public boolean exists(String path)
@@ -1037,6 +1171,18 @@ public final class GVRAssetLoader {
             return open(path, "r") != null;
         }
 
+        /**
+         * Releases all of the streams still in the cache.
+         */
+        public void clear()
+        {
+            for (ResourceStream rs : cache.values())
+            {
+                rs.release();
+            }
+            cache.clear();
+        }
+
         public Throwable getLastError() { return lastError; }
     };
 
@@ -1817,7 +1963,7 @@ public final class GVRAssetLoader {
         GVRJassimpAdapter jassimpAdapter = new GVRJassimpAdapter(this, filePath);
 
         model.setName(filePath);
-        ResourceVolumeIO jassimpIO = new ResourceVolumeIO(request.getVolume());
+        ResourceVolumeIO jassimpIO = new ResourceVolumeIO(request.getVolume(), mReleaseModelFileData);
         try
         {
             assimpScene = Jassimp.importFile(FileNameUtils.getFilename(filePath),
@@ -1830,6 +1976,10 @@ public final class GVRAssetLoader {
             request.onModelError(mContext, errmsg, filePath);
             throw new IOException(errmsg);
         }
+        finally
+        {
+            jassimpIO.clear();
+        }
         if (assimpScene == null)
         {
             String errmsg = "Cannot load model: " + filePath;
@@ -28,6 +28,7 @@ import org.gearvrf.animation.GVRAnimationEngine;
 import org.gearvrf.animation.GVRMaterialAnimation;
 import org.gearvrf.animation.GVROnFinish;
 import org.gearvrf.debug.DebugServer;
+import org.gearvrf.debug.GVRFrameStats;
 import org.gearvrf.io.GVRInputManager;
 import org.gearvrf.periodic.GVRPeriodicEngine;
 import org.gearvrf.scene_objects.GVRTextViewSceneObject;
@@ -401,6 +402,13 @@ public abstract class GVRContext implements IEventReceiver {
      */
     public abstract float getFrameTime();
 
+    /**
+     * Get the histograms of the frame time, cull time, pick time and
+     * draw calls recorded since the last {@link GVRFrameStats#reset()}.
+     * They are recorded even when {@link #DEBUG_STATS} is off.
+     */
+    public abstract GVRFrameStats getFrameStats();
+
     /**
      * Enqueues a callback to be run in the GL thread.
      * 
@@ -410,12 +418,43 @@ public abstract class GVRContext implements IEventReceiver {
      * processed before any registered
      * {@linkplain #registerDrawFrameListener(GVRDrawFrameListener) frame
      * listeners}.
+     * <p>
+     * All of these callbacks are run before the next frame. Use the
+     * {@linkplain #getGlTaskScheduler() GL task scheduler} for work
+     * which can be spread over several frames.
      * 
      * @param runnable
      *            A bit of code that must run on the GL thread
      */
     public abstract void runOnGlThread(Runnable runnable);
 
+    /**
+     * Get the scheduler which runs tasks on the GL thread with priorities
+     * and a time budget per frame, so that bursts of work which can wait
+     * (like uploading textures and meshes) do not make frames late.
+     */
+    public abstract GVRGLTaskScheduler getGlTaskScheduler();
+
+    /**
+     * Sets the number of worker threads the renderer uses to cull and sort,
+     * in addition to the GL thread. The scene graph is split into subtrees
+     * which are culled in parallel, and large render lists are sorted in
+     * parallel. Zero, the default, does all culling on the GL thread.
+     * Using worker threads implies flat culling.
+     * <p>
+     * There is one worker pool per renderer, so this setting applies to
+     * every {@link GVRScene}.
+     * @param numThreads number of worker threads, 0 to disable
+     * @see GVRScene#setFlatCulling(boolean)
+     */
+    public void setCullThreadCount(final int numThreads) {
+        runOnGlThread(new Runnable() {
+            public void run() {
+                NativeScene.setCullThreadCount(numThreads);
+            }
+        });
+    }
+
     /**
      * Enqueues a callback to be run in the GL thread after rendering a frame.
      *
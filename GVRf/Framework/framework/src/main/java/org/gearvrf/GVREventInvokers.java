@@ -0,0 +1,179 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.view.MotionEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gearvrf.GVREventManager.IEventInvoker;
+
+/**
+ * Table of precompiled invokers used by {@link GVREventManager} to
+ * deliver events without reflection.
+ * <p>
+ * Each {@link IEvents} interface maps to a table of invokers indexed
+ * by event name. The tables are immutable once published so they
+ * can be read without locking from any thread. The built-in tables
+ * cover the event groups which are sent every frame (picking, touch and
+ * scene object events); other groups fall back to reflection unless
+ * an application registers invokers for them with
+ * {@link GVREventManager#registerEventInvoker(Class, String, int, IEventInvoker)}.
+ */
+final class GVREventInvokers {
+    private static final ConcurrentHashMap<Class<? extends IEvents>, Map<String, Entry>> sInvokers
+            = new ConcurrentHashMap<Class<? extends IEvents>, Map<String, Entry>>();
+
+    /**
+     * An invoker together with the number of parameters of the
+     * event it dispatches. Calls with a different number of
+     * parameters are left to the reflective path so that they are
+     * reported the same way as before.
+     */
+    static final class Entry {
+        final IEventInvoker invoker;
+        final int argCount;
+
+        Entry(IEventInvoker invoker, int argCount) {
+            this.invoker = invoker;
+            this.argCount = argCount;
+        }
+    }
+
+    private GVREventInvokers() {
+    }
+
+    static IEventInvoker find(Class<? extends IEvents> eventsClass, String eventName, Object[] params) {
+        Map<String, Entry> table = sInvokers.get(eventsClass);
+        if (table == null) {
+            return null;
+        }
+        Entry entry = table.get(eventName);
+        if ((entry == null) || (entry.argCount != params.length)) {
+            return null;
+        }
+        return entry.invoker;
+    }
+
+    static void register(Class<? extends IEvents> eventsClass, String eventName,
+                         int argCount, IEventInvoker invoker) {
+        synchronized (sInvokers) {
+            // copy-on-write so readers never see a table being modified
+            Map<String, Entry> oldTable = sInvokers.get(eventsClass);
+            Map<String, Entry> newTable = (oldTable != null) ?
+                    new HashMap<String, Entry>(oldTable) : new HashMap<String, Entry>();
+            newTable.put(eventName, new Entry(invoker, argCount));
+            sInvokers.put(eventsClass, newTable);
+        }
+    }
+
+    static {
+        register(IPickEvents.class, "onPick", 1, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((IPickEvents) handler).onPick((GVRPicker) params[0]);
+            }
+        });
+        register(IPickEvents.class, "onNoPick", 1, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((IPickEvents) handler).onNoPick((GVRPicker) params[0]);
+            }
+        });
+        register(IPickEvents.class, "onEnter", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((IPickEvents) handler).onEnter((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+        register(IPickEvents.class, "onExit", 1, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((IPickEvents) handler).onExit((GVRSceneObject) params[0]);
+            }
+        });
+        register(IPickEvents.class, "onInside", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((IPickEvents) handler).onInside((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+
+        register(ITouchEvents.class, "onEnter", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ITouchEvents) handler).onEnter((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+        register(ITouchEvents.class, "onExit", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ITouchEvents) handler).onExit((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+        register(ITouchEvents.class, "onTouchStart", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ITouchEvents) handler).onTouchStart((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+        register(ITouchEvents.class, "onTouchEnd", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ITouchEvents) handler).onTouchEnd((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+        register(ITouchEvents.class, "onInside", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ITouchEvents) handler).onInside((GVRSceneObject) params[0],
+                        (GVRPicker.GVRPickedObject) params[1]);
+            }
+        });
+        register(ITouchEvents.class, "onMotionOutside", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ITouchEvents) handler).onMotionOutside((GVRPicker) params[0],
+                        (MotionEvent) params[1]);
+            }
+        });
+
+        register(ISceneObjectEvents.class, "onInit", 2, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ISceneObjectEvents) handler).onInit((GVRContext) params[0],
+                        (GVRSceneObject) params[1]);
+            }
+        });
+        register(ISceneObjectEvents.class, "onLoaded", 0, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ISceneObjectEvents) handler).onLoaded();
+            }
+        });
+        register(ISceneObjectEvents.class, "onAfterInit", 0, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ISceneObjectEvents) handler).onAfterInit();
+            }
+        });
+        register(ISceneObjectEvents.class, "onStep", 0, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ISceneObjectEvents) handler).onStep();
+            }
+        });
+
+        register(ISensorEvents.class, "onSensorEvent", 1, new IEventInvoker() {
+            public void invoke(Object handler, Object[] params) {
+                ((ISensorEvents) handler).onSensorEvent((SensorEvent) params[0]);
+            }
+        });
+    }
+}
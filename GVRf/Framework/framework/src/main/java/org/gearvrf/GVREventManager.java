@@ -18,9 +18,8 @@ package org.gearvrf;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.gearvrf.script.IScriptManager;
 import org.gearvrf.script.IScriptFile;
@@ -59,17 +58,42 @@ public class GVREventManager {
     private static final String TAG = GVREventManager.class.getSimpleName();
     private GVRContext mGvrContext;
 
-    // Cache for Java handler methods; keys *must* be weakly referenced
-    private final WeakHashMap<Object, Map<String, Method>> mHandlerMethodCache;
+    // Cache for Java handler methods, indexed by event interface and then event name.
+    // The method only depends on the interface, not on the target, so the cache holds
+    // no references to targets and readers never lock.
+    private final ConcurrentHashMap<Class<? extends IEvents>, ConcurrentHashMap<String, Method>> mHandlerMethodCache;
+    // Hits and misses are only counted with GVRContext.DEBUG_STATS so the shared
+    // counters are not updated by every thread sending events
+    private final AtomicLong mCacheHits = new AtomicLong();
+    private final AtomicLong mCacheMisses = new AtomicLong();
+    private final AtomicLong mCacheContention = new AtomicLong();
 
     public static final int SEND_MASK_OBJECT = 0x1;
     protected static final int SEND_MASK_LISTENERS = 0x2;
     protected static final int SEND_MASK_SCRIPTS = 0x4;
     public static final int SEND_MASK_ALL = SEND_MASK_OBJECT | SEND_MASK_LISTENERS | SEND_MASK_SCRIPTS;
 
+    // Use precompiled invokers instead of reflection where available
+    private volatile boolean mUseInvokers = true;
+
+    /**
+     * Delivers a single event to a handler without reflection.
+     * Implementations cast the handler to the {@link IEvents} interface
+     * they were registered for and call the event method directly.
+     * @see #registerEventInvoker(Class, String, int, IEventInvoker)
+     */
+    public interface IEventInvoker {
+        /**
+         * Calls the event method on the handler.
+         * @param handler   object implementing the event interface.
+         * @param params    event parameters, in declaration order.
+         */
+        void invoke(Object handler, Object[] params);
+    }
+
     GVREventManager(GVRContext gvrContext) {
         mGvrContext = gvrContext;
-        mHandlerMethodCache = new WeakHashMap<Object, Map<String, Method>>();
+        mHandlerMethodCache = new ConcurrentHashMap<Class<? extends IEvents>, ConcurrentHashMap<String, Method>>();
     }
 
     /**
@@ -113,13 +137,59 @@ public class GVREventManager {
         return sendEventWithMaskParamArray(sendMask, target, eventsClass, eventName, params);
     }
 
+    /**
+     * Registers a precompiled invoker for an event. Events which have an
+     * invoker are delivered to Java handlers by calling the invoker
+     * instead of looking up and calling the handler method through
+     * reflection. The invokers for the per-frame event groups
+     * ({@link IPickEvents}, {@link ITouchEvents}, {@link ISceneObjectEvents}
+     * and {@link ISensorEvents}) are built in.
+     *
+     * @param eventsClass
+     *     The interface class object representing the event group.
+     * @param eventName
+     *     The name of the event, such as "onPick".
+     * @param argCount
+     *     Number of parameters of the event method.
+     * @param invoker
+     *     Calls the event method on a handler implementing {@code eventsClass}.
+     */
+    public static void registerEventInvoker(Class<? extends IEvents> eventsClass,
+            String eventName, int argCount, IEventInvoker invoker) {
+        GVREventInvokers.register(eventsClass, eventName, argCount, invoker);
+    }
+
+    /**
+     * Enables or disables delivery through precompiled invokers.
+     * When disabled, all events are delivered through reflection.
+     * It is enabled by default.
+     * @param flag true to use invokers, false to always use reflection.
+     * @see #registerEventInvoker(Class, String, int, IEventInvoker)
+     */
+    public void setUseEventInvokers(boolean flag) {
+        mUseInvokers = flag;
+    }
+
+    /**
+     * @return true if events are delivered through precompiled invokers when available.
+     */
+    public boolean getUseEventInvokers() {
+        return mUseInvokers;
+    }
+
     protected boolean sendEventWithMaskParamArray(int sendMask, Object target, Class<? extends IEvents> eventsClass,
             String eventName, Object[] params) {
+        IEventInvoker invoker = mUseInvokers ? GVREventInvokers.find(eventsClass, eventName, params) : null;
+
+        if (invoker != null) {
+            return sendEventWithInvoker(sendMask, target, eventsClass, invoker, eventName, params);
+        }
+
         // Set to true if an event is handled.
         boolean handledSuccessful = false;
 
         // Verify the event name and parameters (cached)
-        Method method = findHandlerMethod(target, eventsClass, eventName, params);
+        Method method = findHandlerMethod(eventsClass, eventName, params);
         if ((sendMask & SEND_MASK_OBJECT) != 0) {
             // Invoke the method if the target implements the interface
             if (eventsClass.isInstance(target)) {
@@ -141,12 +211,9 @@ public class GVREventManager {
                     if (!eventsClass.isInstance(listener) || receiver.getOwner() != target)
                         continue;
 
-                    Method listenerMethod = findHandlerMethod(listener, eventsClass, eventName, params);
-                    if (listenerMethod != null) {
-                        // This may throw RuntimeException if the handler does so.
-                        invokeMethod(listener, listenerMethod, params);
-                        handledSuccessful = true;
-                    }
+                    // This may throw RuntimeException if the handler does so.
+                    invokeMethod(listener, method, params);
+                    handledSuccessful = true;
                 }
             }
         }
@@ -161,19 +228,66 @@ public class GVREventManager {
         return handledSuccessful;
     }
 
+    /*
+     * Same delivery order as sendEventWithMaskParamArray but calls the handlers
+     * through a precompiled invoker, skipping the method lookup.
+     */
+    private boolean sendEventWithInvoker(int sendMask, Object target, Class<? extends IEvents> eventsClass,
+            IEventInvoker invoker, String eventName, Object[] params) {
+        boolean handledSuccessful = false;
+
+        if ((sendMask & SEND_MASK_OBJECT) != 0) {
+            if (eventsClass.isInstance(target)) {
+                invokeInvoker(target, invoker, params);
+                handledSuccessful = true;
+            }
+        }
+
+        if ((sendMask & SEND_MASK_LISTENERS) != 0) {
+            if (target instanceof IEventReceiver) {
+                GVREventReceiver receiver = ((IEventReceiver) target).getEventReceiver();
+                List<IEvents> listeners = receiver.getListeners();
+
+                for (IEvents listener : listeners) {
+                    // Skip the listener due to different type, or has been removed
+                    if (!eventsClass.isInstance(listener) || receiver.getOwner() != target)
+                        continue;
+
+                    // This may throw RuntimeException if the handler does so.
+                    invokeInvoker(listener, invoker, params);
+                    handledSuccessful = true;
+                }
+            }
+        }
+
+        if ((sendMask & SEND_MASK_SCRIPTS) != 0) {
+            if (target instanceof IScriptable) {
+                handledSuccessful |= tryInvokeScript((IScriptable)target, eventName, params);
+            }
+        }
+
+        return handledSuccessful;
+    }
+
     /*
      * Return the method in eventsClass by checking the signature.
      * RuntimeException is thrown if the event is not found in the eventsClass interface,
      * or the parameter types don't match.
      */
-    private Method findHandlerMethod(Object target, Class<? extends IEvents> eventsClass,
+    private Method findHandlerMethod(Class<? extends IEvents> eventsClass,
             String eventName, Object[] params) {
         // Use cached method if available. Note: no further type checking is done if the
         // method has been cached. It will be checked by JRE when the method is invoked.
-        Method cachedMethod = getCachedMethod(target, eventName);
+        Method cachedMethod = getCachedMethod(eventsClass, eventName);
         if (cachedMethod != null) {
+            if (GVRContext.DEBUG_STATS) {
+                mCacheHits.incrementAndGet();
+            }
             return cachedMethod;
         }
+        if (GVRContext.DEBUG_STATS) {
+            mCacheMisses.incrementAndGet();
+        }
 
         // Check the event and params against the eventsClass interface object.
         Method nameMatch = null;
@@ -214,11 +328,9 @@ public class GVREventManager {
                     + "parameters don't match", eventName));
         }
 
-        // Cache the method for the target, even if it doesn't implement the interface. This is
+        // Cache the method for the interface, even if the target doesn't implement it. This is
         // to avoid always verifying the event.
-        addCachedMethod(target, eventName, signatureMatch);
-
-        return signatureMatch;
+        return addCachedMethod(eventsClass, eventName, signatureMatch);
     }
 
     private boolean isInstanceWithAutoboxing(Class<?> type, Object value) {
@@ -268,29 +380,69 @@ public class GVREventManager {
         return false;
     }
 
-    private Method getCachedMethod(Object target, String eventName) {
-        // Lock the whole cache for both first- and second-level lookup
-        synchronized (mHandlerMethodCache) {
-            Map<String, Method> targetCache = mHandlerMethodCache.get(target);
-            if (targetCache == null) {
-                return null;
-            }
-
-            return targetCache.get(eventName);
+    private Method getCachedMethod(Class<? extends IEvents> eventsClass, String eventName) {
+        ConcurrentHashMap<String, Method> classCache = mHandlerMethodCache.get(eventsClass);
+        if (classCache == null) {
+            return null;
         }
+        return classCache.get(eventName);
     }
 
-    private void addCachedMethod(Object target, String eventName, Method method) {
-        // Lock the whole cache for both first- and second-level lookup
-        synchronized (mHandlerMethodCache) {
-            Map<String, Method> targetCache = mHandlerMethodCache.get(target);
-            if (targetCache == null) {
-                targetCache = new TreeMap<String, Method>();
-                mHandlerMethodCache.put(target, targetCache);
+    private Method addCachedMethod(Class<? extends IEvents> eventsClass, String eventName, Method method) {
+        ConcurrentHashMap<String, Method> classCache = mHandlerMethodCache.get(eventsClass);
+        if (classCache == null) {
+            ConcurrentHashMap<String, Method> newCache = new ConcurrentHashMap<String, Method>();
+            classCache = mHandlerMethodCache.putIfAbsent(eventsClass, newCache);
+            if (classCache == null) {
+                classCache = newCache;
             }
+        }
 
-            targetCache.put(eventName, method);
+        // Another thread may have resolved the same event concurrently; keep the first one
+        Method existing = classCache.putIfAbsent(eventName, method);
+        if (existing != null) {
+            mCacheContention.incrementAndGet();
+            return existing;
         }
+        return method;
+    }
+
+    /**
+     * Gets the number of event deliveries which found their handler
+     * method in the cache. Only counted when {@link GVRContext#DEBUG_STATS} is on.
+     * @return number of cache hits since creation or the last {@link #resetHandlerCacheStats()}
+     */
+    public long getHandlerCacheHits() {
+        return mCacheHits.get();
+    }
+
+    /**
+     * Gets the number of event deliveries which had to look up their
+     * handler method through reflection. Only counted when
+     * {@link GVRContext#DEBUG_STATS} is on.
+     * @return number of cache misses since creation or the last {@link #resetHandlerCacheStats()}
+     */
+    public long getHandlerCacheMisses() {
+        return mCacheMisses.get();
+    }
+
+    /**
+     * Gets the number of times two threads resolved the same handler
+     * method concurrently and one of the results was discarded.
+     * @return number of contended cache updates since creation or the last
+     * {@link #resetHandlerCacheStats()}
+     */
+    public long getHandlerCacheContention() {
+        return mCacheContention.get();
+    }
+
+    /**
+     * Clears the handler cache counters.
+     */
+    public void resetHandlerCacheStats() {
+        mCacheHits.set(0);
+        mCacheMisses.set(0);
+        mCacheContention.set(0);
     }
 
     private boolean tryInvokeScript(IScriptable target, String eventName,
@@ -307,6 +459,30 @@ public class GVREventManager {
         return script.invokeFunction(eventName, params);
     }
 
+    /*
+     * Reports errors the same way as invokeMethod: a parameter of the
+     * wrong type and anything thrown by the handler which is not a
+     * RuntimeException are logged, other exceptions are rethrown.
+     */
+    private void invokeInvoker(Object target, IEventInvoker invoker, Object[] params) {
+        try {
+            invoker.invoke(target, params);
+        } catch (ClassCastException e) {
+            // thrown by the cast of a parameter in the invoker itself
+            StackTraceElement[] trace = e.getStackTrace();
+            if ((trace.length == 0) || !trace[0].getClassName().equals(invoker.getClass().getName())) {
+                throw e;
+            }
+            e.printStackTrace();
+            mGvrContext.logError(e.getMessage(), target);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            e.printStackTrace();
+            mGvrContext.logError(e.getMessage(), target);
+        }
+    }
+
     private void invokeMethod(Object target, Method method, Object[] params) {
         try {
             method.invoke(target, params);
@@ -0,0 +1,429 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.utility.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * Runs tasks on the GL thread before each frame is rendered,
+ * spreading work which can wait over several frames.
+ * <p>
+ * Tasks with {@link #PRIORITY_HIGH} are all run before the next frame,
+ * like the tasks passed to {@link GVRContext#runOnGlThread(Runnable)}.
+ * Tasks with {@link #PRIORITY_NORMAL} and {@link #PRIORITY_LOW} only
+ * run while the time spent on tasks in the current frame is within the
+ * {@linkplain #setFrameBudget(float) frame budget}; the others are
+ * left for the next frames. At least one of them is run every frame
+ * so they always make progress.
+ * <p>
+ * A task may give a hint of how long it takes, so it is not started
+ * if it would exceed the budget. Tasks posted with a key replace the
+ * pending task with the same key instead of running twice, for example
+ * to only upload the latest version of a texture which changes often.
+ * <p>
+ * Tasks can be posted from any thread.
+ * @see GVRContext#getGlTaskScheduler()
+ */
+public final class GVRGLTaskScheduler
+{
+    private static final String TAG = "GVRGLTaskScheduler";
+
+    /**
+     * Run before the next frame, regardless of the frame budget.
+     */
+    public static final int PRIORITY_HIGH = 0;
+
+    /**
+     * Run within the frame budget, before the low priority tasks.
+     */
+    public static final int PRIORITY_NORMAL = 1;
+
+    /**
+     * Run within the frame budget when there are no normal priority tasks left.
+     */
+    public static final int PRIORITY_LOW = 2;
+
+    private static final int NUM_PRIORITIES = 3;
+    private static final long DEFAULT_BUDGET_NANOS = 2000000;
+
+    private static final class Task
+    {
+        Runnable mRunnable;
+        Object mKey;
+        int mPriority;
+        long mCostNanos;
+    }
+
+    private static final class PostRenderTask implements Comparable<PostRenderTask>
+    {
+        final Runnable mRunnable;
+        final long mFrame;
+        final long mSequence;
+
+        PostRenderTask(Runnable runnable, long frame, long sequence)
+        {
+            mRunnable = runnable;
+            mFrame = frame;
+            mSequence = sequence;
+        }
+
+        @Override
+        public int compareTo(PostRenderTask other)
+        {
+            if (mFrame != other.mFrame)
+            {
+                return (mFrame < other.mFrame) ? -1 : 1;
+            }
+            return (mSequence < other.mSequence) ? -1 : ((mSequence == other.mSequence) ? 0 : 1);
+        }
+    }
+
+    private final ArrayList<ArrayDeque<Task>> mQueues = new ArrayList<ArrayDeque<Task>>(NUM_PRIORITIES);
+    private final HashMap<Object, Task> mKeyedTasks = new HashMap<Object, Task>();
+    private volatile long mBudgetNanos = DEFAULT_BUDGET_NANOS;
+
+    /*
+     * Tasks run after rendering, in order of the frame they are due.
+     * Posting the same runnable again replaces its frame, so the map
+     * holds the latest entry and stale entries in the queue are skipped.
+     */
+    private final PriorityQueue<PostRenderTask> mPostRenderTasks = new PriorityQueue<PostRenderTask>();
+    private final HashMap<Runnable, PostRenderTask> mPostRenderMap = new HashMap<Runnable, PostRenderTask>();
+    private final ArrayList<Runnable> mDuePostRenderTasks = new ArrayList<Runnable>();
+    private long mPostRenderFrame = 0;
+    private long mPostRenderSequence = 0;
+
+    private long mExecutedCount = 0;
+    private long mCoalescedCount = 0;
+    private long mDeferredFrameCount = 0;
+    private int mDeferredCount = 0;
+
+    GVRGLTaskScheduler()
+    {
+        for (int i = 0; i < NUM_PRIORITIES; ++i)
+        {
+            mQueues.add(new ArrayDeque<Task>());
+        }
+    }
+
+    /**
+     * Run a task before the next frame with {@link #PRIORITY_HIGH}.
+     * @param runnable code which must run on the GL thread
+     */
+    public void post(Runnable runnable)
+    {
+        post(null, runnable, PRIORITY_HIGH, 0);
+    }
+
+    /**
+     * Run a task on the GL thread with the given priority.
+     * @param runnable code which must run on the GL thread
+     * @param priority {@link #PRIORITY_HIGH}, {@link #PRIORITY_NORMAL} or {@link #PRIORITY_LOW}
+     */
+    public void post(Runnable runnable, int priority)
+    {
+        post(null, runnable, priority, 0);
+    }
+
+    /**
+     * Run a task on the GL thread with the given priority and cost hint.
+     * @param runnable   code which must run on the GL thread
+     * @param priority   {@link #PRIORITY_HIGH}, {@link #PRIORITY_NORMAL} or {@link #PRIORITY_LOW}
+     * @param costMicros estimated time the task takes in microseconds, 0 if unknown
+     */
+    public void post(Runnable runnable, int priority, long costMicros)
+    {
+        post(null, runnable, priority, costMicros);
+    }
+
+    /**
+     * Run a task on the GL thread, replacing the pending task with the same key.
+     * The task keeps the place of the task it replaces unless its priority
+     * is higher.
+     * @param key        identifies tasks which replace each other, null to never replace
+     * @param runnable   code which must run on the GL thread
+     * @param priority   {@link #PRIORITY_HIGH}, {@link #PRIORITY_NORMAL} or {@link #PRIORITY_LOW}
+     * @param costMicros estimated time the task takes in microseconds, 0 if unknown
+     * @throws IllegalArgumentException if the priority is not valid or the cost is negative
+     */
+    public void post(Object key, Runnable runnable, int priority, long costMicros)
+    {
+        if ((priority < PRIORITY_HIGH) || (priority > PRIORITY_LOW))
+        {
+            throw new IllegalArgumentException("invalid priority " + priority);
+        }
+        if (costMicros < 0)
+        {
+            throw new IllegalArgumentException("cost cannot be negative");
+        }
+        synchronized (this)
+        {
+            Task task = (key != null) ? mKeyedTasks.get(key) : null;
+
+            if (task != null)
+            {
+                ++mCoalescedCount;
+                if (priority < task.mPriority)
+                {
+                    mQueues.get(task.mPriority).remove(task);
+                    task.mPriority = priority;
+                    mQueues.get(priority).add(task);
+                }
+            }
+            else
+            {
+                task = new Task();
+                task.mKey = key;
+                task.mPriority = priority;
+                mQueues.get(priority).add(task);
+                if (key != null)
+                {
+                    mKeyedTasks.put(key, task);
+                }
+            }
+            task.mRunnable = runnable;
+            task.mCostNanos = costMicros * 1000;
+        }
+    }
+
+    /**
+     * Run a task on the GL thread after rendering a frame.
+     * Posting a runnable which is already pending changes its delay.
+     * @param delayFrames number of frames to delay the task, 0 means the current frame
+     * @param runnable    code which must run on the GL thread after rendering
+     */
+    public synchronized void postAfterRender(int delayFrames, Runnable runnable)
+    {
+        PostRenderTask task = new PostRenderTask(runnable, mPostRenderFrame + Math.max(delayFrames, 0),
+                                                 mPostRenderSequence++);
+        mPostRenderMap.put(runnable, task);
+        mPostRenderTasks.add(task);
+    }
+
+    /**
+     * Set the time the tasks with normal or low priority may
+     * use in each frame, including the high priority tasks.
+     * The default is 2 milliseconds.
+     * @param milliseconds time per frame
+     */
+    public void setFrameBudget(float milliseconds)
+    {
+        mBudgetNanos = (long) (milliseconds * 1000000);
+    }
+
+    /**
+     * @return time tasks may use in each frame, in milliseconds
+     */
+    public float getFrameBudget()
+    {
+        return mBudgetNanos / 1000000.0f;
+    }
+
+    /**
+     * @return number of tasks waiting to run before rendering
+     */
+    public synchronized int getQueueDepth()
+    {
+        int depth = 0;
+        for (int i = 0; i < NUM_PRIORITIES; ++i)
+        {
+            depth += mQueues.get(i).size();
+        }
+        return depth;
+    }
+
+    /**
+     * @param priority {@link #PRIORITY_HIGH}, {@link #PRIORITY_NORMAL} or {@link #PRIORITY_LOW}
+     * @return number of tasks with the given priority waiting to run
+     */
+    public synchronized int getQueueDepth(int priority)
+    {
+        return mQueues.get(priority).size();
+    }
+
+    /**
+     * @return number of tasks run since the scheduler was created
+     */
+    public synchronized long getExecutedCount()
+    {
+        return mExecutedCount;
+    }
+
+    /**
+     * @return number of tasks which replaced a pending task with the same key
+     */
+    public synchronized long getCoalescedCount()
+    {
+        return mCoalescedCount;
+    }
+
+    /**
+     * @return number of frames which left tasks for later frames
+     */
+    public synchronized long getDeferredFrameCount()
+    {
+        return mDeferredFrameCount;
+    }
+
+    /**
+     * @return number of tasks left for later frames by the last frame
+     */
+    public synchronized int getDeferredCount()
+    {
+        return mDeferredCount;
+    }
+
+    /**
+     * Run the high priority tasks and as many of the other
+     * tasks as fit in the frame budget. Called on the GL thread
+     * before each frame.
+     * @return number of tasks left for later frames
+     */
+    int runFrame()
+    {
+        final long start = System.nanoTime();
+        final long deadline = start + mBudgetNanos;
+        Task task;
+
+        while ((task = poll(PRIORITY_HIGH, 0)) != null)
+        {
+            run(task.mRunnable);
+        }
+        // always run one task so they keep going when the budget is exceeded
+        task = pollDeferrable(0);
+        while (task != null)
+        {
+            run(task.mRunnable);
+            task = pollDeferrable(deadline);
+        }
+        synchronized (this)
+        {
+            mDeferredCount = mQueues.get(PRIORITY_NORMAL).size() + mQueues.get(PRIORITY_LOW).size();
+            if (mDeferredCount > 0)
+            {
+                ++mDeferredFrameCount;
+            }
+            return mDeferredCount;
+        }
+    }
+
+    /**
+     * Run all the tasks regardless of the frame budget.
+     */
+    void runAll()
+    {
+        for (int i = 0; i < NUM_PRIORITIES; ++i)
+        {
+            Task task;
+            while ((task = poll(i, 0)) != null)
+            {
+                run(task.mRunnable);
+            }
+        }
+    }
+
+    /**
+     * Run the tasks due after rendering this frame.
+     * Called on the GL thread after each frame.
+     */
+    void runPostRender()
+    {
+        synchronized (this)
+        {
+            PostRenderTask task;
+            while (((task = mPostRenderTasks.peek()) != null) && (task.mFrame <= mPostRenderFrame))
+            {
+                mPostRenderTasks.poll();
+                if (mPostRenderMap.get(task.mRunnable) == task)
+                {
+                    mPostRenderMap.remove(task.mRunnable);
+                    mDuePostRenderTasks.add(task.mRunnable);
+                }
+            }
+            ++mPostRenderFrame;
+        }
+        for (int i = 0; i < mDuePostRenderTasks.size(); ++i)
+        {
+            run(mDuePostRenderTasks.get(i));
+        }
+        mDuePostRenderTasks.clear();
+    }
+
+    /**
+     * Discard all the pending tasks.
+     */
+    synchronized void clear()
+    {
+        for (int i = 0; i < NUM_PRIORITIES; ++i)
+        {
+            mQueues.get(i).clear();
+        }
+        mKeyedTasks.clear();
+        mPostRenderTasks.clear();
+        mPostRenderMap.clear();
+    }
+
+    /*
+     * Take the next normal priority task, or the next low priority
+     * task if there are no normal ones, within the deadline.
+     */
+    private synchronized Task pollDeferrable(long deadline)
+    {
+        int priority = mQueues.get(PRIORITY_NORMAL).isEmpty() ? PRIORITY_LOW : PRIORITY_NORMAL;
+        return poll(priority, deadline);
+    }
+
+    /*
+     * Take the next task with the given priority, or null if there is
+     * none or the deadline does not leave enough time for its cost.
+     * A deadline of 0 means there is no deadline.
+     */
+    private synchronized Task poll(int priority, long deadline)
+    {
+        ArrayDeque<Task> queue = mQueues.get(priority);
+        Task task = queue.peek();
+
+        if ((task == null) || ((deadline != 0) && (System.nanoTime() + task.mCostNanos > deadline)))
+        {
+            return null;
+        }
+        queue.poll();
+        if (task.mKey != null)
+        {
+            mKeyedTasks.remove(task.mKey);
+        }
+        ++mExecutedCount;
+        return task;
+    }
+
+    private void run(Runnable runnable)
+    {
+        try
+        {
+            runnable.run();
+        }
+        catch (final Exception exc)
+        {
+            Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
+            exc.printStackTrace();
+        }
+    }
+}
@@ -15,13 +15,21 @@
 
 package org.gearvrf;
 
-import org.gearvrf.utility.Log;
-import org.joml.Vector4f;
-
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
+ * Shows one of several versions of a scene object depending on how
+ * far it is from the camera or how large it appears on the screen.
+ * <p>
+ * Each level of detail is a child of the owner of the LOD group.
+ * The renderer selects the level to show while culling the scene,
+ * from the center camera of the main camera rig, and skips the other
+ * levels. No per-frame callback is made to Java. The levels which
+ * are not shown are not disabled but, like disabled objects, they
+ * and their children cannot be picked.
+ * <p>
  * Example:
  * <pre>
  * root = new GVRSceneObject(..);
@@ -38,20 +46,18 @@ import java.util.LinkedList;
  * </pre>
  */
 public final class GVRLODGroup extends GVRBehavior {
-    static private long TYPE_LODGROUP = newComponentType(GVRLODGroup.class);
-
     public GVRLODGroup(GVRContext gvrContext) {
-        super(gvrContext, 0);
+        super(gvrContext, NativeLODGroup.ctor());
         mType = getComponentType();
+        mHasFrameCallback = false;
     }
 
     static public long getComponentType() {
-        return TYPE_LODGROUP;
+        return NativeLODGroup.getComponentType();
     }
 
-    private final Vector4f mCenter = new Vector4f();
-    private final Vector4f mVector = new Vector4f();
-    private final LinkedList<Object[]> mRanges = new LinkedList<>();
+    private final List<GVRSceneObject> mLevels = new ArrayList<GVRSceneObject>();
+    private boolean mUseScreenSize = false;
 
     /**
      * Add a range to this LOD group. Specify the scene object that should be displayed in this
@@ -60,6 +66,7 @@ public final class GVRLODGroup extends GVRBehavior {
      * @param range show the scene object if the camera distance is greater than this value
      * @param sceneObject scene object that should be rendered when in this range
      * @throws IllegalArgumentException if range is negative or sceneObject null
+     * @throws IllegalStateException if screen sizes were added to this group
      */
     public synchronized void addRange(final float range, final GVRSceneObject sceneObject)
     {
@@ -69,23 +76,45 @@ public final class GVRLODGroup extends GVRBehavior {
         if (range < 0) {
             throw new IllegalArgumentException("range cannot be negative");
         }
-
-        final int size = mRanges.size();
-        final float rangePow2 = range*range;
-        final Object[] newElement = new Object[] {rangePow2, sceneObject};
-
-        for (int i = 0; i < size; ++i) {
-            final Object[] el = mRanges.get(i);
-            final Float r = (Float)el[0];
-            if (r > rangePow2) {
-                mRanges.add(i, newElement);
-                break;
-            }
+        if (mUseScreenSize && !mLevels.isEmpty()) {
+            throw new IllegalStateException("cannot mix distance ranges and screen sizes");
         }
+        mUseScreenSize = false;
+        NativeLODGroup.addRange(getNative(), range, sceneObject.getNative());
+        addLevel(sceneObject);
+    }
 
-        if (mRanges.size() == size) {
-            mRanges.add(newElement);
+    /**
+     * Add a level of detail selected by the size of the owner on the screen.
+     * The size is the height of the bounding sphere of the owner as a fraction
+     * of the height of the viewport, so 1 fills the view vertically.
+     * The level with the smallest screen size which is not less than
+     * the size of the owner is shown. A group uses either screen sizes
+     * or distance ranges.
+     * @param screenSize show the scene object if the owner is not larger than this on the screen
+     * @param sceneObject scene object that should be rendered at this size
+     * @throws IllegalArgumentException if screenSize is not positive or sceneObject null
+     * @throws IllegalStateException if distance ranges were added to this group
+     */
+    public synchronized void addScreenSize(final float screenSize, final GVRSceneObject sceneObject)
+    {
+        if (null == sceneObject) {
+            throw new IllegalArgumentException("sceneObject must be specified!");
+        }
+        if (screenSize <= 0) {
+            throw new IllegalArgumentException("screenSize must be greater than zero");
         }
+        if (!mUseScreenSize && !mLevels.isEmpty()) {
+            throw new IllegalStateException("cannot mix distance ranges and screen sizes");
+        }
+        mUseScreenSize = true;
+        NativeLODGroup.addScreenSize(getNative(), screenSize, sceneObject.getNative());
+        addLevel(sceneObject);
+    }
+
+    private void addLevel(final GVRSceneObject sceneObject)
+    {
+        mLevels.add(sceneObject);
 
         final GVRSceneObject owner = getOwnerObject();
         if (null != owner) {
@@ -94,52 +123,36 @@ public final class GVRLODGroup extends GVRBehavior {
     }
 
     /**
-     * Do not call directly.
-     * @deprecated
+     * Keep objects close to the boundary between two levels from switching
+     * back and forth. The level only changes when the distance (or screen size)
+     * is past the boundary by this fraction of its value. The default is 0.
+     * @param hysteresis fraction of the range, between 0 and 1
+     * @throws IllegalArgumentException if hysteresis is not between 0 and 1
      */
-    public void onDrawFrame(float frameTime) {
-        final GVRSceneObject owner = getOwnerObject();
-        if (owner == null) {
-            return;
-        }
-
-        final int size = mRanges.size();
-        final GVRTransform t = getGVRContext().getMainScene().getMainCameraRig().getCenterCamera().getTransform();
-
-        for (final Object[] range : mRanges) {
-            ((GVRSceneObject)range[1]).setEnable(false);
+    public void setHysteresis(final float hysteresis)
+    {
+        if ((hysteresis < 0) || (hysteresis >= 1)) {
+            throw new IllegalArgumentException("hysteresis must be between 0 and 1");
         }
+        NativeLODGroup.setHysteresis(getNative(), hysteresis);
+    }
 
-        for (int i = size - 1; i >= 0; --i) {
-            final Object[] range = mRanges.get(i);
-            final GVRSceneObject child = (GVRSceneObject) range[1];
-            if (child.getParent() != owner) {
-                Log.w(TAG, "the scene object for distance greater than " + range[0] + " is not a child of the owner; skipping it");
-                continue;
-            }
-
-            final float[] values = child.getBoundingVolumeRawValues();
-            mCenter.set(values[0], values[1], values[2], 1.0f);
-            mVector.set(t.getPositionX(), t.getPositionY(), t.getPositionZ(), 1.0f);
-
-            mVector.sub(mCenter);
-            mVector.negate();
-
-            float distance = mVector.dot(mVector);
-
-            if (distance >= (Float) range[0]) {
-                child.setEnable(true);
-                break;
-            }
-        }
+    /**
+     * Get the level of detail selected when the scene was last rendered.
+     * @return index of the level in order of increasing range (or decreasing
+     *         screen size), -1 if no level is shown
+     */
+    public int getCurrentLevel()
+    {
+        return NativeLODGroup.getCurrentLevel(getNative());
     }
 
     @Override
     public synchronized void onAttach(GVRSceneObject newOwner) {
         super.onAttach(newOwner);
 
-        for (final Object[] el : mRanges) {
-            newOwner.addChildObject((GVRSceneObject)el[1]);
+        for (final GVRSceneObject level : mLevels) {
+            newOwner.addChildObject(level);
         }
     }
 
@@ -147,10 +160,17 @@ public final class GVRLODGroup extends GVRBehavior {
     public synchronized void onDetach(GVRSceneObject oldOwner) {
         super.onDetach(oldOwner);
 
-        for (final Object[] el : mRanges) {
-            oldOwner.removeChildObject((GVRSceneObject)el[1]);
+        for (final GVRSceneObject level : mLevels) {
+            oldOwner.removeChildObject(level);
         }
     }
-
-    private static final String TAG = "GVRLODGroup";
-}
\ No newline at end of file
+}
+
+class NativeLODGroup {
+    static native long ctor();
+    static native long getComponentType();
+    static native void addRange(long lodGroup, float range, long sceneObject);
+    static native void addScreenSize(long lodGroup, float screenSize, long sceneObject);
+    static native void setHysteresis(long lodGroup, float hysteresis);
+    static native int getCurrentLevel(long lodGroup);
+}
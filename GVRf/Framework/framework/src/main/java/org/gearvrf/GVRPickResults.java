@@ -0,0 +1,235 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Reusable storage for the hits of a batched pick request.
+ * <p>
+ * {@link GVRPicker#pickObjects(GVRScene, GVRTransform, FloatBuffer, GVRPickResults)}
+ * picks with several rays at once (for example the gaze, two controllers
+ * and both hands) and writes the hits here instead of allocating a
+ * {@link GVRPicker.GVRPickedObject} for each one. The same results
+ * object can be passed every frame so picking does not allocate.
+ * <p>
+ * The hits are stored as separate arrays for each property in a
+ * single native buffer. They are grouped by ray in the order
+ * of the input rays and the hits of each ray are sorted by distance.
+ * If there are more hits than the capacity, the farthest hits of
+ * the last rays are dropped; {@link #getTotalHitCount()} tells
+ * how large the capacity needs to be to hold all of them.
+ * @see GVRPicker#pickObjects(GVRScene, GVRTransform, FloatBuffer, GVRPickResults)
+ */
+public final class GVRPickResults
+{
+    private final int mCapacity;
+    private final ByteBuffer mBuffer;
+    private final LongBuffer mColliders;
+    private final IntBuffer mRayIndices;
+    private final IntBuffer mFaceIndices;
+    private final FloatBuffer mDistances;
+    private final FloatBuffer mHitLocations;
+    private final FloatBuffer mBarycentricCoords;
+    private final FloatBuffer mTextureCoords;
+    private final FloatBuffer mNormalCoords;
+    private int mHitCount = 0;
+    private int mTotalHitCount = 0;
+
+    /**
+     * Constructs a results buffer which can hold the given number of hits.
+     * @param capacity maximum number of hits stored.
+     */
+    public GVRPickResults(int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        }
+        /*
+         * The layout must match NativePicker.pickRays:
+         * 1 long, 2 ints and 12 floats per hit.
+         */
+        mCapacity = capacity;
+        mBuffer = ByteBuffer.allocateDirect(capacity * (8 + 4 * 2 + 4 * 12)).order(ByteOrder.nativeOrder());
+        mColliders = slice(0, capacity * 8).asLongBuffer();
+        mRayIndices = slice(capacity * 8, capacity * 4).asIntBuffer();
+        mFaceIndices = slice(capacity * 12, capacity * 4).asIntBuffer();
+        mDistances = slice(capacity * 16, capacity * 4).asFloatBuffer();
+        mHitLocations = slice(capacity * 20, capacity * 12).asFloatBuffer();
+        mBarycentricCoords = slice(capacity * 32, capacity * 12).asFloatBuffer();
+        mTextureCoords = slice(capacity * 44, capacity * 8).asFloatBuffer();
+        mNormalCoords = slice(capacity * 52, capacity * 12).asFloatBuffer();
+    }
+
+    private ByteBuffer slice(int offset, int length)
+    {
+        mBuffer.limit(offset + length);
+        mBuffer.position(offset);
+        ByteBuffer buf = mBuffer.slice().order(ByteOrder.nativeOrder());
+        mBuffer.clear();
+        return buf;
+    }
+
+    /**
+     * @return maximum number of hits stored.
+     */
+    public int getCapacity()
+    {
+        return mCapacity;
+    }
+
+    /**
+     * @return number of hits stored by the last pick.
+     */
+    public int getHitCount()
+    {
+        return mHitCount;
+    }
+
+    /**
+     * Get the number of hits found by the last pick.
+     * This is larger than {@link #getHitCount()} if
+     * there were more hits than the capacity.
+     * @return total number of hits.
+     */
+    public int getTotalHitCount()
+    {
+        return mTotalHitCount;
+    }
+
+    /**
+     * Get the index of the ray which produced a hit.
+     * @param hit index of hit, less than {@link #getHitCount()}.
+     * @return index of ray in the input buffer.
+     */
+    public int getRayIndex(int hit)
+    {
+        return mRayIndices.get(hit);
+    }
+
+    /**
+     * Get the collider which was hit.
+     * @param hit index of hit, less than {@link #getHitCount()}.
+     * @return collider hit or null if it has been destroyed.
+     */
+    public GVRCollider getCollider(int hit)
+    {
+        return GVRCollider.lookup(mColliders.get(hit));
+    }
+
+    /**
+     * Get the scene object which owns the collider hit.
+     * @param hit index of hit, less than {@link #getHitCount()}.
+     * @return scene object hit or null if the collider has been destroyed.
+     */
+    public GVRSceneObject getHitObject(int hit)
+    {
+        GVRCollider collider = getCollider(hit);
+        return (collider != null) ? collider.getOwnerObject() : null;
+    }
+
+    /**
+     * Get the distance from the origin of the ray to the hit.
+     * @param hit index of hit, less than {@link #getHitCount()}.
+     * @return distance to hit point.
+     */
+    public float getHitDistance(int hit)
+    {
+        return mDistances.get(hit);
+    }
+
+    /**
+     * Get the hit location in the coordinate system of the collider's owner.
+     * @param hit   index of hit, less than {@link #getHitCount()}.
+     * @param dest  array of 3 floats which gets the X, Y, Z of the hit.
+     * @see GVRPicker.GVRPickedObject#getHitLocation()
+     */
+    public void getHitLocation(int hit, float[] dest)
+    {
+        get(mHitLocations, 3 * hit, dest, 3);
+    }
+
+    /**
+     * Get the index of the face hit.
+     * This is only computed for a {@link GVRMeshCollider} with
+     * pick coordinates enabled, otherwise it is -1 and the
+     * barycentric, texture and normal coordinates are undefined.
+     * @param hit index of hit, less than {@link #getHitCount()}.
+     * @return index of the face hit or -1.
+     * @see GVRMeshCollider#GVRMeshCollider(GVRContext, GVRMesh, boolean)
+     */
+    public int getFaceIndex(int hit)
+    {
+        return mFaceIndices.get(hit);
+    }
+
+    /**
+     * Get the barycentric coordinates of the hit on the face hit.
+     * @param hit   index of hit, less than {@link #getHitCount()}.
+     * @param dest  array of 3 floats which gets the coordinates.
+     * @see #getFaceIndex(int)
+     */
+    public void getBarycentricCoords(int hit, float[] dest)
+    {
+        get(mBarycentricCoords, 3 * hit, dest, 3);
+    }
+
+    /**
+     * Get the texture coordinates of the hit.
+     * @param hit   index of hit, less than {@link #getHitCount()}.
+     * @param dest  array of 2 floats which gets the U, V coordinates.
+     * @see #getFaceIndex(int)
+     */
+    public void getTextureCoords(int hit, float[] dest)
+    {
+        get(mTextureCoords, 2 * hit, dest, 2);
+    }
+
+    /**
+     * Get the normal at the hit.
+     * @param hit   index of hit, less than {@link #getHitCount()}.
+     * @param dest  array of 3 floats which gets the X, Y, Z of the normal.
+     * @see #getFaceIndex(int)
+     */
+    public void getNormalCoords(int hit, float[] dest)
+    {
+        get(mNormalCoords, 3 * hit, dest, 3);
+    }
+
+    private static void get(FloatBuffer src, int offset, float[] dest, int n)
+    {
+        for (int i = 0; i < n; ++i)
+        {
+            dest[i] = src.get(offset + i);
+        }
+    }
+
+    ByteBuffer getBuffer()
+    {
+        return mBuffer;
+    }
+
+    void setHitCount(int totalHits)
+    {
+        mTotalHitCount = totalHits;
+        mHitCount = Math.min(totalHits, mCapacity);
+    }
+}
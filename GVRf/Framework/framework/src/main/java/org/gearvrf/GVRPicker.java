@@ -18,6 +18,8 @@ package org.gearvrf;
 import android.view.MotionEvent;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
@@ -489,6 +491,7 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         if (isEnabled() && (mScene != null) && mPickEventLock.tryLock())
         {
             // Don't call if we are in the middle of processing another pick
+            final long start = GVRTime.getNanoTime();
             try
             {
                 doPick();
@@ -497,6 +500,7 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
             {
                 mPickEventLock.unlock();
             }
+            getGVRContext().getFrameStats().recordPickTime(GVRTime.getNanoTime() - start);
         }
     }
 
@@ -1211,6 +1215,53 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         }
     }
 
+    /**
+     * Casts several rays into the scene graph at once and writes
+     * the hits into a reusable results buffer.
+     * <p>
+     * This is useful when picking with several controllers every frame.
+     * The colliders are only locked once and no Java objects are allocated,
+     * as long as the same ray buffer and results are used each time.
+     * The hits are grouped by ray in the order of the input rays and
+     * the hits of each ray are sorted by distance from its origin.
+     *
+     * @param scene
+     *            The {@link GVRScene} with all the objects to be tested.
+     *
+     * @param trans
+     *            The {@link GVRTransform} establishing the coordinate system of the rays.
+     *            If null, the transform of the camera rig head is used.
+     *
+     * @param rays
+     *            Direct float buffer in native byte order with 6 floats for each ray,
+     *            the X, Y, Z of its origin followed by the X, Y, Z of its direction.
+     *            The rays between the position and the limit of the buffer are used.
+     *
+     * @param results
+     *            {@link GVRPickResults} which gets the hits.
+     *
+     * @return number of hits stored in the results.
+     * @see GVRPickResults#getTotalHitCount()
+     */
+    public static final int pickObjects(GVRScene scene, GVRTransform trans, FloatBuffer rays, GVRPickResults results)
+    {
+        if (!rays.isDirect() || (rays.order() != ByteOrder.nativeOrder()))
+        {
+            throw new IllegalArgumentException("rays must be a direct buffer in native byte order");
+        }
+        sFindObjectsLock.lock();
+        try {
+            long nativeTrans = (trans != null) ? trans.getNative() : 0L;
+            int totalHits = NativePicker.pickRays(scene.getNative(), nativeTrans,
+                                                  rays, rays.position(), rays.remaining() / 6,
+                                                  results.getBuffer(), results.getCapacity());
+            results.setHitCount(totalHits);
+            return results.getHitCount();
+        } finally {
+            sFindObjectsLock.unlock();
+        }
+    }
+
     /**
      * Internal utility to help JNI add hit objects to the pick list.
      */
@@ -1444,6 +1495,9 @@ final class NativePicker {
     static native GVRPicker.GVRPickedObject[] pickObjects(long scene, long transform, float ox, float oy, float oz,
                                                           float dx, float dy, float dz);
 
+    static native int pickRays(long scene, long transform, FloatBuffer rays, int offset, int numRays,
+                               ByteBuffer results, int capacity);
+
     static native GVRPicker.GVRPickedObject[] pickBounds(long scene, List<GVRSceneObject> collidables);
 
     static native GVRPicker.GVRPickedObject pickSceneObject(long sceneObject, float ox, float oy, float oz,
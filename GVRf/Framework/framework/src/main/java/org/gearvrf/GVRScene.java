@@ -317,6 +317,19 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
         NativeScene.setOcclusionQuery(getNative(), flag);
     }
 
+    /**
+     * Enables or disables flat culling for the {@link GVRScene}.
+     * When enabled, culling walks a cached depth first copy of
+     * the scene graph which is only rebuilt when objects are added
+     * or removed, instead of copying the children of every scene
+     * object each frame. It is disabled by default.
+     * @param flag true to enable flat culling, false to disable it
+     * @see GVRContext#setCullThreadCount(int)
+     */
+    public void setFlatCulling(boolean flag) {
+        NativeScene.setFlatCulling(getNative(), flag);
+    }
+
     private GVRConsole mStatsConsole = null;
     private boolean mStatsEnabled = false;
     private boolean pendingStats = false;
@@ -372,9 +385,11 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
         if (mStatsEnabled) {
             int numberDrawCalls = NativeScene.getNumberDrawCalls(getNative());
             int numberTriangles = NativeScene.getNumberTriangles(getNative());
+            int numberCullAllocations = NativeScene.getNumberCullAllocations(getNative());
 
             mStatsConsole.writeLine("Draw Calls: %d", numberDrawCalls);
             mStatsConsole.writeLine("Triangles: %d", numberTriangles);
+            mStatsConsole.writeLine("Cull Allocations: %d", numberCullAllocations);
 
             if (mStatMessage.length() > 0) {
                 String lines[] = mStatMessage.toString().split(System.lineSeparator());
@@ -637,6 +652,10 @@ class NativeScene {
 
     public static native void setOcclusionQuery(long scene, boolean flag);
 
+    public static native void setFlatCulling(long scene, boolean flag);
+
+    static native void setCullThreadCount(int numThreads);
+
     static native void setMainCameraRig(long scene, long cameraRig);
 
     public static native void resetStats(long scene);
@@ -645,6 +664,8 @@ class NativeScene {
 
     public static native int getNumberTriangles(long scene);
 
+    public static native int getNumberCullAllocations(long scene);
+
     public static native void exportToFile(long scene, String file_path);
 
     static native GVRLight[] getLightList(long scene);
@@ -15,6 +15,7 @@
 
 package org.gearvrf;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.lang.reflect.*;
@@ -96,6 +97,68 @@ public class GVRShaderManager extends GVRHybridObject
         getShaderType(shaderID.ID);
     }
 
+    /**
+     * Keep the shader variants generated by {@link GVRShaderTemplate}
+     * in a directory so they do not have to be generated again
+     * the next time the application starts.
+     * <p>
+     * The sources and descriptors of each new variant are written
+     * in the background. Call {@link #prewarmVariants()} at startup
+     * to add the variants kept by previous runs.
+     * @param directory directory to keep the variants in, for example
+     *                  a subdirectory of the application cache directory.
+     *                  Null to stop keeping variants on disk.
+     */
+    public void setVariantCacheDirectory(File directory)
+    {
+        GVRShaderVariantCache.setDirectory(directory);
+    }
+
+    /**
+     * Add the shader variants kept in the directory set by
+     * {@link #setVariantCacheDirectory(File)} to this shader manager.
+     * Variants written by another version of GearVRF, for another
+     * renderer or from other sources of their shader template are skipped.
+     * Variants which use lights are not added here since the lights
+     * are not known yet. They are checked against the sources of the
+     * lights in the scene when they are first needed.
+     * @return number of shader variants found
+     */
+    public int prewarmVariants()
+    {
+        GVRContext ctx = getGVRContext();
+        int count = 0;
+
+        for (GVRShaderVariantCache.Variant variant : GVRShaderVariantCache.load())
+        {
+            try
+            {
+                Class<?> shaderClass = Class.forName(variant.ClassName);
+                if (!GVRShaderTemplate.class.isAssignableFrom(shaderClass))
+                {
+                    continue;
+                }
+                GVRShaderId shaderId = getShaderType(shaderClass.asSubclass(GVRShader.class));
+                GVRShaderTemplate template = (GVRShaderTemplate) shaderId.getTemplate(ctx);
+                if (!variant.SourceHash.equals(template.getSourceHash()) ||
+                    (variant.LightHash.length() > 0))
+                {
+                    continue;
+                }
+                if (template.addCachedVariant(this, variant) > 0)
+                {
+                    ++count;
+                }
+            }
+            catch (ClassNotFoundException ex)
+            {
+                Log.w(TAG, "Cannot find shader class %s", variant.ClassName);
+            }
+        }
+        Log.i(TAG, "SHADER: prewarmed %d shader variants", count);
+        return count;
+    }
+
     /**
      * Make a string with the shader layout for a uniform block
      * with a given descriptor. The format of the descriptor is
@@ -115,6 +178,8 @@ public class GVRShaderManager extends GVRHybridObject
         return NativeShaderManager.makeLayout(descriptor, blockName, useUBO);
     }
 
+    private static final String TAG = "GVRShaderManager";
+
     /**
      * Maps the shader template class to the instance of the template.
      * Only one shader template of each class is necessary since
@@ -17,10 +17,15 @@ package org.gearvrf;
 import org.gearvrf.shaders.GVRPhongShader;
 import org.gearvrf.utility.Log;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,7 +50,10 @@ import java.util.regex.Pattern;
  * shader. Otherwise, it will not be defined.
  * <p>
  * Each shader variant generated has a unique signature so that the same variant
- * will not be generated twice.
+ * will not be generated twice. Once a variant has been bound, the template finds
+ * it again from a compact key computed without building the signature. The
+ * generated sources are kept for the life of the process and can also be kept
+ * on disk (see {@link GVRShaderManager#setVariantCacheDirectory(java.io.File)}).
  * The shader also defines descriptors that define the
  * names and types of all the uniforms, textures and vertex attributes
  * used by the shader. For uniforms and attributes, each entry is a
@@ -88,6 +96,84 @@ public class GVRShaderTemplate extends GVRShader
         public String VertexDescriptor;
     };
 
+    /*
+     * Compact key for a shader variant which holds the same information
+     * as its signature string. The first int is the number of defined
+     * names, followed by one int for each (the index of the name in
+     * mDefineNames and the id of its texture coordinate attribute)
+     * and one int for each light class (its id and how many lights
+     * use it) sorted by id.
+     */
+    private static final class VariantKey
+    {
+        int[] Data = new int[16];
+        int Length;
+
+        void clear()
+        {
+            Length = 0;
+        }
+
+        void add(int value)
+        {
+            if (Length == Data.length)
+            {
+                Data = Arrays.copyOf(Data, Length * 2);
+            }
+            Data[Length++] = value;
+        }
+
+        VariantKey copy()
+        {
+            VariantKey key = new VariantKey();
+            key.Data = Arrays.copyOf(Data, Length);
+            key.Length = Length;
+            return key;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int h = 1;
+            for (int i = 0; i < Length; ++i)
+            {
+                h = 31 * h + Data[i];
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof VariantKey))
+            {
+                return false;
+            }
+            VariantKey key = (VariantKey) o;
+            if (key.Length != Length)
+            {
+                return false;
+            }
+            for (int i = 0; i < Length; ++i)
+            {
+                if (key.Data[i] != Data[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final ThreadLocal<VariantKey> sVariantKey = new ThreadLocal<VariantKey>()
+    {
+        @Override
+        protected VariantKey initialValue()
+        {
+            return new VariantKey();
+        }
+    };
+
     /**
      * Construct a shader template for a shader using GLSL version 100.
      * To make a shader for another version use the other form of the constructor.
@@ -153,6 +239,81 @@ public class GVRShaderTemplate extends GVRShader
             mShaderDefines.add(match);
             index = matcher.end();
         }
+        synchronized (mVariantShaders)
+        {
+            mDefineNames = null;
+            mSourceHash = null;
+            mVariantShaders.clear();
+        }
+    }
+
+    /**
+     * Get a hash of the sources the variants of this template are
+     * generated from: its segments, descriptors and GLSL version.
+     * Cached variants with a different hash were generated from
+     * other sources and are not used.
+     */
+    String getSourceHash()
+    {
+        String hash = mSourceHash;
+
+        if (hash == null)
+        {
+            StringBuilder sources = new StringBuilder();
+            String[] names = mShaderSegments.keySet().toArray(new String[0]);
+
+            Arrays.sort(names);
+            sources.append(mGLSLVersion).append('\n');
+            sources.append(mUniformDescriptor).append('\n');
+            sources.append(mTextureDescriptor).append('\n');
+            sources.append(mVertexDescriptor).append('\n');
+            for (String name : names)
+            {
+                sources.append(name).append('\n');
+                sources.append(mShaderSegments.get(name)).append('\n');
+            }
+            hash = Long.toHexString(GVRShaderVariantCache.hash(sources.toString()));
+            mSourceHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Get a hash of the shader sources of the light classes in the list,
+     * which are part of the variants generated for them. Application
+     * light classes can change without changing the GearVRF version,
+     * so cached variants with a different hash are not used.
+     * @return hash of the light sources, empty if there are no lights
+     */
+    static String getLightSourceHash(GVRLight[] lightlist)
+    {
+        if ((lightlist == null) || (lightlist.length == 0))
+        {
+            return "";
+        }
+        TreeMap<String, String> lightSources = new TreeMap<String, String>();
+
+        for (GVRLight light : lightlist)
+        {
+            String lightType = light.getLightClass();
+
+            if (!lightSources.containsKey(lightType))
+            {
+                lightSources.put(lightType,
+                                 light.getFragmentShaderSource() + '\n' +
+                                 light.getVertexShaderSource() + '\n' +
+                                 light.getUniformDescriptor() + '\n' +
+                                 light.getVertexDescriptor() + '\n');
+            }
+        }
+        StringBuilder sources = new StringBuilder();
+
+        for (Map.Entry<String, String> entry : lightSources.entrySet())
+        {
+            sources.append(entry.getKey()).append('\n');
+            sources.append(entry.getValue());
+        }
+        return Long.toHexString(GVRShaderVariantCache.hash(sources.toString()));
     }
 
     /**
@@ -242,6 +403,163 @@ public class GVRShaderTemplate extends GVRShader
         return signature;
     }
 
+    /**
+     * Computes the compact key of a shader variant.
+     * The key is equal for two variants if and only if
+     * {@link #generateVariantDefines(HashMap, String, GVRShaderData)}
+     * and {@link #generateLightSignature(GVRLight[])} give the
+     * same signature for them. Unlike those, it does not allocate
+     * and does not change the defined names.
+     * @return key for the variant or null if the signature is
+     *         customized by a subclass and cannot be encoded
+     */
+    private VariantKey makeVariantKey(HashMap<String, Integer> definedNames, String vertexDesc,
+                                      GVRShaderData material, GVRLight[] lightlist)
+    {
+        if (!mUseVariantKeys)
+        {
+            return null;
+        }
+        String[] names = getDefineNames();
+        VariantKey key = sVariantKey.get();
+
+        key.clear();
+        key.add(0);
+        for (int i = 0; i < names.length; ++i)
+        {
+            String name = names[i];
+            Integer value = definedNames.get(name);
+
+            if (value != null)
+            {
+                if (value != 0)
+                {
+                    key.add(i << 16);
+                }
+            }
+            else if (material.hasUniform(name) ||
+                     ((vertexDesc != null) && vertexDesc.contains(name)))
+            {
+                key.add(i << 16);
+            }
+            else if (material.getTexture(name) != null)
+            {
+                String attrname = material.getTexCoordAttr(name);
+                key.add((i << 16) | getKeyId((attrname != null) ? attrname : "a_texcoord"));
+            }
+        }
+        key.Data[0] = key.Length - 1;
+        if (lightlist != null)
+        {
+            int firstLight = key.Length;
+            for (GVRLight light : lightlist)
+            {
+                int id = getKeyId(light.getClass()) << 16;
+                int i = firstLight;
+
+                while ((i < key.Length) && ((key.Data[i] & 0xFFFF0000) != id))
+                {
+                    ++i;
+                }
+                if (i < key.Length)
+                {
+                    ++key.Data[i];
+                }
+                else
+                {
+                    key.add(id | 1);
+                }
+            }
+            Arrays.sort(key.Data, firstLight, key.Length);
+        }
+        return key;
+    }
+
+    private String[] getDefineNames()
+    {
+        synchronized (mVariantShaders)
+        {
+            if (mDefineNames == null)
+            {
+                mDefineNames = (mShaderDefines != null) ?
+                               mShaderDefines.toArray(new String[mShaderDefines.size()]) :
+                               new String[0];
+                Arrays.sort(mDefineNames);
+            }
+            return mDefineNames;
+        }
+    }
+
+    private int getKeyId(Object name)
+    {
+        Integer id = mKeyIds.get(name);
+
+        if (id == null)
+        {
+            synchronized (mKeyIds)
+            {
+                id = mKeyIds.get(name);
+                if (id == null)
+                {
+                    id = mKeyIds.size() + 1;
+                    mKeyIds.put(name, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /*
+     * The native shader IDs are only valid for the shader manager
+     * they were added to. Shader templates can outlive it
+     * since the standard shader IDs are static.
+     */
+    private Integer findVariant(GVRShaderManager shaderManager, VariantKey key)
+    {
+        if ((key == null) || (mVariantShaderManager.get() != shaderManager))
+        {
+            return null;
+        }
+        return mVariantShaders.get(key);
+    }
+
+    private void addVariant(GVRShaderManager shaderManager, VariantKey key, int nativeShader)
+    {
+        if (key == null)
+        {
+            return;
+        }
+        synchronized (mVariantShaders)
+        {
+            if (mVariantShaderManager.get() != shaderManager)
+            {
+                mVariantShaders.clear();
+                mVariantShaderManager = new WeakReference<GVRShaderManager>(shaderManager);
+            }
+            mVariantShaders.put(key.copy(), nativeShader);
+        }
+    }
+
+    /*
+     * Determine if a subclass changes how the signature is generated,
+     * in which case variants are always looked up by signature.
+     */
+    private boolean isSignatureOverridden()
+    {
+        for (Class<?> clazz = getClass(); clazz != GVRShaderTemplate.class; clazz = clazz.getSuperclass())
+        {
+            for (Method method : clazz.getDeclaredMethods())
+            {
+                String name = method.getName();
+                if (name.equals("generateVariantDefines") || name.equals("generateLightSignature"))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     protected void updateDescriptors(GVRShaderData material, String meshDesc,
                                      StringBuilder uniformDesc, StringBuilder textureDesc, StringBuilder vertexDesc)
     {
@@ -439,36 +757,24 @@ public class GVRShaderTemplate extends GVRShader
             variantDefines.put("MULTIVIEW", 0);
 
         String meshDesc = mesh.getVertexBuffer().getDescriptor();
+        GVRShaderManager shaderManager = context.getShaderManager();
+        VariantKey key = makeVariantKey(variantDefines, meshDesc, material, lightlist);
+        Integer knownShader = findVariant(shaderManager, key);
+
+        if (knownShader != null)
+        {
+            rdata.setShader(knownShader, isMultiview);
+            return knownShader;
+        }
         String signature = generateVariantDefines(variantDefines, meshDesc, material);
         signature += generateLightSignature(lightlist);
-        GVRShaderManager shaderManager = context.getShaderManager();
         int nativeShader = shaderManager.getShader(signature);
 
         synchronized (shaderManager)
         {
             if (nativeShader == 0)
             {
-                Map<String, LightClass> lightClasses = scanLights(lightlist);
-
-                String vertexShaderSource = generateShaderVariant("Vertex", variantDefines,
-                                                                  scene, lightClasses, material);
-                String fragmentShaderSource = generateShaderVariant("Fragment", variantDefines,
-                                                                    scene, lightClasses, material);
-                StringBuilder uniformDescriptor = new StringBuilder();
-                StringBuilder textureDescriptor = new StringBuilder();
-                StringBuilder vertexDescriptor = new StringBuilder();
-                updateDescriptors(material, meshDesc, uniformDescriptor, textureDescriptor, vertexDescriptor);
-                nativeShader = shaderManager.addShader(signature, uniformDescriptor.toString(),
-                                                       textureDescriptor.toString(),
-                                                       vertexDescriptor.toString(),
-                                                       vertexShaderSource, fragmentShaderSource);
-                bindCalcMatrixMethod(shaderManager, nativeShader);
-                if (mWriteShadersToDisk)
-                {
-                    writeShader(context, "V-" + signature + ".glsl", vertexShaderSource);
-                    writeShader(context, "F-" + signature + ".glsl", fragmentShaderSource);
-                }
-                Log.i(TAG, "SHADER: generated shader #%d %s", nativeShader, signature);
+                nativeShader = addShaderVariant(context, signature, variantDefines, scene, lightlist, material, meshDesc);
             }
             else
             {
@@ -477,6 +783,7 @@ public class GVRShaderTemplate extends GVRShader
             if (nativeShader > 0)
             {
                 rdata.setShader(nativeShader, isMultiview);
+                addVariant(shaderManager, key, nativeShader);
             }
             return nativeShader;
         }
@@ -497,38 +804,98 @@ public class GVRShaderTemplate extends GVRShader
     public int bindShader(GVRContext context, GVRShaderData material, String meshDesc)
     {
         HashMap<String, Integer> variantDefines = new HashMap<String, Integer>();
-        String signature = generateVariantDefines(variantDefines, meshDesc, material);
         GVRShaderManager shaderManager = context.getShaderManager();
+        VariantKey key = makeVariantKey(variantDefines, meshDesc, material, null);
+        Integer knownShader = findVariant(shaderManager, key);
+
+        if (knownShader != null)
+        {
+            return knownShader;
+        }
+        String signature = generateVariantDefines(variantDefines, meshDesc, material);
         int nativeShader = shaderManager.getShader(signature);
 
         synchronized (shaderManager)
         {
             if (nativeShader == 0)
             {
-                String vertexShaderSource =
-                        generateShaderVariant("Vertex", variantDefines, null, null, material);
-                String fragmentShaderSource =
-                        generateShaderVariant("Fragment", variantDefines, null, null, material);
-                StringBuilder uniformDescriptor = new StringBuilder();
-                StringBuilder textureDescriptor = new StringBuilder();
-                StringBuilder vertexDescriptor = new StringBuilder();
-
-                updateDescriptors(material, meshDesc, uniformDescriptor, textureDescriptor, vertexDescriptor);
-                nativeShader = shaderManager.addShader(signature, uniformDescriptor.toString(),
-                                                       textureDescriptor.toString(), vertexDescriptor.toString(),
-                                                       vertexShaderSource, fragmentShaderSource);
-                bindCalcMatrixMethod(shaderManager, nativeShader);
-                if (mWriteShadersToDisk)
-                {
-                    writeShader(context, "V-" + signature + ".glsl", vertexShaderSource);
-                    writeShader(context, "F-" + signature + ".glsl", fragmentShaderSource);
-                }
-                Log.i(TAG, "SHADER: generated shader #%d %s", nativeShader, signature);
+                nativeShader = addShaderVariant(context, signature, variantDefines, null, null, material, meshDesc);
             }
             else
             {
                 Log.i(TAG, "SHADER: found shader #%d %s", nativeShader, signature);
             }
+            if (nativeShader > 0)
+            {
+                addVariant(shaderManager, key, nativeShader);
+            }
+            return nativeShader;
+        }
+    }
+
+    /**
+     * Add a shader variant to the shader manager, generating its
+     * sources unless they were already generated by this process
+     * or loaded from the disk cache.
+     * Must be called while holding the shader manager lock.
+     */
+    private int addShaderVariant(GVRContext context, String signature, HashMap<String, Integer> variantDefines,
+                                 GVRScene scene, GVRLight[] lightlist, GVRShaderData material, String meshDesc)
+    {
+        GVRShaderManager shaderManager = context.getShaderManager();
+        String className = getClass().getName();
+        String sourceHash = getSourceHash();
+        String lightHash = getLightSourceHash(lightlist);
+        GVRShaderVariantCache.Variant variant = GVRShaderVariantCache.get(className, sourceHash, lightHash, signature);
+        boolean generated = (variant == null);
+
+        if (generated)
+        {
+            Map<String, LightClass> lightClasses = scanLights(lightlist);
+            String vertexShaderSource = generateShaderVariant("Vertex", variantDefines,
+                                                              scene, lightClasses, material);
+            String fragmentShaderSource = generateShaderVariant("Fragment", variantDefines,
+                                                                scene, lightClasses, material);
+            StringBuilder uniformDescriptor = new StringBuilder();
+            StringBuilder textureDescriptor = new StringBuilder();
+            StringBuilder vertexDescriptor = new StringBuilder();
+
+            updateDescriptors(material, meshDesc, uniformDescriptor, textureDescriptor, vertexDescriptor);
+            variant = new GVRShaderVariantCache.Variant(className, sourceHash, lightHash, signature,
+                                                        uniformDescriptor.toString(),
+                                                        textureDescriptor.toString(),
+                                                        vertexDescriptor.toString(),
+                                                        vertexShaderSource, fragmentShaderSource);
+            GVRShaderVariantCache.put(variant);
+            if (mWriteShadersToDisk)
+            {
+                writeShader(context, "V-" + signature + ".glsl", vertexShaderSource);
+                writeShader(context, "F-" + signature + ".glsl", fragmentShaderSource);
+            }
+        }
+        int nativeShader = addCachedVariant(shaderManager, variant);
+        Log.i(TAG, "SHADER: %s shader #%d %s", generated ? "generated" : "cached", nativeShader, signature);
+        return nativeShader;
+    }
+
+    /**
+     * Add a cached shader variant to the shader manager
+     * if it does not already have it.
+     * @return native shader ID of the variant
+     */
+    int addCachedVariant(GVRShaderManager shaderManager, GVRShaderVariantCache.Variant variant)
+    {
+        synchronized (shaderManager)
+        {
+            int nativeShader = shaderManager.getShader(variant.Signature);
+
+            if (nativeShader == 0)
+            {
+                nativeShader = shaderManager.addShader(variant.Signature, variant.UniformDescriptor,
+                                                       variant.TextureDescriptor, variant.VertexDescriptor,
+                                                       variant.VertexShader, variant.FragmentShader);
+                bindCalcMatrixMethod(shaderManager, nativeShader);
+            }
             return nativeShader;
         }
     }
@@ -819,4 +1186,11 @@ public class GVRShaderTemplate extends GVRShader
     }
 
     protected Set<String> mShaderDefines;
+
+    private final boolean mUseVariantKeys = !isSignatureOverridden();
+    private final Map<VariantKey, Integer> mVariantShaders = new ConcurrentHashMap<VariantKey, Integer>();
+    private final Map<Object, Integer> mKeyIds = new ConcurrentHashMap<Object, Integer>();
+    private volatile WeakReference<GVRShaderManager> mVariantShaderManager = new WeakReference<GVRShaderManager>(null);
+    private String[] mDefineNames = null;
+    private volatile String mSourceHash;
 }
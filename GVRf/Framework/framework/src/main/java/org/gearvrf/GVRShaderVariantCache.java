@@ -0,0 +1,293 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gearvrf;
+
+import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the sources and descriptors of the shader variants generated
+ * by {@link GVRShaderTemplate} so each variant is only generated once
+ * per process, even if the shader manager is recreated.
+ * <p>
+ * If a directory is set the variants are also written there
+ * in the background and can be read back by {@link #load()}
+ * when the application starts again.
+ * @see GVRShaderManager#setVariantCacheDirectory(File)
+ * @see GVRShaderManager#prewarmVariants()
+ */
+final class GVRShaderVariantCache
+{
+    private static final String TAG = "GVRShaderVariantCache";
+    private static final int FILE_VERSION = 3;
+    private static final String FILE_SUFFIX = ".variant";
+
+    /**
+     * Generated sources and descriptors of a shader variant.
+     */
+    static final class Variant
+    {
+        Variant(String className, String sourceHash, String lightHash, String signature,
+                String uniformDescriptor, String textureDescriptor, String vertexDescriptor,
+                String vertexShader, String fragmentShader)
+        {
+            ClassName = className;
+            SourceHash = sourceHash;
+            LightHash = lightHash;
+            Signature = signature;
+            UniformDescriptor = uniformDescriptor;
+            TextureDescriptor = textureDescriptor;
+            VertexDescriptor = vertexDescriptor;
+            VertexShader = vertexShader;
+            FragmentShader = fragmentShader;
+        }
+        public final String ClassName;
+        public final String SourceHash;
+        public final String LightHash;
+        public final String Signature;
+        public final String UniformDescriptor;
+        public final String TextureDescriptor;
+        public final String VertexDescriptor;
+        public final String VertexShader;
+        public final String FragmentShader;
+    }
+
+    private static final ConcurrentHashMap<String, Variant> sVariants = new ConcurrentHashMap<String, Variant>();
+    private static volatile File sDirectory = null;
+
+    private GVRShaderVariantCache()
+    {
+    }
+
+    /**
+     * Set the directory to keep the shader variants in.
+     * @param directory directory for the variant files, null to only cache in memory
+     */
+    static void setDirectory(File directory)
+    {
+        if ((directory != null) && !directory.isDirectory() && !directory.mkdirs())
+        {
+            Log.w(TAG, "Cannot create shader variant cache %s", directory.getAbsolutePath());
+            directory = null;
+        }
+        sDirectory = directory;
+    }
+
+    /**
+     * Find a shader variant generated before.
+     * @param className  name of the {@link GVRShaderTemplate} class
+     * @param sourceHash hash of the template sources from {@link GVRShaderTemplate#getSourceHash()}
+     * @param lightHash  hash of the light sources from {@link GVRShaderTemplate#getLightSourceHash(GVRLight[])}
+     * @param signature  variant signature
+     * @return variant or null if not generated yet
+     */
+    static Variant get(String className, String sourceHash, String lightHash, String signature)
+    {
+        return sVariants.get(makeKey(className, sourceHash, lightHash, signature));
+    }
+
+    /*
+     * The source hashes are part of the key so variants generated
+     * from older sources of the same template or lights are never used.
+     */
+    private static String makeKey(String className, String sourceHash, String lightHash, String signature)
+    {
+        return className + '/' + sourceHash + '/' + lightHash + '/' + signature;
+    }
+
+    private static String makeKey(Variant variant)
+    {
+        return makeKey(variant.ClassName, variant.SourceHash, variant.LightHash, variant.Signature);
+    }
+
+    /**
+     * Add a generated shader variant. If a directory is set,
+     * it is written there on a background thread.
+     */
+    static void put(final Variant variant)
+    {
+        final File directory = sDirectory;
+
+        sVariants.put(makeKey(variant), variant);
+        if (directory != null)
+        {
+            Threads.spawnLow(new Runnable()
+            {
+                public void run()
+                {
+                    write(directory, variant);
+                }
+            });
+        }
+    }
+
+    /**
+     * Read all the shader variants in the directory into memory.
+     * Files written by another version of GearVRF or renderer are ignored.
+     * The caller must check the source hashes of each variant against
+     * its template and lights before using it.
+     * @return variants read, empty if no directory is set
+     */
+    static List<Variant> load()
+    {
+        List<Variant> variants = new ArrayList<Variant>();
+        File directory = sDirectory;
+        File[] files = (directory != null) ? directory.listFiles() : null;
+
+        if (files == null)
+        {
+            return variants;
+        }
+        for (File file : files)
+        {
+            if (!file.getName().endsWith(FILE_SUFFIX))
+            {
+                continue;
+            }
+            Variant variant = read(file);
+            if (variant != null)
+            {
+                sVariants.put(makeKey(variant), variant);
+                variants.add(variant);
+            }
+        }
+        return variants;
+    }
+
+    private static Variant read(File file)
+    {
+        DataInputStream stream = null;
+        try
+        {
+            stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if ((stream.readInt() != FILE_VERSION) ||
+                !GVRVersion.CURRENT.equals(readString(stream)) ||
+                (stream.readBoolean() != GVRShader.isVulkanInstance()))
+            {
+                return null;
+            }
+            return new Variant(readString(stream), readString(stream), readString(stream),
+                               readString(stream), readString(stream), readString(stream), readString(stream),
+                               readString(stream), readString(stream));
+        }
+        catch (IOException ex)
+        {
+            Log.w(TAG, "Cannot read shader variant %s", file.getName());
+            return null;
+        }
+        finally
+        {
+            close(stream);
+        }
+    }
+
+    private static void write(File directory, Variant variant)
+    {
+        String name = Long.toHexString(hash(makeKey(variant)));
+        File temp = new File(directory, name + ".tmp");
+        DataOutputStream stream = null;
+
+        try
+        {
+            stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            stream.writeInt(FILE_VERSION);
+            writeString(stream, GVRVersion.CURRENT);
+            stream.writeBoolean(GVRShader.isVulkanInstance());
+            writeString(stream, variant.ClassName);
+            writeString(stream, variant.SourceHash);
+            writeString(stream, variant.LightHash);
+            writeString(stream, variant.Signature);
+            writeString(stream, variant.UniformDescriptor);
+            writeString(stream, variant.TextureDescriptor);
+            writeString(stream, variant.VertexDescriptor);
+            writeString(stream, variant.VertexShader);
+            writeString(stream, variant.FragmentShader);
+            stream.close();
+            stream = null;
+            if (!temp.renameTo(new File(directory, name + FILE_SUFFIX)))
+            {
+                temp.delete();
+            }
+        }
+        catch (IOException ex)
+        {
+            Log.w(TAG, "Cannot write shader variant %s", variant.Signature);
+            close(stream);
+            temp.delete();
+        }
+    }
+
+    /*
+     * DataOutputStream.writeUTF is limited to 64K which
+     * large fragment shaders with many lights can exceed.
+     */
+    private static void writeString(DataOutputStream stream, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes("UTF-8");
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    private static String readString(DataInputStream stream) throws IOException
+    {
+        byte[] bytes = new byte[stream.readInt()];
+        stream.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static void close(Closeable stream)
+    {
+        if (stream != null)
+        {
+            try
+            {
+                stream.close();
+            }
+            catch (IOException ex)
+            {
+            }
+        }
+    }
+
+    /*
+     * 64 bit FNV-1a hash used to name the variant files and
+     * identify the sources of a template. The file contents identify
+     * the variant so a collision of file names only means one of the
+     * variants is not kept on disk.
+     */
+    static long hash(String s)
+    {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); ++i)
+        {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
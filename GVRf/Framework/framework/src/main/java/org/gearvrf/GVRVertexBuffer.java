@@ -350,6 +350,32 @@ public class GVRVertexBuffer extends GVRHybridObject implements PrettyPrint
         }
     }
 
+    /**
+     * Updates a vertex attribute for a range of vertices from a float array.
+     * Unlike {@link #setFloatArray(String, float[])} this does not
+     * establish the number of vertices, it changes vertices already
+     * in the buffer. The source data is tightly packed, it contains
+     * only the attribute values for the vertices being updated.
+     * Only the vertices changed are copied to the GPU, which is much
+     * faster than replacing all of them when a few vertices of a large
+     * mesh change every frame (this is not yet implemented for Vulkan
+     * which always copies the whole buffer).
+     * @param attributeName name of the attribute to update
+     * @param data          float array containing the new values
+     * @param offset        offset from start of array of the data for the first vertex
+     * @param firstVertex   index of the first vertex to update
+     * @param vertexCount   number of vertices to update
+     * @throws IllegalArgumentException if attribute name not in descriptor,
+     * the vertex range is outside the buffer or the float array is too small
+     */
+    public void setFloatArrayRange(String attributeName, float[] data, int offset, int firstVertex, int vertexCount)
+    {
+        if (!NativeVertexBuffer.setFloatArrayRange(getNative(), attributeName, data, offset, firstVertex, vertexCount))
+        {
+            throw new IllegalArgumentException("Attribute name " + attributeName + " cannot be updated");
+        }
+    }
+
     /**
      * Updates a vertex attribute from a float buffer.
      * All of the entries of the input float buffer are copied into
@@ -611,6 +637,8 @@ class NativeVertexBuffer {
 
     static native boolean setFloatArray(long vbuf, String name, float[] data, int stride, int offset);
 
+    static native boolean setFloatArrayRange(long vbuf, String name, float[] data, int offset, int firstVertex, int vertexCount);
+
     static native int  getAttributeSize(long vbuf, String name);
 
     static native int getBoundingVolume(long vbuf, float[] bv);
@@ -23,6 +23,7 @@ import org.gearvrf.animation.GVRAnimation;
 import org.gearvrf.animation.GVROnFinish;
 import org.gearvrf.animation.GVROpacityAnimation;
 import org.gearvrf.asynchronous.GVRAsynchronousResourceLoader;
+import org.gearvrf.debug.GVRFrameStats;
 import org.gearvrf.io.GVRGearCursorController;
 import org.gearvrf.io.GVRInputManager;
 import org.gearvrf.script.IScriptManager;
@@ -35,13 +36,8 @@ import org.gearvrf.utility.VrAppSettings.EyeBufferParams.DepthFormat;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.ReentrantLock;
 
 abstract class GVRViewManager extends GVRContext {
@@ -87,8 +83,7 @@ abstract class GVRViewManager extends GVRContext {
         }
 
         mFrameListeners.clear();
-        mRunnables.clear();
-        mRunnablesPostRender.clear();
+        mGlTasks.clear();
         super.onDestroy();
     }
 
@@ -264,15 +259,7 @@ abstract class GVRViewManager extends GVRContext {
          * Without the sensor data, can't draw a scene properly.
          */
         if (!(mSensoredScene == null || !mMainScene.equals(mSensoredScene))) {
-            Runnable runnable;
-            while ((runnable = mRunnables.poll()) != null) {
-                try {
-                    runnable.run();
-                } catch (final Exception exc) {
-                    Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
-                    exc.printStackTrace();
-                }
-            }
+            mFrameStats.recordDeferredGlTasks(mGlTasks.runFrame());
 
             final List<GVRDrawFrameListener> frameListeners = mFrameListeners;
             for (GVRDrawFrameListener listener : frameListeners) {
@@ -293,6 +280,11 @@ abstract class GVRViewManager extends GVRContext {
         return mFrameTime;
     }
 
+    @Override
+    public GVRFrameStats getFrameStats() {
+        return mFrameStats;
+    }
+
     /*
      * Splash screen life cycle
      */
@@ -332,17 +324,7 @@ abstract class GVRViewManager extends GVRContext {
             // execute pending runnables now so any necessary gl calls
             // are done before onInit().  As an example the request to
             // get the GL_MAX_TEXTURE_SIZE needs to be fulfilled.
-            synchronized (mRunnables) {
-                Runnable runnable = null;
-                while ((runnable = mRunnables.poll()) != null) {
-                    try {
-                        runnable.run();
-                    } catch (final Exception exc) {
-                        Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
-                        exc.printStackTrace();
-                    }
-                }
-            }
+            mGlTasks.runAll();
 
             runOnTheFrameworkThread(new Runnable() {
                 @Override
@@ -498,18 +480,22 @@ abstract class GVRViewManager extends GVRContext {
         if (mGLThreadID == Thread.currentThread().getId()) {
             runnable.run();
         } else {
-            mRunnables.add(runnable);
+            mGlTasks.post(runnable);
         }
     }
 
     @Override
     public void runOnGlThreadPostRender(int delayFrames, Runnable runnable) {
-        synchronized (mRunnablesPostRender) {
-            mRunnablesPostRender.put(runnable, delayFrames);
-        }
+        mGlTasks.postAfterRender(delayFrames, runnable);
+    }
+
+    @Override
+    public GVRGLTaskScheduler getGlTaskScheduler() {
+        return mGlTasks;
     }
 
     protected void beforeDrawEyes() {
+        mFrameStartTimeNanos = GVRTime.getNanoTime();
         GVRNotifications.notifyBeforeStep();
         mFrameHandler.beforeDrawEyes();
         makeShadowMaps(mMainScene.getNative(), getMainScene(), mRenderBundle.getShaderManager().getNative(),
@@ -519,22 +505,27 @@ abstract class GVRViewManager extends GVRContext {
     protected void afterDrawEyes() {
         // Execute post-rendering tasks (after drawing eyes, but
         // before afterDrawEyes handlers)
-        synchronized (mRunnablesPostRender) {
-            for (Iterator<Map.Entry<Runnable, Integer>> it = mRunnablesPostRender.entrySet().iterator(); it
-                    .hasNext();) {
-                Map.Entry<Runnable, Integer> entry = it.next();
-                if (entry.getValue() <= 0) {
-                    entry.getKey().run();
-                    it.remove();
-                } else {
-                    entry.setValue(entry.getValue() - 1);
-                }
-            }
-        }
+        mGlTasks.runPostRender();
 
         mFrameHandler.afterDrawEyes();
         finalizeUnreachableObjects();
         GVRNotifications.notifyAfterStep();
+
+        if (mMainScene != null) {
+            mFrameStats.recordDrawCalls(NativeScene.getNumberDrawCalls(mMainScene.getNative()));
+        }
+        mFrameStats.recordFrameTime(GVRTime.getNanoTime() - mFrameStartTimeNanos);
+    }
+
+    /**
+     * Cull the main scene from a camera and record the time taken
+     * in the {@linkplain #getFrameStats() frame statistics}.
+     */
+    void cullFromCamera(GVRRenderTarget renderTarget, GVRCamera camera)
+    {
+        final long start = GVRTime.getNanoTime();
+        renderTarget.cullFromCamera(mMainScene, camera, mRenderBundle.getShaderManager());
+        mFrameStats.recordCullTime(GVRTime.getNanoTime() - start);
     }
 
     void cullAndRender(GVRRenderTarget renderTarget, GVRScene scene)
@@ -711,7 +702,7 @@ abstract class GVRViewManager extends GVRContext {
             posteffectRenderTextureA = mRenderBundle.getEyeCapturePostEffectRenderTextureA();
             posteffectRenderTextureB = mRenderBundle.getEyeCapturePostEffectRenderTextureB();
             renderTarget = mRenderBundle.getEyeCaptureRenderTarget();
-            renderTarget.cullFromCamera(mMainScene, centerCamera ,mRenderBundle.getShaderManager());
+            cullFromCamera(renderTarget, centerCamera);
             renderTarget.beginRendering(centerCamera);
         }
         else {
@@ -742,7 +733,7 @@ abstract class GVRViewManager extends GVRContext {
     private void renderOneCameraAndAddToList(final GVRPerspectiveCamera centerCamera, final Bitmap[] bitmaps, int index,
                                              GVRRenderTarget renderTarget, GVRRenderTexture postEffectRenderTextureA, GVRRenderTexture postEffectRenderTextureB ) {
 
-        renderTarget.cullFromCamera(mMainScene,centerCamera,mRenderBundle.getShaderManager());
+        cullFromCamera(renderTarget, centerCamera);
         renderTarget.render(mMainScene,centerCamera,mRenderBundle.getShaderManager(),postEffectRenderTextureA, postEffectRenderTextureB);
         readRenderResult(renderTarget,EYE.CENTER, false);
 
@@ -826,12 +817,13 @@ abstract class GVRViewManager extends GVRContext {
     protected final GVRApplication mApplication;
     protected float mFrameTime;
     protected long mPreviousTimeNanos;
+    private long mFrameStartTimeNanos;
+    private final GVRFrameStats mFrameStats = new GVRFrameStats("gvrf-frame-stats");
 
     protected FrameHandler mFrameHandler = firstFrame;
 
     protected List<GVRDrawFrameListener> mFrameListeners = new CopyOnWriteArrayList<GVRDrawFrameListener>();
-    protected final Queue<Runnable> mRunnables = new LinkedBlockingQueue<Runnable>();
-    protected final Map<Runnable, Integer> mRunnablesPostRender = new HashMap<Runnable, Integer>();
+    protected final GVRGLTaskScheduler mGlTasks = new GVRGLTaskScheduler();
 
     protected GVRScene mMainScene;
     protected GVRScene mPendingMainScene;
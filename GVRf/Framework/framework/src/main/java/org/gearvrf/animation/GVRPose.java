@@ -22,14 +22,10 @@ import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Formatter;
 import java.util.Locale;
 
-import static org.gearvrf.animation.GVRPose.Bone.LOCAL_ROT;
-import static org.gearvrf.animation.GVRPose.Bone.WORLD_POS;
-import static org.gearvrf.animation.GVRPose.Bone.WORLD_ROT;
-
 /*!
  * Set of transformations on the bones of a skeleton.
  * p>
@@ -46,6 +42,10 @@ import static org.gearvrf.animation.GVRPose.Bone.WORLD_ROT;
  * <p>
  * Each skeleton has a current pose. Usually the current pose of a skeleton is used to
  * drive a skinned animation.
+ * <p>
+ * The bone matrices are kept in packed float arrays, 16 floats per bone
+ * in column major order, so whole poses can be copied and handed
+ * to the native skeleton in bulk.
  *
  * @see GVRTransform
  * @see GVRSkeleton
@@ -54,11 +54,31 @@ import static org.gearvrf.animation.GVRPose.Bone.WORLD_ROT;
 public class GVRPose implements PrettyPrint
 {
     static final float EPSILON = Float.intBitsToFloat(1);
+    static final int MATRIX_SIZE = 16;
+    static final int LOCAL_ROT = 1;
+    static final int WORLD_ROT = 2;
+    static final int WORLD_POS = 4;
+
     protected GVRSkeleton mSkeleton;
     private boolean	      mNeedSync;
-    private Bone[]        mBones;
+    private final int     mNumBones;
+    private final float[] mLocalMatrices;   // local transformations (relative to parent)
+    private final float[] mWorldMatrices;   // world transformations (relative to root of skeleton)
+    private final int[]   mChanged;         // WORLD_ROT, LOCAL_ROT, WORLD_POS for each bone
     private final Quaternionf mTempQuat = new Quaternionf();
+    private final Matrix4f mTempLocal = new Matrix4f();
+    private final Matrix4f mTempWorld = new Matrix4f();
+    /**
+     * @deprecated no longer used by GVRPose, which keeps its own
+     * temporary matrices so poses can be used on several threads.
+     */
+    @Deprecated
     public static final Matrix4f mTempMtxA = new Matrix4f();
+    /**
+     * @deprecated no longer used by GVRPose, which keeps its own
+     * temporary matrices so poses can be used on several threads.
+     */
+    @Deprecated
     public static final Matrix4f mTempMtxB = new Matrix4f();
     private static boolean sDebug = false;
 
@@ -94,10 +114,14 @@ public class GVRPose implements PrettyPrint
     public GVRPose(GVRSkeleton skel)
     {
         mSkeleton = skel;
-        mBones = new Bone[skel.getNumBones()];
-        for (int i = 0; i < mBones.length; ++i)
+        mNumBones = skel.getNumBones();
+        mLocalMatrices = new float[mNumBones * MATRIX_SIZE];
+        mWorldMatrices = new float[mNumBones * MATRIX_SIZE];
+        mChanged = new int[mNumBones];
+        for (int i = 0; i < mNumBones; ++i)
         {
-            mBones[i] = new Bone();
+            mTempLocal.identity().get(mLocalMatrices, i * MATRIX_SIZE);
+            mTempLocal.get(mWorldMatrices, i * MATRIX_SIZE);
         }
     }
 
@@ -113,11 +137,10 @@ public class GVRPose implements PrettyPrint
     public GVRPose(GVRPose src)
     {
         mSkeleton = src.getSkeleton();
-        mBones = new Bone[mSkeleton.getNumBones()];
-        for (int i = 0; i < mBones.length; ++i)
-        {
-            mBones[i] = new Bone(src.getBone(i));
-        }
+        mNumBones = mSkeleton.getNumBones();
+        mLocalMatrices = Arrays.copyOf(src.mLocalMatrices, mNumBones * MATRIX_SIZE);
+        mWorldMatrices = Arrays.copyOf(src.mWorldMatrices, mNumBones * MATRIX_SIZE);
+        mChanged = Arrays.copyOf(src.mChanged, mNumBones);
     }
 
 
@@ -139,7 +162,14 @@ public class GVRPose implements PrettyPrint
     public GVRSkeleton	getSkeleton() { return mSkeleton; }
 
 
-    public Bone		getBone(int boneindex) { return mBones[boneindex]; }
+    /**
+     * Get the change flags for a bone (LOCAL_ROT, WORLD_ROT, WORLD_POS).
+     * @param boneindex index of bone.
+     * @return flags indicating which matrices of the bone changed since the last sync.
+     */
+    int         getChangedFlags(int boneindex) { return mChanged[boneindex]; }
+
+    void        clearChangedFlags(int boneindex) { mChanged[boneindex] = 0; }
 
 
     /**
@@ -157,16 +187,16 @@ public class GVRPose implements PrettyPrint
 
     public void     getWorldPosition(int boneindex, Vector3f pos) 
     {
-        Bone bone = mBones[boneindex];
         int boneParent = mSkeleton.getParentBoneIndex(boneindex);
+        int t = boneindex * MATRIX_SIZE;
 
-        if ((boneParent >= 0) && ((bone.Changed & LOCAL_ROT) == LOCAL_ROT))
+        if ((boneParent >= 0) && ((mChanged[boneindex] & LOCAL_ROT) == LOCAL_ROT))
         {
-            calcWorld(bone, boneParent);
+            calcWorld(boneindex, boneParent);
         }
-        pos.x = bone.WorldMatrix.m30();
-        pos.y = bone.WorldMatrix.m31();
-        pos.z = bone.WorldMatrix.m32();
+        pos.x = mWorldMatrices[t + 12];
+        pos.y = mWorldMatrices[t + 13];
+        pos.z = mWorldMatrices[t + 14];
     }
 
     /**
@@ -190,17 +220,18 @@ public class GVRPose implements PrettyPrint
      */
     public void	getWorldPositions(float[] dest)
     {
-        if (dest.length != mBones.length * 3)
+        if (dest.length != mNumBones * 3)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         sync();
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
             int t = i * 3;
-            dest[t] = mBones[i].WorldMatrix.m30();
-            dest[t + 1] = mBones[i].WorldMatrix.m31();
-            dest[t + 2] = mBones[i].WorldMatrix.m32();
+            int m = i * MATRIX_SIZE;
+            dest[t] = mWorldMatrices[m + 12];
+            dest[t + 1] = mWorldMatrices[m + 13];
+            dest[t + 2] = mWorldMatrices[m + 14];
         }
     }
 
@@ -219,15 +250,69 @@ public class GVRPose implements PrettyPrint
      */
     public void	getWorldMatrices(float[] dest)
     {
-        if (dest.length != mBones.length * 16)
+        if (dest.length != mNumBones * MATRIX_SIZE)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         sync();
-        for (int i = 0; i < mBones.length; ++i)
+        System.arraycopy(mWorldMatrices, 0, dest, 0, mWorldMatrices.length);
+    }
+
+    /**
+     * Gets the local matrices for all the bones in this pose.
+     * <p>
+     * The local bone matrix expresses the orientation and position of the bone relative
+     * to its parent. The matrices are copied in one block in the same
+     * order as the bones in the skeleton, 16 floats per bone in column major order.
+     * @param dest  destination array, must have room for 16 floats per bone.
+     *
+     * @see #setLocalMatrices
+     * @see #getLocalMatrix
+     */
+    public void	getLocalMatrices(float[] dest)
+    {
+        if (dest.length < mNumBones * MATRIX_SIZE)
+        {
+            throw new IllegalArgumentException("Destination array is the wrong size");
+        }
+        for (int i = 0; i < mNumBones; ++i)
+        {
+            if ((mChanged[i] & (WORLD_ROT | WORLD_POS)) != 0)
+            {
+                calcLocal(i, mSkeleton.getParentBoneIndex(i));
+            }
+        }
+        System.arraycopy(mLocalMatrices, 0, dest, 0, mLocalMatrices.length);
+    }
+
+    /**
+     * Sets the local matrices for all the bones in this pose.
+     * <p>
+     * The matrices are copied in one block and the world matrices are
+     * recomputed. This is the bulk equivalent of calling
+     * {@link #setLocalMatrix(int, Matrix4f)} for every bone followed by {@link #sync()}.
+     * @param src   source array with 16 floats per bone in column major order.
+     *
+     * @see #getLocalMatrices
+     * @see #setLocalMatrix
+     */
+    public void setLocalMatrices(float[] src)
+    {
+        if (src.length < mNumBones * MATRIX_SIZE)
+        {
+            throw new IllegalArgumentException("Source array is the wrong size");
+        }
+        System.arraycopy(src, 0, mLocalMatrices, 0, mLocalMatrices.length);
+        Arrays.fill(mChanged, LOCAL_ROT);
+        for (int i = 0; i < mNumBones; ++i)
         {
-            mBones[i].WorldMatrix.get(dest, i * 16);
+            if (mSkeleton.getParentBoneIndex(i) < 0)
+            {
+                System.arraycopy(mLocalMatrices, i * MATRIX_SIZE, mWorldMatrices, i * MATRIX_SIZE, MATRIX_SIZE);
+            }
         }
+        mNeedSync = true;
+        sync();
     }
 
     /**
@@ -251,21 +336,23 @@ public class GVRPose implements PrettyPrint
      */
     public void	setWorldPositions(float[] positions)
     {
-        if (positions.length != mBones.length * 3)
+        if (positions.length != mNumBones * 3)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         mNeedSync = true;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone bone = mBones[i];
             int t = i * 3;
+            int m = i * MATRIX_SIZE;
 
-            bone.setWorldPosition(positions[t], positions[t + 1], positions[t + 2]);
-            bone.Changed = WORLD_POS;
+            mWorldMatrices[m + 12] = positions[t];
+            mWorldMatrices[m + 13] = positions[t + 1];
+            mWorldMatrices[m + 14] = positions[t + 2];
+            mChanged[i] = WORLD_POS;
             if (sDebug)
             {
-                Log.d("BONE", "setWorldPosition: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                Log.d("BONE", "setWorldPosition: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
         }
         sync();
@@ -294,24 +381,23 @@ public class GVRPose implements PrettyPrint
      */
     public void setWorldRotations(float[] rotations)
     {
-        if (rotations.length != mBones.length * 4)
+        if (rotations.length != mNumBones * 4)
         {
             throw new IllegalArgumentException("Source array is the wrong size");
         }
         mNeedSync = true;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone bone = mBones[i];
             int t = i * 4;
 
-            bone.setWorldRotation(rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
-            bone.Changed |= WORLD_ROT;
+            setRotation(mWorldMatrices, i, rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
+            mChanged[i] |= WORLD_ROT;
 
-            calcLocal(bone, mSkeleton.getParentBoneIndex(i));
+            calcLocal(i, mSkeleton.getParentBoneIndex(i));
 
             if (sDebug)
             {
-                Log.d("BONE", "setWorldRotation: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                Log.d("BONE", "setWorldRotation: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
         }
     }
@@ -334,7 +420,7 @@ public class GVRPose implements PrettyPrint
      */
     public void getWorldMatrix(int boneindex, Matrix4f mtx)
     {
-        mBones[boneindex].getWorldMatrix(mtx);
+        mtx.set(mWorldMatrices, boneindex * MATRIX_SIZE);
     }
 
     /**
@@ -355,22 +441,20 @@ public class GVRPose implements PrettyPrint
      */
     public void setWorldMatrix(int boneindex, Matrix4f mtx)
     {
-        Bone	  bone = mBones[boneindex];
-
-        bone.WorldMatrix.set(mtx);
+        mtx.get(mWorldMatrices, boneindex * MATRIX_SIZE);
         if (mSkeleton.getParentBoneIndex(boneindex) >= 0)
         {
-            calcLocal(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcLocal(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
         else
         {
-            bone.LocalMatrix.set(mtx);
+            mtx.get(mLocalMatrices, boneindex * MATRIX_SIZE);
         }
         mNeedSync = true;
-        bone.Changed = Bone.WORLD_POS | Bone.WORLD_ROT;
+        mChanged[boneindex] = WORLD_POS | WORLD_ROT;
         if (sDebug)
         {
-            Log.d("BONE", "setWorldMatrix: %s %s", mSkeleton.getBoneName(boneindex), bone.toString());
+            Log.d("BONE", "setWorldMatrix: %s %s", mSkeleton.getBoneName(boneindex), boneToString(boneindex));
         }
     }
 
@@ -396,17 +480,17 @@ public class GVRPose implements PrettyPrint
      */
     public void getWorldRotations(float[] rotations)
     {
-        if (rotations.length != mBones.length * 4)
+        if (rotations.length != mNumBones * 4)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         sync();
-        for (int i = 0; i < mBones.length; i++)
+        for (int i = 0; i < mNumBones; i++)
         {
-            Bone bone = mBones[i];
             int t = i * 4;
 
-            bone.WorldMatrix.getUnnormalizedRotation(mTempQuat);
+            mTempWorld.set(mWorldMatrices, i * MATRIX_SIZE);
+            mTempWorld.getUnnormalizedRotation(mTempQuat);
             mTempQuat.normalize();
 
             rotations[t++] = mTempQuat.x;
@@ -429,13 +513,12 @@ public class GVRPose implements PrettyPrint
      */
     public void	getWorldRotation(int boneindex, Quaternionf q)
     {
-        Bone bone = mBones[boneindex];
-
-        if ((bone.Changed & LOCAL_ROT) == LOCAL_ROT)
+        if ((mChanged[boneindex] & LOCAL_ROT) == LOCAL_ROT)
         {
-            calcWorld(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcWorld(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
-        bone.WorldMatrix.getUnnormalizedRotation(q);
+        mTempWorld.set(mWorldMatrices, boneindex * MATRIX_SIZE);
+        mTempWorld.getUnnormalizedRotation(q);
         q.normalize();
     }
 
@@ -457,12 +540,16 @@ public class GVRPose implements PrettyPrint
             return false;
         }
 
-        Bone	bone = mBones[boneindex];
-        bone.setWorldRotation(x, y, z, w);
-        bone.Changed |= WORLD_ROT;
+        setRotation(mWorldMatrices, boneindex, x, y, z, w);
+        mChanged[boneindex] |= WORLD_ROT;
         if (mSkeleton.getParentBoneIndex(boneindex) < 0)
         {
-            bone.LocalMatrix.set3x3(bone.WorldMatrix);
+            int t = boneindex * MATRIX_SIZE;
+
+            mTempLocal.set(mLocalMatrices, t);
+            mTempWorld.set(mWorldMatrices, t);
+            mTempLocal.set3x3(mTempWorld);
+            mTempLocal.get(mLocalMatrices, t);
         }
         else
         {
@@ -488,13 +575,11 @@ public class GVRPose implements PrettyPrint
      */
     public void getLocalMatrix(int boneindex, Matrix4f mtx)
     {
-        Bone bone = mBones[boneindex];
-
-        if ((bone.Changed & (WORLD_ROT | WORLD_POS)) != 0)
+        if ((mChanged[boneindex] & (WORLD_ROT | WORLD_POS)) != 0)
         {
-            calcLocal(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcLocal(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
-        bone.getLocalMatrix(mtx);
+        mtx.set(mLocalMatrices, boneindex * MATRIX_SIZE);
     }
 
     /**
@@ -512,14 +597,13 @@ public class GVRPose implements PrettyPrint
      */
     public void setLocalMatrix(int boneindex, Matrix4f mtx)
     {
-        Bone	  bone = mBones[boneindex];
         int		  parentid = mSkeleton.getParentBoneIndex(boneindex);
 
-        bone.LocalMatrix.set(mtx);
-        bone.Changed = Bone.LOCAL_ROT;
+        mtx.get(mLocalMatrices, boneindex * MATRIX_SIZE);
+        mChanged[boneindex] = LOCAL_ROT;
         if (parentid < 0)
         {
-            bone.WorldMatrix.set(bone.LocalMatrix);
+            mtx.get(mWorldMatrices, boneindex * MATRIX_SIZE);
         }
         else
         {
@@ -531,7 +615,7 @@ public class GVRPose implements PrettyPrint
             Log.d("BONE",
                   "setLocalMatrix: %s %s",
                   mSkeleton.getBoneName(boneindex),
-                  bone.toString());
+                  boneToString(boneindex));
         }
     }
 
@@ -558,18 +642,16 @@ public class GVRPose implements PrettyPrint
     public void setLocalRotations(float[] rotations)
     {
         mNeedSync = true;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
             int t = i * 4;
             if (!mSkeleton.isLocked(i))
             {
-                Bone bone = mBones[i];
-
-                bone.setLocalRotation(rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
-                bone.Changed = LOCAL_ROT;
+                setRotation(mLocalMatrices, i, rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
+                mChanged[i] = LOCAL_ROT;
                 if (sDebug)
                 {
-                    Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                    Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(i), boneToString(i));
                 }
             }
         }
@@ -587,13 +669,12 @@ public class GVRPose implements PrettyPrint
      */
     public void getLocalRotation(int boneindex, Quaternionf q)
     {
-        Bone bone = mBones[boneindex];
-
-        if ((bone.Changed & (WORLD_POS | WORLD_ROT)) != 0)
+        if ((mChanged[boneindex] & (WORLD_POS | WORLD_ROT)) != 0)
         {
-            calcLocal(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcLocal(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
-        bone.LocalMatrix.getUnnormalizedRotation(q);
+        mTempLocal.set(mLocalMatrices, boneindex * MATRIX_SIZE);
+        mTempLocal.getUnnormalizedRotation(q);
         q.normalize();
     }
 
@@ -617,21 +698,19 @@ public class GVRPose implements PrettyPrint
         if (mSkeleton.isLocked(boneindex))
             return false;
 
-        Bone bone = mBones[boneindex];
-
-        bone.setLocalRotation(x, y, z, w);
+        setRotation(mLocalMatrices, boneindex, x, y, z, w);
         if (mSkeleton.getParentBoneIndex(boneindex) < 0)
         {
-            bone.WorldMatrix.set(bone.LocalMatrix);
+            System.arraycopy(mLocalMatrices, boneindex * MATRIX_SIZE, mWorldMatrices, boneindex * MATRIX_SIZE, MATRIX_SIZE);
         }
         else
         {
             mNeedSync = true;
         }
-        bone.Changed = LOCAL_ROT;
+        mChanged[boneindex] = LOCAL_ROT;
         if (sDebug)
         {
-            Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(boneindex), bone.toString());
+            Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(boneindex), boneToString(boneindex));
         }
         return true;
     }
@@ -653,33 +732,37 @@ public class GVRPose implements PrettyPrint
      */
     public void     getLocalPosition(int boneindex, Vector3f pos)
     {
-        pos.x = mBones[boneindex].LocalMatrix.m30();
-        pos.y = mBones[boneindex].LocalMatrix.m31();
-        pos.z = mBones[boneindex].LocalMatrix.m32();
+        int t = boneindex * MATRIX_SIZE;
+
+        pos.x = mLocalMatrices[t + 12];
+        pos.y = mLocalMatrices[t + 13];
+        pos.z = mLocalMatrices[t + 14];
     }
 
     public void getLocalScale(int boneindex, Vector3f scale)
     {
-        mBones[boneindex].getScale(scale);
+        getScale(mLocalMatrices, boneindex, scale);
     }
 
     public void setLocalPosition(int boneindex, float x, float y, float z)
     {
-        Bone bone = mBones[boneindex];
-        bone.setLocalPosition(x, y, z);
+        int t = boneindex * MATRIX_SIZE;
 
+        mLocalMatrices[t + 12] = x;
+        mLocalMatrices[t + 13] = y;
+        mLocalMatrices[t + 14] = z;
         if (mSkeleton.getParentBoneIndex(boneindex) < 0)
         {
-            bone.WorldMatrix.set(bone.LocalMatrix);
+            System.arraycopy(mLocalMatrices, t, mWorldMatrices, t, MATRIX_SIZE);
         }
         else
         {
             mNeedSync = true;
         }
-        bone.Changed = LOCAL_ROT;
+        mChanged[boneindex] = LOCAL_ROT;
         if (sDebug)
         {
-            Log.d("BONE", "setLocalPosition: %s %s", mSkeleton.getBoneName(boneindex), bone.toString());
+            Log.d("BONE", "setLocalPosition: %s %s", mSkeleton.getBoneName(boneindex), boneToString(boneindex));
         }
     }
 
@@ -689,11 +772,9 @@ public class GVRPose implements PrettyPrint
      */
     public void transformPose(Matrix4f trans)
     {
-        Bone bone = mBones[0];
-
-        bone.LocalMatrix.set(trans);
-        bone.WorldMatrix.set(trans);
-        bone.Changed = WORLD_POS | WORLD_ROT;
+        trans.get(mLocalMatrices, 0);
+        trans.get(mWorldMatrices, 0);
+        mChanged[0] = WORLD_POS | WORLD_ROT;
         mNeedSync = true;
         sync();
     }
@@ -712,14 +793,8 @@ public class GVRPose implements PrettyPrint
         if (numbones != src.getNumBones())
             return false;
         sync();
-        for (int i = 0; i < numbones; ++i)
-        {
-            if (!mBones[i].equals(src.getBone(i)))
-            {
-                return false;
-            }
-        }
-        return true;
+        // bones are compared by identity, so a pose with bones only equals itself
+        return (numbones == 0) || (src == this);
     }
 
     /**
@@ -737,10 +812,9 @@ public class GVRPose implements PrettyPrint
         if (getSkeleton() != src.getSkeleton())
             throw new IllegalArgumentException("GVRPose.copy: input pose does not have same skeleton as this pose");
         src.sync();
-        for (int i = 0; i < numbones; ++i)
-        {
-            mBones[i].copy(src.getBone(i));
-        }
+        System.arraycopy(src.mLocalMatrices, 0, mLocalMatrices, 0, numbones * MATRIX_SIZE);
+        System.arraycopy(src.mWorldMatrices, 0, mWorldMatrices, 0, numbones * MATRIX_SIZE);
+        System.arraycopy(src.mChanged, 0, mChanged, 0, numbones);
     }
 
     /**
@@ -760,15 +834,18 @@ public class GVRPose implements PrettyPrint
         src.sync();
         for (int i = 0; i < numbones; ++i)
         {
-            Bone bone = mBones[i];
+            int t = i * MATRIX_SIZE;
 
-            bone.WorldMatrix.mul(src.mBones[i].WorldMatrix);
-            calcLocal(bone, mSkeleton.getParentBoneIndex(i));
+            mTempWorld.set(mWorldMatrices, t);
+            mTempLocal.set(src.mWorldMatrices, t);
+            mTempWorld.mul(mTempLocal);
+            mTempWorld.get(mWorldMatrices, t);
+            calcLocal(i, mSkeleton.getParentBoneIndex(i));
             if (sDebug)
             {
-                Log.d("BONE", "combine: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                Log.d("BONE", "combine: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
-            bone.Changed = 0;
+            mChanged[i] = 0;
         }
         sync();
     }
@@ -785,10 +862,8 @@ public class GVRPose implements PrettyPrint
         mNeedSync = true;
         for (int i = 0; i < numbones; ++i)
         {
-            Bone bone = mBones[i];
-
-            bone.clearRotation();
-            bone.Changed = 0;
+            setRotation(mLocalMatrices, i, 0, 0, 0, 1);
+            mChanged[i] = 0;
         }
     }
 
@@ -802,26 +877,26 @@ public class GVRPose implements PrettyPrint
             throw new IllegalArgumentException("GVRPose.copy: input pose is incompatible with this pose");
         src.sync();
         int numbones = getNumBones();
-        Bone srcBone = src.mBones[0];
-        Bone dstBone = mBones[0];
 
         mNeedSync = true;
-        srcBone.WorldMatrix.invertAffine(dstBone.WorldMatrix);
-        srcBone.LocalMatrix.set(dstBone.WorldMatrix);
-        if (sDebug)
+        for (int i = 0; i < numbones; ++i)
         {
-            Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(0), dstBone.toString());
+            int t = i * MATRIX_SIZE;
 
-        }
-        for (int i = 1; i < numbones; ++i)
-        {
-            srcBone = src.mBones[i];
-            dstBone = mBones[i];
-            srcBone.WorldMatrix.invertAffine(dstBone.WorldMatrix);
-            dstBone.Changed = WORLD_ROT | WORLD_POS;
+            mTempWorld.set(src.mWorldMatrices, t);
+            mTempWorld.invertAffine();
+            mTempWorld.get(mWorldMatrices, t);
+            if (i == 0)
+            {
+                mTempWorld.get(src.mLocalMatrices, t);
+            }
+            else
+            {
+                mChanged[i] = WORLD_ROT | WORLD_POS;
+            }
             if (sDebug)
             {
-                Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(i), dstBone.toString());
+                Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
         }
         sync();
@@ -840,48 +915,50 @@ public class GVRPose implements PrettyPrint
      */
     public boolean	setPosition(float x, float y, float z)
     {
-        Bone bone = mBones[0];
-        float dx = x - bone.WorldMatrix.m30();
-        float dy = y - bone.WorldMatrix.m31();
-        float dz = z - bone.WorldMatrix.m32();
+        float dx = x - mWorldMatrices[12];
+        float dy = y - mWorldMatrices[13];
+        float dz = z - mWorldMatrices[14];
 
         sync();
-        bone.LocalMatrix.setTranslation(x, y, z);
-        for (int i = 0; i < mBones.length; ++i)
+        mLocalMatrices[12] = x;
+        mLocalMatrices[13] = y;
+        mLocalMatrices[14] = z;
+        for (int t = 0; t < mWorldMatrices.length; t += MATRIX_SIZE)
         {
-            bone = mBones[i];
-            bone.WorldMatrix.m30(bone.WorldMatrix.m30() + dx);
-            bone.WorldMatrix.m31(bone.WorldMatrix.m31() + dy);
-            bone.WorldMatrix.m32(bone.WorldMatrix.m32() + dz);
+            mWorldMatrices[t + 12] += dx;
+            mWorldMatrices[t + 13] += dy;
+            mWorldMatrices[t + 14] += dz;
         }
         if (sDebug)
         {
-            Log.d("BONE", "setWorldPosition: %s ", mSkeleton.getBoneName(0), bone.toString());
+            Log.d("BONE", "setWorldPosition: %s ", mSkeleton.getBoneName(0), boneToString(mNumBones - 1));
         }
         return true;
     }
 
     public boolean	setScale(float sx, float sy, float sz)
     {
-        Bone bone = mBones[0];
         Vector3f v = new Vector3f();
 
-        bone.getScale(v);
+        getScale(mLocalMatrices, 0, v);
         v.x /= sx;
         v.y /= sy;
         v.z /= sz;
-        bone.WorldMatrix.scale(v.x, v.y, v.z);
-        bone.LocalMatrix.scale(1 / v.x, 1 / v.y, 1 / v.z);
-        bone.Changed = WORLD_ROT | WORLD_POS;
-        for (int i = 1; i < mBones.length; ++i)
+        mTempLocal.set(mLocalMatrices, 0);
+        mTempLocal.scale(1 / v.x, 1 / v.y, 1 / v.z);
+        mTempLocal.get(mLocalMatrices, 0);
+        for (int i = 0; i < mNumBones; ++i)
         {
-            bone = mBones[i];
-            bone.WorldMatrix.scale(v.x, v.y, v.z);
-            bone.Changed = WORLD_ROT | WORLD_POS;
+            int t = i * MATRIX_SIZE;
+
+            mTempWorld.set(mWorldMatrices, t);
+            mTempWorld.scale(v.x, v.y, v.z);
+            mTempWorld.get(mWorldMatrices, t);
+            mChanged[i] = WORLD_ROT | WORLD_POS;
         }
         if (sDebug)
         {
-            Log.d("BONE", "setWorldScale: %s ", mSkeleton.getBoneName(0), bone.toString());
+            Log.d("BONE", "setWorldScale: %s ", mSkeleton.getBoneName(0), boneToString(mNumBones - 1));
         }
         mNeedSync = true;
         sync();
@@ -900,74 +977,111 @@ public class GVRPose implements PrettyPrint
         if (!mNeedSync)
             return false;
         mNeedSync = false;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone 	bone = mBones[i];
+            int		changed = mChanged[i];
             int		pid = mSkeleton.getParentBoneIndex(i);
             boolean	update;
 
             if (pid < 0)							        // root bone?
                 continue;
-            update = (mBones[pid].Changed & (WORLD_ROT | LOCAL_ROT)) != 0;
+            update = (mChanged[pid] & (WORLD_ROT | LOCAL_ROT)) != 0;
             if (!mSkeleton.isLocked(i))				        // bone not locked?
             {
-                if ((bone.Changed == WORLD_ROT) ||
-                    ((bone.Changed & Bone.WORLD_POS) != 0))	// world matrix changed?
+                if ((changed == WORLD_ROT) ||
+                    ((changed & WORLD_POS) != 0))	        // world matrix changed?
                 {
-                    calcLocal(bone, pid);					// calculate local rotation and position
+                    calcLocal(i, pid);					    // calculate local rotation and position
                     if (sDebug)
                     {
-                        Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                        Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), boneToString(i));
                     }
                     continue;
                 }
             }
             if (update ||								    // use local pos & rot?
-                (bone.Changed & (LOCAL_ROT | WORLD_ROT)) != 0)
+                (changed & (LOCAL_ROT | WORLD_ROT)) != 0)
             {
-                bone.Changed = LOCAL_ROT;
-                calcWorld(bone, pid);				        // update world rotation & position
+                mChanged[i] = LOCAL_ROT;
+                calcWorld(i, pid);				            // update world rotation & position
                 if (sDebug)
                 {
-                    Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                    Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), boneToString(i));
                 }
             }
         }
-        for (int i = 0; i < mBones.length; ++i)
-        {
-            mBones[i].Changed = 0;
-        }
+        Arrays.fill(mChanged, 0);
         return true;
     }
 
     /**
      * Calculates the world matrix based on the local matrix.
      */
-    protected void		calcWorld(Bone bone, int parentId)
+    protected void		calcWorld(int boneindex, int parentId)
     {
-        getWorldMatrix(parentId, mTempMtxB);   // WorldMatrix (parent) TempMtxB
-        mTempMtxB.mul(bone.LocalMatrix);       // WorldMatrix = WorldMatrix(parent) * LocalMatrix
-        bone.WorldMatrix.set(mTempMtxB);
+        mTempWorld.set(mWorldMatrices, parentId * MATRIX_SIZE);     // WorldMatrix (parent)
+        mTempLocal.set(mLocalMatrices, boneindex * MATRIX_SIZE);
+        mTempWorld.mul(mTempLocal);                                 // WorldMatrix = WorldMatrix(parent) * LocalMatrix
+        mTempWorld.get(mWorldMatrices, boneindex * MATRIX_SIZE);
      }
 
     /**
      * Calculates the local translation and rotation for a bone.
      * Assumes WorldRot and WorldPos have been calculated for the bone.
      */
-    protected void		calcLocal(Bone bone, int parentId)
+    protected void		calcLocal(int boneindex, int parentId)
     {
+        int t = boneindex * MATRIX_SIZE;
+
         if (parentId < 0)
         {
-            bone.LocalMatrix.set(bone.WorldMatrix);
+            System.arraycopy(mWorldMatrices, t, mLocalMatrices, t, MATRIX_SIZE);
             return;
         }
 	/*
 	 * WorldMatrix = WorldMatrix(parent) * LocalMatrix
 	 * LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
 	 */
-        getWorldMatrix(parentId, mTempMtxA);	// WorldMatrix(par)
-        mTempMtxA.invert();					    // INVERSE[ WorldMatrix(parent) ]
-        mTempMtxA.mul(bone.WorldMatrix, bone.LocalMatrix);  // LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
+        mTempWorld.set(mWorldMatrices, parentId * MATRIX_SIZE);    // WorldMatrix(par)
+        mTempWorld.invert();					                    // INVERSE[ WorldMatrix(parent) ]
+        mTempLocal.set(mWorldMatrices, t);
+        mTempWorld.mul(mTempLocal);                                 // LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
+        mTempWorld.get(mLocalMatrices, t);
+    }
+
+    /**
+     * Replaces the rotation of a packed bone matrix,
+     * keeping its translation and scale.
+     */
+    private void        setRotation(float[] matrices, int boneindex, float x, float y, float z, float w)
+    {
+        int t = boneindex * MATRIX_SIZE;
+        Matrix4f mtx = (matrices == mLocalMatrices) ? mTempLocal : mTempWorld;
+        float posx = matrices[t + 12];
+        float posy = matrices[t + 13];
+        float posz = matrices[t + 14];
+        float scalex = length(matrices, t);
+        float scaley = length(matrices, t + 4);
+        float scalez = length(matrices, t + 8);
+
+        mtx.translationRotateScale(posx, posy, posz, x, y, z, w, scalex, scaley, scalez);
+        mtx.get(matrices, t);
+    }
+
+    private static void getScale(float[] matrices, int boneindex, Vector3f scale)
+    {
+        int t = boneindex * MATRIX_SIZE;
+
+        scale.x = length(matrices, t);
+        scale.y = length(matrices, t + 4);
+        scale.z = length(matrices, t + 8);
+    }
+
+    private static float length(float[] matrices, int t)
+    {
+        return (float) Math.sqrt(matrices[t] * matrices[t] +
+                                 matrices[t + 1] * matrices[t + 1] +
+                                 matrices[t + 2] * matrices[t + 2]);
     }
 
     @Override
@@ -981,159 +1095,52 @@ public class GVRPose implements PrettyPrint
         for (int i = 0; i < numBones; ++i)
         {
             String boneName = skel.getBoneName(i);
-            Bone bone = mBones[i];
             sb.append(Log.getSpaces(indent) + 2);
             sb.append(boneName);
-            sb.append(bone.toString());
+            sb.append(boneToString(i));
         }
     }
 
-    @Override
-    public String toString()
-    {
-        StringBuffer sb = new StringBuffer();
-        prettyPrint(sb, 0);
-        return sb.toString();
-    }
-
-
-/**
- * Internal structure used to maintain information about each bone.
- */
-static class Bone
-{
-    public int Changed;             // WORLD_ROT, LOCAL_ROT, WORLD_POS
-    public Matrix4f LocalMatrix;    // local transformations (relative to parent)
-    public Matrix4f WorldMatrix;    // world transformations (relative to root of skeleton)
-
-    public static final int LOCAL_ROT = 1;
-    public static final int WORLD_ROT = 2;
-    public static final int WORLD_POS = 4;
-    private static final Quaternionf mTempQuat = new Quaternionf();
-
-    public Bone()
-    {
-        LocalMatrix = new Matrix4f();
-        WorldMatrix = new Matrix4f();
-    }
-
-    public Bone(Bone src)
-    {
-        LocalMatrix = new Matrix4f();
-        WorldMatrix = new Matrix4f();
-        copy(src);
-    }
-
-    public void copy(Bone src)
-    {
-        LocalMatrix.set(src.LocalMatrix);
-        WorldMatrix.set(src.WorldMatrix);
-        Changed = src.Changed;
-    }
-
-    public void clearRotation()
-    {
-        setLocalRotation(0, 0, 0, 1);
-    }
-
-    public void getWorldMatrix(Matrix4f mtx)
-    {
-        mtx.set(WorldMatrix);
-    }
-
-    public void getLocalMatrix(Matrix4f mtx)
-    {
-        mtx.set(LocalMatrix);
-    }
-
-    public void setWorldPosition(float x, float y, float z)
-    {
-        WorldMatrix.setTranslation(x, y, z);
-    }
-
-    public void setLocalPosition(float x, float y, float z)
-    {
-        LocalMatrix.setTranslation(x, y, z);
-    }
-
-    public void getScale(Vector3f scale)
-    {
-        scale.x = (float) Math.sqrt( LocalMatrix.m00() *  LocalMatrix.m00() +
-                LocalMatrix.m01() *  LocalMatrix.m01() +
-                LocalMatrix.m02() *  LocalMatrix.m02());
-        scale.y = (float) Math.sqrt( LocalMatrix.m10() *  LocalMatrix.m10() +
-                LocalMatrix.m11() *  LocalMatrix.m11() +
-                LocalMatrix.m12() *  LocalMatrix.m12());
-        scale.z = (float) Math.sqrt( LocalMatrix.m20() *  LocalMatrix.m20() +
-                LocalMatrix.m21() *  LocalMatrix.m21() +
-                LocalMatrix.m22() *  LocalMatrix.m22());
-    }
-
-    public void setLocalRotation(float x, float y, float z, float w)
-    {
-        float posx = LocalMatrix.m30();
-        float posy = LocalMatrix.m31();
-        float posz = LocalMatrix.m32();
-        float scalex = (float) Math.sqrt( LocalMatrix.m00() *  LocalMatrix.m00() +
-                                            LocalMatrix.m01() *  LocalMatrix.m01() +
-                                            LocalMatrix.m02() *  LocalMatrix.m02());
-        float scaley = (float) Math.sqrt( LocalMatrix.m10() *  LocalMatrix.m10() +
-                                        LocalMatrix.m11() *  LocalMatrix.m11() +
-                                        LocalMatrix.m12() *  LocalMatrix.m12());
-        float scalez = (float) Math.sqrt( LocalMatrix.m20() *  LocalMatrix.m20() +
-                LocalMatrix.m21() *  LocalMatrix.m21() +
-                LocalMatrix.m22() *  LocalMatrix.m22());
-
-        LocalMatrix.translationRotateScale(posx, posy, posz, x, y, z, w, scalex, scaley, scalez);
-    }
-
-    public void setWorldRotation(float x, float y, float z, float w)
-    {
-        float posx = WorldMatrix.m30();
-        float posy = WorldMatrix.m31();
-        float posz = WorldMatrix.m32();
-        float scalex = (float) Math.sqrt( WorldMatrix.m00() *  WorldMatrix.m00() +
-                WorldMatrix.m01() *  WorldMatrix.m01() +
-                WorldMatrix.m02() *  WorldMatrix.m02());
-        float scaley = (float) Math.sqrt( WorldMatrix.m10() *  WorldMatrix.m10() +
-                WorldMatrix.m11() *  WorldMatrix.m11() +
-                WorldMatrix.m12() *  WorldMatrix.m12());
-        float scalez = (float) Math.sqrt( WorldMatrix.m20() *  WorldMatrix.m20() +
-                WorldMatrix.m21() *  WorldMatrix.m21() +
-                WorldMatrix.m22() *  WorldMatrix.m22());
-
-        WorldMatrix.translationRotateScale(posx, posy, posz, x, y, z, w, scalex, scaley, scalez);
-    }
-
-    public void setWorldRotation(Quaternionf q)
-    {
-        setWorldRotation(q.z, q.y, q.z, q.w);
-    }
-
-    @Override
-    public String toString()
+    /**
+     * Describes the world and local transformations of a bone.
+     * @param boneindex index of bone to describe.
+     * @return string with world position and rotation, local position,
+     * rotation and scale of the bone.
+     */
+    String boneToString(int boneindex)
     {
+        int t = boneindex * MATRIX_SIZE;
         Vector3f scale = new Vector3f();
+        Quaternionf q = new Quaternionf();
+        Matrix4f mtx = new Matrix4f();
         StringBuilder sb = new StringBuilder();
         Formatter format = new Formatter(sb, Locale.US);
 
-        LocalMatrix.getScale(scale);
+        getScale(mLocalMatrices, boneindex, scale);
         format.format(" wpos (%.2f %.2f %.2f)",
-                WorldMatrix.m30(), WorldMatrix.m31(), WorldMatrix.m32());
-        mTempQuat.setFromUnnormalized(WorldMatrix);
-        mTempQuat.normalize();
-        format.format(" wrot (%.2f %.2f %.2f %.2f)",
-                mTempQuat.x, mTempQuat.y, mTempQuat.z, mTempQuat.w);
+                mWorldMatrices[t + 12], mWorldMatrices[t + 13], mWorldMatrices[t + 14]);
+        mtx.set(mWorldMatrices, t);
+        q.setFromUnnormalized(mtx);
+        q.normalize();
+        format.format(" wrot (%.2f %.2f %.2f %.2f)", q.x, q.y, q.z, q.w);
         format.format(" lpos (%.2f %.2f %.2f)",
-                LocalMatrix.m30(), LocalMatrix.m31(), LocalMatrix.m32());
-        mTempQuat.setFromUnnormalized(LocalMatrix);
-        mTempQuat.normalize();
-        format.format(" lrot (%.2f %.2f %.2f %.2f)",
-                mTempQuat.x, mTempQuat.y, mTempQuat.z, mTempQuat.w);
+                mLocalMatrices[t + 12], mLocalMatrices[t + 13], mLocalMatrices[t + 14]);
+        mtx.set(mLocalMatrices, t);
+        q.setFromUnnormalized(mtx);
+        q.normalize();
+        format.format(" lrot (%.2f %.2f %.2f %.2f)", q.x, q.y, q.z, q.w);
         format.format(" lscale (%.2f %.2f %.2f)", scale.x, scale.y, scale.z);
         return sb.toString();
     }
-}
+
+    @Override
+    public String toString()
+    {
+        StringBuffer sb = new StringBuffer();
+        prettyPrint(sb, 0);
+        return sb.toString();
+    }
+
 
 };
 
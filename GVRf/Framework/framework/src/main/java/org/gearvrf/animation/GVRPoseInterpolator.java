@@ -22,7 +22,6 @@ import org.gearvrf.animation.keyframe.GVRQuatAnimation;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import static org.gearvrf.animation.GVRPose.Bone;
 import org.gearvrf.utility.Log;
 
 public class GVRPoseInterpolator extends GVRAnimation
@@ -30,7 +29,6 @@ public class GVRPoseInterpolator extends GVRAnimation
     private GVRPose initialPose;
     private GVRPose finalPose;
     private GVRSkeleton pSkeleton;
-    private Bone[] mBones;
 
     private Vector3f poseOnePos;
     private Vector3f poseTwoPos;
@@ -106,7 +104,6 @@ public class GVRPoseInterpolator extends GVRAnimation
         endTimeIndex =  4;
         offset = 0;
         poseDataSize = 20;
-        mBones = new Bone[pSkeleton.getNumBones()];
         poseData = new float[poseDataSize*pSkeleton.getNumBones()];
         pDuration = duration;
 
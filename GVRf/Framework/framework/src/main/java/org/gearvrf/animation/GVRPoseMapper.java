@@ -200,8 +200,8 @@ public class GVRPoseMapper extends GVRAnimation
             if (boneindex >= 0)
             {
                 Log.w("BONE", "%s\n%d: %s\n%d: %s",
-                        bonename, i, srcPose.getBone(i).toString(),
-                        boneindex, dstPose.getBone(boneindex).toString());
+                        bonename, i, srcPose.boneToString(i),
+                        boneindex, dstPose.boneToString(boneindex));
             }
             else
             {
@@ -279,6 +279,7 @@ public class GVRPoseMapper extends GVRAnimation
         GVRSkeleton	dstskel = mDestSkeleton;
         Vector3f v = new Vector3f();
         Matrix4f mtx = new Matrix4f();
+        Matrix4f srcmtx = new Matrix4f();
 
         if ((dstskel == null) || (srcskel == null))
         {
@@ -302,7 +303,8 @@ public class GVRPoseMapper extends GVRAnimation
             {
                 dstbindpose.getLocalMatrix(boneindex, mtx);
                 mtx.invert();
-                mtx.mul(srcpose.getBone(i).LocalMatrix);
+                srcpose.getLocalMatrix(i, srcmtx);
+                mtx.mul(srcmtx);
                 mDestPose.setLocalMatrix(boneindex, mtx);
             }
         }
@@ -119,6 +119,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
     final private Quaternionf mTempQuatA = new Quaternionf();
     final private Quaternionf mTempQuatB = new Quaternionf();
     final private Matrix4f mTempMtx = new Matrix4f();
+    final private Matrix4f mTempMtxB = new Matrix4f();
     private static int[] sTempBoneParents;
     private GVRSceneObject sTempRoot;
 
@@ -504,16 +505,8 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         {
             throw new IllegalArgumentException("Not enough room in array to capture the pose");
         }
-        GVRPose pose = getPose();
-        int ofs = 0;
         NativeSkeleton.getPose(getNative(), poseMatrices);
-        for (int i = 0; i < mParentBones.length; ++i)
-        {
-            mTempMtx.set(poseMatrices, ofs);
-            pose.setLocalMatrix(i, mTempMtx);
-            ofs += 16;
-        }
-        pose.sync();
+        getPose().setLocalMatrices(poseMatrices);
     }
 
     /**
@@ -585,15 +578,14 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         {
             for (int i = 0; i < numbones; ++i)
             {
-                GVRPose.Bone srcBone = newpose.getBone(i);
-
-                if ((srcBone.Changed != 0) && !isLocked(i))
+                if ((newpose.getChangedFlags(i) != 0) && !isLocked(i))
                 {
                     mBindPose.getLocalMatrix(i, mTempMtx);
-                    mTempMtx.mul(srcBone.LocalMatrix);
+                    newpose.getLocalMatrix(i, mTempMtxB);
+                    mTempMtx.mul(mTempMtxB);
                     mTempMtx.getUnnormalizedRotation(mTempQuatA);
                     mPose.setLocalRotation(i, mTempQuatA.x, mTempQuatA.y, mTempQuatA.z, mTempQuatA.w);
-                    srcBone.Changed = 0;
+                    newpose.clearChangedFlags(i);
                 }
             }
         }
@@ -604,13 +596,11 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         {
             for (int i = 0; i < numbones; ++i)
             {
-                GVRPose.Bone srcBone = newpose.getBone(i);
-
-                if ((srcBone.Changed != 0) && !isLocked(i))
+                if ((newpose.getChangedFlags(i) != 0) && !isLocked(i))
                 {
                     newpose.getLocalRotation(i, mTempQuatA);
                     mPose.setLocalRotation(i, mTempQuatA.x, mTempQuatA.y, mTempQuatA.z, mTempQuatA.w);
-                    srcBone.Changed = 0;
+                    newpose.clearChangedFlags(i);
                 }
             }
         }
@@ -628,8 +618,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
                 {
                     if (!isLocked(i))
                     {
-                        GVRPose.Bone srcBone = newpose.getBone(i);
-                        srcBone.getLocalMatrix(mTempMtx);
+                        newpose.getLocalMatrix(i, mTempMtx);
                         mPose.setLocalMatrix(i, mTempMtx);
                     }
                 }
@@ -662,12 +651,11 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         newpose.sync();
         for (int i = 0; i < numbones; ++i)
         {
-            GVRPose.Bone srcBone = newpose.getBone(i);
-
             if ((mBoneOptions[i] & BONE_LOCK_ROTATION) == 0)
             {
                 rootMtx.mul(mTempMtx, mTempMtx);
-                mTempMtx.mul(srcBone.LocalMatrix, mTempMtx);
+                newpose.getLocalMatrix(i, mTempMtxB);
+                mTempMtx.mul(mTempMtxB, mTempMtx);
                 mPose.setWorldMatrix(i, mTempMtx);
             }
         }
@@ -1083,15 +1071,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
      */
     public void updateBonePose()
     {
-        GVRPose pose = getPose();
-        int t = 0;
-
-        for (int i = 0; i < mParentBones.length; ++i)
-        {
-            pose.getLocalMatrix(i, mTempMtx);
-            mTempMtx.get(mPoseMatrices, t);
-            t += 16;
-        }
+        getPose().getLocalMatrices(mPoseMatrices);
         NativeSkeleton.setPose(getNative(), mPoseMatrices);
     }
 
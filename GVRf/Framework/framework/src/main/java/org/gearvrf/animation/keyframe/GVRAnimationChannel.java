@@ -21,7 +21,7 @@ import org.joml.Vector3f;
  */
 public final class GVRAnimationChannel implements PrettyPrint {
     private static final String TAG = GVRAnimationChannel.class.getSimpleName();
-    private static final float[] mTempVec = new float[3];
+    private final float[] mTempVec = new float[3];
 
     /**
      * Constructor.
@@ -26,11 +26,32 @@ public class GVRFloatAnimation implements PrettyPrint
 {
     private static final String TAG = GVRFloatAnimation.class.getSimpleName();
 
+    /**
+     * Linearly interpolates between keys.
+     * <p>
+     * The key data is an array of keys where each key has a time followed
+     * by its values. For lookup the interpolator keeps the times in
+     * a separate sorted array and the values packed in another array,
+     * rebuilt whenever the keys change. If the keys are evenly spaced
+     * in time (as baked or BVH-imported animations usually are)
+     * the key for a given time is computed directly instead
+     * of being searched for.
+     */
     public static class LinearInterpolator
     {
+        /**
+         * Keys whose spacing differs from the average spacing by
+         * less than this fraction are considered uniformly sampled.
+         */
+        private static final float UNIFORM_TOLERANCE = 1e-4f;
+
         protected final int mFloatsPerKey;
         protected int mLastKeyIndex;
         protected float[] mKeyData;
+        protected float[] mKeyTimes = null;     // time of each key
+        protected float[] mKeyValues = null;    // values of each key without the time
+        protected float mTimeStep = 0;          // time between keys if uniformly sampled, else 0
+        private boolean mKeysChanged = true;
 
         public LinearInterpolator(float[] keyData, int keySize)
         {
@@ -40,31 +61,33 @@ public class GVRFloatAnimation implements PrettyPrint
         }
 
         protected float[] interpolate(float time, float[] destValues)
+        {
+            return interpolate(time, destValues, 0);
+        }
+
+        protected float[] interpolate(float time, float[] destValues, int destOfs)
         {
             int index = getKeyIndex(time);
-            float curTime = getTime(index);
-            float nextTime = getTime(index + 1);
 
-            if ((index >= 0) &&
-                (curTime <= time) &&
-                (time < nextTime))
+            if (index >= 0)
             {
                 // interpolate
-                float deltaTime = nextTime - curTime;
+                float curTime = mKeyTimes[index];
+                float deltaTime = mKeyTimes[index + 1] - curTime;
                 float factor = (time - curTime) / deltaTime;
 
-                interpolateValues(index, destValues, factor);
+                interpolateValues(index, destValues, destOfs, factor);
             }
-            else
+            else if (mKeyTimes.length > 0)
             {
                 // time is out of range of animation time frame
-                if (time <= getTime(0))
+                if (time <= mKeyTimes[0])
                 {
-                    getValues(0, destValues);
+                    getValues(0, destValues, destOfs);
                 }
                 else
                 {
-                    getValues(getNumKeys() - 1, destValues);
+                    getValues(mKeyTimes.length - 1, destValues, destOfs);
                 }
             }
             return destValues;
@@ -75,6 +98,67 @@ public class GVRFloatAnimation implements PrettyPrint
         void setKeyData(float[] keyData)
         {
             mKeyData = keyData;
+            keysChanged();
+        }
+
+        /**
+         * Tells the interpolator the key data has been modified
+         * so the lookup arrays must be rebuilt.
+         */
+        public void keysChanged()
+        {
+            mKeysChanged = true;
+        }
+
+        /**
+         * @return true if the keys are evenly spaced in time.
+         */
+        public boolean isUniform()
+        {
+            updateKeys();
+            return mTimeStep > 0;
+        }
+
+        protected final void updateKeys()
+        {
+            if (!mKeysChanged)
+            {
+                return;
+            }
+            int numKeys = getNumKeys();
+            int valueSize = mFloatsPerKey - 1;
+
+            if ((mKeyTimes == null) || (mKeyTimes.length != numKeys))
+            {
+                mKeyTimes = new float[numKeys];
+                mKeyValues = new float[numKeys * valueSize];
+            }
+            for (int i = 0; i < numKeys; ++i)
+            {
+                int ofs = i * mFloatsPerKey;
+
+                mKeyTimes[i] = mKeyData[ofs];
+                System.arraycopy(mKeyData, ofs + 1, mKeyValues, i * valueSize, valueSize);
+            }
+            mTimeStep = 0;
+            if (numKeys > 1)
+            {
+                float step = (mKeyTimes[numKeys - 1] - mKeyTimes[0]) / (numKeys - 1);
+                float tolerance = step * UNIFORM_TOLERANCE;
+                boolean uniform = step > 0;
+
+                for (int i = 1; uniform && (i < numKeys); ++i)
+                {
+                    float expected = mKeyTimes[0] + i * step;
+                    uniform = Math.abs(mKeyTimes[i] - expected) <= tolerance;
+                }
+                if (uniform)
+                {
+                    mTimeStep = step;
+                }
+            }
+            mLastKeyIndex = -1;
+            mKeysChanged = false;
         }
 
         public int getKeyOffset(int keyIndex)
@@ -116,6 +200,7 @@ public class GVRFloatAnimation implements PrettyPrint
             if(ofs>=0)
             {
                 mKeyData[ofs] = time;
+                keysChanged();
             }
         }
 
@@ -125,6 +210,7 @@ public class GVRFloatAnimation implements PrettyPrint
             if (ofs >= 0)
             {
                 System.arraycopy(values, 0, mKeyData, ofs + 1, mFloatsPerKey - 1);
+                keysChanged();
                 return true;
             }
             return false;
@@ -132,112 +218,116 @@ public class GVRFloatAnimation implements PrettyPrint
 
         public boolean interpolateValues(int keyIndex, float[] values, float factor)
         {
-            int firstOfs = getKeyOffset(keyIndex);
-            int lastOfs = getKeyOffset(keyIndex + 1);
+            return interpolateValues(keyIndex, values, 0, factor);
+        }
 
-            if ((firstOfs < 0) || (lastOfs < 0))
+        public boolean interpolateValues(int keyIndex, float[] values, int valueOfs, float factor)
+        {
+            updateKeys();
+            if ((keyIndex < 0) || (keyIndex + 1 >= mKeyTimes.length))
             {
                 return false;
             }
-            ++firstOfs;
-            ++lastOfs;
-            for (int i = 0; i < mFloatsPerKey - 1; ++i)
+            int valueSize = mFloatsPerKey - 1;
+            int firstOfs = keyIndex * valueSize;
+            int lastOfs = firstOfs + valueSize;
+
+            for (int i = 0; i < valueSize; ++i)
             {
-                values[i] = factor * mKeyData[lastOfs + i] + (1.0f - factor) * mKeyData[firstOfs + i];
+                values[valueOfs + i] = factor * mKeyValues[lastOfs + i] + (1.0f - factor) * mKeyValues[firstOfs + i];
             }
             return true;
         }
 
         public boolean getValues(int keyIndex, float[] values)
         {
-            int ofs = getKeyOffset(keyIndex);
-            if (ofs >= 0)
+            return getValues(keyIndex, values, 0);
+        }
+
+        public boolean getValues(int keyIndex, float[] values, int valueOfs)
+        {
+            updateKeys();
+            if ((keyIndex < 0) || (keyIndex >= mKeyTimes.length))
             {
-                System.arraycopy(mKeyData, ofs + 1, values, 0, mFloatsPerKey - 1);
-                return true;
+                return false;
             }
-            return false;
+            int valueSize = mFloatsPerKey - 1;
+
+            System.arraycopy(mKeyValues, keyIndex * valueSize, values, valueOfs, valueSize);
+            return true;
         }
 
+        /**
+         * Finds the key interval containing the given time.
+         * @param time time to look up
+         * @return index of the key at the start of the interval,
+         *         -1 if the time is outside of the animation.
+         */
         public int getKeyIndex(float time)
         {
-            // Try cached key first
-            int numKeys = getNumKeys();
-            int lastOfs = getKeyOffset(mLastKeyIndex + 1);
-            float lastTime = getTime(mLastKeyIndex);
-            float nextTime = getTime(mLastKeyIndex + 1);
+            updateKeys();
+
+            float[] times = mKeyTimes;
+            int numKeys = times.length;
+            int index;
 
-            if ((mLastKeyIndex != -1) && (lastOfs >= 0))
+            if ((numKeys < 2) ||
+                (time < times[0]) ||
+                (time >= times[numKeys - 1]))
             {
-                if ((lastTime <= time) &&
-                        (time < nextTime))
+                return mLastKeyIndex = -1;
+            }
+            if (mTimeStep > 0)
+            {
+                // Uniformly sampled - compute the key directly
+                index = (int) ((time - times[0]) / mTimeStep);
+                if (index > numKeys - 2)
                 {
-                    return mLastKeyIndex;
+                    index = numKeys - 2;
                 }
-                float prevTime = getTime(mLastKeyIndex - 1);
-
-                if ((prevTime >= 0) &&
-                        (prevTime <= time) &&
-                        (time < lastTime))
+                // Correct for rounding errors
+                while ((index > 0) && (time < times[index]))
+                {
+                    --index;
+                }
+                while ((index < numKeys - 2) && (time >= times[index + 1]))
                 {
-                    return --mLastKeyIndex;
+                    ++index;
                 }
-                lastTime = nextTime;
-                nextTime = getTime(mLastKeyIndex + 2);
+                return mLastKeyIndex = index;
+            }
 
-                // Try neighboring keys
-                if ((nextTime >= 0) &&
-                        (lastTime <= time) &&
-                        (time < nextTime))
+            // Try cached key and the one after it first
+            index = mLastKeyIndex;
+            if ((index >= 0) && (index < numKeys - 1) && (times[index] <= time))
+            {
+                if (time < times[index + 1])
                 {
-                    return ++mLastKeyIndex;
+                    return index;
+                }
+                if ((index < numKeys - 2) && (time < times[index + 2]))
+                {
+                    return mLastKeyIndex = index + 1;
                 }
             }
 
             // Binary search for the interval
-            // Each of the index i represents an interval I(i) = [time(i), time(i + 1)).
-            int low = 0, high = numKeys - 2;
-            // invariant: I(low)...I(high) contains time if time can be found
-            // post-condition: |high - low| <= 1, only need to check I(low) and I(low + 1)
+            // invariant: times[low] <= time < times[high]
+            int low = 0, high = numKeys - 1;
             while ((high - low) > 1)
             {
-                int mid = (low + high) / 2;
-                float midTime = getTime(mid);
+                int mid = (low + high) >>> 1;
 
-                if (midTime < 0)
-                {
-                    break;
-                }
-                if (time < midTime)
+                if (time < times[mid])
                 {
                     high = mid;
                 }
-                else if (time >= getTime(mid + 1))
-                {
-                    low = mid + 1;
-                }
                 else
                 {
-                    // time in I(mid) by definition
-                    return mLastKeyIndex = mid;
+                    low = mid;
                 }
             }
-            if ((getTime(low) <= time) &&
-                    (time < getTime(low + 1)))
-            {
-                return mLastKeyIndex = low;
-            }
-            float lowTime = getTime(low + 2);
-
-            if ((lowTime >= 0) &&
-                (getTime(low + 1) <= time) &&
-                (time < lowTime))
-
-            {
-                return mLastKeyIndex = low + 1;
-            }
-//            Log.v(TAG, "Warning: interpolation failed at time " + time);
-            return mLastKeyIndex = -1;
+            return mLastKeyIndex = low;
         }
     };
 
@@ -341,6 +431,7 @@ public class GVRFloatAnimation implements PrettyPrint
         }
         mKeys[index] = time;
         System.arraycopy(values, 0, mKeys, index + 1, values.length);
+        mFloatInterpolator.keysChanged();
     }
 
     /**
@@ -355,6 +446,44 @@ public class GVRFloatAnimation implements PrettyPrint
         mFloatInterpolator.interpolate(animationTime, destValues);
     }
 
+    /**
+     * Obtains the values for many times in one call.
+     * <p>
+     * The values for each time are stored one after the other
+     * in the destination array, which must have room for
+     * (key size - 1) floats for each time.
+     * Sorted times are fastest because the key found for
+     * one time is tried first for the next one.
+     *
+     * @param animationTimes    times in the animation to evaluate.
+     * @param destValues        receives the values for each time.
+     */
+    public void animate(float[] animationTimes, float[] destValues)
+    {
+        int valueSize = mFloatsPerKey - 1;
+
+        if (destValues.length < animationTimes.length * valueSize)
+        {
+            throw new IllegalArgumentException("Destination array is too small");
+        }
+        for (int i = 0, ofs = 0; i < animationTimes.length; ++i, ofs += valueSize)
+        {
+            mFloatInterpolator.interpolate(animationTimes[i], destValues, ofs);
+        }
+    }
+
+    /**
+     * Determines whether the keys are evenly spaced in time.
+     * <p>
+     * Key lookup for uniformly sampled animations
+     * takes constant time instead of searching.
+     * @return true if the keys are uniformly sampled
+     */
+    public boolean isUniformlySampled()
+    {
+        return mFloatInterpolator.isUniform();
+    }
+
     /**
      * Resize the key data area.
      * This function will truncate the keys if the
@@ -23,30 +23,29 @@ public final class GVRQuatAnimation extends GVRFloatAnimation
 
         public float[] getKeyData() { return mKeyData; }
 
-        public boolean interpolateValues(int keyIndex, float[] values, float factor)
+        public boolean interpolateValues(int keyIndex, float[] values, int valueOfs, float factor)
         {
-            int firstOfs = getKeyOffset(keyIndex);
-            int lastOfs = getKeyOffset(keyIndex + 1);
-
-            if ((firstOfs < 0) || (lastOfs < 0))
+            updateKeys();
+            if ((keyIndex < 0) || (keyIndex + 1 >= mKeyTimes.length))
             {
                 return false;
             }
-            ++firstOfs;
-            ++lastOfs;
-            mTempQuatA.x = mKeyData[firstOfs + 0];
-            mTempQuatA.y = mKeyData[firstOfs + 1];
-            mTempQuatA.z = mKeyData[firstOfs + 2];
-            mTempQuatA.w = mKeyData[firstOfs + 3];
-            mTempQuatB.x = mKeyData[lastOfs + 0];
-            mTempQuatB.y = mKeyData[lastOfs + 1];
-            mTempQuatB.z = mKeyData[lastOfs + 2];
-            mTempQuatB.w = mKeyData[lastOfs + 3];
+            int firstOfs = keyIndex * 4;
+            int lastOfs = firstOfs + 4;
+
+            mTempQuatA.x = mKeyValues[firstOfs + 0];
+            mTempQuatA.y = mKeyValues[firstOfs + 1];
+            mTempQuatA.z = mKeyValues[firstOfs + 2];
+            mTempQuatA.w = mKeyValues[firstOfs + 3];
+            mTempQuatB.x = mKeyValues[lastOfs + 0];
+            mTempQuatB.y = mKeyValues[lastOfs + 1];
+            mTempQuatB.z = mKeyValues[lastOfs + 2];
+            mTempQuatB.w = mKeyValues[lastOfs + 3];
             mTempQuatA.slerp(mTempQuatB, factor, mTempQuatA);
-            values[0] = mTempQuatA.x;
-            values[1] = mTempQuatA.y;
-            values[2] = mTempQuatA.z;
-            values[3] = mTempQuatA.w;
+            values[valueOfs + 0] = mTempQuatA.x;
+            values[valueOfs + 1] = mTempQuatA.y;
+            values[valueOfs + 2] = mTempQuatA.z;
+            values[valueOfs + 3] = mTempQuatA.w;
             return true;
         }
     };
@@ -98,6 +97,7 @@ public final class GVRQuatAnimation extends GVRFloatAnimation
         mKeys[index + 2] = q.y;
         mKeys[index + 3] = q.z;
         mKeys[index + 4] = q.w;
+        mFloatInterpolator.keysChanged();
     }
 
 
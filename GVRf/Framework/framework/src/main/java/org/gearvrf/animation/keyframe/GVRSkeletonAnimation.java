@@ -58,6 +58,7 @@ public class GVRSkeletonAnimation extends GVRAnimation implements PrettyPrint {
      * animated bones.
      */
     protected GVRAnimationChannel[] mBoneChannels;
+    private final Matrix4f mTempMtx = new Matrix4f();
 
     /**
      * Create a skeleton animation with bones from the given hierarchy.
@@ -226,7 +227,7 @@ public class GVRSkeletonAnimation extends GVRAnimation implements PrettyPrint {
     }
     public GVRPose computePose(float timeInSec, GVRPose pose)
     {
-        Matrix4f temp = new Matrix4f();
+        Matrix4f temp = mTempMtx;
         GVRSkeleton skel = getSkeleton();
         Vector3f rootOffset = skel.getRootOffset();
 
@@ -0,0 +1,255 @@
+/* Copyright 2018 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.animation.keyframe;
+
+import org.gearvrf.GVRHybridObject;
+import org.gearvrf.animation.GVRAnimation;
+import org.gearvrf.animation.GVRSkeleton;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates many skeleton animations together as a single animation.
+ * <p>
+ * Crowds of animated characters usually each have their own
+ * {@link GVRSkeletonAnimation} registered with the animation engine,
+ * so every character is evaluated separately on the GL thread.
+ * Adding the animations to a set and starting only the set
+ * evaluates all of them in one pass each frame.
+ * <p>
+ * The evaluation is done in two phases. First the animation channels
+ * of every member are sampled into the pose of its skeleton.
+ * The poses are independent of one another so this phase can be
+ * spread across a fork-join pool by calling {@link #setParallelism(int)}.
+ * The second phase copies the poses to the bone scene objects and
+ * the native skeletons and always happens on the thread running
+ * the animation.
+ * <p>
+ * All members are driven by the timing of the set (its duration,
+ * repeat mode and speed). Each member can have a time offset
+ * so the characters do not move in lockstep. Members loop
+ * over their own duration if the set runs longer than they do.
+ * A skeleton animation should only belong to one set and should
+ * not also be started on its own.
+ * @see GVRSkeletonAnimation
+ * @see org.gearvrf.animation.GVRAnimationEngine
+ */
+public class GVRSkeletonAnimationSet extends GVRAnimation
+{
+    /**
+     * Minimum number of animations sampled by one fork-join task.
+     */
+    private static final int MIN_ANIMATIONS_PER_TASK = 8;
+
+    private final ArrayList<GVRSkeletonAnimation> mAnimations = new ArrayList<GVRSkeletonAnimation>();
+    private float[] mTimeOffsets = new float[8];
+    private float[] mSampleTimes = new float[8];
+    private ForkJoinPool mPool = null;
+
+    /**
+     * Constructs an empty animation set.
+     * @param duration  duration of the set in seconds.
+     */
+    public GVRSkeletonAnimationSet(float duration)
+    {
+        super(null, duration);
+    }
+
+    /**
+     * Adds a skeleton animation to the set.
+     * @param anim          animation to add.
+     * @param timeOffset    time in seconds added to the set time
+     *                      when evaluating this animation.
+     */
+    public void addAnimation(GVRSkeletonAnimation anim, float timeOffset)
+    {
+        int n = mAnimations.size();
+
+        if (n >= mTimeOffsets.length)
+        {
+            float[] newOffsets = new float[n * 2];
+            System.arraycopy(mTimeOffsets, 0, newOffsets, 0, n);
+            mTimeOffsets = newOffsets;
+            mSampleTimes = new float[n * 2];
+        }
+        mTimeOffsets[n] = timeOffset;
+        mAnimations.add(anim);
+    }
+
+    /**
+     * Adds a skeleton animation to the set with no time offset.
+     * @param anim  animation to add.
+     */
+    public void addAnimation(GVRSkeletonAnimation anim)
+    {
+        addAnimation(anim, 0);
+    }
+
+    /**
+     * Removes a skeleton animation from the set.
+     * @param anim  animation to remove.
+     */
+    public void removeAnimation(GVRSkeletonAnimation anim)
+    {
+        int index = mAnimations.indexOf(anim);
+
+        if (index >= 0)
+        {
+            int n = mAnimations.size();
+
+            mAnimations.remove(index);
+            System.arraycopy(mTimeOffsets, index + 1, mTimeOffsets, index, n - index - 1);
+            mTimeOffsets[n - 1] = 0;
+        }
+    }
+
+    /**
+     * @return number of skeleton animations in the set.
+     */
+    public int getAnimationCount()
+    {
+        return mAnimations.size();
+    }
+
+    /**
+     * Get the skeleton animation at the given index.
+     * @param index 0 based index of animation.
+     * @return skeleton animation
+     */
+    public GVRSkeletonAnimation getAnimation(int index)
+    {
+        return mAnimations.get(index);
+    }
+
+    /**
+     * Sets the number of threads used to sample the animations.
+     * <p>
+     * By default all animations are sampled on the thread
+     * running the set. If parallelism is greater than one,
+     * sampling is spread across a fork-join pool with that
+     * many worker threads.
+     * @param parallelism number of worker threads, 0 or 1 to disable.
+     */
+    public void setParallelism(int parallelism)
+    {
+        if (mPool != null)
+        {
+            if (mPool.getParallelism() == parallelism)
+            {
+                return;
+            }
+            mPool.shutdown();
+            mPool = null;
+        }
+        if (parallelism > 1)
+        {
+            mPool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    /**
+     * @return number of worker threads used to sample animations,
+     * 0 if they are sampled on the animation thread.
+     */
+    public int getParallelism()
+    {
+        return (mPool != null) ? mPool.getParallelism() : 0;
+    }
+
+    @Override
+    protected void animate(GVRHybridObject target, float ratio)
+    {
+        animate(getDuration() * ratio);
+    }
+
+    /**
+     * Evaluates all of the animations in the set at the given time.
+     * @param timeInSec time in seconds from the start of the set.
+     */
+    @Override
+    public void animate(float timeInSec)
+    {
+        int n = mAnimations.size();
+
+        for (int i = 0; i < n; ++i)
+        {
+            float duration = mAnimations.get(i).getDuration();
+            float t = timeInSec + mTimeOffsets[i];
+
+            if ((duration > 0) && ((t < 0) || (t > duration)))
+            {
+                t %= duration;
+                if (t < 0)
+                {
+                    t += duration;
+                }
+            }
+            mSampleTimes[i] = t;
+        }
+        if ((mPool != null) && (n >= 2 * MIN_ANIMATIONS_PER_TASK))
+        {
+            mPool.invoke(new SampleTask(0, n));
+        }
+        else
+        {
+            sample(0, n);
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            GVRSkeleton skel = mAnimations.get(i).getSkeleton();
+
+            skel.poseToBones();
+            skel.updateBonePose();
+            skel.updateSkinPose();
+        }
+    }
+
+    private void sample(int start, int end)
+    {
+        for (int i = start; i < end; ++i)
+        {
+            GVRSkeletonAnimation anim = mAnimations.get(i);
+
+            anim.computePose(mSampleTimes[i], anim.getSkeleton().getPose());
+        }
+    }
+
+    private final class SampleTask extends RecursiveAction
+    {
+        private final int mStart;
+        private final int mEnd;
+
+        SampleTask(int start, int end)
+        {
+            mStart = start;
+            mEnd = end;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (mEnd - mStart <= MIN_ANIMATIONS_PER_TASK)
+            {
+                sample(mStart, mEnd);
+                return;
+            }
+            int mid = (mStart + mEnd) >>> 1;
+            invokeAll(new SampleTask(mStart, mid), new SampleTask(mid, mEnd));
+        }
+    }
+}
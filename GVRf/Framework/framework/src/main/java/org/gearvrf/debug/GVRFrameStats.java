@@ -0,0 +1,130 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.debug;
+
+/**
+ * Statistics line with histograms of the frame time, cull time,
+ * pick time, number of draw calls and number of GL tasks deferred
+ * to later frames.
+ * <p>
+ * The framework always records these, independently of
+ * {@link org.gearvrf.GVRContext#DEBUG_STATS}, since recording
+ * a value does not allocate or lock. The histograms cover all the
+ * frames since the last {@link #reset()}; use {@link #getStats(FORMAT)}
+ * or the {@code stats} command of the debug console to print them.
+ * @see org.gearvrf.GVRContext#getFrameStats()
+ */
+public class GVRFrameStats extends GVRStatsLine {
+    private static final float NANO_TO_MILLIS = 1000000.0f;
+    private static final float TIME_RESOLUTION_MS = 0.001f;
+
+    private final GVRHistogramColumn mFrameTime = new GVRHistogramColumn("frameTime", TIME_RESOLUTION_MS);
+    private final GVRHistogramColumn mCullTime = new GVRHistogramColumn("cullTime", TIME_RESOLUTION_MS);
+    private final GVRHistogramColumn mPickTime = new GVRHistogramColumn("pickTime", TIME_RESOLUTION_MS);
+    private final GVRHistogramColumn mDrawCalls = new GVRHistogramColumn("drawCalls", 1.0f);
+    private final GVRHistogramColumn mDeferredGlTasks = new GVRHistogramColumn("glDeferred", 1.0f);
+
+    /**
+     * Constructor.
+     * @param lineTag
+     *         The line tag printed at beginning of each statistics line.
+     */
+    public GVRFrameStats(String lineTag) {
+        super(lineTag);
+        addColumn(mFrameTime);
+        addColumn(mCullTime);
+        addColumn(mPickTime);
+        addColumn(mDrawCalls);
+        addColumn(mDeferredGlTasks);
+    }
+
+    /**
+     * Records the time spent on the GL thread for one frame.
+     * @param nanos The time in nanoseconds.
+     */
+    public void recordFrameTime(long nanos) {
+        mFrameTime.record(nanos / NANO_TO_MILLIS);
+    }
+
+    /**
+     * Records the time spent culling the scene for one camera.
+     * @param nanos The time in nanoseconds.
+     */
+    public void recordCullTime(long nanos) {
+        mCullTime.record(nanos / NANO_TO_MILLIS);
+    }
+
+    /**
+     * Records the time spent by one picker to pick and send its events.
+     * @param nanos The time in nanoseconds.
+     */
+    public void recordPickTime(long nanos) {
+        mPickTime.record(nanos / NANO_TO_MILLIS);
+    }
+
+    /**
+     * Records the number of draw calls made to render a frame.
+     * @param count The number of draw calls.
+     */
+    public void recordDrawCalls(int count) {
+        mDrawCalls.record(count);
+    }
+
+    /**
+     * Records the number of GL tasks left for later frames
+     * because they did not fit in the frame budget.
+     * @param count The number of tasks deferred.
+     * @see org.gearvrf.GVRGLTaskScheduler
+     */
+    public void recordDeferredGlTasks(int count) {
+        mDeferredGlTasks.record(count);
+    }
+
+    /**
+     * @return The histogram of frame times in milliseconds.
+     */
+    public GVRHistogramColumn getFrameTime() {
+        return mFrameTime;
+    }
+
+    /**
+     * @return The histogram of cull times in milliseconds.
+     */
+    public GVRHistogramColumn getCullTime() {
+        return mCullTime;
+    }
+
+    /**
+     * @return The histogram of pick times in milliseconds.
+     */
+    public GVRHistogramColumn getPickTime() {
+        return mPickTime;
+    }
+
+    /**
+     * @return The histogram of draw calls per frame.
+     */
+    public GVRHistogramColumn getDrawCalls() {
+        return mDrawCalls;
+    }
+
+    /**
+     * @return The histogram of GL tasks deferred per frame.
+     */
+    public GVRHistogramColumn getDeferredGlTasks() {
+        return mDeferredGlTasks;
+    }
+}
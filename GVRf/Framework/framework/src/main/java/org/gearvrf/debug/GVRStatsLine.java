@@ -18,6 +18,8 @@ package org.gearvrf.debug;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.gearvrf.GVRTime;
 import org.gearvrf.debug.Stats.DescriptiveResult;
@@ -79,6 +81,15 @@ public class GVRStatsLine {
         }
     }
 
+    /**
+     * Resets all the columns of the line.
+     */
+    public synchronized void reset() {
+        for (GVRColumnBase<? extends Number> col : mColumns) {
+            col.reset();
+        }
+    }
+
     /**
      * Prints the statistic line, including all added columns.
      */
@@ -284,4 +295,178 @@ public class GVRStatsLine {
             mDecimalFormat = new DecimalFormat(fmt);
         }
     }
+
+    /**
+     * This class represents a column which keeps a histogram of all the values added since
+     * it was last reset and prints their 50th, 95th and 99th percentiles and the maximum.
+     * <p>
+     * Unlike {@link GVRStandardColumn}, the data is not cleared when a new line starts,
+     * values added with {@link #record(float)} are not boxed, the memory used is fixed and
+     * values can be added from any thread without locking, so the column is cheap enough
+     * to leave enabled in production.
+     * <p>
+     * Values are counted in buckets which get wider as the values get larger (like
+     * HdrHistogram): below 64 times the resolution the buckets are one resolution
+     * wide, above that the percentiles are accurate to about 3% of the value.
+     */
+    public static class GVRHistogramColumn extends GVRColumnBase<Float> {
+        private static final int SUB_BUCKET_HALF_BITS = 5;
+        private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_BITS;
+        private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF_COUNT * 2;
+        private static final long MAX_UNITS = (1L << 32) - 1;
+
+        protected DecimalFormat mDecimalFormat = new DecimalFormat(GVRStandardColumn.sDefaultDecimalFormat);
+
+        private final float mResolution;
+        private final AtomicIntegerArray mCounts = new AtomicIntegerArray(getCountsIndex(MAX_UNITS) + 1);
+        private final AtomicLong mTotalCount = new AtomicLong();
+        private final AtomicLong mMaxUnits = new AtomicLong();
+
+        /**
+         * Constructor.
+         * @param name
+         *         The name of the statistic column. It will be printed in the log line.
+         * @param resolution
+         *         The smallest difference between values which is kept, for example
+         *         0.001f for times in milliseconds or 1 for counts. Values larger than
+         *         2^32 times the resolution are counted as that maximum.
+         */
+        public GVRHistogramColumn(String name, float resolution) {
+            super(name);
+            if (!(resolution > 0.0f)) {
+                throw new IllegalArgumentException("resolution must be greater than zero");
+            }
+            mResolution = resolution;
+        }
+
+        /**
+         * Adds a data point to the histogram without boxing it.
+         * Negative and NaN values are ignored.
+         * @param value The value to be added.
+         */
+        public void record(float value) {
+            if (!(value >= 0.0f)) {
+                return;
+            }
+            long units = Math.min((long) (value / mResolution + 0.5f), MAX_UNITS);
+
+            mCounts.incrementAndGet(getCountsIndex(units));
+            mTotalCount.incrementAndGet();
+
+            long max = mMaxUnits.get();
+            while (units > max && !mMaxUnits.compareAndSet(max, units)) {
+                max = mMaxUnits.get();
+            }
+        }
+
+        @Override
+        public void addValue(Float value) {
+            if (value != null) {
+                record(value);
+            }
+        }
+
+        /**
+         * Clears the histogram. Values added by other threads while the
+         * column is being reset may be partially kept.
+         */
+        @Override
+        public void reset() {
+            super.reset();
+            for (int i = 0; i < mCounts.length(); ++i) {
+                mCounts.set(i, 0);
+            }
+            mTotalCount.set(0);
+            mMaxUnits.set(0);
+        }
+
+        @Override
+        protected void onStartLine() {
+            // keep the data across lines
+        }
+
+        /**
+         * Gets the number of values added since the last reset.
+         * @return The number of values.
+         */
+        public long getCount() {
+            return mTotalCount.get();
+        }
+
+        /**
+         * Gets the largest value added since the last reset.
+         * @return The maximum, rounded to the resolution.
+         */
+        public float getMax() {
+            return mMaxUnits.get() * mResolution;
+        }
+
+        /**
+         * Gets the value below which a given percentage of the values added fall.
+         * @param percentile The percentage, between 0 and 100.
+         * @return The highest value in the bucket containing the percentile,
+         *         or 0 if nothing has been added.
+         */
+        public float getPercentile(double percentile) {
+            long total = mTotalCount.get();
+            long maxUnits = mMaxUnits.get();
+
+            if (total == 0) {
+                return 0.0f;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long count = 0;
+            for (int i = 0; i < mCounts.length(); ++i) {
+                count += mCounts.get(i);
+                if (count >= target) {
+                    return Math.min(getHighestUnits(i), maxUnits) * mResolution;
+                }
+            }
+            return maxUnits * mResolution;
+        }
+
+        @Override
+        public synchronized Object getStat() {
+            long count = getCount();
+            if (count == 0) {
+                return "n/a";
+            }
+            return String.format("p50=%s p95=%s p99=%s max=%s (n=%d)",
+                                 formatDecimal(getPercentile(50)), formatDecimal(getPercentile(95)),
+                                 formatDecimal(getPercentile(99)), formatDecimal(getMax()), count);
+        }
+
+        protected String formatDecimal(double value) {
+            return mDecimalFormat.format(value);
+        }
+
+        /**
+         * Sets the format string for decimals.
+         * @param fmt The format string. See {@link DecimalFormat}.
+         */
+        public synchronized void setNumberFormat(String fmt) {
+            mDecimalFormat = new DecimalFormat(fmt);
+        }
+
+        /*
+         * Bucket 0 holds the values below SUB_BUCKET_COUNT one unit apart,
+         * each following bucket holds the next power of two with
+         * SUB_BUCKET_HALF_COUNT slots twice as wide as the previous one.
+         */
+        private static int getCountsIndex(long units) {
+            int bucket = 63 - Long.numberOfLeadingZeros(units | (SUB_BUCKET_COUNT - 1)) - SUB_BUCKET_HALF_BITS;
+            int subBucket = (int) (units >>> bucket);
+            return ((bucket + 1) << SUB_BUCKET_HALF_BITS) + subBucket - SUB_BUCKET_HALF_COUNT;
+        }
+
+        private static long getHighestUnits(int index) {
+            int bucket = (index >> SUB_BUCKET_HALF_BITS) - 1;
+            int subBucket = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+            if (bucket < 0) {
+                subBucket -= SUB_BUCKET_HALF_COUNT;
+                bucket = 0;
+            }
+            return ((long) (subBucket + 1) << bucket) - 1;
+        }
+    }
 }
@@ -64,6 +64,16 @@ public class ShellCommandHandler implements ShellDependent {
         return null;
     }
 
+    @Command
+    public String stats() {
+        return mGVRContext.getFrameStats().getStats(GVRStatsLine.FORMAT.MULTILINE);
+    }
+
+    @Command
+    public void resetStats() {
+        mGVRContext.getFrameStats().reset();
+    }
+
     @Command
     public String version() {
         return GVRVersion.CURRENT;
@@ -0,0 +1,639 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/***************************************************************************
+ * Bounding volume hierarchy over the colliders in a scene.
+ ***************************************************************************/
+
+#include "collider_bvh.h"
+
+#include <algorithm>
+#include <cmath>
+#include <limits>
+
+#include "objects/scene_object.h"
+#include "objects/components/collider.h"
+
+namespace gvr {
+
+/*
+ * Relative amount the box of a collider is enlarged by
+ * in the tree, so small movements do not change the tree.
+ */
+static const float FAT_MARGIN = 0.1f;
+
+/*
+ * Relative amount the bounds of a collider are enlarged by
+ * to cover rounding differences between the bounds
+ * and the hit tests done in model coordinates.
+ */
+static const float EPSILON = 1e-4f;
+
+static float surfaceArea(const glm::vec3& minCorner, const glm::vec3& maxCorner)
+{
+    glm::vec3 d = maxCorner - minCorner;
+    return 2.0f * (d.x * d.y + d.y * d.z + d.z * d.x);
+}
+
+static bool isFinite(const glm::vec3& v)
+{
+    return std::isfinite(v.x) && std::isfinite(v.y) && std::isfinite(v.z);
+}
+
+/*
+ * Determine if a ray passes through a box.
+ * Only the part of the ray in front of its origin is considered.
+ */
+static bool rayHitsBox(const glm::vec3& start, const glm::vec3& invDir,
+                       const glm::vec3& minCorner, const glm::vec3& maxCorner)
+{
+    float tmin = 0;
+    float tmax = std::numeric_limits<float>::infinity();
+
+    for (int i = 0; i < 3; ++i)
+    {
+        if (!std::isfinite(invDir[i]))          // ray parallel to this axis
+        {
+            if ((start[i] < minCorner[i]) || (start[i] > maxCorner[i]))
+            {
+                return false;
+            }
+            continue;
+        }
+        float t1 = (minCorner[i] - start[i]) * invDir[i];
+        float t2 = (maxCorner[i] - start[i]) * invDir[i];
+
+        tmin = std::max(tmin, std::min(t1, t2));
+        tmax = std::min(tmax, std::max(t1, t2));
+        if (tmin > tmax)
+        {
+            return false;
+        }
+    }
+    return true;
+}
+
+/*
+ * Determine if a sphere touches a box.
+ */
+static bool sphereHitsBox(const glm::vec3& center, float radius,
+                          const glm::vec3& minCorner, const glm::vec3& maxCorner)
+{
+    glm::vec3 p = glm::clamp(center, minCorner, maxCorner) - center;
+
+    return glm::dot(p, p) <= radius * radius;
+}
+
+ColliderBVH::ColliderBVH() :
+        root_(-1),
+        list_valid_(false),
+        list_version_(0)
+{
+}
+
+void ColliderBVH::clear()
+{
+    nodes_.clear();
+    leaves_.clear();
+    free_nodes_.clear();
+    ray_unbounded_.clear();
+    sphere_unbounded_.clear();
+    duplicates_.clear();
+    leaf_index_.clear();
+    root_ = -1;
+    list_valid_ = false;
+}
+
+void ColliderBVH::update(const std::vector<Component*>& colliders, unsigned int version)
+{
+    bool listChanged = !list_valid_ || (version != list_version_);
+
+    if (listChanged)
+    {
+        list_valid_ = true;
+        list_version_ = version;
+        duplicates_.clear();
+        for (auto it = leaves_.begin(); it != leaves_.end(); ++it)
+        {
+            it->order = -1;
+        }
+        for (int i = 0; i < colliders.size(); ++i)
+        {
+            Collider* collider = static_cast<Collider*>(colliders[i]);
+            auto it = leaf_index_.find(collider);
+
+            if (it == leaf_index_.end())
+            {
+                Leaf leaf;
+                leaf.collider = collider;
+                leaf.owner = NULL;
+                leaf.version = 0;
+                leaf.data_version = 0;
+                leaf.node = -1;
+                leaf.bounded = false;
+                leaf.order = i;
+                leaf.sphere_scale = std::numeric_limits<float>::infinity();
+                leaf_index_[collider] = leaves_.size();
+                leaves_.push_back(leaf);
+            }
+            else if (leaves_[it->second].order >= 0)
+            {
+                duplicates_.push_back(i);
+            }
+            else
+            {
+                leaves_[it->second].order = i;
+            }
+        }
+        /*
+         * Colliders no longer in the list may have been deleted.
+         * Remove them without touching the collider.
+         */
+        for (int i = 0; i < leaves_.size(); )
+        {
+            Leaf& leaf = leaves_[i];
+            if (leaf.order >= 0)
+            {
+                ++i;
+                continue;
+            }
+            if (leaf.node >= 0)
+            {
+                removeLeaf(i);
+            }
+            leaf_index_.erase(leaf.collider);
+            if (i != leaves_.size() - 1)
+            {
+                leaf = leaves_.back();
+                leaf_index_[leaf.collider] = i;
+                if (leaf.node >= 0)
+                {
+                    nodes_[leaf.node].leaf = i;
+                }
+            }
+            leaves_.pop_back();
+        }
+    }
+    /*
+     * Recompute the bounds of the colliders whose owner or
+     * mesh has changed and find the ones which have moved
+     * outside of their box in the tree.
+     */
+    bool unboundedChanged = listChanged;
+
+    scratch_.clear();
+    for (int i = 0; i < leaves_.size(); ++i)
+    {
+        Leaf& leaf = leaves_[i];
+        SceneObject* owner = leaf.collider->owner_object();
+        unsigned int dataVersion = (owner != NULL) ? leaf.collider->getBoundsDataVersion(owner) : 0;
+
+        if ((owner != NULL) && (owner == leaf.owner) &&
+            (owner->boundsVersion() == leaf.version) &&
+            (dataVersion == leaf.data_version))
+        {
+            continue;
+        }
+        bool wasBounded = leaf.bounded;
+        bool wasSphereBounded = leaf.bounded && std::isfinite(leaf.sphere_scale);
+
+        leaf.owner = owner;
+        leaf.version = (owner != NULL) ? owner->boundsVersion() : 0;
+        leaf.data_version = dataVersion;
+        leaf.bounded = computeBounds(leaf);
+        if (!leaf.bounded)
+        {
+            if (leaf.node >= 0)
+            {
+                removeLeaf(i);
+            }
+            unboundedChanged |= wasBounded;
+            continue;
+        }
+        unboundedChanged |= !wasBounded || (wasSphereBounded != std::isfinite(leaf.sphere_scale));
+        if (leaf.node >= 0)
+        {
+            const Node& node = nodes_[leaf.node];
+            if (glm::all(glm::greaterThanEqual(leaf.min_corner, node.min_corner)) &&
+                glm::all(glm::lessThanEqual(leaf.max_corner, node.max_corner)) &&
+                (!std::isfinite(leaf.sphere_scale) || (leaf.sphere_scale <= node.sphere_scale)))
+            {
+                continue;
+            }
+        }
+        scratch_.push_back(i);
+    }
+    if (unboundedChanged)
+    {
+        ray_unbounded_.clear();
+        sphere_unbounded_.clear();
+        for (auto it = leaves_.begin(); it != leaves_.end(); ++it)
+        {
+            if (!it->bounded)
+            {
+                ray_unbounded_.push_back(it->order);
+                sphere_unbounded_.push_back(it->order);
+            }
+            else if (!std::isfinite(it->sphere_scale))
+            {
+                sphere_unbounded_.push_back(it->order);
+            }
+        }
+        std::sort(ray_unbounded_.begin(), ray_unbounded_.end());
+        std::sort(sphere_unbounded_.begin(), sphere_unbounded_.end());
+    }
+    if (scratch_.size() > leaves_.size() / 4)
+    {
+        rebuild();
+        return;
+    }
+    for (auto it = scratch_.begin(); it != scratch_.end(); ++it)
+    {
+        if (leaves_[*it].node >= 0)
+        {
+            removeLeaf(*it);
+        }
+        insertLeaf(*it);
+    }
+}
+
+/*
+ * Compute the tight bounds of a collider.
+ * Returns false if the collider cannot be bounded.
+ */
+bool ColliderBVH::computeBounds(Leaf& leaf)
+{
+    Collider* collider = leaf.collider;
+    SceneObject* owner = collider->owner_object();
+    glm::vec3 minCorner;
+    glm::vec3 maxCorner;
+    float scale = std::numeric_limits<float>::infinity();
+
+    if ((owner == NULL) ||
+        !collider->getWorldBounds(owner, minCorner, maxCorner, scale) ||
+        !isFinite(minCorner) || !isFinite(maxCorner))
+    {
+        return false;
+    }
+    glm::vec3 size = glm::max(glm::abs(minCorner), glm::abs(maxCorner));
+    float pad = EPSILON * std::max(1.0f, std::max(size.x, std::max(size.y, size.z)));
+
+    leaf.min_corner = minCorner - pad;
+    leaf.max_corner = maxCorner + pad;
+    if (std::isfinite(scale))
+    {
+        leaf.sphere_scale = scale * (1.0f + EPSILON);
+    }
+    else
+    {
+        leaf.sphere_scale = std::numeric_limits<float>::infinity();
+    }
+    return true;
+}
+
+/*
+ * Colliders on levels of detail which are not shown stay in
+ * the tree, since the level shown changes often, but are not
+ * returned as candidates.
+ */
+bool ColliderBVH::isLODHidden(const Leaf& leaf)
+{
+    SceneObject* owner = leaf.collider->owner_object();
+
+    return (owner != NULL) && owner->isLODHidden();
+}
+
+void ColliderBVH::setFatBounds(Node& node, const Leaf& leaf)
+{
+    float margin = FAT_MARGIN * glm::length(leaf.max_corner - leaf.min_corner);
+
+    node.min_corner = leaf.min_corner - margin;
+    node.max_corner = leaf.max_corner + margin;
+    node.sphere_scale = std::isfinite(leaf.sphere_scale) ? leaf.sphere_scale * (1.0f + FAT_MARGIN) : 0;
+}
+
+int ColliderBVH::allocNode()
+{
+    if (free_nodes_.size() > 0)
+    {
+        int node = free_nodes_.back();
+        free_nodes_.pop_back();
+        return node;
+    }
+    nodes_.push_back(Node());
+    return nodes_.size() - 1;
+}
+
+void ColliderBVH::freeNode(int node)
+{
+    free_nodes_.push_back(node);
+}
+
+/*
+ * Update the bounds of a node and its ancestors from their children.
+ */
+void ColliderBVH::refit(int index)
+{
+    while (index >= 0)
+    {
+        Node& node = nodes_[index];
+        const Node& child1 = nodes_[node.child1];
+        const Node& child2 = nodes_[node.child2];
+
+        node.min_corner = glm::min(child1.min_corner, child2.min_corner);
+        node.max_corner = glm::max(child1.max_corner, child2.max_corner);
+        node.sphere_scale = std::max(child1.sphere_scale, child2.sphere_scale);
+        index = node.parent;
+    }
+}
+
+/*
+ * Insert a leaf into the tree next to the node
+ * which gives the smallest increase in surface area.
+ */
+void ColliderBVH::insertLeaf(int leaf)
+{
+    int index = allocNode();
+    Node& newNode = nodes_[index];
+
+    setFatBounds(newNode, leaves_[leaf]);
+    newNode.parent = -1;
+    newNode.child1 = -1;
+    newNode.child2 = -1;
+    newNode.leaf = leaf;
+    leaves_[leaf].node = index;
+    if (root_ < 0)
+    {
+        root_ = index;
+        return;
+    }
+    glm::vec3 minCorner = newNode.min_corner;
+    glm::vec3 maxCorner = newNode.max_corner;
+    int sibling = root_;
+
+    while (nodes_[sibling].child1 >= 0)
+    {
+        const Node& node = nodes_[sibling];
+        float area = surfaceArea(node.min_corner, node.max_corner);
+        float combinedArea = surfaceArea(glm::min(node.min_corner, minCorner),
+                                         glm::max(node.max_corner, maxCorner));
+        float cost = 2.0f * combinedArea;
+        float inheritance = 2.0f * (combinedArea - area);
+        float childCost[2];
+        int children[2] = { node.child1, node.child2 };
+
+        for (int i = 0; i < 2; ++i)
+        {
+            const Node& child = nodes_[children[i]];
+            float childArea = surfaceArea(glm::min(child.min_corner, minCorner),
+                                          glm::max(child.max_corner, maxCorner));
+            if (child.child1 >= 0)
+            {
+                childArea -= surfaceArea(child.min_corner, child.max_corner);
+            }
+            childCost[i] = childArea + inheritance;
+        }
+        if ((cost < childCost[0]) && (cost < childCost[1]))
+        {
+            break;
+        }
+        sibling = (childCost[0] < childCost[1]) ? children[0] : children[1];
+    }
+    int oldParent = nodes_[sibling].parent;
+    int newParent = allocNode();
+    Node& parent = nodes_[newParent];
+
+    parent.parent = oldParent;
+    parent.child1 = sibling;
+    parent.child2 = index;
+    parent.leaf = -1;
+    if (oldParent >= 0)
+    {
+        Node& grandParent = nodes_[oldParent];
+        if (grandParent.child1 == sibling)
+        {
+            grandParent.child1 = newParent;
+        }
+        else
+        {
+            grandParent.child2 = newParent;
+        }
+    }
+    else
+    {
+        root_ = newParent;
+    }
+    nodes_[sibling].parent = newParent;
+    nodes_[index].parent = newParent;
+    refit(newParent);
+}
+
+void ColliderBVH::removeLeaf(int leaf)
+{
+    int index = leaves_[leaf].node;
+    int parent = nodes_[index].parent;
+
+    leaves_[leaf].node = -1;
+    freeNode(index);
+    if (parent < 0)
+    {
+        root_ = -1;
+        return;
+    }
+    int grandParent = nodes_[parent].parent;
+    int sibling = (nodes_[parent].child1 == index) ? nodes_[parent].child2 : nodes_[parent].child1;
+
+    freeNode(parent);
+    nodes_[sibling].parent = grandParent;
+    if (grandParent < 0)
+    {
+        root_ = sibling;
+        return;
+    }
+    Node& node = nodes_[grandParent];
+    if (node.child1 == parent)
+    {
+        node.child1 = sibling;
+    }
+    else
+    {
+        node.child2 = sibling;
+    }
+    refit(grandParent);
+}
+
+/*
+ * Build a balanced tree from all of the bounded colliders.
+ * Used when many colliders have moved at once.
+ */
+void ColliderBVH::rebuild()
+{
+    nodes_.clear();
+    free_nodes_.clear();
+    scratch_.clear();
+    root_ = -1;
+    for (int i = 0; i < leaves_.size(); ++i)
+    {
+        leaves_[i].node = -1;
+        if (leaves_[i].bounded)
+        {
+            scratch_.push_back(i);
+        }
+    }
+    if (scratch_.size() > 0)
+    {
+        nodes_.reserve(2 * scratch_.size());
+        root_ = build(scratch_.data(), scratch_.size());
+        nodes_[root_].parent = -1;
+    }
+}
+
+/*
+ * Recursively build a subtree by splitting the colliders
+ * at the median of the longest axis of their centers.
+ */
+int ColliderBVH::build(int* leaves, int count)
+{
+    int index = allocNode();
+
+    if (count == 1)
+    {
+        Node& node = nodes_[index];
+        setFatBounds(node, leaves_[leaves[0]]);
+        node.child1 = -1;
+        node.child2 = -1;
+        node.leaf = leaves[0];
+        leaves_[leaves[0]].node = index;
+        return index;
+    }
+    glm::vec3 minCenter(std::numeric_limits<float>::infinity());
+    glm::vec3 maxCenter(-std::numeric_limits<float>::infinity());
+
+    for (int i = 0; i < count; ++i)
+    {
+        const Leaf& leaf = leaves_[leaves[i]];
+        glm::vec3 center = (leaf.min_corner + leaf.max_corner) * 0.5f;
+        minCenter = glm::min(minCenter, center);
+        maxCenter = glm::max(maxCenter, center);
+    }
+    glm::vec3 size = maxCenter - minCenter;
+    int axis = (size.x > size.y) ? ((size.x > size.z) ? 0 : 2) : ((size.y > size.z) ? 1 : 2);
+    int half = count / 2;
+
+    std::nth_element(leaves, leaves + half, leaves + count, [this, axis](int a, int b)
+    {
+        return (leaves_[a].min_corner[axis] + leaves_[a].max_corner[axis]) <
+               (leaves_[b].min_corner[axis] + leaves_[b].max_corner[axis]);
+    });
+    int child1 = build(leaves, half);
+    int child2 = build(leaves + half, count - half);
+    Node& node = nodes_[index];
+
+    node.child1 = child1;
+    node.child2 = child2;
+    node.leaf = -1;
+    nodes_[child1].parent = index;
+    nodes_[child2].parent = index;
+    node.min_corner = glm::min(nodes_[child1].min_corner, nodes_[child2].min_corner);
+    node.max_corner = glm::max(nodes_[child1].max_corner, nodes_[child2].max_corner);
+    node.sphere_scale = std::max(nodes_[child1].sphere_scale, nodes_[child2].sphere_scale);
+    return index;
+}
+
+/*
+ * Add the colliders which are always tested to the
+ * candidates and sort them into collider list order.
+ */
+void ColliderBVH::appendCandidates(const std::vector<int>& extra, std::vector<int>& indices)
+{
+    indices.insert(indices.end(), extra.begin(), extra.end());
+    indices.insert(indices.end(), duplicates_.begin(), duplicates_.end());
+    std::sort(indices.begin(), indices.end());
+}
+
+void ColliderBVH::intersect(const glm::vec3& rayStart, const glm::vec3& rayDir, std::vector<int>& indices)
+{
+    glm::vec3 invDir(1.0f / rayDir.x, 1.0f / rayDir.y, 1.0f / rayDir.z);
+
+    indices.clear();
+    stack_.clear();
+    if (root_ >= 0)
+    {
+        stack_.push_back(root_);
+    }
+    while (stack_.size() > 0)
+    {
+        const Node& node = nodes_[stack_.back()];
+
+        stack_.pop_back();
+        if (!rayHitsBox(rayStart, invDir, node.min_corner, node.max_corner))
+        {
+            continue;
+        }
+        if (node.child1 >= 0)
+        {
+            stack_.push_back(node.child1);
+            stack_.push_back(node.child2);
+            continue;
+        }
+        const Leaf& leaf = leaves_[node.leaf];
+        if (!isLODHidden(leaf) &&
+            rayHitsBox(rayStart, invDir, leaf.min_corner, leaf.max_corner))
+        {
+            indices.push_back(leaf.order);
+        }
+    }
+    appendCandidates(ray_unbounded_, indices);
+}
+
+void ColliderBVH::intersect(const float sphere[], std::vector<int>& indices)
+{
+    glm::vec3 center(sphere[0], sphere[1], sphere[2]);
+    float radius = sphere[3];
+
+    indices.clear();
+    stack_.clear();
+    if (root_ >= 0)
+    {
+        stack_.push_back(root_);
+    }
+    while (stack_.size() > 0)
+    {
+        const Node& node = nodes_[stack_.back()];
+
+        stack_.pop_back();
+        if (!sphereHitsBox(center, radius * node.sphere_scale, node.min_corner, node.max_corner))
+        {
+            continue;
+        }
+        if (node.child1 >= 0)
+        {
+            stack_.push_back(node.child1);
+            stack_.push_back(node.child2);
+            continue;
+        }
+        const Leaf& leaf = leaves_[node.leaf];
+        if (!isLODHidden(leaf) &&
+            std::isfinite(leaf.sphere_scale) &&
+            sphereHitsBox(center, radius * leaf.sphere_scale, leaf.min_corner, leaf.max_corner))
+        {
+            indices.push_back(leaf.order);
+        }
+    }
+    appendCandidates(sphere_unbounded_, indices);
+}
+
+}
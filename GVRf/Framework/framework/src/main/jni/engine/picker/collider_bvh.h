@@ -0,0 +1,146 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/***************************************************************************
+ * Bounding volume hierarchy over the colliders in a scene.
+ ***************************************************************************/
+
+#ifndef COLLIDER_BVH_H_
+#define COLLIDER_BVH_H_
+
+#include <unordered_map>
+#include <vector>
+#include "glm/glm.hpp"
+
+namespace gvr {
+class Collider;
+class Component;
+class SceneObject;
+
+/*
+ * Dynamic tree of axis aligned boxes enclosing the world
+ * space bounds of a list of colliders.
+ *
+ * The picker uses it to find the colliders which might be hit
+ * by a ray or sphere without calling Collider::isHit on
+ * every collider in the scene.
+ * Each collider is stored with a slightly enlarged box.
+ * When a collider moves, it is only reinserted into the tree
+ * if its new bounds are no longer inside the enlarged box.
+ *
+ * Colliders which cannot be bounded (collider groups, colliders
+ * without a mesh) are kept in a separate list and are always
+ * returned as candidates.
+ * Bounded colliders on levels of detail which are not shown
+ * are not returned.
+ *
+ * The queries return indices into the collider list passed
+ * to update, in ascending order, so that testing only the
+ * candidates gives the same results as testing every collider.
+ *
+ * This class is not thread safe. The scene only uses it while
+ * the collider list is locked.
+ */
+class ColliderBVH {
+public:
+    ColliderBVH();
+
+    /*
+     * Make the tree match the input collider list.
+     * The list is only examined if its version has changed.
+     * Only the colliders whose owner has a different bounds
+     * version, or whose bounds data version is different,
+     * than at the last update are refit.
+     * @param colliders list of colliders
+     * @param version   changed by the caller whenever the list changes
+     */
+    void update(const std::vector<Component*>& colliders, unsigned int version);
+
+    /*
+     * Remove all the colliders from the tree.
+     */
+    void clear();
+
+    /*
+     * Find the colliders whose bounds are hit by a ray.
+     * @param rayStart  origin of ray in world coordinates
+     * @param rayDir    direction of ray in world coordinates
+     * @param indices   returns indices of candidate colliders
+     */
+    void intersect(const glm::vec3& rayStart, const glm::vec3& rayDir, std::vector<int>& indices);
+
+    /*
+     * Find the colliders whose bounds are touched by a sphere.
+     * @param sphere    center and radius of sphere in world coordinates
+     * @param indices   returns indices of candidate colliders
+     */
+    void intersect(const float sphere[], std::vector<int>& indices);
+
+private:
+    ColliderBVH(const ColliderBVH&) = delete;
+    ColliderBVH& operator=(const ColliderBVH&) = delete;
+
+    struct Node {
+        glm::vec3   min_corner;
+        glm::vec3   max_corner;
+        float       sphere_scale;   // largest finite sphere scale in subtree
+        int         parent;
+        int         child1;         // -1 for leaf nodes
+        int         child2;
+        int         leaf;           // index of leaf for leaf nodes
+    };
+
+    struct Leaf {
+        Collider*   collider;
+        SceneObject* owner;         // owner when bounds were computed
+        unsigned int version;       // bounds version of owner when bounds were computed
+        unsigned int data_version;  // Collider::getBoundsDataVersion when bounds were computed
+        int         node;           // -1 if not in the tree
+        bool        bounded;        // false if collider must always be tested
+        int         order;          // index in collider list
+        float       sphere_scale;   // infinity if sphere queries are not bounded
+        glm::vec3   min_corner;     // tight bounds of the collider
+        glm::vec3   max_corner;
+    };
+
+    int  allocNode();
+    void freeNode(int node);
+    void insertLeaf(int leaf);
+    void removeLeaf(int leaf);
+    void refit(int node);
+    void rebuild();
+    int  build(int* leaves, int count);
+    bool computeBounds(Leaf& leaf);
+    static bool isLODHidden(const Leaf& leaf);
+    void setFatBounds(Node& node, const Leaf& leaf);
+    void appendCandidates(const std::vector<int>& extra, std::vector<int>& indices);
+
+    std::vector<Node>       nodes_;
+    std::vector<Leaf>       leaves_;
+    std::vector<int>        free_nodes_;
+    std::vector<int>        ray_unbounded_;     // list indices always tested with rays
+    std::vector<int>        sphere_unbounded_;  // list indices always tested with spheres
+    std::vector<int>        duplicates_;        // list indices of colliders listed twice
+    std::vector<int>        scratch_;
+    std::vector<int>        stack_;
+    std::unordered_map<Collider*, int> leaf_index_;
+    int                     root_;
+    bool                    list_valid_;        // false until the list is examined
+    unsigned int            list_version_;
+};
+
+}
+#endif
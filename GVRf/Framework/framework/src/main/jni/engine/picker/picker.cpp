@@ -19,7 +19,9 @@
 
 #include "picker.h"
 
+#include <algorithm>
 #include <limits>
+#include <utility>
 #include "glm/glm.hpp"
 #include "glm/gtc/matrix_inverse.hpp"
 
@@ -33,23 +35,28 @@
 namespace gvr {
 
 /*
- * Intersects all the colliders in the scene with the input ray
- * and returns the list of collisions.
+ * Colliders on disabled objects or on levels of detail
+ * which are not shown cannot be picked.
  */
-void Picker::pickScene(Scene* scene, std::vector<ColliderData>& picklist, Transform* t,
-                       float ox, float oy, float oz, float dx, float dy, float dz)
+static bool isPickable(Collider* collider, SceneObject* owner)
 {
-    glm::vec3 ray_start(ox, oy, oz);
-    glm::vec3 ray_dir(dx, dy, dz);
-    const std::vector<Component*>& colliders = scene->lockColliders();
-    const glm::mat4& model_matrix = t->getModelMatrix();
+    return collider->enabled() && (owner != NULL) && owner->enabled() && !owner->isLODHidden();
+}
 
-    Collider::transformRay(model_matrix, ray_start, ray_dir);
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+/*
+ * Hit tests the candidate colliders against a ray in world
+ * coordinates and appends the hits to the pick list.
+ */
+static void pickRay(const std::vector<Component*>& colliders,
+                    const std::vector<int>& candidates,
+                    std::vector<ColliderData>& picklist,
+                    const glm::vec3& ray_start, const glm::vec3& ray_dir)
+{
+    for (auto it = candidates.begin(); it != candidates.end(); ++it)
     {
-        Collider* collider = static_cast<Collider*>(*it);
+        Collider* collider = static_cast<Collider*>(colliders[*it]);
         SceneObject* owner = collider->owner_object();
-        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        if (isPickable(collider, owner))
         {
             ColliderData data = collider->isHit(owner, ray_start, ray_dir);
             if ((collider->pick_distance() > 0) && (collider->pick_distance() < data.Distance))
@@ -61,10 +68,63 @@ void Picker::pickScene(Scene* scene, std::vector<ColliderData>& picklist, Transf
             }
         }
     }
+}
+
+/*
+ * Intersects all the colliders in the scene with the input ray
+ * and returns the list of collisions.
+ */
+void Picker::pickScene(Scene* scene, std::vector<ColliderData>& picklist, Transform* t,
+                       float ox, float oy, float oz, float dx, float dy, float dz)
+{
+    glm::vec3 ray_start(ox, oy, oz);
+    glm::vec3 ray_dir(dx, dy, dz);
+    const std::vector<Component*>& colliders = scene->lockColliders();
+    const glm::mat4& model_matrix = t->getModelMatrix();
+    std::vector<int> candidates;
+
+    Collider::transformRay(model_matrix, ray_start, ray_dir);
+    scene->getColliderBVH(colliders).intersect(ray_start, ray_dir, candidates);
+    pickRay(colliders, candidates, picklist, ray_start, ray_dir);
     std::sort(picklist.begin(), picklist.end(), compareColliderData);
     scene->unlockColliders();
 }
 
+/*
+ * Intersects all the colliders in the scene with several rays
+ * and returns the list of collisions.
+ * The colliders are only locked once for all of the rays.
+ * The hits are grouped by ray in the order of the input rays
+ * and the hits of each ray are sorted by distance.
+ * The index of the ray is returned as the CollidableIndex
+ * field of the ColliderData resulting from the hit.
+ */
+void Picker::pickRays(Scene* scene, std::vector<ColliderData>& picklist, Transform* t,
+                      const float* rays, int numRays)
+{
+    const std::vector<Component*>& colliders = scene->lockColliders();
+    const glm::mat4& model_matrix = t->getModelMatrix();
+    ColliderBVH& bvh = scene->getColliderBVH(colliders);
+    std::vector<int> candidates;
+
+    for (int r = 0; r < numRays; ++r, rays += 6)
+    {
+        glm::vec3 ray_start(rays[0], rays[1], rays[2]);
+        glm::vec3 ray_dir(rays[3], rays[4], rays[5]);
+        size_t first = picklist.size();
+
+        Collider::transformRay(model_matrix, ray_start, ray_dir);
+        bvh.intersect(ray_start, ray_dir, candidates);
+        pickRay(colliders, candidates, picklist, ray_start, ray_dir);
+        std::sort(picklist.begin() + first, picklist.end(), compareColliderData);
+        for (size_t i = first; i < picklist.size(); ++i)
+        {
+            picklist[i].CollidableIndex = r;    // cursor ID is index of ray
+        }
+    }
+    scene->unlockColliders();
+}
+
 /*
  * Intersects all the colliders in the scene with the input ray
  * and returns the one closest to the camera.
@@ -79,14 +139,16 @@ void Picker::pickClosest(Scene* scene,
     glm::vec3 ray_dir(dx, dy, dz);
     const std::vector<Component*>& colliders = scene->lockColliders();
     const glm::mat4& model_matrix = t->getModelMatrix();
+    std::vector<int> candidates;
 
     closest.Distance = std::numeric_limits<float>::infinity();
     Collider::transformRay(model_matrix, ray_start, ray_dir);
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    scene->getColliderBVH(colliders).intersect(ray_start, ray_dir, candidates);
+    for (auto it = candidates.begin(); it != candidates.end(); ++it)
     {
-        Collider* collider = static_cast<Collider*>(*it);
+        Collider* collider = static_cast<Collider*>(colliders[*it]);
         SceneObject* owner = collider->owner_object();
-        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        if (isPickable(collider, owner))
         {
             ColliderData data = collider->isHit(owner, ray_start, ray_dir);
             if ((collider->pick_distance() > 0) && (collider->pick_distance() < data.Distance))
@@ -113,39 +175,55 @@ void Picker::pickBounds(Scene* scene,
                         const std::vector<SceneObject*>& collidables)
 {
     const std::vector<Component*>& colliders = scene->lockColliders();
+    ColliderBVH& bvh = scene->getColliderBVH(colliders);
+    std::vector<std::pair<int, int>> pairs;
+    std::vector<int> candidates;
 
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    /*
+     * Find the colliders each collidable might touch and
+     * test them in the same order as testing every
+     * collider against every collidable.
+     */
+    for (int cursorID = 0; cursorID < collidables.size(); ++cursorID)
     {
-        int cursorID = 0;
-        for (auto it2 = collidables.begin(); it2 != collidables.end(); ++it2)
+        SceneObject* collidable = collidables[cursorID];
+        if ((collidable == NULL) || !collidable->enabled())
+        {
+            continue;
+        }
+        BoundingVolume& bv = collidable->getBoundingVolume();
+        glm::vec3 center(bv.center());
+        float bsphere[4] = { center.x, center.y, center.z, bv.radius()};
+
+        if ((bsphere[3] > 0) &&
+            (bsphere[3] != std::numeric_limits<float>::infinity()))
         {
-            SceneObject* collidable = *it2;
-            if ((collidable == NULL) || !collidable->enabled())
+            bvh.intersect(bsphere, candidates);
+            for (auto it = candidates.begin(); it != candidates.end(); ++it)
             {
-                ++cursorID;
-                continue;
+                pairs.push_back(std::make_pair(*it, cursorID));
             }
-            BoundingVolume& bv = collidable->getBoundingVolume();
-            glm::vec3 center(bv.center());
-            float bsphere[4] = { center.x, center.y, center.z, bv.radius()};
-            Collider* collider = reinterpret_cast<Collider*>(*it);
-            SceneObject* owner = collider->owner_object();
-
-            if (collider->enabled() &&
-                (owner != NULL) &&
-                owner->enabled() &&
-                (bsphere[3] > 0) &&
-                (bsphere[3] != std::numeric_limits<float>::infinity()))
+        }
+    }
+    std::sort(pairs.begin(), pairs.end());
+    for (auto it = pairs.begin(); it != pairs.end(); ++it)
+    {
+        int cursorID = it->second;
+        BoundingVolume& bv = collidables[cursorID]->getBoundingVolume();
+        glm::vec3 center(bv.center());
+        float bsphere[4] = { center.x, center.y, center.z, bv.radius()};
+        Collider* collider = reinterpret_cast<Collider*>(colliders[it->first]);
+        SceneObject* owner = collider->owner_object();
+
+        if (isPickable(collider, owner))
+        {
+            ColliderData data = collider->isHit(owner, bsphere);
+            if (data.IsHit)
             {
-                ColliderData data = collider->isHit(owner, bsphere);
-                if (data.IsHit)
-                {
-                    data.CollidableIndex = cursorID;      // cursor ID is index of collidable
-                    data.ObjectHit = owner;
-                    picklist.push_back(data);
-                }
+                data.CollidableIndex = cursorID;      // cursor ID is index of collidable
+                data.ObjectHit = owner;
+                picklist.push_back(data);
             }
-            ++cursorID;
         }
     }
     scene->unlockColliders();
@@ -163,7 +241,7 @@ void Picker::pickSceneObject(SceneObject *scene_object, float ox, float oy, floa
     {
         return;
     }
-    else if (collider->enabled() && scene_object->enabled())
+    else if (isPickable(collider, scene_object))
     {
         glm::vec3 rayStart(ox, oy, oz);
         glm::vec3 rayDir(dx, dy, dz);
@@ -216,7 +294,7 @@ void Picker::pickVisible(Scene* scene, Transform* t, std::vector<ColliderData>&
     {
         Collider* collider = static_cast<Collider*>(*it);
         SceneObject* owner = collider->owner_object();
-        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        if (isPickable(collider, owner))
         {
             ColliderData data(collider);
             Transform* trans = owner->transform();
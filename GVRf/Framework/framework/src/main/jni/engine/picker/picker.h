@@ -46,6 +46,10 @@ public:
             Transform* t,
             float ox, float oy, float oz,
             float dx, float dy, float dz);
+    static void pickRays(
+            Scene* scene, std::vector<ColliderData>& pickList,
+            Transform* t,
+            const float* rays, int numRays);
     static void pickClosest(
             Scene* scene,
             ColliderData& closest,
@@ -18,6 +18,7 @@
  * JNI
  ***************************************************************************/
 
+#include <algorithm>
 #include <objects/components/mesh_collider.h>
 #include "picker.h"
 #include "objects/scene.h"
@@ -46,6 +47,11 @@ extern "C" {
     Java_org_gearvrf_NativePicker_pickObjects(JNIEnv * env,
             jobject obj, jlong jscene, jlong jtransform, jfloat ox, jfloat oy, jfloat oz, jfloat dx,
             jfloat dy, jfloat dz);
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_NativePicker_pickRays(JNIEnv * env,
+            jobject obj, jlong jscene, jlong jtransform,
+            jobject jrays, jint offset, jint numRays,
+            jobject jresults, jint capacity);
     JNIEXPORT jobject JNICALL
     Java_org_gearvrf_NativePicker_pickSceneObject(JNIEnv * env,
             jobject obj, jlong jscene_object, jfloat ox, jfloat oy, jfloat oz,
@@ -141,6 +147,83 @@ Java_org_gearvrf_NativePicker_pickObjects(JNIEnv * env,
     return pickList;
 }
 
+/*
+ * Picks with several rays at once and writes the hits into
+ * the direct buffer of a GVRPickResults object.
+ * The layout of the buffer must match GVRPickResults:
+ * collider pointers, ray indices, face indices, distances,
+ * hit locations, barycentric, texture and normal coordinates,
+ * each stored as a separate array for <capacity> hits.
+ * Returns the total number of hits, which may be larger
+ * than the number stored.
+ */
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativePicker_pickRays(JNIEnv * env,
+        jobject obj, jlong jscene, jlong jtransform,
+        jobject jrays, jint offset, jint numRays,
+        jobject jresults, jint capacity)
+{
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    Transform* t = reinterpret_cast<Transform*>(jtransform);
+    const float* rays = static_cast<const float*>(env->GetDirectBufferAddress(jrays));
+    char* results = static_cast<char*>(env->GetDirectBufferAddress(jresults));
+    std::vector<ColliderData> colliders;
+
+    if ((rays == nullptr) || (results == nullptr))
+    {
+        LOGE("PICKER: ERROR: pickRays requires direct buffers");
+        return 0;
+    }
+    if (t == NULL)
+    {
+        t = scene->main_camera_rig()->getHeadTransform();
+        if (nullptr == t) {
+            return 0;
+        }
+    }
+    Picker::pickRays(scene, colliders, t, rays + offset, numRays);
+
+    jlong* colliderPtrs = reinterpret_cast<jlong*>(results);
+    jint* rayIndices = reinterpret_cast<jint*>(colliderPtrs + capacity);
+    jint* faceIndices = rayIndices + capacity;
+    jfloat* distances = reinterpret_cast<jfloat*>(faceIndices + capacity);
+    jfloat* hitLocations = distances + capacity;
+    jfloat* barycentricCoords = hitLocations + 3 * capacity;
+    jfloat* textureCoords = barycentricCoords + 3 * capacity;
+    jfloat* normalCoords = textureCoords + 2 * capacity;
+    int n = std::min((int) colliders.size(), (int) capacity);
+
+    for (int i = 0; i < n; ++i)
+    {
+        const ColliderData& data = colliders[i];
+        MeshCollider* meshCollider = (MeshCollider *) data.ColliderHit;
+
+        colliderPtrs[i] = reinterpret_cast<jlong>(data.ColliderHit);
+        rayIndices[i] = data.CollidableIndex;
+        distances[i] = data.Distance;
+        hitLocations[3 * i] = data.HitPosition.x;
+        hitLocations[3 * i + 1] = data.HitPosition.y;
+        hitLocations[3 * i + 2] = data.HitPosition.z;
+        if (meshCollider && meshCollider->shape_type() == COLLIDER_SHAPE_MESH && meshCollider->pickCoordinatesEnabled())
+        {
+            faceIndices[i] = data.FaceIndex;
+            barycentricCoords[3 * i] = data.BarycentricCoordinates.x;
+            barycentricCoords[3 * i + 1] = data.BarycentricCoordinates.y;
+            barycentricCoords[3 * i + 2] = data.BarycentricCoordinates.z;
+            textureCoords[2 * i] = data.TextureCoordinates.x;
+            textureCoords[2 * i + 1] = data.TextureCoordinates.y;
+            normalCoords[3 * i] = data.NormalCoordinates.x;
+            normalCoords[3 * i + 1] = data.NormalCoordinates.y;
+            normalCoords[3 * i + 2] = data.NormalCoordinates.z;
+        }
+        else
+        {
+            faceIndices[i] = -1;
+        }
+    }
+    return colliders.size();
+}
+
 JNIEXPORT jobject JNICALL
 Java_org_gearvrf_NativePicker_pickClosest(JNIEnv * env,
                                           jobject obj, jlong jscene, jlong jtransform,
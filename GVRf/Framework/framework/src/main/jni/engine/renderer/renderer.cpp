@@ -22,11 +22,14 @@
 #include "glm/gtc/matrix_inverse.hpp"
 #include "renderer.h"
 #include "objects/scene.h"
+#include "objects/components/perspective_camera.h"
 #include "objects/textures/texture.h"
 #include "objects/textures/render_texture.h"
 
 #define MAX_INDICES 500
 #define BATCH_SIZE 60
+#define MIN_PARALLEL_CULL_OBJECTS 256
+#define MIN_PARALLEL_SORT_SIZE 256
 bool do_batching = false;
 
 namespace gvr {
@@ -40,6 +43,12 @@ void Renderer::initializeStats() {
 
 Renderer::Renderer() : numberDrawCalls(0),
                        numberTriangles(0),
+                       numberCullAllocations(0),
+                       mLODPosition(0),
+                       mLODProjectionScale(1),
+                       mCullPool(nullptr),
+                       mNumCullTasks(0),
+                       mSortVector(nullptr),
                        numLights(0),
                        batch_manager(nullptr), mLeftRenderTarget{nullptr, nullptr, nullptr},
                        mRightRenderTarget{nullptr, nullptr, nullptr},
@@ -59,7 +68,7 @@ void Renderer::frustum_cull(glm::vec3 camera_position, SceneObject *object,
     // 3 when the HBV of the object is completely inside the frustum: render itself and all its children without further culling test
     int cullVal;
 
-    if (!object->enabled()) {
+    if (!object->enabled() || object->lod_hidden()) {
         return;
     }
 
@@ -67,19 +76,7 @@ void Renderer::frustum_cull(glm::vec3 camera_position, SceneObject *object,
     //when transparent objects are in play
     RenderData* renderData = object->render_data();
     if (nullptr != renderData) {
-        renderData->setCameraDistanceLambda([object, camera_position]() {
-            // Transform the bounding volume
-            BoundingVolume bounding_volume_ = object->getBoundingVolume();
-            glm::vec4 transformed_sphere_center(bounding_volume_.center(), 1.0f);
-
-            // Calculate distance from camera
-            glm::vec4 position(camera_position, 1.0f);
-            glm::vec4 difference = transformed_sphere_center - position;
-            float distance = glm::dot(difference, difference);
-
-            // this distance will be used when sorting transparent objects
-            return distance;
-        });
+        renderData->setCameraPosition(camera_position);
     }
 
     if (need_cull) {
@@ -102,6 +99,7 @@ void Renderer::frustum_cull(glm::vec3 camera_position, SceneObject *object,
         object->setCullStatus(false);
         scene_objects.push_back(object);
     }
+    select_lod(object);
 
     const std::vector<SceneObject*> children = object->children();
     for (auto it = children.begin(); it != children.end(); ++it) {
@@ -109,13 +107,219 @@ void Renderer::frustum_cull(glm::vec3 camera_position, SceneObject *object,
     }
 }
 
+/*
+ * Same culling as frustum_cull but walks the flattened copy of the scene graph
+ * kept by the Scene instead of recursing through copies of each child list.
+ * Disabled or culled objects skip their whole subtree by jumping to the
+ * end of it. Nothing is allocated unless the hierarchy has changed or
+ * the output grows past its previous size.
+ *
+ * If worker threads are enabled, the graph is split into subtrees of
+ * similar size which are culled in parallel. Each task fills its own
+ * visible list; they are concatenated in depth first order so the
+ * output matches culling on a single thread.
+ */
+void Renderer::frustum_cull_flat(glm::vec3 camera_position, Scene* scene,
+        float frustum[6][4], std::vector<SceneObject*>& scene_objects,
+        bool need_cull, int planeMask) {
+    if (scene->updateFlattenedHierarchy()) {
+        ++numberCullAllocations;
+    }
+    const std::vector<SceneObject*>& objects = scene->getFlattenedObjects();
+    int count = objects.size();
+    size_t visible_capacity = scene_objects.capacity();
+
+    if (mCullPlaneMasks.size() < count) {
+        mCullPlaneMasks.resize(count);
+        ++numberCullAllocations;
+    }
+    mFlatCull.objects = &objects;
+    mFlatCull.parents = &scene->getFlattenedParents();
+    mFlatCull.subtree_ends = &scene->getFlattenedSubtreeEnds();
+    mFlatCull.camera_position = camera_position;
+    mFlatCull.frustum = frustum;
+    mFlatCull.root_mask = planeMask;
+
+    int num_threads = getCullThreadCount() + 1;
+    if ((num_threads <= 1) || (count < MIN_PARALLEL_CULL_OBJECTS)) {
+        cull_range(0, count, need_cull, scene_objects);
+    } else {
+        // update bounding volumes here so the workers only read them
+        objects[0]->getBoundingVolume();
+        mNumCullTasks = 0;
+        mPendingCullTasks.clear();
+        split_cull_tasks(0, need_cull, std::max(count / (num_threads * 4), MIN_PARALLEL_CULL_OBJECTS / 4));
+        mCullPool->parallelFor(mPendingCullTasks.size(), cull_task_job, this);
+        for (int i = 0; i < mNumCullTasks; ++i) {
+            std::vector<SceneObject*>& visible = mCullTasks[i].visible;
+            scene_objects.insert(scene_objects.end(), visible.begin(), visible.end());
+        }
+    }
+    if (scene_objects.capacity() != visible_capacity) {
+        ++numberCullAllocations;
+    }
+}
+
+/*
+ * Culls one object from the flattened scene graph and adds it to
+ * the visible list if it can be seen. Returns whether its children
+ * need to be culled, are all visible or can be skipped.
+ */
+Renderer::CullResult Renderer::cull_object(int index, bool need_cull,
+        std::vector<SceneObject*>& scene_objects) {
+    SceneObject* object = (*mFlatCull.objects)[index];
+
+    if (!object->enabled() || object->lod_hidden()) {
+        return CULL_SUBTREE;
+    }
+    RenderData* renderData = object->render_data();
+    if (nullptr != renderData) {
+        renderData->setCameraPosition(mFlatCull.camera_position);
+    }
+    if (!need_cull) {
+        object->setCullStatus(false);
+        scene_objects.push_back(object);
+        select_lod(object);
+        return ACCEPT_CHILDREN;
+    }
+
+    // children start with the plane mask of their parent
+    int parent = (*mFlatCull.parents)[index];
+    int mask = (parent >= 0) ? mCullPlaneMasks[parent] : mFlatCull.root_mask;
+    int cullVal = object->frustumCull(mFlatCull.camera_position, mFlatCull.frustum, mask);
+
+    mCullPlaneMasks[index] = mask;
+    if (cullVal == 0) {
+        object->setCullStatus(true);
+        return CULL_SUBTREE;
+    }
+    if (cullVal >= 2) {
+        object->setCullStatus(false);
+        scene_objects.push_back(object);
+    }
+    select_lod(object);
+    return (cullVal == 3) ? ACCEPT_CHILDREN : CULL_CHILDREN;
+}
+
+/*
+ * Selects the level of detail shown by an object with an LODGroup
+ * before its children are culled. Only this object's cull task
+ * visits its children so no other thread reads their hidden flags.
+ */
+void Renderer::select_lod(SceneObject* object) {
+    LODGroup* lod_group = object->lod_group();
+
+    if ((nullptr != lod_group) && lod_group->enabled()) {
+        lod_group->selectLevel(mLODPosition, mLODProjectionScale);
+    }
+}
+
+/*
+ * Levels of detail are selected from the center camera of the main
+ * camera rig so both eyes and the shadow maps render the same levels.
+ * Scenes without one use the camera being culled.
+ */
+void Renderer::update_lod_camera(Scene* scene, Camera* camera) {
+    const CameraRig* rig = scene->main_camera_rig();
+
+    if ((nullptr != rig) && (nullptr != rig->center_camera()) &&
+        (nullptr != rig->center_camera()->owner_object())) {
+        camera = rig->center_camera();
+    }
+    mLODPosition = glm::vec3(glm::affineInverse(camera->getViewMatrix())[3]);
+    mLODProjectionScale = camera->getProjectionMatrix()[1][1];
+}
+
+/*
+ * Culls the objects in [begin, end) of the flattened scene graph.
+ * The range must hold complete subtrees.
+ */
+void Renderer::cull_range(int begin, int end, bool need_cull,
+        std::vector<SceneObject*>& scene_objects) {
+    const std::vector<int>& subtree_ends = *mFlatCull.subtree_ends;
+    // objects before this index are completely inside the frustum
+    int nocull_end = need_cull ? begin : end;
+    int i = begin;
+
+    while (i < end) {
+        CullResult result = cull_object(i, i >= nocull_end, scene_objects);
+
+        if (result == CULL_SUBTREE) {
+            i = subtree_ends[i];
+            continue;
+        }
+        if ((result == ACCEPT_CHILDREN) && (i >= nocull_end)) {
+            nocull_end = subtree_ends[i];
+        }
+        ++i;
+    }
+}
+
+Renderer::CullTask& Renderer::add_cull_task(int begin, int end, bool need_cull) {
+    if (mNumCullTasks >= mCullTasks.size()) {
+        mCullTasks.resize(mNumCullTasks + 1);
+        ++numberCullAllocations;
+    }
+    CullTask& task = mCullTasks[mNumCullTasks++];
+    task.begin = begin;
+    task.end = end;
+    task.need_cull = need_cull;
+    task.visible.clear();
+    return task;
+}
+
+/*
+ * Splits the subtree starting at index into tasks of at most task_size objects.
+ * Objects whose subtrees are too big are culled here and their children
+ * are split further. The tasks are kept in depth first order.
+ */
+void Renderer::split_cull_tasks(int index, bool need_cull, int task_size) {
+    const std::vector<int>& subtree_ends = *mFlatCull.subtree_ends;
+    int end = subtree_ends[index];
+
+    if ((end - index) <= task_size) {
+        add_cull_task(index, end, need_cull);
+        mPendingCullTasks.push_back(mNumCullTasks - 1);
+        return;
+    }
+    CullTask& task = add_cull_task(index, index + 1, need_cull);
+    CullResult result = cull_object(index, need_cull, task.visible);
+
+    if (result == CULL_SUBTREE) {
+        return;
+    }
+    need_cull = need_cull && (result != ACCEPT_CHILDREN);
+    for (int child = index + 1; child < end; child = subtree_ends[child]) {
+        split_cull_tasks(child, need_cull, task_size);
+    }
+}
+
+void Renderer::cull_task_job(void* data, int index) {
+    Renderer* renderer = static_cast<Renderer*>(data);
+    CullTask& task = renderer->mCullTasks[renderer->mPendingCullTasks[index]];
+    renderer->cull_range(task.begin, task.end, task.need_cull, task.visible);
+}
+
+void Renderer::setCullThreadCount(int num_threads) {
+    if (num_threads == getCullThreadCount()) {
+        return;
+    }
+    delete mCullPool;
+    mCullPool = (num_threads > 0) ? new WorkerPool(num_threads) : nullptr;
+}
+
 void Renderer::state_sort(std::vector<RenderData*>* render_data_vector) {
     // The current implementation of sorting is based on
     // 1. rendering order first to maintain specified order
     // 2. shader type second to minimize the gl cost of switching shader
     // 3. camera distance last to minimize overdraw
-    std::sort(render_data_vector->begin(), render_data_vector->end(),
-            compareRenderDataByOrderShaderDistance);
+    int num_threads = getCullThreadCount() + 1;
+    if ((num_threads > 1) && (render_data_vector->size() >= MIN_PARALLEL_SORT_SIZE)) {
+        parallel_state_sort(render_data_vector, num_threads);
+    } else {
+        std::sort(render_data_vector->begin(), render_data_vector->end(),
+                compareRenderDataByOrderShaderDistance);
+    }
 
     if (DEBUG_RENDERER) {
         LOGD("SORTING: After sorting");
@@ -133,6 +337,46 @@ void Renderer::state_sort(std::vector<RenderData*>* render_data_vector) {
         }
     }
 }
+/*
+ * Sorts equal sized chunks of the render list on the worker threads,
+ * then merges them pairwise with the same comparison as state_sort.
+ * The merge buffer is kept so this does not allocate once warmed up.
+ */
+void Renderer::parallel_state_sort(std::vector<RenderData*>* render_data_vector, int chunks) {
+    size_t n = render_data_vector->size();
+
+    mSortBounds.resize(chunks + 1);
+    for (int i = 0; i <= chunks; ++i) {
+        mSortBounds[i] = (n * i) / chunks;
+    }
+    mSortVector = render_data_vector;
+    mCullPool->parallelFor(chunks, sort_chunk_job, this);
+
+    mSortBuffer.resize(n);
+    RenderData** src = render_data_vector->data();
+    RenderData** dst = mSortBuffer.data();
+    for (int width = 1; width < chunks; width *= 2) {
+        for (int i = 0; i < chunks; i += 2 * width) {
+            size_t lo = mSortBounds[i];
+            size_t mid = mSortBounds[std::min(i + width, chunks)];
+            size_t hi = mSortBounds[std::min(i + 2 * width, chunks)];
+            std::merge(src + lo, src + mid, src + mid, src + hi, dst + lo,
+                       compareRenderDataByOrderShaderDistance);
+        }
+        std::swap(src, dst);
+    }
+    if (src != render_data_vector->data()) {
+        std::copy(src, src + n, render_data_vector->data());
+    }
+}
+
+void Renderer::sort_chunk_job(void* data, int index) {
+    Renderer* renderer = static_cast<Renderer*>(data);
+    RenderData** list = renderer->mSortVector->data();
+    std::sort(list + renderer->mSortBounds[index], list + renderer->mSortBounds[index + 1],
+              compareRenderDataByOrderShaderDistance);
+}
+
 /**
     This function compares passes of render-data
     it checks whether no of passes are equal and then material and cull_status of each pass
@@ -183,12 +427,27 @@ void Renderer::cullFromCamera(Scene *scene, jobject javaSceneObject, Camera* cam
     // 1. Build the view frustum
     float frustum[6][4];
     build_frustum(frustum, (const float*) glm::value_ptr(vp_matrix));
+    update_lod_camera(scene, camera);
 
     // 2. Iteratively execute frustum culling for each root object (as well as its children objects recursively)
     SceneObject *object = scene->getRoot();
     if (DEBUG_RENDERER) {
         LOGD("FRUSTUM: start frustum culling for root %s\n", object->name().c_str());
     }
+    if (scene->get_flat_culling() || (getCullThreadCount() > 0)) {
+        size_t render_capacity = render_data_vector->capacity();
+
+        mVisibleObjects.clear();
+        frustum_cull_flat(campos, scene, frustum, mVisibleObjects, scene->get_frustum_culling(), 0);
+        if (DEBUG_RENDERER) {
+            LOGD("FRUSTUM: end flat frustum culling for root %s\n", object->name().c_str());
+        }
+        occlusion_cull(rstate, mVisibleObjects, render_data_vector);
+        if (render_data_vector->capacity() != render_capacity) {
+            ++numberCullAllocations;
+        }
+        return;
+    }
     //    frustum_cull(camera->owner_object()->transform()->position(), object, frustum, scene_objects, scene->get_frustum_culling(), 0);
     frustum_cull(campos, object, frustum, scene_objects, scene->get_frustum_culling(), 0);
     if (DEBUG_RENDERER) {
@@ -31,6 +31,7 @@
 #include "objects/bounding_volume.h"
 #include "shaders/shader_manager.h"
 #include "batch_manager.h"
+#include "worker_pool.h"
 
 typedef unsigned long Long;
 
@@ -105,6 +106,7 @@ public:
     void resetStats() {
         numberDrawCalls = 0;
         numberTriangles = 0;
+        numberCullAllocations = 0;
     }
     bool isVulkanInstance(){
         return isVulkan_;
@@ -119,6 +121,14 @@ public:
     int getNumberTriangles() {
         return numberTriangles;
     }
+
+    /*
+     * Number of heap allocations made by frustum culling since the
+     * last resetStats. Only counted when flat culling is enabled.
+     */
+    int getNumberCullAllocations() {
+        return numberCullAllocations;
+    }
     int incrementTriangles(int number=1){
         return numberTriangles += number;
     }
@@ -211,6 +221,43 @@ private:
     virtual void frustum_cull(glm::vec3 camera_position, SceneObject *object,
             float frustum[6][4], std::vector<SceneObject*>& scene_objects,
             bool continue_cull, int planeMask);
+    virtual void frustum_cull_flat(glm::vec3 camera_position, Scene* scene,
+            float frustum[6][4], std::vector<SceneObject*>& scene_objects,
+            bool continue_cull, int planeMask);
+
+    /*
+     * A contiguous range of the flattened scene graph culled by one thread.
+     * The visible list keeps its capacity from frame to frame.
+     */
+    struct CullTask {
+        int begin;
+        int end;
+        bool need_cull;
+        std::vector<SceneObject*> visible;
+    };
+
+    /*
+     * Camera and scene graph shared by all threads during flat culling.
+     */
+    struct FlatCullState {
+        const std::vector<SceneObject*>* objects;
+        const std::vector<int>* parents;
+        const std::vector<int>* subtree_ends;
+        glm::vec3 camera_position;
+        float (*frustum)[4];
+        int root_mask;
+    };
+    enum CullResult { CULL_SUBTREE, CULL_CHILDREN, ACCEPT_CHILDREN };
+
+    CullResult cull_object(int index, bool need_cull, std::vector<SceneObject*>& scene_objects);
+    void update_lod_camera(Scene* scene, Camera* camera);
+    void select_lod(SceneObject* object);
+    void cull_range(int begin, int end, bool need_cull, std::vector<SceneObject*>& scene_objects);
+    void split_cull_tasks(int index, bool need_cull, int task_size);
+    CullTask& add_cull_task(int begin, int end, bool need_cull);
+    void parallel_state_sort(std::vector<RenderData*>* render_data_vector, int chunks);
+    static void cull_task_job(void* renderer, int index);
+    static void sort_chunk_job(void* renderer, int index);
 
     Renderer(const Renderer& render_engine) = delete;
     Renderer(Renderer&& render_engine) = delete;
@@ -225,6 +272,8 @@ protected:
         if(batch_manager)
             delete batch_manager;
         batch_manager = NULL;
+        delete mCullPool;
+        mCullPool = nullptr;
     }
 
     virtual void renderMesh(RenderState& rstate, RenderData* render_data) = 0;
@@ -236,9 +285,32 @@ protected:
 
     int numberDrawCalls;
     int numberTriangles;
+    int numberCullAllocations;
+    std::vector<SceneObject*> mVisibleObjects;  // reused by flat culling
+    std::vector<int> mCullPlaneMasks;           // plane mask of each flattened object
+    FlatCullState mFlatCull;
+    glm::vec3 mLODPosition;                     // camera position used to select levels of detail
+    float mLODProjectionScale;
+    WorkerPool* mCullPool;                      // null when culling on one thread
+    std::vector<CullTask> mCullTasks;           // only grows, first mNumCullTasks are in use
+    int mNumCullTasks;
+    std::vector<int> mPendingCullTasks;         // tasks left for the worker threads
+    std::vector<RenderData*>* mSortVector;
+    std::vector<size_t> mSortBounds;
+    std::vector<RenderData*> mSortBuffer;
     bool useStencilBuffer_ = false;
 public:
     virtual void state_sort(std::vector<RenderData*>* render_data_vector) ;
+
+    /*
+     * Sets the number of extra threads used for culling and sorting.
+     * Zero culls and sorts on the calling thread only.
+     * Using more than one thread implies flat culling.
+     */
+    void setCullThreadCount(int num_threads);
+    int getCullThreadCount() const {
+        return mCullPool ? mCullPool->getThreadCount() : 0;
+    }
     int numLights;
     void setUseStencilBuffer(bool enable) { useStencilBuffer_ = enable; }
     bool useStencilBuffer(){
@@ -0,0 +1,94 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "worker_pool.h"
+
+namespace gvr {
+
+WorkerPool::WorkerPool(int num_threads) :
+        func_(nullptr), data_(nullptr), count_(0), next_index_(0),
+        busy_workers_(0), generation_(0), quit_(false) {
+    for (int i = 0; i < num_threads; ++i) {
+        threads_.push_back(std::thread(&WorkerPool::workerLoop, this));
+    }
+}
+
+WorkerPool::~WorkerPool() {
+    {
+        std::lock_guard<std::mutex> lock(mutex_);
+        quit_ = true;
+    }
+    start_cond_.notify_all();
+    for (auto it = threads_.begin(); it != threads_.end(); ++it) {
+        it->join();
+    }
+}
+
+void WorkerPool::runJobs() {
+    int index;
+    while ((index = next_index_.fetch_add(1)) < count_) {
+        func_(data_, index);
+    }
+}
+
+void WorkerPool::workerLoop() {
+    unsigned int seen = 0;
+
+    while (true) {
+        {
+            std::unique_lock<std::mutex> lock(mutex_);
+            start_cond_.wait(lock, [this, seen] { return quit_ || (generation_ != seen); });
+            if (quit_) {
+                return;
+            }
+            seen = generation_;
+        }
+        runJobs();
+        {
+            std::lock_guard<std::mutex> lock(mutex_);
+            if (--busy_workers_ == 0) {
+                done_cond_.notify_one();
+            }
+        }
+    }
+}
+
+void WorkerPool::parallelFor(int count, JobFunc func, void* data) {
+    if (count <= 0) {
+        return;
+    }
+    if (threads_.empty() || (count == 1)) {
+        for (int i = 0; i < count; ++i) {
+            func(data, i);
+        }
+        return;
+    }
+    {
+        std::lock_guard<std::mutex> lock(mutex_);
+        func_ = func;
+        data_ = data;
+        count_ = count;
+        next_index_ = 0;
+        busy_workers_ = threads_.size();
+        ++generation_;
+    }
+    start_cond_.notify_all();
+    runJobs();
+
+    std::unique_lock<std::mutex> lock(mutex_);
+    done_cond_.wait(lock, [this] { return busy_workers_ == 0; });
+}
+
+}
@@ -0,0 +1,75 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Fixed set of worker threads used to split per-frame work across cores.
+ ***************************************************************************/
+
+#ifndef WORKER_POOL_H_
+#define WORKER_POOL_H_
+
+#include <atomic>
+#include <condition_variable>
+#include <mutex>
+#include <thread>
+#include <vector>
+
+namespace gvr {
+
+class WorkerPool final {
+public:
+    typedef void (*JobFunc)(void* data, int index);
+
+    /*
+     * Creates a pool with the given number of threads in addition
+     * to the calling thread, which also runs jobs.
+     */
+    explicit WorkerPool(int num_threads);
+    ~WorkerPool();
+
+    int getThreadCount() const {
+        return threads_.size();
+    }
+
+    /*
+     * Calls func(data, i) for every i in [0, count), spreading the
+     * calls across the worker threads and the calling thread.
+     * Returns after all of the calls have completed.
+     * Nothing is allocated, so it can be called every frame.
+     */
+    void parallelFor(int count, JobFunc func, void* data);
+
+private:
+    WorkerPool(const WorkerPool&) = delete;
+    WorkerPool& operator=(const WorkerPool&) = delete;
+
+    void workerLoop();
+    void runJobs();
+
+    std::vector<std::thread> threads_;
+    std::mutex mutex_;
+    std::condition_variable start_cond_;
+    std::condition_variable done_cond_;
+    JobFunc func_;
+    void* data_;
+    int count_;
+    std::atomic<int> next_index_;
+    int busy_workers_;
+    unsigned int generation_;
+    bool quit_;
+};
+
+}
+#endif
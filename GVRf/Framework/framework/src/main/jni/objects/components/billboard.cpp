@@ -0,0 +1,95 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "glm/gtc/matrix_inverse.hpp"
+#include "glm/gtc/quaternion.hpp"
+#include "billboard.h"
+#include "component.inl"
+#include "objects/scene.h"
+#include "objects/scene_object.h"
+
+namespace gvr {
+
+static const float MIN_AXIS_LENGTH = 1e-6f;
+
+void Billboard::set_up_vector(float x, float y, float z)
+{
+    up_ = glm::normalize(glm::vec3(x, y, z));
+    has_up_ = true;
+}
+
+/*
+ * The camera is moved into the coordinate system of the parent
+ * so only the local rotation of the owner has to change.
+ * The X axis of the owner is perpendicular to the up vector and
+ * the direction to the camera. Nothing changes if they are parallel
+ * or the camera is at the origin of the owner.
+ */
+void Billboard::faceCamera(const glm::vec3& camera_position)
+{
+    Transform* transform = (owner_object_ != nullptr) ? owner_object_->transform() : nullptr;
+    if (transform == nullptr)
+    {
+        return;
+    }
+    SceneObject* parent = owner_object_->parent();
+    Transform* parent_transform = (parent != nullptr) ? parent->transform() : nullptr;
+    glm::vec3 camera = camera_position;
+
+    if (parent_transform != nullptr)
+    {
+        glm::mat4 to_parent = glm::affineInverse(parent_transform->getModelMatrix());
+        camera = glm::vec3(to_parent * glm::vec4(camera_position, 1));
+    }
+
+    glm::vec3 lookat = camera - transform->position();
+    glm::vec3 x_axis = glm::cross(up_, lookat);
+    float length = glm::length(x_axis);
+
+    if (length < MIN_AXIS_LENGTH)
+    {
+        return;
+    }
+    x_axis /= length;
+
+    glm::mat3 axes;
+    if (has_up_)
+    {
+        axes = glm::mat3(x_axis, up_, glm::cross(x_axis, up_));
+    }
+    else
+    {
+        lookat = glm::normalize(lookat);
+        axes = glm::mat3(x_axis, glm::cross(lookat, x_axis), lookat);
+    }
+
+    glm::quat rotation = glm::quat_cast(axes);
+    if (rotation != transform->rotation())
+    {
+        transform->set_rotation(rotation);
+    }
+}
+
+void Billboard::onAddedToScene(Scene* scene)
+{
+    scene->addBillboard(this);
+}
+
+void Billboard::onRemovedFromScene(Scene* scene)
+{
+    scene->removeBillboard(this);
+}
+
+}
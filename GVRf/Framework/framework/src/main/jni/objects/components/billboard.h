@@ -0,0 +1,76 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Turns a scene object toward the camera every frame.
+ ***************************************************************************/
+
+#ifndef BILLBOARD_H_
+#define BILLBOARD_H_
+
+#include "glm/glm.hpp"
+#include "objects/components/component.h"
+
+namespace gvr {
+
+/*
+ * Billboards in the scene are kept by the Scene which turns
+ * them all toward the main camera once every frame.
+ *
+ * Without an up vector the object faces the camera and its Y axis
+ * stays as close as possible to the Y axis of its parent.
+ * With an up vector the object only rotates around that axis.
+ * The up vector is in the coordinate system of the parent.
+ */
+class Billboard : public Component {
+public:
+    Billboard() :
+        Component(Billboard::getComponentType()),
+        up_(0, 1, 0),
+        has_up_(false) { }
+
+    virtual ~Billboard() { }
+
+    static long long getComponentType() {
+        return COMPONENT_TYPE_BILLBOARD;
+    }
+
+    void set_up_vector(float x, float y, float z);
+
+    bool has_up_vector() const {
+        return has_up_;
+    }
+
+    /*
+     * Rotate the owner to face the camera.
+     * The camera position is in world coordinates.
+     */
+    void faceCamera(const glm::vec3& camera_position);
+
+    virtual void onAddedToScene(Scene* scene);
+    virtual void onRemovedFromScene(Scene* scene);
+
+private:
+    Billboard(const Billboard& billboard) = delete;
+    Billboard(Billboard&& billboard) = delete;
+    Billboard& operator=(const Billboard& billboard) = delete;
+    Billboard& operator=(Billboard&& billboard) = delete;
+
+    glm::vec3 up_;
+    bool has_up_;
+};
+
+}
+#endif
@@ -0,0 +1,56 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * JNI
+ ***************************************************************************/
+
+#include "billboard.h"
+#include "util/gvr_jni.h"
+
+namespace gvr {
+extern "C" {
+    JNIEXPORT jlong JNICALL
+    Java_org_gearvrf_NativeBillboard_ctor(JNIEnv* env, jobject obj);
+
+    JNIEXPORT jlong JNICALL
+    Java_org_gearvrf_NativeBillboard_getComponentType(JNIEnv* env, jobject obj);
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeBillboard_setUpVector(JNIEnv* env, jobject obj,
+            jlong jbillboard, jfloat x, jfloat y, jfloat z);
+} // extern "C"
+
+JNIEXPORT jlong JNICALL
+Java_org_gearvrf_NativeBillboard_ctor(JNIEnv* env, jobject obj)
+{
+    return reinterpret_cast<jlong>(new Billboard());
+}
+
+JNIEXPORT jlong JNICALL
+Java_org_gearvrf_NativeBillboard_getComponentType(JNIEnv* env, jobject obj)
+{
+    return Billboard::getComponentType();
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeBillboard_setUpVector(JNIEnv* env, jobject obj,
+        jlong jbillboard, jfloat x, jfloat y, jfloat z)
+{
+    Billboard* billboard = reinterpret_cast<Billboard*>(jbillboard);
+    billboard->set_up_vector(x, y, z);
+}
+
+} // namespace gvr
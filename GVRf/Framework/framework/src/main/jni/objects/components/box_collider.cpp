@@ -2,6 +2,7 @@
  *  Collider made from a box.
  ***************************************************************************/
 
+#include <limits>
 #include "glm/glm.hpp"
 #include "glm/gtc/matrix_inverse.hpp"
 
@@ -64,6 +65,37 @@ namespace gvr {
         return hitData;
     }
 
+    /*
+     * Compute the world space bounds of the box.
+     * Sphere hits are computed around the center of the
+     * input sphere so they cannot be bounded.
+     * @param owner         SceneObject that owns this collider or
+     *                      the group it is part of.
+     */
+    bool BoxCollider::getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& scale)
+    {
+        Transform* t = owner->transform();
+
+        scale = std::numeric_limits<float>::infinity();
+        if (glm::length(half_extents_) == 0)
+        {
+            BoundingVolume& bounds = owner->getBoundingVolume();
+            if (bounds.radius() <= 0)
+            {
+                return false;
+            }
+            minCorner = bounds.min_corner();
+            maxCorner = bounds.max_corner();
+            return true;
+        }
+        if (t == NULL)
+        {
+            return false;
+        }
+        transformBounds(t->getModelMatrix(), glm::vec3(0, 0, 0), half_extents_, minCorner, maxCorner);
+        return true;
+    }
+
     /*
      * Determine if the sphere hits the box.
      * @param sphere array with sphere center and radius
@@ -39,6 +39,7 @@ public:
 
     void set_half_extents(float x, float y, float z) {
         half_extents_ = glm::vec3(x, y, z);
+        invalidateBounds();
     }
 
     glm::vec3 get_half_extents() {
@@ -47,6 +48,7 @@ public:
 
     ColliderData isHit(SceneObject* owner, const float sphere[]);
     ColliderData isHit(SceneObject* owner, const glm::vec3& rayStart, const glm::vec3& rayDir);
+    bool getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& sphereScale);
     static ColliderData isHit(const glm::vec3& center, const glm::vec3& half_extents, const float sphere[]);
 
 private:
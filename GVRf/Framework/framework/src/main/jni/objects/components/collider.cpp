@@ -55,6 +55,14 @@ namespace gvr
         scene->removeCollider(this);
     }
 
+    void Collider::invalidateBounds()
+    {
+        if (owner_object_ != NULL)
+        {
+            owner_object_->invalidateBounds();
+        }
+    }
+
 /*
  * Transform a sphere in world coordinates to be in the coordinate space of a model.
  * @param model_matrix 4x4 matrix to transform model into world coordinates
@@ -74,6 +82,46 @@ namespace gvr
         sphere[2] = (c1.z + c2.z) / 2;
         sphere[3] = glm::distance(glm::vec3(c1.x, c1.y, c1.z), glm::vec3(c2.x, c2.y, c2.z)) / 2.0f;
     }
+
+/*
+ * Compute the world space box enclosing a box in model coordinates.
+ * @param model_matrix 4x4 matrix to transform model into world coordinates
+ * @param center    center of the box in model coordinates
+ * @param extent    half size of the box in model coordinates
+ * @param minCorner returns the minimum corner of the world space box
+ * @param maxCorner returns the maximum corner of the world space box
+ */
+    void Collider::transformBounds(const glm::mat4& model_matrix, const glm::vec3& center, const glm::vec3& extent,
+                                   glm::vec3& minCorner, glm::vec3& maxCorner)
+    {
+        glm::vec3 c(model_matrix * glm::vec4(center, 1));
+        glm::vec3 e;
+
+        for (int i = 0; i < 3; ++i)
+        {
+            e[i] = fabs(model_matrix[0][i]) * extent.x +
+                   fabs(model_matrix[1][i]) * extent.y +
+                   fabs(model_matrix[2][i]) * extent.z;
+        }
+        minCorner = c - e;
+        maxCorner = c + e;
+    }
+
+/*
+ * Compute how much a sphere in world coordinates can grow when
+ * it is put into model coordinates by transformSphere and the
+ * result is put back into world coordinates.
+ * @param model_matrix 4x4 matrix to transform model into world coordinates
+ */
+    float Collider::sphereScale(const glm::mat4& model_matrix)
+    {
+        glm::mat3 m(model_matrix);
+        glm::vec3 diagonal = glm::inverse(m) * glm::vec3(1, 1, 1);
+        float norm = sqrt(glm::dot(m[0], m[0]) + glm::dot(m[1], m[1]) + glm::dot(m[2], m[2]));
+
+        return glm::length(diagonal) * norm;
+    }
 }
 
 
+
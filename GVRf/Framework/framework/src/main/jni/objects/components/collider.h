@@ -91,6 +91,38 @@ public:
      */
     virtual ColliderData isHit(SceneObject* owner, const float sphere[]) = 0;
 
+    /*
+     * Compute conservative world space bounds for this collider.
+     *
+     * Used by the picker to skip colliders which cannot be hit.
+     * If isHit(owner, rayStart, rayDir) succeeds the ray must pass
+     * through the returned box. If isHit(owner, sphere) succeeds,
+     * the sphere with its radius multiplied by sphereScale must
+     * touch the returned box.
+     *
+     * @param owner       SceneObject which owns this collider.
+     * @param minCorner   returns the minimum corner of the box.
+     * @param maxCorner   returns the maximum corner of the box.
+     * @param sphereScale returns the factor for sphere queries,
+     *                    infinity if they cannot be bounded.
+     *
+     * @returns false if the collider cannot be bounded
+     *          and must always be tested.
+     */
+    virtual bool getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& sphereScale) {
+        return false;
+    }
+
+    /*
+     * Get the version of the data other than the owner
+     * which the world bounds depend on, such as the
+     * vertices of a mesh. The bounds are recomputed
+     * when it changes.
+     */
+    virtual unsigned int getBoundsDataVersion(SceneObject* owner) {
+        return 0;
+    }
+
     virtual long shape_type() {
         return COLLIDER_SHAPE_UNKNOWN;
     }
@@ -110,11 +142,20 @@ public:
     virtual void onAddedToScene(Scene* scene);
     virtual void onRemovedFromScene(Scene* scene);
     static void transformSphere(const glm::mat4& model_matrix, float* sphere);
+    static void transformBounds(const glm::mat4& model_matrix, const glm::vec3& center, const glm::vec3& extent,
+                                glm::vec3& minCorner, glm::vec3& maxCorner);
+    static float sphereScale(const glm::mat4& model_matrix);
 
 protected:
     Collider() : Component(Collider::getComponentType()), pick_distance_(0) {}
     explicit Collider(long long type) : Component(type), pick_distance_(0) {}
 
+    /*
+     * Called when the shape of the collider changes
+     * so its cached world bounds are recomputed.
+     */
+    void invalidateBounds();
+
     float pick_distance_;
 
     Collider(const Collider& collider) = delete;
@@ -32,6 +32,8 @@ namespace gvr {
     static const long long COMPONENT_TYPE_SKELETON           = 10020;
     static const long long COMPONENT_TYPE_SKIN               = 10021;
     static const long long COMPONENT_TYPE_BODYTRACKER        = 10022;
+    static const long long COMPONENT_TYPE_LOD_GROUP          = 10023;
+    static const long long COMPONENT_TYPE_BILLBOARD          = 10024;
 }
 
 #endif
@@ -0,0 +1,161 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include <cfloat>
+#include "lod_group.h"
+#include "component.inl"
+#include "objects/scene_object.h"
+
+namespace gvr {
+
+LODGroup::LODGroup()
+    : Component(LODGroup::getComponentType()),
+      mHysteresis(0),
+      mUseScreenSize(false),
+      mCurrentLevel(-1),
+      mHasSelection(false)
+{ }
+
+void LODGroup::addRange(float range, SceneObject* level)
+{
+    std::lock_guard<std::mutex> lock(mLock);
+    mUseScreenSize = false;
+    addLevel(range * range, level);
+}
+
+void LODGroup::addScreenSize(float screen_size, SceneObject* level)
+{
+    std::lock_guard<std::mutex> lock(mLock);
+    mUseScreenSize = true;
+    addLevel(1.0f / (screen_size * screen_size), level);
+}
+
+void LODGroup::addLevel(float threshold, SceneObject* level)
+{
+    auto it = mLevels.begin();
+    while ((it != mLevels.end()) && (it->threshold <= threshold))
+    {
+        ++it;
+    }
+    mLevels.insert(it, Level{ threshold, level });
+    mHasSelection = false;
+}
+
+void LODGroup::setHysteresis(float hysteresis)
+{
+    std::lock_guard<std::mutex> lock(mLock);
+    mHysteresis = hysteresis;
+}
+
+/*
+ * Returns the index of the level with the largest threshold
+ * not greater than metric or -1 if there is none.
+ */
+int LODGroup::findLevel(float metric) const
+{
+    int i = mLevels.size() - 1;
+    while ((i >= 0) && (metric < mLevels[i].threshold))
+    {
+        --i;
+    }
+    return i;
+}
+
+/*
+ * With hysteresis the metric must be past the threshold of a farther
+ * level by the hysteresis fraction to switch to it, and below the
+ * threshold of the current level by the same fraction to switch back.
+ * This keeps objects near a threshold from alternating between levels.
+ */
+void LODGroup::selectLevel(const glm::vec3& position, float projection_scale)
+{
+    std::lock_guard<std::mutex> lock(mLock);
+    if ((owner_object_ == nullptr) || mLevels.empty())
+    {
+        return;
+    }
+    BoundingVolume& bv = owner_object_->getBoundingVolume();
+    glm::vec3 d = position - bv.center();
+    float metric = glm::dot(d, d);
+
+    if (mUseScreenSize)
+    {
+        float size = bv.radius() * projection_scale;
+        metric = (size > 0) ? metric / (size * size) : FLT_MAX;
+    }
+    if (!mHasSelection || (mHysteresis <= 0))
+    {
+        mCurrentLevel = findLevel(metric);
+        mHasSelection = true;
+    }
+    else
+    {
+        float up = 1 + mHysteresis;
+        float down = 1 - mHysteresis;
+        int farther = findLevel(metric / (up * up));
+        int nearer = (down > 0) ? findLevel(metric / (down * down)) : mLevels.size() - 1;
+
+        if (farther > mCurrentLevel)
+        {
+            mCurrentLevel = farther;
+        }
+        else if (nearer < mCurrentLevel)
+        {
+            mCurrentLevel = nearer;
+        }
+    }
+    for (int i = 0; i < mLevels.size(); ++i)
+    {
+        SceneObject* level = mLevels[i].object;
+        /*
+         * A level moved away from the owner is no longer
+         * selected by this group and is always shown.
+         */
+        if (level->parent() == owner_object_)
+        {
+            level->set_lod_hidden(i != mCurrentLevel);
+        }
+        else
+        {
+            level->set_lod_hidden(false);
+        }
+    }
+}
+
+void LODGroup::showAllLevels()
+{
+    std::lock_guard<std::mutex> lock(mLock);
+    for (auto it = mLevels.begin(); it != mLevels.end(); ++it)
+    {
+        it->object->set_lod_hidden(false);
+    }
+    mHasSelection = false;
+}
+
+void LODGroup::set_enable(bool enable)
+{
+    Component::set_enable(enable);
+    if (!enable)
+    {
+        showAllLevels();
+    }
+}
+
+void LODGroup::onDetach(SceneObject* owner)
+{
+    showAllLevels();
+}
+
+}
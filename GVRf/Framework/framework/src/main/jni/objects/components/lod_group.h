@@ -0,0 +1,107 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Selects which child of a scene object is rendered based on the
+ * distance to the camera or the size of the object on the screen.
+ ***************************************************************************/
+
+#ifndef LOD_GROUP_H_
+#define LOD_GROUP_H_
+
+#include <mutex>
+#include <vector>
+#include "glm/glm.hpp"
+#include "objects/components/component.h"
+
+namespace gvr {
+class SceneObject;
+
+/*
+ * Each level of detail is a child of the owner with a threshold.
+ * The selected level is the one with the largest threshold which
+ * is not greater than the metric of the owner:
+ * - the squared distance from the camera to the center of its
+ *   bounding volume for distance ranges
+ * - the inverse of its squared height on the screen for screen sizes
+ *
+ * The level is selected by the renderer while culling. The levels
+ * which are not selected are hidden so the renderer skips them.
+ */
+class LODGroup : public Component {
+public:
+    LODGroup();
+    virtual ~LODGroup() { }
+
+    static long long getComponentType() {
+        return COMPONENT_TYPE_LOD_GROUP;
+    }
+
+    /*
+     * Show the level when the owner is farther than range from the camera.
+     */
+    void addRange(float range, SceneObject* level);
+
+    /*
+     * Show the level when the height of the owner's bounding sphere is at
+     * most screen_size, as a fraction of the height of the viewport.
+     */
+    void addScreenSize(float screen_size, SceneObject* level);
+
+    /*
+     * A level only changes when the metric has moved past
+     * the threshold by this fraction of its value.
+     */
+    void setHysteresis(float hysteresis);
+
+    int getCurrentLevel() const {
+        return mCurrentLevel;
+    }
+
+    /*
+     * Select the level to render for the camera at position.
+     * projection_scale is the element [1][1] of its projection
+     * matrix, needed to compute sizes on the screen.
+     */
+    void selectLevel(const glm::vec3& position, float projection_scale);
+
+    virtual void set_enable(bool enable);
+    virtual void onDetach(SceneObject* owner);
+
+private:
+    LODGroup(const LODGroup& lod_group) = delete;
+    LODGroup(LODGroup&& lod_group) = delete;
+    LODGroup& operator=(const LODGroup& lod_group) = delete;
+    LODGroup& operator=(LODGroup&& lod_group) = delete;
+
+    struct Level {
+        float threshold;
+        SceneObject* object;
+    };
+
+    void addLevel(float threshold, SceneObject* level);
+    int findLevel(float metric) const;
+    void showAllLevels();
+
+    std::mutex mLock;
+    std::vector<Level> mLevels;     // sorted by increasing threshold
+    float mHysteresis;
+    bool mUseScreenSize;
+    int mCurrentLevel;              // -1 if no level is selected
+    bool mHasSelection;
+};
+
+}
+#endif
@@ -114,6 +114,55 @@ namespace gvr
         return data;
     }
 
+/*
+ * Compute the world space bounds of the mesh.
+ *
+ * The box encloses the bounding sphere of the mesh rather than
+ * its bounding box because sphere queries against the mesh
+ * bounds are done with the bounding sphere.
+ *
+ * @param owner       SceneObject which owns this collider.
+ */
+    bool MeshCollider::getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& scale)
+    {
+        Mesh* mesh = mesh_;
+        RenderData* rd = owner->render_data();
+        Transform* t = owner->transform();
+
+        if ((mesh == NULL) && (rd != NULL))
+        {
+            mesh = rd->mesh();
+        }
+        if ((mesh == NULL) || (t == NULL))
+        {
+            return false;
+        }
+        const BoundingVolume& bounds = mesh->getBoundingVolume();
+        if (bounds.radius() <= 0)
+        {
+            return false;
+        }
+        glm::mat4 model_matrix = t->getModelMatrix();
+        transformBounds(model_matrix, bounds.center(), glm::vec3(bounds.radius()), minCorner, maxCorner);
+        scale = sphereScale(model_matrix);
+        return true;
+    }
+
+    /*
+     * The bounds come from the vertices of the mesh.
+     */
+    unsigned int MeshCollider::getBoundsDataVersion(SceneObject* owner)
+    {
+        Mesh* mesh = mesh_;
+        RenderData* rd = owner->render_data();
+
+        if ((mesh == NULL) && (rd != NULL))
+        {
+            mesh = rd->mesh();
+        }
+        return (mesh != NULL) ? mesh->getVertexBuffer()->getVersion() : 0;
+    }
+
 /*
  * Hit test the bounding sphere of the mesh against the input sphere.
  *
@@ -264,8 +313,16 @@ static void populateSurfaceCoords(const Mesh& mesh, ColliderData& colliderData)
     }
 }
 
+/*
+ * Meshes with fewer triangles are hit tested without
+ * building a triangle hierarchy.
+ */
+static const int MIN_BVH_TRIANGLES = 64;
+
 /*
  * Hit test the input ray against the triangles of the given mesh.
+ * Large meshes use the triangle hierarchy cached by the mesh,
+ * which finds the same triangle as testing all of them.
  * @param mesh  mesh to hit test
  * @param rayStart  start of the pick ray in model coordinates
  * @param rayDir    direction of the pick ray in model coordinates
@@ -275,7 +332,26 @@ static void populateSurfaceCoords(const Mesh& mesh, ColliderData& colliderData)
     ColliderData MeshCollider::isHit(const Mesh& mesh, const glm::vec3& rayStart, const glm::vec3& rayDir, bool pickCoordinates)
     {
         ColliderData data;
-        if (mesh.getVertexCount() > 0)
+        if ((mesh.getVertexCount() > 0) && (mesh.getIndexCount() >= 3 * MIN_BVH_TRIANGLES))
+        {
+            std::shared_ptr<TriangleBVH> bvh = mesh.getTriangleBVH();
+            glm::vec3 hitPos;
+            float distance;
+            int face = bvh->intersect(rayStart, rayDir, hitPos, distance);
+
+            if (face >= 0)
+            {
+                data.IsHit = true;
+                data.HitPosition = hitPos;
+                data.Distance = distance;
+                data.FaceIndex = face;
+                if (pickCoordinates)
+                {
+                    populateSurfaceCoords(mesh, data);
+                }
+            }
+        }
+        else if (mesh.getVertexCount() > 0)
         {
             mesh.forAllTriangles([&data, rayStart, rayDir](int iter, const float* v1, const float* v2, const float* v3) mutable
             {
@@ -46,6 +46,7 @@ public:
 
     void set_mesh(Mesh* mesh) {
         mesh_ = mesh;
+        invalidateBounds();
     }
 
     bool pickCoordinatesEnabled(){
@@ -54,9 +55,13 @@ public:
 
     ColliderData isHit(SceneObject* owner, const float sphere[]);
     ColliderData isHit(SceneObject* owner, const glm::vec3& rayStart, const glm::vec3& rayDir);
+    bool getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& sphereScale);
+    unsigned int getBoundsDataVersion(SceneObject* owner);
     static ColliderData isHit(const BoundingVolume& bounds, const glm::vec3& rayStart, const glm::vec3& rayDir);
     static ColliderData isHit(const BoundingVolume& bounds, const float sphere[]);
     static ColliderData isHit(const Mesh& mesh, const float sphere[]);
+    static float rayTriangleIntersect(glm::vec3& hitPos, const glm::vec3& rayStart, const glm::vec3& rayDir,
+                               const glm::vec3& V1, const glm::vec3& V2, const glm::vec3& V3);
 
 private:
     MeshCollider(const MeshCollider& mesh_collider) = delete;
@@ -64,8 +69,6 @@ private:
     MeshCollider& operator=(const MeshCollider& mesh_collider) = delete;
     MeshCollider& operator=(MeshCollider&& mesh_collider) = delete;
     static ColliderData isHit(const Mesh& mesh, const glm::vec3& rayStart, const glm::vec3& rayDir, bool pickCoordinates);
-    static float rayTriangleIntersect(glm::vec3& hitPos, const glm::vec3& rayStart, const glm::vec3& rayDir,
-                               const glm::vec3& V1, const glm::vec3& V2, const glm::vec3& V3);
 private:
     bool useMeshBounds_;
     bool pickCoordinates_;
@@ -85,6 +85,7 @@ void RenderData::set_mesh(Mesh* mesh)
         SceneObject* owner = owner_object();
         if (owner)
         {
+            owner->invalidateBounds();
             owner->dirtyHierarchicalBoundingVolume();
         }
     }
@@ -120,6 +121,24 @@ void RenderData::adjustRenderingOrderForTransparency(bool hasAlpha)
 void RenderData::setCameraDistanceLambda(std::function<float()> func)
 {
     cameraDistanceLambda_ = func;
+    camera_distance_dirty_ = false;
+}
+
+/*
+ * Squared distance between the camera position given to setCameraPosition
+ * and the center of the owner's bounding volume.
+ * This distance is used when sorting transparent objects.
+ */
+float RenderData::computeCameraDistance()
+{
+    SceneObject* owner = owner_object();
+    if (nullptr == owner)
+    {
+        return camera_distance_;
+    }
+    BoundingVolume& bounding_volume = owner->getBoundingVolume();
+    glm::vec3 difference = bounding_volume.center() - camera_position_;
+    return glm::dot(difference, difference);
 }
 
 void RenderData::setStencilFunc(int func, int ref, int mask) {
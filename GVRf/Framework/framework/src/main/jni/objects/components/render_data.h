@@ -347,9 +347,26 @@ public:
             camera_distance_ = cameraDistanceLambda_();
             cameraDistanceLambda_ = nullptr;
         }
+        else if (camera_distance_dirty_)
+        {
+            camera_distance_ = computeCameraDistance();
+            camera_distance_dirty_ = false;
+        }
         return camera_distance_;
     }
 
+    /*
+     * Records the camera position so the camera distance can be
+     * calculated on demand. Unlike setCameraDistanceLambda this
+     * does not allocate, so it can be called every frame.
+     */
+    void setCameraPosition(const glm::vec3& camera_position)
+    {
+        camera_position_ = camera_position;
+        camera_distance_dirty_ = true;
+        cameraDistanceLambda_ = nullptr;
+    }
+
     void set_draw_mode(GLenum draw_mode)
     {
         render_data_flags.draw_mode_ = draw_mode;
@@ -366,6 +383,7 @@ public:
     int             get_shader(bool useMultiview =false, int pass =0) const { return render_pass_list_[pass]->get_shader(useMultiview); }
     const std::string&     getHashCode();
     void            setCameraDistanceLambda(std::function<float()> func);
+    float           computeCameraDistance();
 
     void setStencilFunc(int func, int ref, int mask);
 
@@ -414,6 +432,8 @@ protected:
     float sample_coverage_;
 
     float camera_distance_;
+    bool camera_distance_dirty_ = false;
+    glm::vec3 camera_position_;
     TextureCapturer *texture_capturer;
     std::function<float()> cameraDistanceLambda_ = nullptr;
 
@@ -147,6 +147,58 @@ ColliderData SphereCollider::isHit(SceneObject* owner, const float sphere[])
     return data;
 }
 
+/*
+ * Compute the world space bounds of the collision sphere.
+ * The center and radius of the sphere are determined
+ * the same way as in isHit.
+ * @param owner       SceneObject which owns this collider.
+ */
+bool SphereCollider::getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& scale)
+{
+    glm::vec3    sphCenter(0, 0, 0);
+    float        radius = radius_;
+    RenderData*  rd = owner->render_data();
+    Transform*   t = owner->transform();
+
+    if (t == NULL)
+    {
+        return false;
+    }
+    if (rd != NULL)
+    {
+        Mesh* mesh = rd->mesh();
+        if (mesh != NULL)
+        {
+            const BoundingVolume& meshbv = mesh->getBoundingVolume();
+            sphCenter = meshbv.center();
+            if (radius <= 0)
+            {
+                radius = meshbv.radius();
+            }
+        }
+    }
+    if (radius <= 0)
+    {
+        radius = 1;
+    }
+    glm::mat4 model_matrix = t->getModelMatrix();
+    transformBounds(model_matrix, sphCenter, glm::vec3(radius), minCorner, maxCorner);
+    scale = sphereScale(model_matrix);
+    return true;
+}
+
+/*
+ * The center of the sphere, and its radius if none is set,
+ * come from the vertices of the mesh of the owner.
+ */
+unsigned int SphereCollider::getBoundsDataVersion(SceneObject* owner)
+{
+    RenderData* rd = owner->render_data();
+    Mesh* mesh = (rd != NULL) ? rd->mesh() : NULL;
+
+    return (mesh != NULL) ? mesh->getVertexBuffer()->getVersion() : 0;
+}
+
 /*
  * Determine if the ray hits the collider.
  * @param model_matrix  matrix to transform model to world coordinates
@@ -43,6 +43,7 @@ public:
     void set_radius(float r)
     {
         radius_ = r;
+        invalidateBounds();
     }
 
     float get_radius()
@@ -52,6 +53,8 @@ public:
 
     ColliderData isHit(SceneObject* owner, const glm::vec3& rayStart, const glm::vec3& rayDir);
     ColliderData isHit(SceneObject* owner, const float sphere[]);
+    bool getWorldBounds(SceneObject* owner, glm::vec3& minCorner, glm::vec3& maxCorner, float& sphereScale);
+    unsigned int getBoundsDataVersion(SceneObject* owner);
 
     static ColliderData isHit(Mesh& mesh, const glm::mat4& model_matrix, const glm::vec3& rayStart, const glm::vec3& rayDir);
     static ColliderData isHit(const glm::mat4& model_matrix, const glm::vec3& center, float radius, const glm::vec3& rayStart, const glm::vec3& rayDir);
@@ -74,6 +74,7 @@ namespace gvr {
         dest = reinterpret_cast<unsigned short*>(mIndexData);
         memcpy(dest, src, srcSize * sizeof(short));
         mIsDirty = true;
+        ++mVersion;
         return true;
     }
 
@@ -99,6 +100,7 @@ namespace gvr {
         dest = reinterpret_cast<unsigned int*>(mIndexData);
         memcpy(dest, src, srcSize * sizeof(int));
         mIsDirty = true;
+        ++mVersion;
         return true;
     }
 
@@ -87,6 +87,12 @@ namespace gvr {
         bool    getShortVec(unsigned short* dest, int destSize) const;
 
         bool            isDirty() const { return mIsDirty; }
+
+        /**
+         * Return a number which changes whenever index data is set.
+         * Used to detect when data derived from the indices is stale.
+         */
+        unsigned int    getVersion() const { return mVersion; }
         virtual bool    bindBuffer(Shader*) = 0;
         virtual bool    updateGPU(Renderer*) = 0;
         void            dump() const;
@@ -100,6 +106,7 @@ namespace gvr {
         int     mIndexByteSize;     // index size in bytes (either 2 or 4)
         int     mIndexCount;        // current number of vertices
         char*   mIndexData;         // index data buffer
+        unsigned int mVersion = 0;  // incremented when index data changes
     };
 
 
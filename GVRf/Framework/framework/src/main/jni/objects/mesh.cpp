@@ -74,6 +74,21 @@ namespace gvr
         return bounding_volume;
     }
 
+    std::shared_ptr<TriangleBVH> Mesh::getTriangleBVH() const
+    {
+        std::lock_guard<std::mutex> lock(mTriangleBVHLock);
+
+        if ((mVertices == nullptr) || (mIndices == nullptr) || (mIndices->getIndexCount() < 3))
+        {
+            return nullptr;
+        }
+        if ((mTriangleBVH == nullptr) || !mTriangleBVH->isValid(mVertices, mIndices))
+        {
+            mTriangleBVH = std::make_shared<TriangleBVH>(mVertices, mIndices);
+        }
+        return mTriangleBVH;
+    }
+
     void Mesh::getTransformedBoundingBoxInfo(glm::mat4 *Mat, float* transformed_bounding_box)
     {
         if (!have_bounding_volume_)
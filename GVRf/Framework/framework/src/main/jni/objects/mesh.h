@@ -22,6 +22,7 @@
 
 #include <map>
 #include <memory>
+#include <mutex>
 #include <vector>
 #include <string>
 #include <set>
@@ -34,6 +35,7 @@
 #include "objects/bounding_volume.h"
 #include "objects/vertex_buffer.h"
 #include "objects/index_buffer.h"
+#include "objects/triangle_bvh.h"
 #include "bounding_volume.h"
 
 namespace gvr {
@@ -88,6 +90,15 @@ public:
 
     bool isDirty() const { return mVertices->isDirty(); }
 
+    /*
+     * Get the hierarchy over the triangles of this mesh
+     * used to speed up hit testing. It is built the first
+     * time it is needed and again whenever the vertices
+     * or indices change.
+     * Returns null if the mesh has no triangles.
+     */
+    std::shared_ptr<TriangleBVH> getTriangleBVH() const;
+
 private:
     Mesh(const Mesh& mesh) = delete;
     Mesh(Mesh&& mesh) = delete;
@@ -99,6 +110,8 @@ protected:
     VertexBuffer* mVertices;
     bool have_bounding_volume_;
     BoundingVolume bounding_volume;
+    mutable std::mutex mTriangleBVHLock;
+    mutable std::shared_ptr<TriangleBVH> mTriangleBVH;
 };
 }
 #endif
\ No newline at end of file
@@ -23,6 +23,8 @@
 #include "engine/exporter/exporter.h"
 #include "gl/gl_material.h"
 #include "objects/components/shadow_map.h"
+#include "objects/components/billboard.h"
+#include "objects/components/perspective_camera.h"
 
 namespace gvr {
 
@@ -36,7 +38,12 @@ Scene::Scene() :
         frustum_flag_(false),
         dirtyFlag_(0),
         occlusion_flag_(false),
-        pick_visible_(true)
+        flat_cull_flag_(false),
+        pick_visible_(true),
+        flattened_root_(nullptr),
+        flattened_version_(0),
+        visible_count_(0),
+        colliders_version_(0)
 
 { }
 
@@ -119,23 +126,56 @@ void Scene::clearAllColliders() {
     lockColliders();
     allColliders.clear();
     visibleColliders.clear();
+    visible_count_ = 0;
+    ++colliders_version_;
+    collider_bvh_.clear();
     unlockColliders();
 }
 
+/*
+ * The visible colliders are written over the list of the previous
+ * frame so the version only changes if the list is different.
+ * unlockColliders removes the colliders left over from that list.
+ */
 void Scene::pick(SceneObject* sceneobj) {
     if (pick_visible_) {
          Collider* collider = static_cast<Collider*>(sceneobj->getComponent(Collider::getComponentType()));
         if (collider) {
-            visibleColliders.push_back(collider);
+            if (visible_count_ >= visibleColliders.size()) {
+                visibleColliders.push_back(collider);
+                ++colliders_version_;
+            } else if (visibleColliders[visible_count_] != collider) {
+                visibleColliders[visible_count_] = collider;
+                ++colliders_version_;
+            }
+            ++visible_count_;
         }
      }
 }
 
+void Scene::setPickVisible(bool pickflag) {
+    lockColliders();
+    if (pick_visible_ != pickflag) {
+        pick_visible_ = pickflag;
+        ++colliders_version_;
+    }
+    unlockColliders();
+}
+
+void Scene::unlockColliders() {
+    if (visibleColliders.size() > visible_count_) {
+        visibleColliders.resize(visible_count_);
+        ++colliders_version_;
+    }
+    collider_mutex_.unlock();
+}
+
 void Scene::addCollider(Collider* collider) {
     auto it = std::find(allColliders.begin(), allColliders.end(), collider);
     if (it == allColliders.end()) {
         lockColliders();
         allColliders.push_back(collider);
+        ++colliders_version_;
         unlockColliders();
     }
 }
@@ -145,10 +185,47 @@ void Scene::removeCollider(Collider* collider) {
     if (it != allColliders.end()) {
         lockColliders();
         allColliders.erase(it);
+        ++colliders_version_;
         unlockColliders();
     }
 }
 
+void Scene::addBillboard(Billboard* billboard) {
+    std::lock_guard<std::mutex> lock(billboard_mutex_);
+    auto it = std::find(billboards_.begin(), billboards_.end(), billboard);
+    if (it == billboards_.end()) {
+        billboards_.push_back(billboard);
+    }
+}
+
+void Scene::removeBillboard(Billboard* billboard) {
+    std::lock_guard<std::mutex> lock(billboard_mutex_);
+    auto it = std::find(billboards_.begin(), billboards_.end(), billboard);
+    if (it != billboards_.end()) {
+        billboards_.erase(it);
+    }
+}
+
+void Scene::updateBillboards() {
+    std::lock_guard<std::mutex> lock(billboard_mutex_);
+    if (billboards_.empty() || (main_camera_rig_ == nullptr)) {
+        return;
+    }
+    Camera* camera = main_camera_rig_->center_camera();
+    SceneObject* owner = (camera != nullptr) ? camera->owner_object() : nullptr;
+    Transform* transform = (owner != nullptr) ? owner->transform() : nullptr;
+    if (transform == nullptr) {
+        return;
+    }
+    glm::vec3 camera_position(transform->getModelMatrix()[3]);
+    for (auto it = billboards_.begin(); it != billboards_.end(); ++it) {
+        Billboard* billboard = *it;
+        if (billboard->enabled()) {
+            billboard->faceCamera(camera_position);
+        }
+    }
+}
+
 /**
  * Called when the main scene is first presented for render.
  */
@@ -164,6 +241,26 @@ std::vector<SceneObject*> Scene::getWholeSceneObjects() {
     return scene_objects;
 }
 
+bool Scene::updateFlattenedHierarchy() {
+    // read the version first so changes made while flattening cause another rebuild
+    unsigned int version = scene_root_ ? scene_root_->hierarchyVersion() : 0;
+
+    if ((flattened_root_ == scene_root_) && (flattened_version_ == version) &&
+        !flattened_objects_.empty()) {
+        return false;
+    }
+    flattened_objects_.clear();
+    flattened_parents_.clear();
+    flattened_subtree_ends_.clear();
+    if (scene_root_) {
+        scene_root_->flattenHierarchy(flattened_objects_, flattened_parents_,
+                                      flattened_subtree_ends_, -1);
+    }
+    flattened_root_ = scene_root_;
+    flattened_version_ = version;
+    return true;
+}
+
 void Scene::exportToFile(std::string filepath) {
     Exporter::writeToFile(this, filepath);
 }
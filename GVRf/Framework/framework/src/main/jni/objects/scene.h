@@ -31,12 +31,14 @@
 #include "engine/renderer/renderer.h"
 #include "objects/lightlist.h"
 #include "objects/scene_object.h"
+#include "engine/picker/collider_bvh.h"
 
 
 namespace gvr {
 
 class Light;
 class Collider;
+class Billboard;
 
 class Scene: public HybridObject {
 public:
@@ -63,6 +65,31 @@ public:
     void set_occlusion_culling( bool occlusion_flag){ occlusion_flag_ = occlusion_flag; }
     bool get_occlusion_culling(){ return occlusion_flag_; }
 
+    void set_flat_culling( bool flat_flag){ flat_cull_flag_ = flat_flag; }
+    bool get_flat_culling(){ return flat_cull_flag_; }
+
+    /*
+     * Rebuilds the depth first copy of the scene graph used by
+     * flat frustum culling if the hierarchy has changed.
+     * Returns true if it was rebuilt.
+     */
+    bool updateFlattenedHierarchy();
+
+    /*
+     * Scene objects in depth first order, starting with the root.
+     */
+    const std::vector<SceneObject*>& getFlattenedObjects() const { return flattened_objects_; }
+
+    /*
+     * Index of the parent of each flattened scene object, -1 for the root.
+     */
+    const std::vector<int>& getFlattenedParents() const { return flattened_parents_; }
+
+    /*
+     * Index just past the last descendant of each flattened scene object.
+     */
+    const std::vector<int>& getFlattenedSubtreeEnds() const { return flattened_subtree_ends_; }
+
     /*
      * Adds a new light to the scene.
      * Return true if light was added, false if already there or too many lights.
@@ -103,6 +130,12 @@ public:
         }
         return 0;
     }
+    int getNumberCullAllocations() {
+        if(nullptr!= gRenderer) {
+            return gRenderer->getNumberCullAllocations();
+        }
+        return 0;
+    }
 
     void exportToFile(std::string filepath);
 
@@ -122,7 +155,7 @@ public:
      * Enabling this feature incurs a small amount of overhead
      * during culling to gather the visible colliders.
      */
-    void setPickVisible(bool pickflag) { pick_visible_ = pickflag; }
+    void setPickVisible(bool pickflag);
 
     /*
      * Returns true if only visible objects are picked.
@@ -149,9 +182,11 @@ public:
      * Clear the visible collider list.
      * This list is constructed every frame during culling
      * to contain only the pickable objects that are visible.
+     * The colliders not picked again are removed from the
+     * list when it is unlocked.
      * This function does not lock the collider list!
      */
-    void clearVisibleColliders() { visibleColliders.clear(); }
+    void clearVisibleColliders() { visible_count_ = 0; }
 
     /*
      * Called during culling to add a scene object's
@@ -170,13 +205,42 @@ public:
         return pick_visible_ ? visibleColliders : allColliders;
     }
 
+    /*
+     * Get the bounding volume hierarchy for the colliders
+     * returned by lockColliders, updated to match them.
+     * Only call this while the colliders are locked.
+     */
+    ColliderBVH& getColliderBVH(const std::vector<Component*>& colliders) {
+        collider_bvh_.update(colliders, colliders_version_);
+        return collider_bvh_;
+    }
+
     /*
      * Unlock the collider list.
      * Don't call this unless you have called lockColliders first.
      */
-    void unlockColliders() {
-        collider_mutex_.unlock();
-    }
+    void unlockColliders();
+
+    /*
+     * Add a billboard to the list of billboards which
+     * are turned toward the camera every frame.
+     * Billboards are added to this list when attached
+     * to a scene object in the scene.
+     */
+    void addBillboard(Billboard* billboard);
+
+    /*
+     * Remove a billboard from the billboard list.
+     * Billboards are removed from the list when detached
+     * from a scene object.
+     */
+    void removeBillboard(Billboard* billboard);
+
+    /*
+     * Turn all the billboards toward the center camera of the
+     * main camera rig. Called once every frame before culling.
+     */
+    void updateBillboards();
 
     JavaVM* getJavaVM() const { return javaVM_; }
 
@@ -211,11 +275,22 @@ private:
     int dirtyFlag_;
     bool frustum_flag_;
     bool occlusion_flag_;
+    bool flat_cull_flag_;
     bool pick_visible_;
+    SceneObject* flattened_root_;
+    unsigned int flattened_version_;
+    std::vector<SceneObject*> flattened_objects_;
+    std::vector<int> flattened_parents_;
+    std::vector<int> flattened_subtree_ends_;
     std::mutex collider_mutex_;
     LightList lights_;
     std::vector<Component*> allColliders;
     std::vector<Component*> visibleColliders;
+    int visible_count_;
+    unsigned int colliders_version_;    // changed when the collider list changes
+    ColliderBVH collider_bvh_;
+    std::mutex billboard_mutex_;
+    std::vector<Billboard*> billboards_;
 };
 
 }
@@ -49,6 +49,12 @@ extern "C" {
     JNIEXPORT void JNICALL
     Java_org_gearvrf_NativeScene_setOcclusionQuery(JNIEnv * env,
             jobject obj, jlong jscene, jboolean flag);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeScene_setFlatCulling(JNIEnv * env,
+            jobject obj, jlong jscene, jboolean flag);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeScene_setCullThreadCount(JNIEnv * env,
+            jobject obj, jint num_threads);
 
     JNIEXPORT void JNICALL
     Java_org_gearvrf_NativeScene_resetStats(JNIEnv * env,
@@ -66,6 +72,10 @@ extern "C" {
     Java_org_gearvrf_NativeScene_getNumberTriangles(JNIEnv * env,
             jobject obj, jlong jscene);
 
+    JNIEXPORT int JNICALL
+    Java_org_gearvrf_NativeScene_getNumberCullAllocations(JNIEnv * env,
+            jobject obj, jlong jscene);
+
     JNIEXPORT jobjectArray JNICALL
     Java_org_gearvrf_NativeScene_getLightList(JNIEnv* env, jobject obj, jlong scene);
 
@@ -149,6 +159,19 @@ Java_org_gearvrf_NativeScene_setOcclusionQuery(JNIEnv * env,
     scene->set_occlusion_culling(static_cast<bool>(flag));
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setFlatCulling(JNIEnv * env,
+        jobject obj, jlong jscene, jboolean flag) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    scene->set_flat_culling(static_cast<bool>(flag));
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setCullThreadCount(JNIEnv * env,
+        jobject obj, jint num_threads) {
+    Renderer::getInstance()->setCullThreadCount(num_threads);
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_resetStats(JNIEnv * env,
         jobject obj, jlong jscene) {
@@ -172,6 +195,13 @@ Java_org_gearvrf_NativeScene_getNumberTriangles(JNIEnv * env,
     return scene->getNumberTriangles();
 }
 
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberCullAllocations(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getNumberCullAllocations();
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_exportToFile(JNIEnv * env,
         jobject obj, jlong jscene, jstring filepath) {
@@ -30,8 +30,9 @@ namespace gvr {
 
 SceneObject::SceneObject() :
         HybridObject(), name_(""), children_(), visible_(true), transform_dirty_(false), in_frustum_(
-                false),  enabled_(true),query_currently_issued_(false), vis_count_(0),
-                cull_status_(false), bounding_volume_dirty_(true) {
+                false),  enabled_(true), lod_hidden_(false), query_currently_issued_(false), vis_count_(0),
+                cull_status_(false), bounding_volume_dirty_(true), bounds_version_(0),
+                hierarchy_version_(0) {
 
     // Occlusion query setup
     queries_ = new GLuint[1];
@@ -49,6 +50,7 @@ bool SceneObject::attachComponent(Component* component) {
     }
     component->set_owner_object(this);
     components_.push_back(component);
+    invalidateBounds();
     SceneObject* par = parent();
     if (par)
     {
@@ -98,6 +100,7 @@ Component* SceneObject::detachComponent(long long type)
             }
             component->set_owner_object(NULL);
             components_.erase(it);
+            invalidateBounds();
             return component;
         }
     }
@@ -147,6 +150,7 @@ void SceneObject::addChildObject(SceneObject* self, SceneObject* child) {
         std::lock_guard < std::mutex > lock(children_mutex_);
         children_.push_back(child);
     }
+    invalidateHierarchy();
     child->parent_ = self;
     child->onTransformChanged();
 }
@@ -244,8 +248,11 @@ void SceneObject::removeChildObject(SceneObject* child)
             std::lock_guard < std::mutex > lock(children_mutex_);
             children_.erase(std::remove(children_.begin(), children_.end(), child), children_.end());
         }
+        invalidateHierarchy();
         child->parent_ = NULL;
+        child->set_lod_hidden(false);   // only hidden by the LOD group of its parent
         child->onTransformChanged();
+        dirtyHierarchicalBoundingVolume();
     }
 }
 
@@ -257,6 +264,7 @@ void SceneObject::onTransformChanged()
         t->invalidate();
     }
     setTransformDirty();
+    invalidateBounds();
     dirtyHierarchicalBoundingVolume();
     if (getChildrenCount() > 0)
     {
@@ -291,6 +299,7 @@ void SceneObject::clear()
         child->onTransformChanged();
     }
     children_.clear();
+    invalidateHierarchy();
 }
 
 int SceneObject::getChildrenCount() const {
@@ -315,12 +324,44 @@ void SceneObject::getDescendants(std::vector<SceneObject*>& descendants) {
     }
 }
 
+/*
+ * Appends this object and all of its descendants to the given arrays in
+ * depth first order. For each object, parents holds the index of its parent
+ * (-1 for this object) and subtree_ends holds the index just past its
+ * last descendant, so a whole subtree can be skipped in one step.
+ */
+void SceneObject::flattenHierarchy(std::vector<SceneObject*>& objects, std::vector<int>& parents,
+                                   std::vector<int>& subtree_ends, int parent_index) {
+    int index = objects.size();
+    objects.push_back(this);
+    parents.push_back(parent_index);
+    subtree_ends.push_back(index + 1);
+    {
+        std::lock_guard < std::mutex > lock(children_mutex_);
+        for (auto it = children_.begin(); it != children_.end(); ++it) {
+            (*it)->flattenHierarchy(objects, parents, subtree_ends, index);
+        }
+    }
+    subtree_ends[index] = objects.size();
+}
+
+void SceneObject::invalidateHierarchy() {
+    for (SceneObject* obj = this; obj != NULL; obj = obj->parent_) {
+        ++obj->hierarchy_version_;
+    }
+}
+
 void SceneObject::dirtyHierarchicalBoundingVolume() {
     if (bounding_volume_dirty_) {
         return;
     }
 
     bounding_volume_dirty_ = true;
+    /*
+     * Colliders bounded by the hierarchical bounding
+     * volume of this object must be refit.
+     */
+    invalidateBounds();
 
     if (parent_ != NULL) {
         parent_->dirtyHierarchicalBoundingVolume();
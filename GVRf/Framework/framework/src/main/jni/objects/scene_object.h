@@ -21,6 +21,7 @@
 #define SCENE_OBJECT_H_
 
 #include <algorithm>
+#include <atomic>
 #include <mutex>
 
 #include "objects/hybrid_object.h"
@@ -30,6 +31,7 @@
 #include "objects/components/camera.h"
 #include "objects/components/camera_rig.h"
 #include "objects/components/collider.h"
+#include "objects/components/lod_group.h"
 #include "objects/bounding_volume.h"
 #include "util/gvr_gl.h"
 
@@ -58,6 +60,33 @@ public:
         enabled_ = enable;
     }
 
+    /*
+     * Set by the LODGroup of the parent when this object
+     * is a level of detail which is not selected.
+     * Hidden objects and their children are culled
+     * and cannot be picked.
+     */
+    bool lod_hidden() const {
+        return lod_hidden_;
+    }
+
+    /*
+     * Determine if this object or one of its
+     * ancestors is a hidden level of detail.
+     */
+    bool isLODHidden() const {
+        for (const SceneObject* object = this; object != nullptr; object = object->parent_) {
+            if (object->lod_hidden_) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void set_lod_hidden(bool hidden) {
+        lod_hidden_ = hidden;
+    }
+
     void set_in_frustum(bool in_frustum = true) {
         in_frustum_ = in_frustum;
     }
@@ -100,6 +129,10 @@ public:
         return (CameraRig*) getComponent(CameraRig::getComponentType());
     }
 
+    LODGroup* lod_group() const {
+        return (LODGroup*) getComponent(LODGroup::getComponentType());
+    }
+
     SceneObject* parent() const {
         return parent_;
     }
@@ -129,6 +162,31 @@ public:
     void addChildObject(SceneObject* self, SceneObject* child);
     void removeChildObject(SceneObject* child);
     void getDescendants(std::vector<SceneObject*>& descendants);
+    void flattenHierarchy(std::vector<SceneObject*>& objects, std::vector<int>& parents,
+                          std::vector<int>& subtree_ends, int parent_index);
+
+    /*
+     * Incremented whenever a child is added to or removed from
+     * this scene object or any of its descendants. Used to detect
+     * when cached copies of this subtree must be rebuilt.
+     */
+    unsigned int hierarchyVersion() const {
+        return hierarchy_version_.load();
+    }
+
+    /*
+     * Incremented whenever the world space bounds of this object,
+     * of its colliders or of its subtree may have changed. Used to
+     * detect when cached bounds of this object must be recomputed.
+     * Changes to the vertices of a mesh are not included.
+     */
+    unsigned int boundsVersion() const {
+        return bounds_version_.load();
+    }
+
+    void invalidateBounds() {
+        ++bounds_version_;
+    }
     void clear();
     int getChildrenCount() const;
     SceneObject* getChildByIndex(int index);
@@ -165,6 +223,7 @@ private:
     int vis_count_;
     bool visible_;
     bool enabled_;
+    bool lod_hidden_;
     bool in_frustum_;
     bool query_currently_issued_;
     GLuint *queries_ = nullptr;
@@ -182,7 +241,11 @@ private:
     bool checkAABBVsFrustumBasic(const float frustum[6][4],
             BoundingVolume &bounding_volume);
 
+    void invalidateHierarchy();
+
     std::mutex children_mutex_;
+    std::atomic<unsigned int> bounds_version_;
+    std::atomic<unsigned int> hierarchy_version_;
 };
 
 }
@@ -0,0 +1,368 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Bounding volume hierarchy over the triangles of a mesh.
+ ***************************************************************************/
+
+#include "triangle_bvh.h"
+
+#include <algorithm>
+#include <cmath>
+#include <limits>
+
+#include "objects/vertex_buffer.h"
+#include "objects/index_buffer.h"
+#include "objects/components/mesh_collider.h"
+
+namespace gvr {
+
+static const int MAX_LEAF_TRIANGLES = 4;    // always split nodes with more triangles
+static const int MAX_SAH_TRIANGLES = 16;    // nodes with more are split even if it costs more
+static const int MAX_DEPTH = 48;            // deeper nodes are always leaves
+static const int NUM_BINS = 16;             // number of split positions evaluated per node
+
+/*
+ * Relative amount boxes are enlarged by to cover rounding
+ * differences between the box and triangle intersections.
+ */
+static const float EPSILON = 1e-5f;
+
+static float surfaceArea(const glm::vec3& minCorner, const glm::vec3& maxCorner)
+{
+    glm::vec3 d = maxCorner - minCorner;
+    return d.x * d.y + d.y * d.z + d.z * d.x;
+}
+
+/*
+ * Compute where a ray enters a box.
+ * Returns false if the part of the ray in front of
+ * its origin does not pass through the box.
+ */
+static bool rayHitsBox(const glm::vec3& start, const glm::vec3& invDir,
+                       const glm::vec3& minCorner, const glm::vec3& maxCorner, float& tnear)
+{
+    float tmin = 0;
+    float tmax = std::numeric_limits<float>::infinity();
+
+    for (int i = 0; i < 3; ++i)
+    {
+        if (!std::isfinite(invDir[i]))          // ray parallel to this axis
+        {
+            if ((start[i] < minCorner[i]) || (start[i] > maxCorner[i]))
+            {
+                return false;
+            }
+            continue;
+        }
+        float t1 = (minCorner[i] - start[i]) * invDir[i];
+        float t2 = (maxCorner[i] - start[i]) * invDir[i];
+
+        tmin = std::max(tmin, std::min(t1, t2));
+        tmax = std::min(tmax, std::max(t1, t2));
+        if (tmin > tmax)
+        {
+            return false;
+        }
+    }
+    tnear = tmin;
+    return true;
+}
+
+TriangleBVH::TriangleBVH(const VertexBuffer* vbuf, const IndexBuffer* ibuf) :
+        vertices_(vbuf),
+        indices_(ibuf),
+        vertex_version_(vbuf->getVersion()),
+        index_version_(ibuf->getVersion())
+{
+    int numFaces = ibuf->getIndexCount() / 3;
+    std::vector<glm::vec3> mins(numFaces);
+    std::vector<glm::vec3> maxs(numFaces);
+
+    faces_.resize(numFaces);
+    for (int f = 0; f < numFaces; ++f)
+    {
+        glm::vec3 v1, v2, v3;
+
+        getTriangle(f, v1, v2, v3);
+        mins[f] = glm::min(v1, glm::min(v2, v3));
+        maxs[f] = glm::max(v1, glm::max(v2, v3));
+        faces_[f] = f;
+    }
+    if (numFaces > 0)
+    {
+        nodes_.reserve(2 * numFaces / MAX_LEAF_TRIANGLES + 1);
+        nodes_.push_back(Node());
+        build(0, 0, numFaces, 0, mins, maxs);
+    }
+}
+
+bool TriangleBVH::isValid(const VertexBuffer* vbuf, const IndexBuffer* ibuf) const
+{
+    return (vbuf == vertices_) && (ibuf == indices_) &&
+           (vbuf->getVersion() == vertex_version_) &&
+           (ibuf->getVersion() == index_version_);
+}
+
+/*
+ * Get the vertex positions of a triangle the same
+ * way as Mesh::forAllTriangles does.
+ */
+void TriangleBVH::getTriangle(int face, glm::vec3& v1, glm::vec3& v2, glm::vec3& v3) const
+{
+    const float* vertData = vertices_->getVertexData();
+    int stride = vertices_->getVertexSize();
+    const float* V1;
+    const float* V2;
+    const float* V3;
+
+    if (indices_->getIndexSize() == 2)
+    {
+        const unsigned short* intData = reinterpret_cast<const unsigned short*>(indices_->getIndexData()) + 3 * face;
+        V1 = vertData + (stride * intData[0]);
+        V2 = vertData + (stride * intData[1]);
+        V3 = vertData + (stride * intData[2]);
+    }
+    else
+    {
+        const unsigned int* intData = indices_->getIndexData() + 3 * face;
+        V1 = vertData + (stride * intData[0]);
+        V2 = vertData + (stride * intData[1]);
+        V3 = vertData + (stride * intData[2]);
+    }
+    v1 = glm::vec3(V1[0], V1[1], V1[2]);
+    v2 = glm::vec3(V2[0], V2[1], V2[2]);
+    v3 = glm::vec3(V3[0], V3[1], V3[2]);
+}
+
+/*
+ * Build the subtree for the triangles faces_[begin, end).
+ * The triangles are split where the surface area heuristic
+ * estimates the cheapest traversal, evaluated at a fixed
+ * number of positions along the longest axis.
+ */
+void TriangleBVH::build(int node, int begin, int end, int depth,
+                        const std::vector<glm::vec3>& mins,
+                        const std::vector<glm::vec3>& maxs)
+{
+    glm::vec3 minCorner(std::numeric_limits<float>::infinity());
+    glm::vec3 maxCorner(-std::numeric_limits<float>::infinity());
+    glm::vec3 minCenter(std::numeric_limits<float>::infinity());
+    glm::vec3 maxCenter(-std::numeric_limits<float>::infinity());
+    int count = end - begin;
+
+    for (int i = begin; i < end; ++i)
+    {
+        int f = faces_[i];
+        glm::vec3 center = mins[f] + maxs[f];
+
+        minCorner = glm::min(minCorner, mins[f]);
+        maxCorner = glm::max(maxCorner, maxs[f]);
+        minCenter = glm::min(minCenter, center);
+        maxCenter = glm::max(maxCenter, center);
+    }
+    glm::vec3 size = glm::max(glm::abs(minCorner), glm::abs(maxCorner));
+    float pad = EPSILON * std::max(1.0f, std::max(size.x, std::max(size.y, size.z)));
+
+    nodes_[node].min_corner = minCorner - pad;
+    nodes_[node].max_corner = maxCorner + pad;
+    nodes_[node].first = begin;
+    nodes_[node].count = count;
+
+    glm::vec3 extent = maxCenter - minCenter;
+    int axis = (extent.x > extent.y) ? ((extent.x > extent.z) ? 0 : 2) : ((extent.y > extent.z) ? 1 : 2);
+
+    if ((count <= MAX_LEAF_TRIANGLES) || (depth >= MAX_DEPTH) || !(extent[axis] > 0))
+    {
+        return;
+    }
+    /*
+     * Sort the triangle centers into bins and evaluate
+     * the cost of splitting between each pair of bins.
+     */
+    float scale = NUM_BINS / extent[axis];
+    int binCount[NUM_BINS] = { 0 };
+    glm::vec3 binMin[NUM_BINS];
+    glm::vec3 binMax[NUM_BINS];
+    float rightCost[NUM_BINS];
+
+    for (int b = 0; b < NUM_BINS; ++b)
+    {
+        binMin[b] = glm::vec3(std::numeric_limits<float>::infinity());
+        binMax[b] = glm::vec3(-std::numeric_limits<float>::infinity());
+    }
+    auto binOf = [&](int f)
+    {
+        int b = (int) ((mins[f][axis] + maxs[f][axis] - minCenter[axis]) * scale);
+        return std::min(std::max(b, 0), NUM_BINS - 1);
+    };
+    for (int i = begin; i < end; ++i)
+    {
+        int f = faces_[i];
+        int b = binOf(f);
+
+        ++binCount[b];
+        binMin[b] = glm::min(binMin[b], mins[f]);
+        binMax[b] = glm::max(binMax[b], maxs[f]);
+    }
+    glm::vec3 accMin(std::numeric_limits<float>::infinity());
+    glm::vec3 accMax(-std::numeric_limits<float>::infinity());
+    int accCount = 0;
+
+    for (int b = NUM_BINS - 1; b > 0; --b)
+    {
+        accCount += binCount[b];
+        accMin = glm::min(accMin, binMin[b]);
+        accMax = glm::max(accMax, binMax[b]);
+        rightCost[b] = (accCount > 0) ? accCount * surfaceArea(accMin, accMax) : 0;
+    }
+    accMin = glm::vec3(std::numeric_limits<float>::infinity());
+    accMax = glm::vec3(-std::numeric_limits<float>::infinity());
+    accCount = 0;
+
+    float bestCost = std::numeric_limits<float>::infinity();
+    int bestSplit = -1;
+
+    for (int b = 0; b < NUM_BINS - 1; ++b)
+    {
+        accCount += binCount[b];
+        accMin = glm::min(accMin, binMin[b]);
+        accMax = glm::max(accMax, binMax[b]);
+        if ((accCount == 0) || (accCount == count))
+        {
+            continue;
+        }
+        float cost = accCount * surfaceArea(accMin, accMax) + rightCost[b + 1];
+        if (cost < bestCost)
+        {
+            bestCost = cost;
+            bestSplit = b;
+        }
+    }
+    if ((count <= MAX_SAH_TRIANGLES) && (bestCost >= count * surfaceArea(minCorner, maxCorner)))
+    {
+        return;
+    }
+    int* first = faces_.data() + begin;
+    int* last = faces_.data() + end;
+    int* mid = first;
+
+    if (bestSplit >= 0)
+    {
+        mid = std::partition(first, last, [&](int f) { return binOf(f) <= bestSplit; });
+    }
+    if ((mid == first) || (mid == last))
+    {
+        mid = first + count / 2;
+        std::nth_element(first, mid, last, [&](int a, int b)
+        {
+            return (mins[a][axis] + maxs[a][axis]) < (mins[b][axis] + maxs[b][axis]);
+        });
+    }
+    int split = begin + (mid - first);
+    int child1 = nodes_.size();
+
+    nodes_.push_back(Node());
+    build(child1, begin, split, depth + 1, mins, maxs);
+
+    int child2 = nodes_.size();
+
+    nodes_.push_back(Node());
+    build(child2, split, end, depth + 1, mins, maxs);
+    nodes_[node].first = child2;
+    nodes_[node].count = 0;
+}
+
+int TriangleBVH::intersect(const glm::vec3& rayStart, const glm::vec3& rayDir,
+                           glm::vec3& hitPos, float& distance) const
+{
+    glm::vec3 invDir(1.0f / rayDir.x, 1.0f / rayDir.y, 1.0f / rayDir.z);
+    float closest = std::numeric_limits<float>::infinity();
+    int closestFace = -1;
+    int stack[MAX_DEPTH + 2];
+    int top = 0;
+    float tnear;
+
+    if (nodes_.empty() ||
+        !rayHitsBox(rayStart, invDir, nodes_[0].min_corner, nodes_[0].max_corner, tnear))
+    {
+        return -1;
+    }
+    stack[top++] = 0;
+    while (top > 0)
+    {
+        const Node& node = nodes_[stack[--top]];
+
+        if (node.count > 0)
+        {
+            for (int i = node.first; i < node.first + node.count; ++i)
+            {
+                int f = faces_[i];
+                glm::vec3 A, B, C, p;
+
+                getTriangle(f, A, B, C);
+                float t = MeshCollider::rayTriangleIntersect(p, rayStart, rayDir, A, B, C);
+                /*
+                 * Ties go to the lowest face index, as they do
+                 * when testing every triangle in order.
+                 */
+                if ((t > 0) && ((t < closest) || ((t == closest) && (f < closestFace))))
+                {
+                    closest = t;
+                    closestFace = f;
+                    hitPos = p;
+                }
+            }
+            continue;
+        }
+        /*
+         * Visit the nearer child first and skip children
+         * which start beyond the closest hit found so far.
+         */
+        int child1 = &node - nodes_.data() + 1;
+        int child2 = node.first;
+        float t1, t2;
+        bool hit1 = rayHitsBox(rayStart, invDir, nodes_[child1].min_corner, nodes_[child1].max_corner, t1) &&
+                    !(t1 > closest * (1.0f + EPSILON) + EPSILON);
+        bool hit2 = rayHitsBox(rayStart, invDir, nodes_[child2].min_corner, nodes_[child2].max_corner, t2) &&
+                    !(t2 > closest * (1.0f + EPSILON) + EPSILON);
+
+        if (hit1 && hit2)
+        {
+            if (t1 <= t2)
+            {
+                stack[top++] = child2;
+                stack[top++] = child1;
+            }
+            else
+            {
+                stack[top++] = child1;
+                stack[top++] = child2;
+            }
+        }
+        else if (hit1)
+        {
+            stack[top++] = child1;
+        }
+        else if (hit2)
+        {
+            stack[top++] = child2;
+        }
+    }
+    distance = closest;
+    return closestFace;
+}
+
+}
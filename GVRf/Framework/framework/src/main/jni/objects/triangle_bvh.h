@@ -0,0 +1,93 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Bounding volume hierarchy over the triangles of a mesh.
+ ***************************************************************************/
+
+#ifndef TRIANGLE_BVH_H_
+#define TRIANGLE_BVH_H_
+
+#include <vector>
+#include "glm/glm.hpp"
+
+namespace gvr {
+class VertexBuffer;
+class IndexBuffer;
+
+/*
+ * Static tree of axis aligned boxes over the triangles of a mesh
+ * used to speed up hit testing rays against large meshes.
+ *
+ * The tree refers to the vertex and index buffers it was built
+ * from and is only valid as long as their data is unchanged.
+ * Mesh keeps one per mesh and rebuilds it when either buffer
+ * has changed (@see Mesh::getTriangleBVH).
+ */
+class TriangleBVH {
+public:
+    TriangleBVH(const VertexBuffer* vbuf, const IndexBuffer* ibuf);
+
+    /*
+     * Determine if the tree was built from the current
+     * contents of the given vertex and index buffers.
+     */
+    bool isValid(const VertexBuffer* vbuf, const IndexBuffer* ibuf) const;
+
+    /*
+     * Find the triangle nearest to the origin of a ray.
+     * The result is the same as hit testing every triangle
+     * in order with MeshCollider::rayTriangleIntersect
+     * and keeping the first closest hit.
+     * @param rayStart  origin of ray in mesh coordinates
+     * @param rayDir    direction of ray in mesh coordinates
+     * @param hitPos    returns the hit point in mesh coordinates
+     * @param distance  returns the distance to the hit point
+     *                  in units of rayDir
+     * @returns index of the triangle hit or -1 if none
+     */
+    int intersect(const glm::vec3& rayStart, const glm::vec3& rayDir,
+                  glm::vec3& hitPos, float& distance) const;
+
+private:
+    TriangleBVH(const TriangleBVH&) = delete;
+    TriangleBVH& operator=(const TriangleBVH&) = delete;
+
+    /*
+     * Nodes are stored depth first so the first child of an
+     * interior node immediately follows it.
+     */
+    struct Node {
+        glm::vec3   min_corner;
+        int         first;      // first triangle (leaf) or second child
+        glm::vec3   max_corner;
+        int         count;      // number of triangles, 0 for interior nodes
+    };
+
+    void getTriangle(int face, glm::vec3& v1, glm::vec3& v2, glm::vec3& v3) const;
+    void build(int node, int begin, int end, int depth,
+               const std::vector<glm::vec3>& mins,
+               const std::vector<glm::vec3>& maxs);
+
+    const VertexBuffer* vertices_;
+    const IndexBuffer*  indices_;
+    unsigned int        vertex_version_;
+    unsigned int        index_version_;
+    std::vector<Node>   nodes_;
+    std::vector<int>    faces_;     // triangle indices in leaf order
+};
+
+}
+#endif
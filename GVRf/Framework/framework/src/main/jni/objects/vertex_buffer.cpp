@@ -7,6 +7,7 @@
 #include "vertex_buffer.h"
 #include "util/gvr_log.h"
 #include <sstream>
+#include <algorithm>
 
 namespace gvr {
 
@@ -150,11 +151,86 @@ namespace gvr {
             src += srcStride;
         }
         markDirty();
+        ++mVersion;
         attr->IsSet = true;
         return true;
     }
 
 
+    bool    VertexBuffer::setFloatVecRange(const char* attributeName, const float* src, int firstVertex, int numVerts, int srcStride)
+    {
+        std::lock_guard<std::mutex> lock(mLock);
+        DataEntry*      attr = find(attributeName);
+        float*          dest;
+        int             dstStride;
+        int             attrStride;
+
+        if (attr == NULL)
+        {
+            LOGE("VertexBuffer: ERROR attribute %s not found in vertex buffer", attributeName);
+            return false;
+        }
+        if (src == NULL)
+        {
+            LOGE("VertexBuffer: cannot set attribute %s, source array not found", attributeName);
+            return false;
+        }
+        if ((firstVertex < 0) || (numVerts < 0) || (firstVertex + numVerts > mVertexCount))
+        {
+            LOGE("VertexBuffer: cannot copy to vertex array %s, vertices %d to %d out of range", attributeName, firstVertex, firstVertex + numVerts);
+            return false;
+        }
+        attrStride = attr->Size / sizeof(float);    // # of floats in vertex attribute
+        if (srcStride == 0)
+        {
+            srcStride = attrStride;
+        }
+        else if (attrStride > srcStride)            // stride too small for this attribute?
+        {
+            LOGE("VertexBuffer: cannot copy to vertex array %s, stride is %d should be >= %d", attributeName, srcStride, attrStride);
+            return false;
+        }
+        dstStride = getTotalSize() / sizeof(float);
+        dest = reinterpret_cast<float*>(mVertexData) + attr->Offset / sizeof(float) + firstVertex * dstStride;
+
+        for (int i = 0; i < numVerts; ++i)
+        {
+            for (int j = 0; j < attrStride; ++j)
+            {
+                dest[j] = src[j];
+            }
+            dest += dstStride;
+            src += srcStride;
+        }
+        markDirty(firstVertex, numVerts);
+        ++mVersion;
+        attr->IsSet = true;
+        return true;
+    }
+
+    void VertexBuffer::markDirty()
+    {
+        mDirtyFirst = 0;
+        mDirtyEnd = mVertexCount;
+        mIsDirty = true;
+    }
+
+    void VertexBuffer::markDirty(int firstVertex, int numVerts)
+    {
+        if (!mIsDirty)
+        {
+            mDirtyFirst = firstVertex;
+            mDirtyEnd = firstVertex + numVerts;
+        }
+        else
+        {
+            mDirtyFirst = std::min(mDirtyFirst, firstVertex);
+            mDirtyEnd = std::max(mDirtyEnd, firstVertex + numVerts);
+        }
+        mIsDirty = true;
+    }
+
+
     bool    VertexBuffer::getFloatVec(const char* attributeName, float* dest, int destSize, int destStride) const
     {
         std::lock_guard<std::mutex> lock(mLock);
@@ -275,6 +351,7 @@ namespace gvr {
             src += srcStride;
         }
         markDirty();
+        ++mVersion;
         attr->IsSet = true;
         return true;
     }
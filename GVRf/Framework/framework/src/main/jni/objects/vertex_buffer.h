@@ -75,6 +75,23 @@ namespace gvr {
          */
         bool    setFloatVec(const char* attributeName, const float* src, int srcSize, int srcStride);
 
+        /**
+         * Set the values of a float vertex attribute for a range of vertices.
+         * Unlike setFloatVec, this cannot establish the number of vertices,
+         * the range must be within the vertices already in the buffer.
+         * Only the vertices in the range are uploaded to the GPU
+         * on the next render (OpenGL only).
+         *
+         * @param name        name of entry to set.
+         * @param src         pointer to float source data for the first vertex.
+         * @param firstVertex index of first vertex to set.
+         * @param numVerts    number of vertices to set.
+         * @param srcStride   number of floats to the next vertex, 0 for the attribute size.
+         * @returns true if successfully set, false on error.
+         * @see setFloatVec
+         */
+        bool    setFloatVecRange(const char* attributeName, const float* src, int firstVertex, int numVerts, int srcStride);
+
         /**
          * Gets all the values of a float vertex attribute.
          * If the named attribute is not a float vector in the descriptor
@@ -132,6 +149,24 @@ namespace gvr {
         bool            forAllVertices(std::function<void (int iter, const float* vertex)> func) const;
         bool            getInfo(const char* attributeName, int& index, int& offset, int& size) const;
         void            getBoundingVolume(BoundingVolume& bv) const;
+
+        /**
+         * Return a number which changes whenever vertex data is set.
+         * Used to detect when data derived from the vertices is stale.
+         */
+        unsigned int    getVersion() const  { return mVersion; }
+
+        /**
+         * Mark all of the vertices as changed.
+         */
+        virtual void    markDirty();
+
+        /**
+         * Mark a range of vertices as changed.
+         * The range is combined with any other vertices
+         * changed since the last GPU update.
+         */
+        void            markDirty(int firstVertex, int numVerts);
         virtual bool    updateGPU(Renderer*, IndexBuffer*, Shader*) = 0;
         virtual void    bindToShader(Shader* shader, IndexBuffer* ibuf) = 0;
         void            dump() const;
@@ -146,6 +181,9 @@ namespace gvr {
         int             mVertexCount;       // current number of vertices
         char*           mVertexData;        // vertex data buffer
         int             mBoneFlags = 0;     // indicates which vertex attributes are bones
+        unsigned int    mVersion = 0;       // incremented when vertex data changes
+        int             mDirtyFirst = 0;    // first vertex changed since last GPU update
+        int             mDirtyEnd = 0;      // one past the last vertex changed since last GPU update
     };
 
 } // end gvrf
@@ -61,6 +61,11 @@ namespace gvr {
                                                     jlong jvbuf, jstring attribName,
                                                     jfloatArray data, jint stride, jint ofs);
     JNIEXPORT bool JNICALL
+    Java_org_gearvrf_NativeVertexBuffer_setFloatArrayRange(JNIEnv* env, jobject obj,
+                                                         jlong jvbuf, jstring attribName,
+                                                         jfloatArray data, jint ofs,
+                                                         jint firstVertex, jint vertexCount);
+    JNIEXPORT bool JNICALL
     Java_org_gearvrf_NativeVertexBuffer_setFloatVec(JNIEnv* env, jobject obj,
                                                     jlong jvbuf, jstring attribName,
                                                     jobject jfloatbuf, jint stride, jint ofs);
@@ -202,6 +207,27 @@ Java_org_gearvrf_NativeVertexBuffer_setFloatArray(JNIEnv * env, jobject obj,
     return rc;
 }
 
+JNIEXPORT bool JNICALL
+Java_org_gearvrf_NativeVertexBuffer_setFloatArrayRange(JNIEnv * env, jobject obj,
+                                                     jlong jvbuf, jstring attribName,
+                                                     jfloatArray jdata, jint ofs,
+                                                     jint firstVertex, jint vertexCount)
+{
+    VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
+    const char* char_key = env->GetStringUTFChars(attribName, 0);
+    int attrSize = vbuf->getByteSize(char_key) / sizeof(float);
+    bool rc = false;
+
+    if ((ofs >= 0) && (ofs + vertexCount * attrSize <= env->GetArrayLength(jdata)))
+    {
+        jfloat* attribData = env->GetFloatArrayElements(jdata, 0);
+        rc = vbuf->setFloatVecRange(char_key, attribData + ofs, firstVertex, vertexCount, 0);
+        env->ReleaseFloatArrayElements(jdata, attribData, JNI_ABORT);
+    }
+    env->ReleaseStringUTFChars(attribName, char_key);
+    return rc;
+}
+
 JNIEXPORT bool JNICALL
 Java_org_gearvrf_NativeVertexBuffer_setFloatVec(JNIEnv* env, jobject obj,
                                                 jlong jvbuf, jstring attribName,
@@ -17,6 +17,7 @@
 #include "engine/renderer/renderer.h"
 #include "objects/textures/render_texture.h"
 #include "objects/components/render_target.h"
+#include "objects/scene.h"
 //#include "objects/components/camera.h"
 
 namespace gvr {
@@ -34,6 +35,8 @@ extern "C" {
 
         ShaderManager *shader_manager = reinterpret_cast<ShaderManager *>(jshader_manager);
         gRenderer = Renderer::getInstance();
+        // called once every frame before anything is culled
+        scene->updateBillboards();
         javaSceneObject = jni->NewLocalRef(javaSceneObject);
         gRenderer->makeShadowMaps(scene, javaSceneObject, shader_manager);
         jni->DeleteLocalRef(javaSceneObject);